@@ -27,24 +27,60 @@
  * Some basic constraints are applied to the dice values. The quantity should be
  * equal or higher than zero, and the number of sides equal or higher than one.
  * If any other value is received then an exception will be thrown.
+ * <p>
+ * The values are stored as primitives, so they can be read without boxing.
+ * <p>
+ * Common dice can be acquired through {@link #valueOf(int, int)}, which
+ * returns shared instances instead of creating new ones. These cover
+ * quantities from -10 to 20, and sides from -10 to 100, as constants are
+ * represented as a single die with the value as sides.
  * 
  * @author Bernardo Mart&iacute;nez Garrido
  */
 public final class DefaultDice implements Dice {
 
+    /**
+     * Highest quantity with shared instances.
+     */
+    private static final int           QUANTITY_HIGH = 20;
+
+    /**
+     * Lowest quantity with shared instances.
+     */
+    private static final int           QUANTITY_LOW  = -10;
+
+    /**
+     * Highest number of sides with shared instances.
+     */
+    private static final int           SIDES_HIGH    = 100;
+
+    /**
+     * Lowest number of sides with shared instances.
+     */
+    private static final int           SIDES_LOW     = -10;
+
+    /**
+     * Shared instances, created when first requested.
+     * <p>
+     * As the dice are immutable, at worst concurrent requests create equal
+     * instances, and one of them is kept.
+     */
+    private static final DefaultDice[] VALUES        = new DefaultDice[(QUANTITY_HIGH
+            - QUANTITY_LOW + 1) * (SIDES_HIGH - SIDES_LOW + 1)];
+
     /**
      * Number of dice.
      * <p>
      * This is greater or equal to zero.
      */
-    private final Integer diceQuantity;
+    private final int                  diceQuantity;
 
     /**
      * Number of sides in each die.
      * <p>
      * This is greater than zero.
      */
-    private final Integer diceSides;
+    private final int                  diceSides;
 
     /**
      * Constructs a dice group with the specified quantity and number sides.
@@ -65,6 +101,73 @@ public DefaultDice(final Integer quantity, final Integer sides) {
         diceSides = checkNotNull(sides, "Received a null pointer as sides");
     }
 
+    /**
+     * Returns the number of common dice with shared instances.
+     * 
+     * @return the number of shared dice
+     */
+    public static final int getSharedCount() {
+        return VALUES.length;
+    }
+
+    /**
+     * Returns the position of the dice among the shared instances, or -1 if
+     * they are not shared.
+     * <p>
+     * This allows caching values for the common dice, such as their operands.
+     * 
+     * @param quantity
+     *            the number of dice
+     * @param sides
+     *            the number sides each die has
+     * @return the position of the dice among the shared ones, or -1
+     */
+    public static final int getSharedIndex(final int quantity,
+            final int sides) {
+        final int index;
+
+        if ((quantity >= QUANTITY_LOW) && (quantity <= QUANTITY_HIGH)
+                && (sides >= SIDES_LOW) && (sides <= SIDES_HIGH)) {
+            index = ((quantity - QUANTITY_LOW) * (SIDES_HIGH - SIDES_LOW + 1))
+                    + (sides - SIDES_LOW);
+        } else {
+            index = -1;
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns a dice group with the specified quantity and number of sides.
+     * <p>
+     * Common dice are shared, and any other one is created on each call. As
+     * with the constructor, no constraint is applied to the values.
+     * 
+     * @param quantity
+     *            the number of dice
+     * @param sides
+     *            the number sides each die has
+     * @return a dice group with the received values
+     */
+    public static final DefaultDice valueOf(final int quantity,
+            final int sides) {
+        final int index;
+        DefaultDice dice;
+
+        index = getSharedIndex(quantity, sides);
+        if (index >= 0) {
+            dice = VALUES[index];
+            if (dice == null) {
+                dice = new DefaultDice(quantity, sides);
+                VALUES[index] = dice;
+            }
+        } else {
+            dice = new DefaultDice(quantity, sides);
+        }
+
+        return dice;
+    }
+
     @Override
     public final boolean equals(final Object obj) {
         if (this == obj) {
@@ -83,8 +186,8 @@ public final boolean equals(final Object obj) {
 
         other = (DefaultDice) obj;
 
-        return Objects.equal(diceQuantity, other.diceQuantity)
-                && Objects.equal(diceSides, other.diceSides);
+        return (diceQuantity == other.diceQuantity)
+                && (diceSides == other.diceSides);
     }
 
     /**
@@ -99,6 +202,11 @@ public final Integer getQuantity() {
         return diceQuantity;
     }
 
+    @Override
+    public final int getQuantityAsInt() {
+        return diceQuantity;
+    }
+
     /**
      * Returns the number of sides of the dice in the group.
      * <p>
@@ -113,6 +221,11 @@ public final Integer getSides() {
         return diceSides;
     }
 
+    @Override
+    public final int getSidesAsInt() {
+        return diceSides;
+    }
+
     @Override
     public final int hashCode() {
         return Objects.hashCode(diceQuantity, diceSides);
@@ -43,6 +43,19 @@ public interface Dice {
      */
     public Integer getQuantity();
 
+    /**
+     * Returns the number of dice which compose this group, as a primitive.
+     * <p>
+     * By default this unboxes {@link #getQuantity()}. Implementations storing
+     * the value as a primitive should return it directly, so evaluating the
+     * dice does not box it.
+     * 
+     * @return the number of dice being rolled
+     */
+    public default int getQuantityAsInt() {
+        return getQuantity();
+    }
+
     /**
      * Returns the number of sides of the dice in the group.
      * <p>
@@ -54,4 +67,15 @@ public interface Dice {
      */
     public Integer getSides();
 
+    /**
+     * Returns the number of sides of the dice in the group, as a primitive.
+     * <p>
+     * By default this unboxes {@link #getSides()}.
+     * 
+     * @return the dice's number of sides
+     */
+    public default int getSidesAsInt() {
+        return getSides();
+    }
+
 }
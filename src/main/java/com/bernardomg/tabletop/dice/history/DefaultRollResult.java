@@ -18,7 +18,7 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.Arrays;
+import java.util.Collections;
 
 import com.bernardomg.tabletop.dice.DefaultDice;
 import com.bernardomg.tabletop.dice.Dice;
@@ -75,11 +75,11 @@ public DefaultRollResult(final Dice d, final Iterable<Integer> rolls,
     public DefaultRollResult(final Integer total) {
         super();
 
-        dice = new DefaultDice(1, total);
         totalRoll = checkNotNull(total,
                 "Received a null pointer as total roll");
+        dice = DefaultDice.valueOf(1, total);
 
-        allRolls = Arrays.asList(total);
+        allRolls = Collections.singletonList(total);
     }
 
     @Override
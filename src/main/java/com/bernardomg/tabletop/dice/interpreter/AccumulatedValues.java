@@ -0,0 +1,42 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.interpreter;
+
+import com.bernardomg.tabletop.dice.visitor.NotationAccumulator;
+
+/**
+ * Values generated by several accumulators from the same expression.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public interface AccumulatedValues {
+
+    /**
+     * Returns the value generated by the received accumulator.
+     *
+     * @param <V>
+     *            type of the value
+     * @param accumulator
+     *            accumulator which generated the value
+     * @return the value generated by the accumulator
+     * @throws IllegalArgumentException
+     *             if the accumulator did not take part in the traversal
+     */
+    public <V> V getValue(final NotationAccumulator<V> accumulator);
+
+}
@@ -0,0 +1,340 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.interpreter;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
+import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
+import com.bernardomg.tabletop.dice.visitor.NotationAccumulator;
+
+/**
+ * Interpreter which feeds several accumulators in a single traversal.
+ * <p>
+ * Applying several interpreters to an expression walks the tree once for each
+ * of them. This one walks it once, visiting each node for all the
+ * accumulators, and returns all their values together. Combined with a parser
+ * it takes a single parse and a single walk:
+ * <p>
+ * {@code parser.parse("1d6-2d4", new CombinedInterpreter(rolls, stats))}
+ * <p>
+ * Each accumulator receives the nodes in its own {@link TraversalOrder}, so
+ * the values are the same as with a {@link ConfigurableInterpreter} using the
+ * matching traverser. For example, the {@code DiceRoller} accumulator expects
+ * postorder, while the {@code DiceGatherer} one expects inorder.
+ * <p>
+ * The accumulators are reset at the beginning of each transformation. As with
+ * the {@code ConfigurableInterpreter}, this is not thread safe, and the values
+ * may be backed by the accumulators, so they should be read before the next
+ * transformation.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class CombinedInterpreter
+        implements DiceInterpreter<AccumulatedValues> {
+
+    /**
+     * Traversal state for nodes not yet visited.
+     */
+    private static final Integer               ENTER      = 0;
+
+    /**
+     * Traversal state for operations with the left branch visited.
+     */
+    private static final Integer               LEFT_DONE  = 1;
+
+    /**
+     * Logger.
+     */
+    private static final Logger                LOGGER     = LoggerFactory
+            .getLogger(CombinedInterpreter.class);
+
+    /**
+     * Traversal state for operations with both branches visited.
+     */
+    private static final Integer               RIGHT_DONE = 2;
+
+    /**
+     * All the accumulators, in the order they were received.
+     */
+    private final List<NotationAccumulator<?>> accumulators;
+
+    /**
+     * Accumulators visiting the nodes inorder.
+     */
+    private final List<NotationAccumulator<?>> inorder;
+
+    /**
+     * Accumulators visiting the nodes in postorder.
+     */
+    private final List<NotationAccumulator<?>> postorder;
+
+    /**
+     * Accumulators visiting the nodes in preorder.
+     */
+    private final List<NotationAccumulator<?>> preorder;
+
+    /**
+     * Constructs an interpreter for the received accumulators, which will
+     * visit the nodes in postorder.
+     *
+     * @param accums
+     *            accumulators to feed
+     */
+    public CombinedInterpreter(final NotationAccumulator<?>... accums) {
+        this(Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList());
+
+        checkNotNull(accums, "Received a null pointer as accumulators");
+
+        for (final NotationAccumulator<?> accum : accums) {
+            register(accum, postorder);
+        }
+    }
+
+    /**
+     * Constructs an interpreter copying the received accumulators.
+     *
+     * @param all
+     *            all the accumulators
+     * @param pre
+     *            preorder accumulators
+     * @param in
+     *            inorder accumulators
+     * @param post
+     *            postorder accumulators
+     */
+    private CombinedInterpreter(final Collection<NotationAccumulator<?>> all,
+            final Collection<NotationAccumulator<?>> pre,
+            final Collection<NotationAccumulator<?>> in,
+            final Collection<NotationAccumulator<?>> post) {
+        super();
+
+        accumulators = new ArrayList<>(all);
+        preorder = new ArrayList<>(pre);
+        inorder = new ArrayList<>(in);
+        postorder = new ArrayList<>(post);
+    }
+
+    @Override
+    public final AccumulatedValues
+            transform(final DiceNotationExpression expression) {
+        final Map<NotationAccumulator<?>, Object> values;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+
+        LOGGER.debug("Root expression {}", expression);
+
+        for (final NotationAccumulator<?> accumulator : accumulators) {
+            accumulator.reset();
+        }
+
+        traverse(expression);
+
+        values = new IdentityHashMap<>();
+        for (final NotationAccumulator<?> accumulator : accumulators) {
+            values.put(accumulator, accumulator.getValue());
+        }
+
+        return new DefaultAccumulatedValues(values);
+    }
+
+    /**
+     * Returns a copy of this interpreter which also feeds the received
+     * accumulator, visiting the nodes in the received order.
+     *
+     * @param accumulator
+     *            accumulator to add
+     * @param order
+     *            order in which the accumulator visits the nodes
+     * @return an interpreter feeding the accumulator
+     */
+    public final CombinedInterpreter withAccumulator(
+            final NotationAccumulator<?> accumulator,
+            final TraversalOrder order) {
+        final CombinedInterpreter copy;
+
+        checkNotNull(order, "Received a null pointer as order");
+
+        copy = new CombinedInterpreter(accumulators, preorder, inorder,
+                postorder);
+        if (order == TraversalOrder.PREORDER) {
+            copy.register(accumulator, copy.preorder);
+        } else if (order == TraversalOrder.INORDER) {
+            copy.register(accumulator, copy.inorder);
+        } else {
+            copy.register(accumulator, copy.postorder);
+        }
+
+        return copy;
+    }
+
+    /**
+     * Adds the accumulator to the received group.
+     *
+     * @param accumulator
+     *            accumulator to add
+     * @param group
+     *            accumulators visiting the nodes in the same order
+     */
+    private final void register(final NotationAccumulator<?> accumulator,
+            final List<NotationAccumulator<?>> group) {
+        checkNotNull(accumulator, "Received a null pointer as accumulator");
+        checkArgument(
+                accumulators.stream().noneMatch(a -> a == accumulator),
+                "The accumulator %s was already received", accumulator);
+
+        accumulators.add(accumulator);
+        group.add(accumulator);
+    }
+
+    /**
+     * Walks the tree once, visiting each node for the accumulators of each
+     * order.
+     * <p>
+     * Operations are kept in the stack until all their branches are visited,
+     * together with how many of them were visited. Leaves are visited once for
+     * all the orders.
+     *
+     * @param root
+     *            root of the tree
+     */
+    private final void traverse(final DiceNotationExpression root) {
+        final Deque<DiceNotationExpression> nodes;
+        final Deque<Integer> states;
+        DiceNotationExpression current;
+        NaryOperation operation;
+        Integer state;
+
+        nodes = new ArrayDeque<>();
+        states = new ArrayDeque<>();
+        nodes.push(root);
+        states.push(ENTER);
+
+        while (!nodes.isEmpty()) {
+            current = nodes.peek();
+            state = states.pop();
+            if (current instanceof BinaryOperation) {
+                if (ENTER.equals(state)) {
+                    visit(preorder, current);
+                    states.push(LEFT_DONE);
+                    nodes.push(((BinaryOperation) current).getLeft());
+                    states.push(ENTER);
+                } else if (LEFT_DONE.equals(state)) {
+                    visit(inorder, current);
+                    states.push(RIGHT_DONE);
+                    nodes.push(((BinaryOperation) current).getRight());
+                    states.push(ENTER);
+                } else {
+                    visit(postorder, current);
+                    nodes.pop();
+                }
+            } else if (current instanceof NaryOperation) {
+                // The state is the number of operands visited
+                operation = (NaryOperation) current;
+                if (ENTER.equals(state)) {
+                    visitNary(preorder, operation, state);
+                } else if (state < operation.getOperandCount()) {
+                    visitNary(inorder, operation, state);
+                }
+                if (state < operation.getOperandCount()) {
+                    states.push(state + 1);
+                    nodes.push(operation.getOperand(state));
+                    states.push(ENTER);
+                } else {
+                    visitNary(postorder, operation, state);
+                    nodes.pop();
+                }
+            } else {
+                // Leaf node
+                visit(preorder, current);
+                visit(inorder, current);
+                visit(postorder, current);
+                nodes.pop();
+            }
+        }
+    }
+
+    /**
+     * Visits the node for all the accumulators in the group.
+     *
+     * @param group
+     *            accumulators visiting the node
+     * @param node
+     *            node to visit
+     */
+    private final void visit(final List<NotationAccumulator<?>> group,
+            final DiceNotationExpression node) {
+        if (!group.isEmpty()) {
+            LOGGER.debug("Current expression: {}", node);
+            if (node instanceof BinaryOperation) {
+                for (final NotationAccumulator<?> accumulator : group) {
+                    accumulator.binaryOperation((BinaryOperation) node);
+                }
+            } else if (node instanceof ConstantOperand) {
+                for (final NotationAccumulator<?> accumulator : group) {
+                    accumulator.constantOperand((ConstantOperand) node);
+                }
+            } else if (node instanceof DiceOperand) {
+                for (final NotationAccumulator<?> accumulator : group) {
+                    accumulator.diceOperand((DiceOperand) node);
+                }
+            } else {
+                LOGGER.warn("Unsupported expression of type {}",
+                        node.getClass());
+            }
+        }
+    }
+
+    /**
+     * Visits the n-ary operation for all the accumulators in the group.
+     *
+     * @param group
+     *            accumulators visiting the operation
+     * @param operation
+     *            operation to visit
+     * @param index
+     *            number of operands visited before the operation
+     */
+    private final void visitNary(final List<NotationAccumulator<?>> group,
+            final NaryOperation operation, final int index) {
+        if (!group.isEmpty()) {
+            LOGGER.debug("Current expression: {}", operation);
+            for (final NotationAccumulator<?> accumulator : group) {
+                accumulator.naryOperation(operation, index);
+            }
+        }
+    }
+
+}
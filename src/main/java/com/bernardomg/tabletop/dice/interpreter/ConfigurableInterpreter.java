@@ -113,6 +113,10 @@ private final V process(final Iterable<DiceNotationExpression> nodes) {
             LOGGER.debug("Current expression: {}", current);
             if (current instanceof BinaryOperation) {
                 accumulator.binaryOperation((BinaryOperation) current);
+            } else if (current instanceof NaryOperationStep) {
+                accumulator.naryOperation(
+                        ((NaryOperationStep) current).getOperation(),
+                        ((NaryOperationStep) current).getIndex());
             } else if (current instanceof ConstantOperand) {
                 accumulator.constantOperand((ConstantOperand) current);
             } else if (current instanceof DiceOperand) {
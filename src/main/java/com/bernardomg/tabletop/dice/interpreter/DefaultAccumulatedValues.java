@@ -0,0 +1,76 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.interpreter;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.bernardomg.tabletop.dice.visitor.NotationAccumulator;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Immutable accumulated values.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class DefaultAccumulatedValues implements AccumulatedValues {
+
+    /**
+     * Values mapped by the accumulator which generated them.
+     */
+    private final Map<NotationAccumulator<?>, Object> values;
+
+    /**
+     * Constructs accumulated values from the received ones.
+     * <p>
+     * Accumulators are compared by identity, so the same accumulator class can
+     * be used more than once.
+     *
+     * @param accumulated
+     *            values mapped by the accumulator which generated them
+     */
+    public DefaultAccumulatedValues(
+            final Map<NotationAccumulator<?>, Object> accumulated) {
+        super();
+
+        checkNotNull(accumulated, "Received a null pointer as values");
+
+        values = new IdentityHashMap<>(accumulated);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final <V> V getValue(final NotationAccumulator<V> accumulator) {
+        checkNotNull(accumulator, "Received a null pointer as accumulator");
+        checkArgument(values.containsKey(accumulator),
+                "The accumulator %s did not take part in the traversal",
+                accumulator);
+
+        return (V) values.get(accumulator);
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("values", values.values())
+                .toString();
+    }
+
+}
@@ -0,0 +1,731 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.interpreter;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+import com.bernardomg.tabletop.dice.Dice;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.MultiplicationOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
+
+/**
+ * Interpreter which returns the canonical form of an expression.
+ * <p>
+ * Equivalent expressions, such as "1d6+2", "2+1d6" and "1d6+1+1", have the
+ * same canonical form, which can be used as a key for caches. The canonical
+ * form has the same distribution as the original expression, but not the same
+ * text, and the dice may be rolled in a different order.
+ * <p>
+ * Chains of additions and subtractions, and sums, are flattened into terms,
+ * and chains of multiplications, and products, into factors. The canonical
+ * form is always built with binary operations. Then:
+ * <ul>
+ * <li>The sign of subtracted dice and constants is moved into them</li>
+ * <li>Constants are merged into a single one</li>
+ * <li>Terms and factors are sorted: dice by sides and quantity, then any other
+ * term, then the constant. Terms added go before terms subtracted</li>
+ * <li>Factors of one, and constant terms of zero, are removed</li>
+ * </ul>
+ * <p>
+ * A product reduced to a single sum, or a sum reduced to a single product, is
+ * flattened again into the chain containing it, so the canonical form of a
+ * canonical form is the same expression.
+ * <p>
+ * Divisions are not commutative, nor associative, so only their operands are
+ * canonicalized. Operations not included in the library are kept as they
+ * are.
+ * <p>
+ * Integer arithmetic wraps around on overflow in the same way in any order,
+ * so reordering additions and multiplications never changes the results.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class DiceCanonicalizer
+        implements DiceInterpreter<DiceNotationExpression> {
+
+    /**
+     * Kind for constants, sorted last.
+     */
+    private static final int KIND_CONSTANT = 2;
+
+    /**
+     * Kind for dice, sorted first.
+     */
+    private static final int KIND_DICE     = 0;
+
+    /**
+     * Kind for any other node.
+     */
+    private static final int KIND_OTHER    = 1;
+
+    /**
+     * Order for terms and factors.
+     */
+    private static final Comparator<Term> ORDER = Comparator
+            .comparing((final Term t) -> t.negative)
+            .thenComparingInt(t -> t.kind).thenComparingInt(t -> t.sides)
+            .thenComparingInt(t -> t.quantity).thenComparing(t -> t.text);
+
+    /**
+     * Default constructor.
+     */
+    public DiceCanonicalizer() {
+        super();
+    }
+
+    /**
+     * Returns the canonical text of an expression.
+     * <p>
+     * This is the text of the canonical form, with parenthesis wherever they
+     * are needed to keep the structure of the tree. So two expressions have
+     * the same canonical text only if they have the same canonical form.
+     * 
+     * @param expression
+     *            expression to canonicalize
+     * @return the canonical text of the expression
+     */
+    public final String
+            getCanonicalText(final DiceNotationExpression expression) {
+        return render(transform(expression));
+    }
+
+    @Override
+    public final DiceNotationExpression
+            transform(final DiceNotationExpression expression) {
+        final Deque<DiceNotationExpression> nodes;
+        final Deque<Boolean> visited;
+        final Deque<Object> parts;
+        DiceNotationExpression current;
+        NaryOperation nary;
+        Object[] operands;
+        Object left;
+        Object right;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+
+        nodes = new ArrayDeque<>();
+        visited = new ArrayDeque<>();
+        parts = new ArrayDeque<>();
+        nodes.push(expression);
+        visited.push(false);
+
+        // Postorder walk, each node is built from its canonical branches
+        while (!nodes.isEmpty()) {
+            current = nodes.pop();
+            if (isLibraryOperation(current) && !visited.pop()) {
+                nodes.push(current);
+                visited.push(true);
+                nodes.push(((BinaryOperation) current).getRight());
+                visited.push(false);
+                nodes.push(((BinaryOperation) current).getLeft());
+                visited.push(false);
+            } else if (isLibraryOperation(current)) {
+                right = parts.pop();
+                left = parts.pop();
+                parts.push(combine(current, left, right));
+            } else if (isLibraryNaryOperation(current) && !visited.pop()) {
+                nary = (NaryOperation) current;
+                nodes.push(current);
+                visited.push(true);
+                for (int i = nary.getOperandCount() - 1; i >= 0; i--) {
+                    nodes.push(nary.getOperand(i));
+                    visited.push(false);
+                }
+            } else if (isLibraryNaryOperation(current)) {
+                nary = (NaryOperation) current;
+                operands = new Object[nary.getOperandCount()];
+                for (int i = operands.length - 1; i >= 0; i--) {
+                    operands[i] = parts.pop();
+                }
+                parts.push(combine(nary, operands));
+            } else {
+                // Operand, or operation which can't be rebuilt
+                visited.pop();
+                parts.push(current);
+            }
+        }
+
+        return toExpression(parts.pop());
+    }
+
+    /**
+     * Builds the canonical expression for a product.
+     * 
+     * @param product
+     *            product to build
+     * @return the canonical expression
+     */
+    private static final DiceNotationExpression
+            buildProduct(final Product product) {
+        final List<Term> factors;
+        DiceNotationExpression result;
+        Dice dice;
+        int constant;
+
+        factors = new ArrayList<>();
+        constant = 1;
+        for (final DiceNotationExpression factor : product.factors) {
+            if (factor instanceof ConstantOperand) {
+                constant *= ((ConstantOperand) factor).getValueAsInt();
+            } else if ((factor instanceof DiceOperand) && isNegative(
+                    ((DiceOperand) factor).getDice().getQuantityAsInt())) {
+                // The sign is moved to the constant
+                dice = ((DiceOperand) factor).getDice();
+                factors.add(new Term(DefaultDiceOperand.valueOf(
+                        -dice.getQuantityAsInt(), dice.getSidesAsInt()),
+                        false));
+                constant = -constant;
+            } else {
+                factors.add(new Term(factor, false));
+            }
+        }
+        if ((constant != 1) || factors.isEmpty()) {
+            factors.add(new Term(IntegerOperand.valueOf(constant), false));
+        }
+        factors.sort(ORDER);
+
+        result = factors.get(0).expression;
+        for (int i = 1; i < factors.size(); i++) {
+            result = new MultiplicationOperation(result,
+                    factors.get(i).expression);
+        }
+
+        return result;
+    }
+
+    /**
+     * Builds the canonical expression for a sum.
+     * 
+     * @param sum
+     *            sum to build
+     * @return the canonical expression
+     */
+    private static final DiceNotationExpression buildSum(final Sum sum) {
+        final List<Term> terms;
+        DiceNotationExpression result;
+        Term first;
+        Term term;
+        Dice dice;
+        int quantity;
+        int constant;
+
+        terms = new ArrayList<>();
+        constant = 0;
+        for (final Term original : sum.terms) {
+            if (original.expression instanceof ConstantOperand) {
+                if (original.negative) {
+                    constant -= ((ConstantOperand) original.expression)
+                            .getValueAsInt();
+                } else {
+                    constant += ((ConstantOperand) original.expression)
+                            .getValueAsInt();
+                }
+            } else if (original.expression instanceof DiceOperand) {
+                // The sign is moved into the dice quantity, and then out of
+                // it to mark the term as subtracted
+                dice = ((DiceOperand) original.expression).getDice();
+                if (original.negative) {
+                    quantity = -dice.getQuantityAsInt();
+                } else {
+                    quantity = dice.getQuantityAsInt();
+                }
+                if (isNegative(quantity)) {
+                    terms.add(new Term(DefaultDiceOperand.valueOf(-quantity,
+                            dice.getSidesAsInt()), true));
+                } else {
+                    terms.add(new Term(DefaultDiceOperand.valueOf(quantity,
+                            dice.getSidesAsInt()), false));
+                }
+            } else {
+                terms.add(original);
+            }
+        }
+        if (isNegative(constant)) {
+            terms.add(new Term(IntegerOperand.valueOf(-constant), true));
+        } else if ((constant != 0) || terms.isEmpty()) {
+            terms.add(new Term(IntegerOperand.valueOf(constant), false));
+        }
+        terms.sort(ORDER);
+
+        first = terms.get(0);
+        if (!first.negative) {
+            result = first.expression;
+        } else if (first.kind == KIND_DICE) {
+            result = DefaultDiceOperand.valueOf(-first.quantity, first.sides);
+        } else if (first.kind == KIND_CONSTANT) {
+            result = IntegerOperand.valueOf(
+                    -((ConstantOperand) first.expression).getValueAsInt());
+        } else {
+            result = new SubtractionOperation(IntegerOperand.valueOf(0),
+                    first.expression);
+        }
+        for (int i = 1; i < terms.size(); i++) {
+            term = terms.get(i);
+            if (term.negative) {
+                result = new SubtractionOperation(result, term.expression);
+            } else {
+                result = new AdditionOperation(result, term.expression);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Combines the canonical branches of an operation.
+     * 
+     * @param operation
+     *            operation to combine
+     * @param left
+     *            canonical left branch
+     * @param right
+     *            canonical right branch
+     * @return the combined branches
+     */
+    private static final Object combine(
+            final DiceNotationExpression operation, final Object left,
+            final Object right) {
+        final Object combined;
+        final Sum sum;
+        final Sum rightSum;
+        final Product product;
+        final Product rightProduct;
+
+        // The smaller chain is added to the bigger one, as the order is
+        // fixed when building the canonical expression
+        if (operation instanceof AdditionOperation) {
+            sum = toSum(left);
+            rightSum = toSum(right);
+            if (sum.terms.size() >= rightSum.terms.size()) {
+                sum.terms.addAll(rightSum.terms);
+                combined = sum;
+            } else {
+                rightSum.terms.addAll(sum.terms);
+                combined = rightSum;
+            }
+        } else if (operation instanceof SubtractionOperation) {
+            sum = toSum(left);
+            for (final Term term : toSum(right).terms) {
+                sum.terms.add(new Term(term, !term.negative));
+            }
+            combined = sum;
+        } else if (operation instanceof MultiplicationOperation) {
+            product = toProduct(left);
+            rightProduct = toProduct(right);
+            if (product.factors.size() >= rightProduct.factors.size()) {
+                product.factors.addAll(rightProduct.factors);
+                combined = product;
+            } else {
+                rightProduct.factors.addAll(product.factors);
+                combined = rightProduct;
+            }
+        } else {
+            combined = new DivisionOperation(toExpression(left),
+                    toExpression(right));
+        }
+
+        return combined;
+    }
+
+    /**
+     * Combines the canonical operands of an n-ary operation.
+     * 
+     * @param operation
+     *            operation to combine
+     * @param operands
+     *            canonical operands
+     * @return the combined operands
+     */
+    private static final Object combine(final NaryOperation operation,
+            final Object[] operands) {
+        final Object combined;
+        final Sum sum;
+        final Product product;
+
+        if (operation instanceof SumOperation) {
+            sum = new Sum();
+            for (int i = 0; i < operands.length; i++) {
+                for (final Term term : toSum(operands[i]).terms) {
+                    if (((SumOperation) operation).isSubtracted(i)) {
+                        sum.terms.add(new Term(term, !term.negative));
+                    } else {
+                        sum.terms.add(term);
+                    }
+                }
+            }
+            combined = sum;
+        } else {
+            product = new Product();
+            for (final Object operand : operands) {
+                product.factors.addAll(toProduct(operand).factors);
+            }
+            combined = product;
+        }
+
+        return combined;
+    }
+
+    /**
+     * Indicates if the node is one of the n-ary operations included in the
+     * library.
+     * 
+     * @param node
+     *            node to check
+     * @return {@code true} if it is a library n-ary operation, {@code false}
+     *         otherwise
+     */
+    private static final boolean
+            isLibraryNaryOperation(final DiceNotationExpression node) {
+        return (node instanceof SumOperation)
+                || (node instanceof ProductOperation);
+    }
+
+    /**
+     * Indicates if the node is one of the operations included in the library.
+     * 
+     * @param node
+     *            node to check
+     * @return {@code true} if it is a library operation, {@code false}
+     *         otherwise
+     */
+    private static final boolean
+            isLibraryOperation(final DiceNotationExpression node) {
+        return (node instanceof AdditionOperation)
+                || (node instanceof SubtractionOperation)
+                || (node instanceof MultiplicationOperation)
+                || (node instanceof DivisionOperation);
+    }
+
+    /**
+     * Indicates if the value is negative, and can be negated.
+     * <p>
+     * The lowest integer can't be negated, so it is not taken as negative.
+     * 
+     * @param value
+     *            value to check
+     * @return {@code true} if the value is negative, {@code false} otherwise
+     */
+    private static final boolean isNegative(final int value) {
+        return (value < 0) && (value != Integer.MIN_VALUE);
+    }
+
+    /**
+     * Indicates if the node is an addition or subtraction.
+     * 
+     * @param node
+     *            node to check
+     * @return {@code true} if it is an addition or subtraction, {@code false}
+     *         otherwise
+     */
+    private static final boolean isSum(final DiceNotationExpression node) {
+        return (node instanceof AdditionOperation)
+                || (node instanceof SubtractionOperation);
+    }
+
+    /**
+     * Returns the text of an expression, with parenthesis wherever they are
+     * needed to keep the structure of the tree.
+     * 
+     * @param expression
+     *            expression to render
+     * @return the text of the expression
+     */
+    private static final String
+            render(final DiceNotationExpression expression) {
+        final StringBuilder text;
+        final Deque<Object> pending;
+        Object current;
+        BinaryOperation operation;
+        boolean leftParens;
+        boolean rightParens;
+        String symbol;
+
+        text = new StringBuilder();
+        pending = new ArrayDeque<>();
+        pending.push(expression);
+        while (!pending.isEmpty()) {
+            current = pending.pop();
+            if (current instanceof String) {
+                text.append((String) current);
+            } else if (isLibraryOperation((DiceNotationExpression) current)) {
+                operation = (BinaryOperation) current;
+                symbol = String.valueOf(operation.getOperator().getSymbol());
+                if (isSum(operation)) {
+                    leftParens = false;
+                    rightParens = isSum(operation.getRight());
+                } else {
+                    leftParens = isSum(operation.getLeft());
+                    rightParens = isLibraryOperation(operation.getRight());
+                }
+
+                // Pushed in reverse order
+                if (rightParens) {
+                    pending.push(")");
+                }
+                pending.push(operation.getRight());
+                if (rightParens) {
+                    pending.push("(");
+                }
+                pending.push(symbol);
+                if (leftParens) {
+                    pending.push(")");
+                }
+                pending.push(operation.getLeft());
+                if (leftParens) {
+                    pending.push("(");
+                }
+            } else if (current instanceof BinaryOperation) {
+                // Unknown operation
+                text.append('(');
+                text.append(((DiceNotationExpression) current).getExpression());
+                text.append(')');
+            } else {
+                text.append(((DiceNotationExpression) current).getExpression());
+            }
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * Returns the canonical expression for a partial result.
+     * 
+     * @param part
+     *            partial result
+     * @return the canonical expression
+     */
+    private static final DiceNotationExpression toExpression(final Object part) {
+        final DiceNotationExpression expression;
+
+        if (part instanceof Sum) {
+            expression = buildSum((Sum) part);
+        } else if (part instanceof Product) {
+            expression = buildProduct((Product) part);
+        } else {
+            expression = (DiceNotationExpression) part;
+        }
+
+        return expression;
+    }
+
+    /**
+     * Returns a partial result as a product.
+     * 
+     * @param part
+     *            partial result
+     * @return the product
+     */
+    private static final Product toProduct(final Object part) {
+        final Product product;
+        final Deque<DiceNotationExpression> pending;
+        DiceNotationExpression current;
+
+        if (part instanceof Product) {
+            product = (Product) part;
+        } else {
+            // A sum may be reduced to a single product, which is flattened
+            // again to merge its constant
+            product = new Product();
+            pending = new ArrayDeque<>();
+            pending.push(toExpression(part));
+            while (!pending.isEmpty()) {
+                current = pending.pop();
+                if (current instanceof MultiplicationOperation) {
+                    pending.push(((BinaryOperation) current).getRight());
+                    pending.push(((BinaryOperation) current).getLeft());
+                } else {
+                    product.factors.add(current);
+                }
+            }
+        }
+
+        return product;
+    }
+
+    /**
+     * Returns a partial result as a sum.
+     * 
+     * @param part
+     *            partial result
+     * @return the sum
+     */
+    private static final Sum toSum(final Object part) {
+        final Sum sum;
+        final Deque<DiceNotationExpression> pending;
+        final Deque<Boolean> signs;
+        DiceNotationExpression current;
+        boolean negative;
+
+        if (part instanceof Sum) {
+            sum = (Sum) part;
+        } else {
+            // A product may be reduced to a single sum, which is flattened
+            // again to merge its constant
+            sum = new Sum();
+            pending = new ArrayDeque<>();
+            signs = new ArrayDeque<>();
+            pending.push(toExpression(part));
+            signs.push(false);
+            while (!pending.isEmpty()) {
+                current = pending.pop();
+                negative = signs.pop();
+                if (isSum(current)) {
+                    pending.push(((BinaryOperation) current).getRight());
+                    signs.push((current instanceof SubtractionOperation)
+                            ^ negative);
+                    pending.push(((BinaryOperation) current).getLeft());
+                    signs.push(negative);
+                } else {
+                    sum.terms.add(new Term(current, negative));
+                }
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * Flattened chain of multiplications.
+     */
+    private static final class Product {
+
+        /**
+         * Canonical factors.
+         */
+        private final List<DiceNotationExpression> factors = new ArrayList<>();
+
+    }
+
+    /**
+     * Flattened chain of additions and subtractions.
+     */
+    private static final class Sum {
+
+        /**
+         * Terms, with their signs.
+         */
+        private final List<Term> terms = new ArrayList<>();
+
+    }
+
+    /**
+     * Term of a sum, or factor of a product, with the values used to sort it.
+     */
+    private static final class Term {
+
+        /**
+         * Canonical expression.
+         */
+        private final DiceNotationExpression expression;
+
+        /**
+         * Kind of node.
+         */
+        private final int                    kind;
+
+        /**
+         * Flag marking the term is subtracted.
+         */
+        private final boolean                negative;
+
+        /**
+         * Dice quantity, or zero.
+         */
+        private final int                    quantity;
+
+        /**
+         * Dice sides, or zero.
+         */
+        private final int                    sides;
+
+        /**
+         * Canonical text, only for the nodes which are not dice or constants.
+         */
+        private final String                 text;
+
+        /**
+         * Constructs a term for the received expression.
+         * 
+         * @param expr
+         *            canonical expression
+         * @param subtracted
+         *            flag marking the term is subtracted
+         */
+        private Term(final DiceNotationExpression expr,
+                final boolean subtracted) {
+            super();
+
+            expression = expr;
+            negative = subtracted;
+            if (expr instanceof DiceOperand) {
+                kind = KIND_DICE;
+                quantity = ((DiceOperand) expr).getDice().getQuantityAsInt();
+                sides = ((DiceOperand) expr).getDice().getSidesAsInt();
+                text = "";
+            } else if (expr instanceof ConstantOperand) {
+                kind = KIND_CONSTANT;
+                quantity = 0;
+                sides = 0;
+                text = "";
+            } else {
+                kind = KIND_OTHER;
+                quantity = 0;
+                sides = 0;
+                text = render(expr);
+            }
+        }
+
+        /**
+         * Constructs a copy of the received term, with the received sign.
+         * 
+         * @param term
+         *            term to copy
+         * @param subtracted
+         *            flag marking the term is subtracted
+         */
+        private Term(final Term term, final boolean subtracted) {
+            super();
+
+            expression = term.expression;
+            negative = subtracted;
+            kind = term.kind;
+            quantity = term.quantity;
+            sides = term.sides;
+            text = term.text;
+        }
+
+    }
+
+}
@@ -0,0 +1,235 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.interpreter;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.bernardomg.tabletop.dice.Dice;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
+import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.MultiplicationOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Interpreter which returns a 128 bits fingerprint of an expression.
+ * <p>
+ * Unlike the hash code, the fingerprint depends only on the structure of the
+ * tree, and so it is the same on every run, and can be stored. Equal trees
+ * always have the same fingerprint, and different trees are very unlikely to
+ * share it. When 64 bits are enough, {@link HashCode#asLong()} returns the
+ * first half.
+ * <p>
+ * The nodes are fed to a Murmur3 hash, in preorder. Each node is identified by
+ * a tag followed by its values: the quantity and sides for dice, and the value
+ * for constants, and the number of operands and their signs for n-ary
+ * operations. Nodes not included in the library are identified by their
+ * class name and their text expression.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class DiceFingerprinter implements DiceInterpreter<HashCode> {
+
+    /**
+     * Tag for additions.
+     */
+    private static final byte         ADDITION        = 1;
+
+    /**
+     * Tag for constants.
+     */
+    private static final byte         CONSTANT        = 6;
+
+    /**
+     * Tag for dice.
+     */
+    private static final byte         DICE            = 5;
+
+    /**
+     * Tag for divisions.
+     */
+    private static final byte         DIVISION        = 4;
+
+    /**
+     * Hash function for the fingerprints.
+     */
+    private static final HashFunction FUNCTION        = Hashing.murmur3_128();
+
+    /**
+     * Tag for multiplications.
+     */
+    private static final byte         MULTIPLICATION  = 3;
+
+    /**
+     * Tag for operands not included in the library.
+     */
+    private static final byte         OTHER_OPERAND   = 8;
+
+    /**
+     * Tag for operations not included in the library.
+     */
+    private static final byte         OTHER_OPERATION = 7;
+
+    /**
+     * Tag for products.
+     */
+    private static final byte         PRODUCT         = 10;
+
+    /**
+     * Tag for subtractions.
+     */
+    private static final byte         SUBTRACTION     = 2;
+
+    /**
+     * Tag for sums.
+     */
+    private static final byte         SUM             = 9;
+
+    /**
+     * Default constructor.
+     */
+    public DiceFingerprinter() {
+        super();
+    }
+
+    @Override
+    public final HashCode transform(final DiceNotationExpression expression) {
+        final Hasher hasher;
+        final Deque<DiceNotationExpression> nodes;
+        DiceNotationExpression current;
+        BinaryOperation operation;
+        NaryOperation nary;
+        Dice dice;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+
+        hasher = FUNCTION.newHasher();
+        nodes = new ArrayDeque<>();
+        nodes.push(expression);
+        while (!nodes.isEmpty()) {
+            current = nodes.pop();
+            if (current instanceof BinaryOperation) {
+                operation = (BinaryOperation) current;
+                putOperation(hasher, operation);
+                // Right pushed first, so the left branch is fed before it
+                nodes.push(operation.getRight());
+                nodes.push(operation.getLeft());
+            } else if (current instanceof NaryOperation) {
+                nary = (NaryOperation) current;
+                putOperation(hasher, nary);
+                // Pushed in reverse, so the operands are fed in order
+                for (int i = nary.getOperandCount() - 1; i >= 0; i--) {
+                    nodes.push(nary.getOperand(i));
+                }
+            } else if (current instanceof DiceOperand) {
+                dice = ((DiceOperand) current).getDice();
+                hasher.putByte(DICE);
+                hasher.putInt(dice.getQuantityAsInt());
+                hasher.putInt(dice.getSidesAsInt());
+            } else if (current instanceof ConstantOperand) {
+                hasher.putByte(CONSTANT);
+                hasher.putInt(((ConstantOperand) current).getValueAsInt());
+            } else {
+                hasher.putByte(OTHER_OPERAND);
+                putText(hasher, current.getClass().getName());
+                putText(hasher, current.getExpression());
+            }
+        }
+
+        return hasher.hash();
+    }
+
+    /**
+     * Feeds the operation tag to the hasher.
+     * 
+     * @param hasher
+     *            hasher to feed
+     * @param operation
+     *            operation to identify
+     */
+    private final void putOperation(final Hasher hasher,
+            final BinaryOperation operation) {
+        if (operation instanceof AdditionOperation) {
+            hasher.putByte(ADDITION);
+        } else if (operation instanceof SubtractionOperation) {
+            hasher.putByte(SUBTRACTION);
+        } else if (operation instanceof MultiplicationOperation) {
+            hasher.putByte(MULTIPLICATION);
+        } else if (operation instanceof DivisionOperation) {
+            hasher.putByte(DIVISION);
+        } else {
+            hasher.putByte(OTHER_OPERATION);
+            putText(hasher, operation.getClass().getName());
+        }
+    }
+
+    /**
+     * Feeds the operation tag, number of operands and signs to the hasher.
+     * 
+     * @param hasher
+     *            hasher to feed
+     * @param operation
+     *            operation to identify
+     */
+    private final void putOperation(final Hasher hasher,
+            final NaryOperation operation) {
+        if (operation instanceof SumOperation) {
+            hasher.putByte(SUM);
+        } else if (operation instanceof ProductOperation) {
+            hasher.putByte(PRODUCT);
+        } else {
+            hasher.putByte(OTHER_OPERATION);
+            putText(hasher, operation.getClass().getName());
+        }
+        hasher.putInt(operation.getOperandCount());
+        if (operation instanceof SumOperation) {
+            for (int i = 0; i < operation.getOperandCount(); i++) {
+                hasher.putBoolean(((SumOperation) operation).isSubtracted(i));
+            }
+        }
+    }
+
+    /**
+     * Feeds the text to the hasher, preceded by its length so consecutive
+     * texts can't be confused.
+     * 
+     * @param hasher
+     *            hasher to feed
+     * @param text
+     *            text to feed
+     */
+    private final void putText(final Hasher hasher, final String text) {
+        hasher.putInt(text.length());
+        hasher.putString(text, StandardCharsets.UTF_8);
+    }
+
+}
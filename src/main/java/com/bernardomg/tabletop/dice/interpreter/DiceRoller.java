@@ -16,11 +16,14 @@
 
 package com.bernardomg.tabletop.dice.interpreter;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.util.function.Function;
 
 import com.bernardomg.tabletop.dice.Dice;
 import com.bernardomg.tabletop.dice.history.RollHistory;
 import com.bernardomg.tabletop.dice.history.RollResult;
+import com.bernardomg.tabletop.dice.limit.DiceLimits;
 import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
 import com.bernardomg.tabletop.dice.random.DiceToRollResult;
 import com.bernardomg.tabletop.dice.random.NumberGenerator;
@@ -40,12 +43,20 @@
  * functions, one meant to simulate rolling the dice, and the other to transform
  * the results from rolling. This allows applying functions such as removing the
  * lowest result.
+ * <p>
+ * For untrusted expressions it may receive some {@link DiceLimits}, which are
+ * checked before rolling anything. By default there are no limits.
  * 
  * @author Bernardo Mart&iacute;nez Garrido
  *
  */
 public final class DiceRoller implements DiceInterpreter<RollHistory> {
 
+    /**
+     * Limits checked before rolling.
+     */
+    private final DiceLimits                   limits;
+
     /**
      * Wrapped interpreter. Configured for the required operations.
      */
@@ -70,6 +81,7 @@ public DiceRoller(final Function<Dice, RollResult> roller) {
 
         wrapped = new ConfigurableInterpreter<>(new PostorderTraverser(),
                 new DiceRollAccumulator(roller));
+        limits = DiceLimits.unlimited();
     }
 
     /**
@@ -91,6 +103,7 @@ public DiceRoller(final Function<Dice, RollResult> roller,
 
         wrapped = new ConfigurableInterpreter<>(new PostorderTraverser(),
                 new DiceRollAccumulator(finalRoller));
+        limits = DiceLimits.unlimited();
     }
 
     /**
@@ -103,6 +116,24 @@ public DiceRoller(final NumberGenerator generator) {
         this(new DiceToRollResult(generator));
     }
 
+    /**
+     * Constructs a transformer using the received roller for simulating rolls,
+     * which rejects the expressions exceeding the received limits.
+     * 
+     * @param generator
+     *            the random number generator to use
+     * @param diceLimits
+     *            limits to check before rolling
+     */
+    public DiceRoller(final NumberGenerator generator,
+            final DiceLimits diceLimits) {
+        super();
+
+        wrapped = new ConfigurableInterpreter<>(new PostorderTraverser(),
+                new DiceRollAccumulator(new DiceToRollResult(generator)));
+        limits = checkNotNull(diceLimits, "Received a null pointer as limits");
+    }
+
     /**
      * Constructs a transformer using the received roller for simulating rolls
      * and the received transformer on the rolls.
@@ -122,11 +153,14 @@ public DiceRoller(final NumberGenerator generator,
 
         wrapped = new ConfigurableInterpreter<>(new PostorderTraverser(),
                 new DiceRollAccumulator(finalRoller));
+        limits = DiceLimits.unlimited();
     }
 
     @Override
     public final RollHistory
             transform(final DiceNotationExpression expression) {
+        limits.checkExpression(expression);
+
         return wrapped.transform(expression);
     }
 
@@ -0,0 +1,501 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.interpreter;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
+import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.MultiplicationOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
+import com.bernardomg.tabletop.dice.random.NumberGenerator;
+import com.bernardomg.tabletop.dice.random.RandomNumberGenerator;
+
+/**
+ * Interpreter which rolls the expression, and returns only the total, using
+ * 64-bit checked arithmetic.
+ * <p>
+ * It works as the {@link TotalRoller}, asking the number generator for the
+ * same rolls, but the values are kept as longs, the dice are rolled through
+ * {@link NumberGenerator#generateLongTotal(com.bernardomg.tabletop.dice.Dice)
+ * generateLongTotal}, and the operations included in the library are applied
+ * with exact math. So big pools such as 100000d100000 give their actual total,
+ * instead of silently wrapping around.
+ * <p>
+ * {@link #rollTotal(DiceNotationExpression)} throws an
+ * {@code ArithmeticException} if any value goes out of the long range. Instead,
+ * {@link #rollBigTotal(DiceNotationExpression)} promotes such values to
+ * {@code BigInteger}. Only the values which overflow are promoted, the rest of
+ * them are still kept as primitives, so expressions which stay in range
+ * allocate nothing but the result.
+ * <p>
+ * Any other operation is applied over ints, and fails if its operands are out
+ * of the int range.
+ * <p>
+ * The tree is walked iteratively, over stacks which are kept between calls.
+ * Because of this, the roller is not thread safe.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class ExactTotalRoller implements DiceInterpreter<Long> {
+
+    /**
+     * Initial capacity for the stacks.
+     */
+    private static final int         INITIAL_LENGTH = 16;
+
+    /**
+     * Traversal state for operations with the left branch visited.
+     */
+    private static final int         LEFT_DONE      = 1;
+
+    /**
+     * Traversal state for nodes not yet visited.
+     */
+    private static final int         PENDING        = 0;
+
+    /**
+     * Traversal state for operations with both branches visited.
+     */
+    private static final int         RIGHT_DONE     = 2;
+
+    /**
+     * Values promoted out of the long range, in the same positions as their
+     * place in the values stack.
+     * <p>
+     * Created the first time a value is promoted.
+     */
+    private BigInteger[]             bigValues;
+
+    /**
+     * Number generator for the rolls.
+     */
+    private final NumberGenerator    generator;
+
+    /**
+     * Nodes being visited, used as a stack.
+     */
+    private DiceNotationExpression[] nodes          = new DiceNotationExpression[INITIAL_LENGTH];
+
+    /**
+     * Traversal state for each node in the stack.
+     * <p>
+     * For n-ary operations this is the number of operands visited.
+     */
+    private int[]                    states         = new int[INITIAL_LENGTH];
+
+    /**
+     * Values computed so far, used as a stack.
+     */
+    private long[]                   values         = new long[INITIAL_LENGTH];
+
+    /**
+     * Default constructor.
+     * <p>
+     * It makes use of a {@link RandomNumberGenerator}.
+     */
+    public ExactTotalRoller() {
+        this(new RandomNumberGenerator());
+    }
+
+    /**
+     * Constructs a roller with the specified number generator.
+     *
+     * @param numberGenerator
+     *            number generator for the rolls
+     */
+    public ExactTotalRoller(final NumberGenerator numberGenerator) {
+        super();
+
+        generator = checkNotNull(numberGenerator,
+                "Received a null pointer as generator");
+    }
+
+    /**
+     * Rolls the received expression, and returns the total, promoting to
+     * {@code BigInteger} any value out of the long range.
+     *
+     * @param expression
+     *            expression to roll
+     * @return the total roll
+     */
+    public final BigInteger rollBigTotal(
+            final DiceNotationExpression expression) {
+        final BigInteger total;
+
+        roll(expression, true);
+
+        total = getBig(0);
+        if (bigValues != null) {
+            bigValues[0] = null;
+        }
+
+        return total;
+    }
+
+    /**
+     * Rolls the received expression, and returns the total.
+     *
+     * @param expression
+     *            expression to roll
+     * @return the total roll
+     * @throws ArithmeticException
+     *             if any value goes out of the long range
+     */
+    public final long rollTotal(final DiceNotationExpression expression) {
+        roll(expression, false);
+
+        return values[0];
+    }
+
+    @Override
+    public final Long transform(final DiceNotationExpression expression) {
+        return rollTotal(expression);
+    }
+
+    /**
+     * Applies the operation over the values of its operands, which are the
+     * latest ones in the values stack. The result replaces the first operand.
+     *
+     * @param operation
+     *            operation to apply
+     * @param offset
+     *            position of the first operand
+     * @param count
+     *            number of operands
+     * @param promote
+     *            flag marking values out of the long range are promoted
+     */
+    private final void apply(final DiceNotationExpression operation,
+            final int offset, final int count, final boolean promote) {
+        final BigInteger result;
+        boolean big;
+
+        big = false;
+        for (int i = offset; (bigValues != null) && (i < (offset + count));
+                i++) {
+            big = big || (bigValues[i] != null);
+        }
+
+        if (!big) {
+            try {
+                values[offset] = applyExact(operation, offset, count);
+            } catch (final ArithmeticException e) {
+                // Out of range, or a division by zero
+                // Both are thrown again if there is no promotion
+                if ((!promote) || (!isLibraryOperation(operation))) {
+                    throw e;
+                }
+                big = true;
+            }
+        }
+
+        if (big) {
+            result = applyBig(operation, offset, count);
+            if (bigValues == null) {
+                bigValues = new BigInteger[values.length];
+            }
+            Arrays.fill(bigValues, offset, offset + count, null);
+            if (result.bitLength() < Long.SIZE) {
+                // Back in range
+                values[offset] = result.longValue();
+            } else {
+                bigValues[offset] = result;
+            }
+        }
+    }
+
+    /**
+     * Applies the operation over {@code BigInteger} values.
+     *
+     * @param operation
+     *            operation to apply
+     * @param offset
+     *            position of the first operand
+     * @param count
+     *            number of operands
+     * @return the result of the operation
+     */
+    private final BigInteger applyBig(final DiceNotationExpression operation,
+            final int offset, final int count) {
+        final SumOperation sum;
+        BigInteger result;
+
+        if (operation instanceof AdditionOperation) {
+            result = getBig(offset).add(getBig(offset + 1));
+        } else if (operation instanceof SubtractionOperation) {
+            result = getBig(offset).subtract(getBig(offset + 1));
+        } else if (operation instanceof MultiplicationOperation) {
+            result = getBig(offset).multiply(getBig(offset + 1));
+        } else if (operation instanceof DivisionOperation) {
+            result = getBig(offset).divide(getBig(offset + 1));
+        } else if (operation instanceof SumOperation) {
+            sum = (SumOperation) operation;
+            result = getBig(offset);
+            for (int i = 1; i < count; i++) {
+                if (sum.isSubtracted(i)) {
+                    result = result.subtract(getBig(offset + i));
+                } else {
+                    result = result.add(getBig(offset + i));
+                }
+            }
+        } else if (operation instanceof ProductOperation) {
+            result = getBig(offset);
+            for (int i = 1; i < count; i++) {
+                result = result.multiply(getBig(offset + i));
+            }
+        } else {
+            throw new ArithmeticException(String.format(
+                    "Can't apply %s over values out of the int range",
+                    operation));
+        }
+
+        return result;
+    }
+
+    /**
+     * Applies the operation over long values, with exact math.
+     *
+     * @param operation
+     *            operation to apply
+     * @param offset
+     *            position of the first operand
+     * @param count
+     *            number of operands
+     * @return the result of the operation
+     * @throws ArithmeticException
+     *             if the result is out of the long range
+     */
+    private final long applyExact(final DiceNotationExpression operation,
+            final int offset, final int count) {
+        final SumOperation sum;
+        final int[] operands;
+        long result;
+
+        if (operation instanceof AdditionOperation) {
+            result = Math.addExact(values[offset], values[offset + 1]);
+        } else if (operation instanceof SubtractionOperation) {
+            result = Math.subtractExact(values[offset], values[offset + 1]);
+        } else if (operation instanceof MultiplicationOperation) {
+            result = Math.multiplyExact(values[offset], values[offset + 1]);
+        } else if (operation instanceof DivisionOperation) {
+            if ((values[offset] == Long.MIN_VALUE)
+                    && (values[offset + 1] == -1)) {
+                // The only division which overflows
+                throw new ArithmeticException("long overflow");
+            }
+            result = values[offset] / values[offset + 1];
+        } else if (operation instanceof SumOperation) {
+            sum = (SumOperation) operation;
+            result = values[offset];
+            for (int i = 1; i < count; i++) {
+                if (sum.isSubtracted(i)) {
+                    result = Math.subtractExact(result, values[offset + i]);
+                } else {
+                    result = Math.addExact(result, values[offset + i]);
+                }
+            }
+        } else if (operation instanceof ProductOperation) {
+            result = values[offset];
+            for (int i = 1; i < count; i++) {
+                result = Math.multiplyExact(result, values[offset + i]);
+            }
+        } else if (operation instanceof BinaryOperation) {
+            result = ((BinaryOperation) operation).getIntOperation()
+                    .applyAsInt(Math.toIntExact(values[offset]),
+                            Math.toIntExact(values[offset + 1]));
+        } else {
+            operands = new int[count];
+            for (int i = 0; i < count; i++) {
+                operands[i] = Math.toIntExact(values[offset + i]);
+            }
+            result = ((NaryOperation) operation).applyAsInt(operands, 0);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the value at the received position as a {@code BigInteger}.
+     *
+     * @param index
+     *            position of the value
+     * @return the value at the position
+     */
+    private final BigInteger getBig(final int index) {
+        final BigInteger value;
+
+        if ((bigValues != null) && (bigValues[index] != null)) {
+            value = bigValues[index];
+        } else {
+            value = BigInteger.valueOf(values[index]);
+        }
+
+        return value;
+    }
+
+    /**
+     * Indicates if the operation is one of those included in the library,
+     * which can be applied over promoted values.
+     *
+     * @param operation
+     *            operation to check
+     * @return {@code true} if the operation can be promoted, {@code false}
+     *         otherwise
+     */
+    private final boolean
+            isLibraryOperation(final DiceNotationExpression operation) {
+        return (operation instanceof AdditionOperation)
+                || (operation instanceof SubtractionOperation)
+                || (operation instanceof MultiplicationOperation)
+                || (operation instanceof DivisionOperation)
+                || (operation instanceof SumOperation)
+                || (operation instanceof ProductOperation);
+    }
+
+    /**
+     * Removes the latest node from the stack.
+     * <p>
+     * The node is released, so the stack keeps no reference to the tree.
+     *
+     * @param size
+     *            number of nodes in the stack
+     * @return the new number of nodes in the stack
+     */
+    private final int pop(final int size) {
+        nodes[size - 1] = null;
+
+        return size - 1;
+    }
+
+    /**
+     * Stores a pending node on the stack, growing it if needed.
+     *
+     * @param size
+     *            number of nodes in the stack
+     * @param node
+     *            node to store
+     * @return the new number of nodes in the stack
+     */
+    private final int push(final int size, final DiceNotationExpression node) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            states = Arrays.copyOf(states, states.length * 2);
+        }
+
+        nodes[size] = node;
+        states[size] = PENDING;
+
+        return size + 1;
+    }
+
+    /**
+     * Rolls the expression, leaving the total as the first value.
+     *
+     * @param expression
+     *            expression to roll
+     * @param promote
+     *            flag marking values out of the long range are promoted
+     */
+    private final void roll(final DiceNotationExpression expression,
+            final boolean promote) {
+        DiceNotationExpression current;
+        DiceNotationExpression operand;
+        NaryOperation nary;
+        int nodesSize;
+        int valuesSize;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+
+        if (bigValues != null) {
+            // A failed roll may have left promoted values
+            Arrays.fill(bigValues, null);
+        }
+
+        nodesSize = 0;
+        valuesSize = 0;
+        nodes[nodesSize] = expression;
+        states[nodesSize] = PENDING;
+        nodesSize++;
+
+        // Postorder walk, as with the DiceRoller, so the dice are rolled in
+        // the same order
+        while (nodesSize > 0) {
+            current = nodes[nodesSize - 1];
+            if (current instanceof BinaryOperation) {
+                if (states[nodesSize - 1] == PENDING) {
+                    states[nodesSize - 1] = LEFT_DONE;
+                    nodesSize = push(nodesSize,
+                            ((BinaryOperation) current).getLeft());
+                } else if (states[nodesSize - 1] == LEFT_DONE) {
+                    states[nodesSize - 1] = RIGHT_DONE;
+                    nodesSize = push(nodesSize,
+                            ((BinaryOperation) current).getRight());
+                } else {
+                    valuesSize--;
+                    apply(current, valuesSize - 1, 2, promote);
+                    nodesSize = pop(nodesSize);
+                }
+            } else if (current instanceof NaryOperation) {
+                nary = (NaryOperation) current;
+                if (states[nodesSize - 1] < nary.getOperandCount()) {
+                    operand = nary.getOperand(states[nodesSize - 1]);
+                    states[nodesSize - 1]++;
+                    nodesSize = push(nodesSize, operand);
+                } else {
+                    // The operands values are the latest ones
+                    valuesSize -= nary.getOperandCount() - 1;
+                    apply(current, valuesSize - 1, nary.getOperandCount(),
+                            promote);
+                    nodesSize = pop(nodesSize);
+                }
+            } else {
+                if (valuesSize == values.length) {
+                    values = Arrays.copyOf(values, values.length * 2);
+                    if (bigValues != null) {
+                        bigValues = Arrays.copyOf(bigValues, values.length);
+                    }
+                }
+
+                if (current instanceof ConstantOperand) {
+                    values[valuesSize] = ((ConstantOperand) current)
+                            .getValueAsInt();
+                } else if (current instanceof DiceOperand) {
+                    values[valuesSize] = generator.generateLongTotal(
+                            ((DiceOperand) current).getDice());
+                } else {
+                    // Unsupported nodes have no value
+                    values[valuesSize] = 0;
+                }
+                valuesSize++;
+                nodesSize = pop(nodesSize);
+            }
+        }
+    }
+
+}
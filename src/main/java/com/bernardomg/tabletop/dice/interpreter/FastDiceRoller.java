@@ -0,0 +1,450 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.interpreter;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bernardomg.tabletop.dice.history.DefaultRollHistory;
+import com.bernardomg.tabletop.dice.history.DefaultRollResult;
+import com.bernardomg.tabletop.dice.history.RollHistory;
+import com.bernardomg.tabletop.dice.history.RollResult;
+import com.bernardomg.tabletop.dice.limit.DiceLimits;
+import com.bernardomg.tabletop.dice.limit.LimitExceededException;
+import com.bernardomg.tabletop.dice.limit.LimitType;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.random.DiceToRollResult;
+import com.bernardomg.tabletop.dice.random.NumberGenerator;
+import com.bernardomg.tabletop.dice.random.RandomNumberGenerator;
+import com.google.common.collect.Iterables;
+
+/**
+ * Rolls dice notation expressions received as text, with a fast path for the
+ * most common ones.
+ * <p>
+ * Expressions with the shape {@code [+-][N]dS[+-K]}, such as {@code 2d6+3},
+ * are recognized in a single scan, and rolled directly, without building the
+ * dice notation model. Any other expression is parsed and rolled with a
+ * {@link DiceRoller}.
+ * <p>
+ * Both paths give the same result. The fast path asks the number generator
+ * for the same rolls, in the same order, and builds the same roll history as
+ * the {@code DiceRoller}.
+ * <p>
+ * Optionally, expressions can be checked against some {@link DiceLimits}
+ * before rolling them. Both paths check the same limits, but the fast path
+ * checks them directly over the recognized values, without building a tree.
+ * <p>
+ * This is thread safe as long as the parser and the number generator are.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class FastDiceRoller {
+
+    /**
+     * Number generator for the rolls.
+     */
+    private final NumberGenerator  generator;
+
+    /**
+     * Limits checked before rolling.
+     */
+    private final DiceLimits       limits;
+
+    /**
+     * Parser for the expressions out of the fast path.
+     */
+    private final DiceParser       parser;
+
+    /**
+     * Rolls the dice for the fast path.
+     */
+    private final DiceToRollResult roller;
+
+    /**
+     * Default constructor.
+     * <p>
+     * It makes use of a {@link LightweightDiceParser} and a
+     * {@link RandomNumberGenerator}.
+     */
+    public FastDiceRoller() {
+        this(new RandomNumberGenerator());
+    }
+
+    /**
+     * Constructs a roller with the specified parser and number generator.
+     *
+     * @param diceParser
+     *            parser for the expressions out of the fast path
+     * @param numberGenerator
+     *            number generator for the rolls
+     */
+    public FastDiceRoller(final DiceParser diceParser,
+            final NumberGenerator numberGenerator) {
+        this(diceParser, numberGenerator, DiceLimits.unlimited());
+    }
+
+    /**
+     * Constructs a roller with the specified parser and number generator,
+     * which rejects the expressions exceeding the received limits.
+     *
+     * @param diceParser
+     *            parser for the expressions out of the fast path
+     * @param numberGenerator
+     *            number generator for the rolls
+     * @param diceLimits
+     *            limits to check before rolling
+     */
+    public FastDiceRoller(final DiceParser diceParser,
+            final NumberGenerator numberGenerator,
+            final DiceLimits diceLimits) {
+        super();
+
+        parser = checkNotNull(diceParser, "Received a null pointer as parser");
+        generator = checkNotNull(numberGenerator,
+                "Received a null pointer as generator");
+        limits = checkNotNull(diceLimits, "Received a null pointer as limits");
+        roller = new DiceToRollResult(generator);
+    }
+
+    /**
+     * Constructs a roller with the specified number generator.
+     * <p>
+     * It makes use of a {@link LightweightDiceParser}.
+     *
+     * @param numberGenerator
+     *            number generator for the rolls
+     */
+    public FastDiceRoller(final NumberGenerator numberGenerator) {
+        this(new LightweightDiceParser(), numberGenerator);
+    }
+
+    /**
+     * Rolls the received expression.
+     *
+     * @param expression
+     *            expression to roll
+     * @return the roll history
+     */
+    public final RollHistory roll(final String expression) {
+        final SimpleDiceNotation simple;
+        final RollHistory history;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+
+        simple = recognize(expression);
+        if (simple == null) {
+            // General path
+            history = rollGeneral(expression);
+        } else {
+            checkLimits(expression, simple);
+            history = roll(simple);
+        }
+
+        return history;
+    }
+
+    /**
+     * Rolls the received expression, and returns only the total.
+     * <p>
+     * On the fast path no roll history is built, and the dice are rolled with
+     * {@code generateTotal}, so the rolls are not stored.
+     *
+     * @param expression
+     *            expression to roll
+     * @return the total roll
+     */
+    public final int rollTotal(final String expression) {
+        final SimpleDiceNotation simple;
+        int total;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+
+        simple = recognize(expression);
+        if (simple == null) {
+            // General path
+            total = rollGeneral(expression).getTotalRoll();
+        } else {
+            checkLimits(expression, simple);
+
+            total = generator.generateTotal(simple.getDice());
+
+            if (simple.getOperator() == '+') {
+                total += simple.getConstant();
+            } else if (simple.getOperator() == '-') {
+                total -= simple.getConstant();
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Checks the limits for an expression in the fast path.
+     * <p>
+     * The text is checked as in the general path. Then the recognized values
+     * are checked in the same order the tree the parser would build for them
+     * is checked. This is the dice, and the number after it as the right
+     * operand of an operation, if there is one. So both paths reject the same
+     * expressions, with the same exceptions.
+     *
+     * @param expression
+     *            text of the expression
+     * @param simple
+     *            recognized expression to check
+     */
+    private final void checkLimits(final String expression,
+            final SimpleDiceNotation simple) {
+        final boolean operation;
+        final long quantity;
+
+        if (!limits.isUnlimited()) {
+            limits.checkText(expression);
+
+            operation = simple.getOperator() != 0;
+
+            // With an operation the dice is the second node, at depth 2
+            if (operation && (limits.getMaximumNodes() < 2)) {
+                throw new LimitExceededException(LimitType.NODES,
+                        limits.getMaximumNodes(), 2);
+            }
+            if (operation && (limits.getMaximumDepth() < 2)) {
+                throw new LimitExceededException(LimitType.DEPTH,
+                        limits.getMaximumDepth(), 2);
+            }
+
+            // Negative quantities are rolled as many times as the positive
+            // ones
+            quantity = Math.abs((long) simple.getDice().getQuantity());
+            if (quantity > limits.getMaximumQuantity()) {
+                throw new LimitExceededException(LimitType.DICE_QUANTITY,
+                        limits.getMaximumQuantity(), quantity);
+            }
+            if (quantity > limits.getMaximumTotalQuantity()) {
+                throw new LimitExceededException(LimitType.TOTAL_DICE_QUANTITY,
+                        limits.getMaximumTotalQuantity(), quantity);
+            }
+            if (simple.getDice().getSides() > limits.getMaximumSides()) {
+                throw new LimitExceededException(LimitType.SIDES,
+                        limits.getMaximumSides(), simple.getDice().getSides());
+            }
+
+            // The number is the third node
+            if (operation && (limits.getMaximumNodes() < 3)) {
+                throw new LimitExceededException(LimitType.NODES,
+                        limits.getMaximumNodes(), 3);
+            }
+        }
+    }
+
+    /**
+     * Parses the digits starting at the received index.
+     *
+     * @param expression
+     *            expression with the digits
+     * @param start
+     *            index of the first digit
+     * @param end
+     *            index after the last digit
+     * @return the parsed value, or {@code -1} if it is out of range
+     */
+    private final int parseDigits(final String expression, final int start,
+            final int end) {
+        long value;
+        int index;
+
+        value = 0;
+        index = start;
+        while ((index < end) && (value <= Integer.MAX_VALUE)) {
+            value = (value * 10) + (expression.charAt(index) - '0');
+            index++;
+        }
+
+        if (value > Integer.MAX_VALUE) {
+            value = -1;
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Recognizes the {@code [+-][N]dS[+-K]} shape, in a single scan.
+     * <p>
+     * Anything else, including whitespaces and numbers out of range, is left
+     * to the general path.
+     *
+     * @param expression
+     *            expression to recognize
+     * @return the recognized expression, or {@code null} if it has another
+     *         shape
+     */
+    private final SimpleDiceNotation recognize(final String expression) {
+        final int length;
+        SimpleDiceNotation simple;
+        boolean negative;
+        boolean valid;
+        int index;
+        int start;
+        int quantity;
+        int sides;
+        int constant;
+        char operator;
+
+        length = expression.length();
+        index = 0;
+        simple = null;
+
+        // Sign
+        negative = false;
+        if ((index < length) && ((expression.charAt(index) == '+')
+                || (expression.charAt(index) == '-'))) {
+            negative = expression.charAt(index) == '-';
+            index++;
+        }
+
+        // Quantity
+        start = index;
+        index = skipDigits(expression, index);
+        if (index == start) {
+            // Dice without quantity always have a single die
+            quantity = 1;
+            valid = true;
+        } else {
+            quantity = parseDigits(expression, start, index);
+            valid = quantity >= 0;
+            if (negative) {
+                quantity = 0 - quantity;
+            }
+        }
+
+        if (valid && (index < length) && ((expression.charAt(index) == 'd')
+                || (expression.charAt(index) == 'D'))) {
+            index++;
+
+            // Sides
+            start = index;
+            index = skipDigits(expression, index);
+            sides = parseDigits(expression, start, index);
+
+            if ((index > start) && (sides >= 0)) {
+                if (index == length) {
+                    simple = new SimpleDiceNotation(quantity, sides, (char) 0,
+                            0);
+                } else if ((expression.charAt(index) == '+')
+                        || (expression.charAt(index) == '-')) {
+                    // Number
+                    operator = expression.charAt(index);
+                    index++;
+                    start = index;
+                    index = skipDigits(expression, index);
+                    constant = parseDigits(expression, start, index);
+                    if ((index > start) && (index == length)
+                            && (constant >= 0)) {
+                        simple = new SimpleDiceNotation(quantity, sides,
+                                operator, constant);
+                    }
+                }
+            }
+        }
+
+        return simple;
+    }
+
+    /**
+     * Rolls the received expression, building the same history as the
+     * {@code DiceRoller}.
+     *
+     * @param simple
+     *            expression to roll
+     * @return the roll history
+     */
+    private final RollHistory roll(final SimpleDiceNotation simple) {
+        final List<RollResult> results;
+        final RollResult diceResult;
+        final String diceText;
+        final String text;
+        final int total;
+
+        results = new ArrayList<>(2);
+
+        diceResult = roller.apply(simple.getDice());
+        results.add(diceResult);
+
+        if (Iterables.size(diceResult.getAllRolls()) > 1) {
+            diceText = diceResult.getAllRolls().toString();
+        } else {
+            diceText = diceResult.getTotalRoll().toString();
+        }
+
+        if (simple.getOperator() == '+') {
+            results.add(new DefaultRollResult(simple.getConstant()));
+            text = diceText + " + " + simple.getConstant();
+            total = diceResult.getTotalRoll() + simple.getConstant();
+        } else if (simple.getOperator() == '-') {
+            // Subtracted numbers are stored as negative values
+            results.add(new DefaultRollResult(0 - simple.getConstant()));
+            text = diceText + " - " + simple.getConstant();
+            total = diceResult.getTotalRoll() - simple.getConstant();
+        } else {
+            text = diceText;
+            total = diceResult.getTotalRoll();
+        }
+
+        return new DefaultRollHistory(results, text, total);
+    }
+
+    /**
+     * Rolls the received expression on the general path.
+     * <p>
+     * The text is checked before parsing it, and the tree before rolling it.
+     *
+     * @param expression
+     *            expression to roll
+     * @return the roll history
+     */
+    private final RollHistory rollGeneral(final String expression) {
+        limits.checkText(expression);
+
+        return parser.parse(expression, new DiceRoller(generator, limits));
+    }
+
+    /**
+     * Returns the index after the digits starting at the received index.
+     *
+     * @param expression
+     *            expression with the digits
+     * @param start
+     *            index to start at
+     * @return the index after the digits
+     */
+    private final int skipDigits(final String expression, final int start) {
+        int index;
+
+        index = start;
+        while ((index < expression.length())
+                && (expression.charAt(index) >= '0')
+                && (expression.charAt(index) <= '9')) {
+            index++;
+        }
+
+        return index;
+    }
+
+}
@@ -27,12 +27,18 @@
 
 import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
 import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
 
 /**
  * Breaks down the received expression into an inorder list.
  * <p>
  * The tree {@code ((1 + 2) - 3)} becomes {@code 1 + 2 - 3} with this
  * transformer.
+ * <p>
+ * N-ary operations are stored between each pair of operands, so a sum of
+ * {@code 1}, {@code 2} and {@code 3} becomes {@code 1 + 2 + 3}. Each of them
+ * is wrapped into a {@link NaryOperationStep} telling the index of the
+ * following operand.
  *
  * @author Bernardo Mart&iacute;nez Garrido
  *
@@ -59,6 +65,7 @@ public InorderTraverser() {
         final Stack<DiceNotationExpression> nodes;
         final Collection<DiceNotationExpression> exps;
         DiceNotationExpression current;
+        OperandStep step;
 
         checkNotNull(expression, "Received a null pointer as expression");
 
@@ -68,7 +75,19 @@ public InorderTraverser() {
         exps = new ArrayList<>();
         while ((!nodes.isEmpty()) || (current != null)) {
             LOGGER.debug("Transforming current node {}", current);
-            if (current == null) {
+            if ((current == null) && (nodes.peek() instanceof OperandStep)) {
+                // Operand of an n-ary node exhausted
+                // Moves to the next operand
+                step = (OperandStep) nodes.pop();
+                LOGGER.debug("Stored current node {} into return",
+                        step.operation);
+                exps.add(new NaryOperationStep(step.operation, step.index));
+                if ((step.index + 1) < step.operation.getOperandCount()) {
+                    nodes.push(new OperandStep(step.operation, step.index + 1));
+                }
+                current = step.operation.getOperand(step.index);
+                LOGGER.trace("Moved to operand node {}", current);
+            } else if (current == null) {
                 // Left nodes exhausted
                 // Moves to the previous right node
                 current = nodes.pop();
@@ -88,6 +107,12 @@ public InorderTraverser() {
                     // There is no right node
                     current = null;
                 }
+            } else if (current instanceof NaryOperation) {
+                // The node will be stored before each operand but the first
+                nodes.push(new OperandStep((NaryOperation) current, 1));
+                LOGGER.trace("Pushed n-ary node into stack");
+                current = ((NaryOperation) current).getOperand(0);
+                LOGGER.trace("Moved to first operand node {}", current);
             } else {
                 // Store and keep moving
                 nodes.push(current);
@@ -107,4 +132,41 @@ public InorderTraverser() {
         return exps;
     }
 
+    /**
+     * Pending operand of an n-ary node, kept on the stack.
+     */
+    private static final class OperandStep implements DiceNotationExpression {
+
+        /**
+         * Index of the operand.
+         */
+        private final int           index;
+
+        /**
+         * Operation containing the operand.
+         */
+        private final NaryOperation operation;
+
+        /**
+         * Constructs a step for the received operand.
+         * 
+         * @param op
+         *            operation containing the operand
+         * @param position
+         *            index of the operand
+         */
+        private OperandStep(final NaryOperation op, final int position) {
+            super();
+
+            operation = op;
+            index = position;
+        }
+
+        @Override
+        public final String getExpression() {
+            return operation.getExpression();
+        }
+
+    }
+
 }
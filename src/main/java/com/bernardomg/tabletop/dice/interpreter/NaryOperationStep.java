@@ -0,0 +1,122 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.interpreter;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+
+/**
+ * Visit to an n-ary operation in a traversed tree, with its position among
+ * the operands.
+ * <p>
+ * The traversers return these instead of the n-ary operations, as the same
+ * operation may be visited several times. The index is the number of operands
+ * visited before the operation. So it is zero when visited before them all,
+ * the index of the following operand when visited between two, and the number
+ * of operands when visited after them all.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class NaryOperationStep implements DiceNotationExpression {
+
+    /**
+     * Number of operands visited before the operation.
+     */
+    private final int           index;
+
+    /**
+     * Visited operation.
+     */
+    private final NaryOperation operation;
+
+    /**
+     * Constructs a step for the received operation.
+     *
+     * @param op
+     *            visited operation
+     * @param position
+     *            number of operands visited before the operation
+     */
+    public NaryOperationStep(final NaryOperation op, final int position) {
+        super();
+
+        operation = checkNotNull(op, "Received a null pointer as operation");
+        index = position;
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final NaryOperationStep other;
+
+        other = (NaryOperationStep) obj;
+
+        return (index == other.index)
+                && Objects.equal(operation, other.operation);
+    }
+
+    @Override
+    public final String getExpression() {
+        return operation.getExpression();
+    }
+
+    /**
+     * Returns the number of operands visited before the operation.
+     *
+     * @return the number of operands visited before the operation
+     */
+    public final int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the visited operation.
+     *
+     * @return the visited operation
+     */
+    public final NaryOperation getOperation() {
+        return operation;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hashCode(operation, index);
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("operation", operation)
+                .add("index", index).toString();
+    }
+
+}
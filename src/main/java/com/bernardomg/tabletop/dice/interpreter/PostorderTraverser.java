@@ -28,6 +28,7 @@
 
 import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
 import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
 
 /**
  * Breaks down the received expression into a postorder list.
@@ -78,6 +79,16 @@ public PostorderTraverser() {
                 nodes.push(new ExpressionWrapper(current));
                 nodes.push(((BinaryOperation) current).getRight());
                 nodes.push(((BinaryOperation) current).getLeft());
+            } else if (current instanceof NaryOperation) {
+                // N-ary operation
+                // Temporally prunes node and stores all the operands
+                LOGGER.trace("The current node is an n-ary node");
+                nodes.push(new NaryOperationStep((NaryOperation) current,
+                        ((NaryOperation) current).getOperandCount()));
+                for (int i = ((NaryOperation) current).getOperandCount()
+                        - 1; i >= 0; i--) {
+                    nodes.push(((NaryOperation) current).getOperand(i));
+                }
             } else {
                 // Leaf node
                 LOGGER.trace("The current node is a leaf node");
@@ -27,6 +27,7 @@
 
 import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
 import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
 
 /**
  * Breaks down the received expression into a preorder list.
@@ -71,13 +72,25 @@ public PreorderTraverser() {
             LOGGER.debug("Transforming current node {}", current);
 
             LOGGER.debug("Stored current node {} into return", current);
-            exps.add(current);
+            if (current instanceof NaryOperation) {
+                // No operand visited yet
+                exps.add(new NaryOperationStep((NaryOperation) current, 0));
+            } else {
+                exps.add(current);
+            }
 
             if (current instanceof BinaryOperation) {
                 LOGGER.trace("The current node is a binary node");
                 LOGGER.trace("Pushing branches into stack");
                 nodes.push(((BinaryOperation) current).getRight());
                 nodes.push(((BinaryOperation) current).getLeft());
+            } else if (current instanceof NaryOperation) {
+                LOGGER.trace("The current node is an n-ary node");
+                LOGGER.trace("Pushing operands into stack");
+                for (int i = ((NaryOperation) current).getOperandCount()
+                        - 1; i >= 0; i--) {
+                    nodes.push(((NaryOperation) current).getOperand(i));
+                }
             }
         }
 
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.interpreter;
+
+import com.bernardomg.tabletop.dice.DefaultDice;
+import com.bernardomg.tabletop.dice.Dice;
+
+/**
+ * Expression made of a dice, and optionally a number added to or subtracted
+ * from it. This is the {@code [+-][N]dS[+-K]} notation shape.
+ * <p>
+ * The dice is kept as the parsers would build it, so a negative sign only
+ * applies when the quantity is defined.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+final class SimpleDiceNotation {
+
+    /**
+     * Number after the dice. Zero if there is none.
+     */
+    private final int  constant;
+
+    /**
+     * Dice to roll.
+     */
+    private final Dice dice;
+
+    /**
+     * Operator applied to the number. It is {@code '+'}, {@code '-'}, or zero
+     * if there is no number.
+     */
+    private final char operator;
+
+    /**
+     * Constructs an expression with the specified data.
+     *
+     * @param quantity
+     *            dice quantity, with its sign
+     * @param sides
+     *            dice sides
+     * @param op
+     *            operator applied to the number, or zero if there is none
+     * @param number
+     *            number after the dice
+     */
+    SimpleDiceNotation(final int quantity, final int sides, final char op,
+            final int number) {
+        super();
+
+        dice = DefaultDice.valueOf(quantity, sides);
+        operator = op;
+        constant = number;
+    }
+
+    /**
+     * Returns the number after the dice. Zero if there is none.
+     *
+     * @return the number after the dice
+     */
+    final int getConstant() {
+        return constant;
+    }
+
+    /**
+     * Returns the dice to roll.
+     *
+     * @return the dice to roll
+     */
+    final Dice getDice() {
+        return dice;
+    }
+
+    /**
+     * Returns the operator applied to the number. It is {@code '+'},
+     * {@code '-'}, or zero if there is no number.
+     *
+     * @return the operator applied to the number
+     */
+    final char getOperator() {
+        return operator;
+    }
+
+}
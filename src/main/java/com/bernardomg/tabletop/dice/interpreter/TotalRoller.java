@@ -0,0 +1,236 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.interpreter;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
+import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
+import com.bernardomg.tabletop.dice.random.NumberGenerator;
+import com.bernardomg.tabletop.dice.random.RandomNumberGenerator;
+
+/**
+ * Interpreter which rolls the expression, and returns only the total.
+ * <p>
+ * It gives the same total as the {@link DiceRoller}, asking the number
+ * generator for the same rolls, but builds no roll history. All the values are
+ * kept as primitives, using the primitive accessors of the notation model and
+ * {@link NumberGenerator#generateTotal(com.bernardomg.tabletop.dice.Dice)
+ * generateTotal} for the dice. So, with a generator which supports
+ * primitives, such as the {@link RandomNumberGenerator},
+ * {@link #rollTotal(DiceNotationExpression)} allocates nothing.
+ * <p>
+ * The tree is walked iteratively, over stacks which are kept between calls.
+ * Because of this, the roller is not thread safe.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class TotalRoller implements DiceInterpreter<Integer> {
+
+    /**
+     * Initial capacity for the stacks.
+     */
+    private static final int         INITIAL_LENGTH = 16;
+
+    /**
+     * Traversal state for operations with the left branch visited.
+     */
+    private static final int         LEFT_DONE      = 1;
+
+    /**
+     * Traversal state for nodes not yet visited.
+     */
+    private static final int         PENDING        = 0;
+
+    /**
+     * Traversal state for operations with both branches visited.
+     */
+    private static final int         RIGHT_DONE     = 2;
+
+    /**
+     * Number generator for the rolls.
+     */
+    private final NumberGenerator    generator;
+
+    /**
+     * Nodes being visited, used as a stack.
+     */
+    private DiceNotationExpression[] nodes          = new DiceNotationExpression[INITIAL_LENGTH];
+
+    /**
+     * Traversal state for each node in the stack.
+     * <p>
+     * For n-ary operations this is the number of operands visited.
+     */
+    private int[]                    states         = new int[INITIAL_LENGTH];
+
+    /**
+     * Values computed so far, used as a stack.
+     */
+    private int[]                    values         = new int[INITIAL_LENGTH];
+
+    /**
+     * Default constructor.
+     * <p>
+     * It makes use of a {@link RandomNumberGenerator}.
+     */
+    public TotalRoller() {
+        this(new RandomNumberGenerator());
+    }
+
+    /**
+     * Constructs a roller with the specified number generator.
+     *
+     * @param numberGenerator
+     *            number generator for the rolls
+     */
+    public TotalRoller(final NumberGenerator numberGenerator) {
+        super();
+
+        generator = checkNotNull(numberGenerator,
+                "Received a null pointer as generator");
+    }
+
+    /**
+     * Rolls the received expression, and returns the total.
+     *
+     * @param expression
+     *            expression to roll
+     * @return the total roll
+     */
+    public final int rollTotal(final DiceNotationExpression expression) {
+        DiceNotationExpression current;
+        DiceNotationExpression operand;
+        NaryOperation nary;
+        int nodesSize;
+        int valuesSize;
+        int operandA;
+        int operandB;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+
+        nodesSize = 0;
+        valuesSize = 0;
+        nodes[nodesSize] = expression;
+        states[nodesSize] = PENDING;
+        nodesSize++;
+
+        // Postorder walk, as with the DiceRoller, so the dice are rolled in
+        // the same order
+        while (nodesSize > 0) {
+            current = nodes[nodesSize - 1];
+            if (current instanceof BinaryOperation) {
+                if (states[nodesSize - 1] == PENDING) {
+                    states[nodesSize - 1] = LEFT_DONE;
+                    nodesSize = push(nodesSize,
+                            ((BinaryOperation) current).getLeft());
+                } else if (states[nodesSize - 1] == LEFT_DONE) {
+                    states[nodesSize - 1] = RIGHT_DONE;
+                    nodesSize = push(nodesSize,
+                            ((BinaryOperation) current).getRight());
+                } else {
+                    operandB = values[valuesSize - 1];
+                    operandA = values[valuesSize - 2];
+                    valuesSize--;
+                    values[valuesSize - 1] = ((BinaryOperation) current)
+                            .getIntOperation().applyAsInt(operandA, operandB);
+                    nodesSize = pop(nodesSize);
+                }
+            } else if (current instanceof NaryOperation) {
+                nary = (NaryOperation) current;
+                if (states[nodesSize - 1] < nary.getOperandCount()) {
+                    operand = nary.getOperand(states[nodesSize - 1]);
+                    states[nodesSize - 1]++;
+                    nodesSize = push(nodesSize, operand);
+                } else {
+                    // The operands values are the latest ones
+                    valuesSize -= nary.getOperandCount() - 1;
+                    values[valuesSize - 1] = nary.applyAsInt(values,
+                            valuesSize - 1);
+                    nodesSize = pop(nodesSize);
+                }
+            } else {
+                if (valuesSize == values.length) {
+                    values = Arrays.copyOf(values, values.length * 2);
+                }
+
+                if (current instanceof ConstantOperand) {
+                    values[valuesSize] = ((ConstantOperand) current)
+                            .getValueAsInt();
+                } else if (current instanceof DiceOperand) {
+                    values[valuesSize] = generator
+                            .generateTotal(((DiceOperand) current).getDice());
+                } else {
+                    // Unsupported nodes have no value
+                    values[valuesSize] = 0;
+                }
+                valuesSize++;
+                nodesSize = pop(nodesSize);
+            }
+        }
+
+        return values[0];
+    }
+
+    @Override
+    public final Integer transform(final DiceNotationExpression expression) {
+        return rollTotal(expression);
+    }
+
+    /**
+     * Removes the latest node from the stack.
+     * <p>
+     * The node is released, so the stack keeps no reference to the tree.
+     *
+     * @param size
+     *            number of nodes in the stack
+     * @return the new number of nodes in the stack
+     */
+    private final int pop(final int size) {
+        nodes[size - 1] = null;
+
+        return size - 1;
+    }
+
+    /**
+     * Stores a pending node on the stack, growing it if needed.
+     *
+     * @param size
+     *            number of nodes in the stack
+     * @param node
+     *            node to store
+     * @return the new number of nodes in the stack
+     */
+    private final int push(final int size, final DiceNotationExpression node) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            states = Arrays.copyOf(states, states.length * 2);
+        }
+
+        nodes[size] = node;
+        states[size] = PENDING;
+
+        return size + 1;
+    }
+
+}
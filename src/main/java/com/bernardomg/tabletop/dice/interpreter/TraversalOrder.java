@@ -0,0 +1,43 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.interpreter;
+
+/**
+ * Order in which the nodes of a notation tree are visited.
+ * <p>
+ * These are the same orders followed by the {@link InorderTraverser}, the
+ * {@link PostorderTraverser} and the {@link PreorderTraverser}.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public enum TraversalOrder {
+
+    /**
+     * Each operation is visited between its left and right branches.
+     */
+    INORDER,
+    /**
+     * Each operation is visited after its branches.
+     */
+    POSTORDER,
+    /**
+     * Each operation is visited before its branches.
+     */
+    PREORDER;
+
+}
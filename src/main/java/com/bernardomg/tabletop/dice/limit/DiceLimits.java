@@ -0,0 +1,518 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.limit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.bernardomg.tabletop.dice.Dice;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Immutable resource limits policy for expressions from untrusted sources.
+ * <p>
+ * Limits are checked in two steps. The text is checked before parsing, which
+ * rejects long inputs and deeply nested parenthesis without building a tree.
+ * Then the parsed tree is checked before rolling, which rejects big trees and
+ * dice sets which would take too long, or too much memory, to roll.
+ * <p>
+ * Each check throws a {@link LimitExceededException} telling which limit was
+ * exceeded. Each one has a counterpart which returns the exceeded limit as a
+ * {@link LimitViolation} instead, for callers which reject input without
+ * exceptions. The checks stop as soon as a limit is exceeded, so their cost is
+ * bounded by the limits themselves, not by the size of the input.
+ * <p>
+ * The default constructor gives limits meant for untrusted input. Binary
+ * operations nest for each operator, so the depth limit also bounds the
+ * length of chains such as {@code 1+1+1}.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class DiceLimits {
+
+    /**
+     * Default maximum nesting depth.
+     */
+    private static final int        DEFAULT_DEPTH          = 64;
+
+    /**
+     * Default maximum number of characters.
+     */
+    private static final int        DEFAULT_LENGTH         = 1024;
+
+    /**
+     * Default maximum number of nodes.
+     */
+    private static final int        DEFAULT_NODES          = 256;
+
+    /**
+     * Default maximum number of dice in a group.
+     */
+    private static final int        DEFAULT_QUANTITY       = 1000;
+
+    /**
+     * Default maximum number of sides.
+     */
+    private static final int        DEFAULT_SIDES          = 1000000;
+
+    /**
+     * Default maximum number of dice in the expression.
+     */
+    private static final int        DEFAULT_TOTAL_QUANTITY = 10000;
+
+    /**
+     * Limits which never reject an expression.
+     */
+    private static final DiceLimits UNLIMITED              = new DiceLimits(
+            Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+            Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    /**
+     * Maximum nesting depth.
+     */
+    private final int               maxDepth;
+
+    /**
+     * Maximum number of characters.
+     */
+    private final int               maxLength;
+
+    /**
+     * Maximum number of nodes.
+     */
+    private final int               maxNodes;
+
+    /**
+     * Maximum number of dice in a group.
+     */
+    private final int               maxQuantity;
+
+    /**
+     * Maximum number of sides.
+     */
+    private final int               maxSides;
+
+    /**
+     * Maximum number of dice in the expression.
+     */
+    private final int               maxTotalQuantity;
+
+    /**
+     * Flag marking no limit can be exceeded, so checks are skipped.
+     */
+    private final boolean           unlimited;
+
+    /**
+     * Returns limits which never reject an expression.
+     *
+     * @return limits which accept any expression
+     */
+    public static final DiceLimits unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Constructs the default limits for untrusted input.
+     * <p>
+     * These allow up to 1024 characters, 256 nodes, a nesting depth of 64,
+     * 1000 dice in a group, 10000 dice in the expression and 1000000 sides.
+     */
+    public DiceLimits() {
+        this(DEFAULT_LENGTH, DEFAULT_NODES, DEFAULT_DEPTH, DEFAULT_QUANTITY,
+                DEFAULT_TOTAL_QUANTITY, DEFAULT_SIDES);
+    }
+
+    /**
+     * Constructs limits with the received values.
+     *
+     * @param length
+     *            maximum number of characters
+     * @param nodes
+     *            maximum number of nodes
+     * @param depth
+     *            maximum nesting depth
+     * @param quantity
+     *            maximum number of dice in a group
+     * @param totalQuantity
+     *            maximum number of dice in the expression
+     * @param sides
+     *            maximum number of sides
+     */
+    private DiceLimits(final int length, final int nodes, final int depth,
+            final int quantity, final int totalQuantity, final int sides) {
+        super();
+
+        checkArgument(length > 0, "The maximum length should be positive");
+        checkArgument(nodes > 0, "The maximum node count should be positive");
+        checkArgument(depth > 0, "The maximum depth should be positive");
+        checkArgument(quantity >= 0,
+                "The maximum dice quantity should not be negative");
+        checkArgument(totalQuantity >= 0,
+                "The maximum total dice quantity should not be negative");
+        checkArgument(sides >= 0, "The maximum sides should not be negative");
+
+        maxLength = length;
+        maxNodes = nodes;
+        maxDepth = depth;
+        maxQuantity = quantity;
+        maxTotalQuantity = totalQuantity;
+        maxSides = sides;
+
+        unlimited = (length == Integer.MAX_VALUE)
+                && (nodes == Integer.MAX_VALUE)
+                && (depth == Integer.MAX_VALUE)
+                && (quantity == Integer.MAX_VALUE)
+                && (totalQuantity == Integer.MAX_VALUE)
+                && (sides == Integer.MAX_VALUE);
+    }
+
+    /**
+     * Checks the parsed expression against the tree and dice limits.
+     * <p>
+     * The tree is traversed iteratively, so deep trees can be checked safely.
+     * The traversal stops at the first exceeded limit.
+     *
+     * @param expression
+     *            expression to check
+     * @throws LimitExceededException
+     *             if the expression exceeds any limit
+     */
+    public final void checkExpression(final DiceNotationExpression expression) {
+        final LimitViolation violation;
+
+        violation = getExpressionViolation(expression);
+        if (violation != null) {
+            throw new LimitExceededException(violation);
+        }
+    }
+
+    /**
+     * Checks the text of an expression against the length and nesting limits.
+     * <p>
+     * This is meant to be applied before parsing. The length is checked
+     * before reading any character, and the parenthesis nesting is checked
+     * with a single scan, which stops at the first exceeded limit.
+     *
+     * @param text
+     *            text to check
+     * @throws LimitExceededException
+     *             if the text exceeds any limit
+     */
+    public final void checkText(final CharSequence text) {
+        final LimitViolation violation;
+
+        violation = getTextViolation(text);
+        if (violation != null) {
+            throw new LimitExceededException(violation);
+        }
+    }
+
+    /**
+     * Returns the first tree or dice limit exceeded by the parsed expression,
+     * or {@code null} if it is within the limits.
+     * <p>
+     * This is the same check as {@link #checkExpression(DiceNotationExpression)},
+     * but no exception is thrown. The parsed tree keeps no positions, so the
+     * violation is not located in the text.
+     *
+     * @param expression
+     *            expression to check
+     * @return the exceeded limit, or {@code null} if there is none
+     */
+    public final LimitViolation
+            getExpressionViolation(final DiceNotationExpression expression) {
+        final Deque<DiceNotationExpression> nodes;
+        final Deque<Integer> depths;
+        DiceNotationExpression current;
+        BinaryOperation operation;
+        NaryOperation nary;
+        LimitViolation violation;
+        Dice dice;
+        long quantity;
+        long totalQuantity;
+        int depth;
+        int count;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+
+        violation = null;
+        if (!unlimited) {
+            nodes = new ArrayDeque<>();
+            depths = new ArrayDeque<>();
+            nodes.push(expression);
+            depths.push(1);
+
+            count = 0;
+            totalQuantity = 0;
+            while ((violation == null) && (!nodes.isEmpty())) {
+                current = nodes.pop();
+                depth = depths.pop();
+
+                count++;
+                if (count > maxNodes) {
+                    violation = new LimitViolation(LimitType.NODES, maxNodes,
+                            count);
+                } else if (depth > maxDepth) {
+                    violation = new LimitViolation(LimitType.DEPTH, maxDepth,
+                            depth);
+                } else if (current instanceof BinaryOperation) {
+                    operation = (BinaryOperation) current;
+                    nodes.push(operation.getRight());
+                    depths.push(depth + 1);
+                    nodes.push(operation.getLeft());
+                    depths.push(depth + 1);
+                } else if (current instanceof NaryOperation) {
+                    nary = (NaryOperation) current;
+                    for (int i = nary.getOperandCount() - 1; i >= 0; i--) {
+                        nodes.push(nary.getOperand(i));
+                        depths.push(depth + 1);
+                    }
+                } else if (current instanceof DiceOperand) {
+                    dice = ((DiceOperand) current).getDice();
+
+                    // Negative quantities are rolled as many times as the
+                    // positive ones
+                    quantity = Math.abs((long) dice.getQuantity());
+                    totalQuantity += quantity;
+                    if (quantity > maxQuantity) {
+                        violation = new LimitViolation(
+                                LimitType.DICE_QUANTITY, maxQuantity,
+                                quantity);
+                    } else if (totalQuantity > maxTotalQuantity) {
+                        violation = new LimitViolation(
+                                LimitType.TOTAL_DICE_QUANTITY,
+                                maxTotalQuantity, totalQuantity);
+                    } else if (dice.getSides() > maxSides) {
+                        violation = new LimitViolation(LimitType.SIDES,
+                                maxSides, dice.getSides());
+                    }
+                }
+            }
+        }
+
+        return violation;
+    }
+
+    /**
+     * Returns the maximum nesting depth.
+     *
+     * @return the maximum nesting depth
+     */
+    public final int getMaximumDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the maximum number of characters.
+     *
+     * @return the maximum number of characters
+     */
+    public final int getMaximumLength() {
+        return maxLength;
+    }
+
+    /**
+     * Returns the maximum number of nodes.
+     *
+     * @return the maximum number of nodes
+     */
+    public final int getMaximumNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * Returns the maximum number of dice in a group.
+     *
+     * @return the maximum number of dice in a group
+     */
+    public final int getMaximumQuantity() {
+        return maxQuantity;
+    }
+
+    /**
+     * Returns the maximum number of sides.
+     *
+     * @return the maximum number of sides
+     */
+    public final int getMaximumSides() {
+        return maxSides;
+    }
+
+    /**
+     * Returns the maximum number of dice in the expression.
+     *
+     * @return the maximum number of dice in the expression
+     */
+    public final int getMaximumTotalQuantity() {
+        return maxTotalQuantity;
+    }
+
+    /**
+     * Returns the first length or nesting limit exceeded by the text of an
+     * expression, or {@code null} if it is within the limits.
+     * <p>
+     * This is the same check as {@link #checkText(CharSequence)}, but no
+     * exception is thrown. The violation is located at the first character
+     * over the maximum length, or at the parenthesis which goes over the
+     * maximum depth.
+     *
+     * @param text
+     *            text to check
+     * @return the exceeded limit, or {@code null} if there is none
+     */
+    public final LimitViolation getTextViolation(final CharSequence text) {
+        final int length;
+        LimitViolation violation;
+        char character;
+        int depth;
+        int index;
+
+        checkNotNull(text, "Received a null pointer as text");
+
+        violation = null;
+        if (!unlimited) {
+            length = text.length();
+            if (length > maxLength) {
+                violation = new LimitViolation(LimitType.LENGTH, maxLength,
+                        length, maxLength);
+            }
+
+            depth = 0;
+            index = 0;
+            while ((violation == null) && (index < length)) {
+                character = text.charAt(index);
+                if (character == '(') {
+                    depth++;
+                    if (depth > maxDepth) {
+                        violation = new LimitViolation(LimitType.DEPTH,
+                                maxDepth, depth, index);
+                    }
+                } else if (character == ')') {
+                    depth--;
+                }
+                index++;
+            }
+        }
+
+        return violation;
+    }
+
+    /**
+     * Indicates if these limits never reject an expression.
+     *
+     * @return {@code true} if no expression is rejected, {@code false}
+     *         otherwise
+     */
+    public final boolean isUnlimited() {
+        return unlimited;
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("length", maxLength)
+                .add("nodes", maxNodes).add("depth", maxDepth)
+                .add("quantity", maxQuantity)
+                .add("totalQuantity", maxTotalQuantity).add("sides", maxSides)
+                .toString();
+    }
+
+    /**
+     * Returns a copy of these limits with the received maximum nesting depth.
+     *
+     * @param depth
+     *            maximum nesting depth
+     * @return limits with the received depth
+     */
+    public final DiceLimits withMaximumDepth(final int depth) {
+        return new DiceLimits(maxLength, maxNodes, depth, maxQuantity,
+                maxTotalQuantity, maxSides);
+    }
+
+    /**
+     * Returns a copy of these limits with the received maximum number of
+     * characters.
+     *
+     * @param length
+     *            maximum number of characters
+     * @return limits with the received length
+     */
+    public final DiceLimits withMaximumLength(final int length) {
+        return new DiceLimits(length, maxNodes, maxDepth, maxQuantity,
+                maxTotalQuantity, maxSides);
+    }
+
+    /**
+     * Returns a copy of these limits with the received maximum number of
+     * nodes.
+     *
+     * @param nodes
+     *            maximum number of nodes
+     * @return limits with the received node count
+     */
+    public final DiceLimits withMaximumNodes(final int nodes) {
+        return new DiceLimits(maxLength, nodes, maxDepth, maxQuantity,
+                maxTotalQuantity, maxSides);
+    }
+
+    /**
+     * Returns a copy of these limits with the received maximum number of dice
+     * in a group.
+     *
+     * @param quantity
+     *            maximum number of dice in a group
+     * @return limits with the received quantity
+     */
+    public final DiceLimits withMaximumQuantity(final int quantity) {
+        return new DiceLimits(maxLength, maxNodes, maxDepth, quantity,
+                maxTotalQuantity, maxSides);
+    }
+
+    /**
+     * Returns a copy of these limits with the received maximum number of
+     * sides.
+     *
+     * @param sides
+     *            maximum number of sides
+     * @return limits with the received sides
+     */
+    public final DiceLimits withMaximumSides(final int sides) {
+        return new DiceLimits(maxLength, maxNodes, maxDepth, maxQuantity,
+                maxTotalQuantity, sides);
+    }
+
+    /**
+     * Returns a copy of these limits with the received maximum number of dice
+     * in the expression.
+     *
+     * @param totalQuantity
+     *            maximum number of dice in the expression
+     * @return limits with the received total quantity
+     */
+    public final DiceLimits withMaximumTotalQuantity(final int totalQuantity) {
+        return new DiceLimits(maxLength, maxNodes, maxDepth, maxQuantity,
+                totalQuantity, maxSides);
+    }
+
+}
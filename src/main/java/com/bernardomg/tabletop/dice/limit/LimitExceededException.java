@@ -0,0 +1,112 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.limit;
+
+/**
+ * Thrown when an expression goes over one of the resource limits.
+ * <p>
+ * It is thrown before doing any expensive work, such as parsing the full text
+ * or rolling the dice.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class LimitExceededException extends RuntimeException {
+
+    /**
+     * Serialization id.
+     */
+    private static final long serialVersionUID = 6471027154335208132L;
+
+    /**
+     * Limit which was exceeded.
+     */
+    private final LimitType   limitType;
+
+    /**
+     * Maximum allowed value.
+     */
+    private final long        maximum;
+
+    /**
+     * Value which went over the limit.
+     */
+    private final long        value;
+
+    /**
+     * Constructs an exception for the received limit.
+     *
+     * @param type
+     *            limit which was exceeded
+     * @param max
+     *            maximum allowed value
+     * @param received
+     *            value which went over the limit
+     */
+    public LimitExceededException(final LimitType type, final long max,
+            final long received) {
+        super(String.format("The %s of %d exceeds the limit of %d",
+                type.getDescription(), received, max));
+
+        limitType = type;
+        maximum = max;
+        value = received;
+    }
+
+    /**
+     * Constructs an exception for the received violation.
+     *
+     * @param violation
+     *            exceeded limit
+     */
+    public LimitExceededException(final LimitViolation violation) {
+        this(violation.getLimitType(), violation.getMaximum(),
+                violation.getValue());
+    }
+
+    /**
+     * Returns the limit which was exceeded.
+     *
+     * @return the exceeded limit
+     */
+    public final LimitType getLimitType() {
+        return limitType;
+    }
+
+    /**
+     * Returns the maximum allowed value.
+     *
+     * @return the maximum allowed value
+     */
+    public final long getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * Returns the value which went over the limit.
+     * <p>
+     * Counts are stopped as soon as they go over the limit, so for the node
+     * count and the nesting depth this will be the first value over the
+     * maximum, not the full count.
+     *
+     * @return the value over the limit
+     */
+    public final long getValue() {
+        return value;
+    }
+
+}
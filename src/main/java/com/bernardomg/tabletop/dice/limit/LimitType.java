@@ -0,0 +1,76 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.limit;
+
+/**
+ * Resource which may be limited when handling an expression.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public enum LimitType {
+
+    /**
+     * Nesting depth, both of parenthesis in the text and of the parsed tree.
+     */
+    DEPTH("nesting depth"),
+    /**
+     * Number of dice in a single dice group.
+     */
+    DICE_QUANTITY("dice quantity"),
+    /**
+     * Number of characters in the text.
+     */
+    LENGTH("expression length"),
+    /**
+     * Number of nodes in the parsed tree.
+     */
+    NODES("node count"),
+    /**
+     * Number of sides of a dice.
+     */
+    SIDES("dice sides"),
+    /**
+     * Number of dice in the whole expression.
+     */
+    TOTAL_DICE_QUANTITY("total dice quantity");
+
+    /**
+     * Description, used on error messages.
+     */
+    private final String description;
+
+    /**
+     * Constructs a limit type with the received description.
+     *
+     * @param desc
+     *            description for error messages
+     */
+    private LimitType(final String desc) {
+        description = desc;
+    }
+
+    /**
+     * Returns the description of the limited resource.
+     *
+     * @return the description of the resource
+     */
+    public final String getDescription() {
+        return description;
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.limit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Immutable description of a resource limit exceeded by an expression.
+ * <p>
+ * This is returned by the checks which do not throw exceptions, and is the
+ * same information a {@link LimitExceededException} would carry.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class LimitViolation {
+
+    /**
+     * Limit which was exceeded.
+     */
+    private final LimitType limitType;
+
+    /**
+     * Maximum allowed value.
+     */
+    private final long      maximum;
+
+    /**
+     * Index in the text where the limit was exceeded.
+     */
+    private final int       position;
+
+    /**
+     * Value which went over the limit.
+     */
+    private final long      value;
+
+    /**
+     * Constructs a violation of the received limit, which is not located in
+     * the text.
+     *
+     * @param type
+     *            limit which was exceeded
+     * @param max
+     *            maximum allowed value
+     * @param received
+     *            value which went over the limit
+     */
+    public LimitViolation(final LimitType type, final long max,
+            final long received) {
+        this(type, max, received, -1);
+    }
+
+    /**
+     * Constructs a violation of the received limit, located at the received
+     * index of the text.
+     *
+     * @param type
+     *            limit which was exceeded
+     * @param max
+     *            maximum allowed value
+     * @param received
+     *            value which went over the limit
+     * @param index
+     *            index in the text where the limit was exceeded
+     */
+    public LimitViolation(final LimitType type, final long max,
+            final long received, final int index) {
+        super();
+
+        limitType = checkNotNull(type, "Received a null pointer as type");
+        maximum = max;
+        value = received;
+        position = index;
+    }
+
+    /**
+     * Returns the limit which was exceeded.
+     *
+     * @return the exceeded limit
+     */
+    public final LimitType getLimitType() {
+        return limitType;
+    }
+
+    /**
+     * Returns the maximum allowed value.
+     *
+     * @return the maximum allowed value
+     */
+    public final long getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * Returns the description of the violation.
+     *
+     * @return the violation description
+     */
+    public final String getMessage() {
+        return String.format("The %s of %d exceeds the limit of %d",
+                limitType.getDescription(), value, maximum);
+    }
+
+    /**
+     * Returns the index in the text where the limit was exceeded.
+     * <p>
+     * Only the limits checked over the text have a position. The parsed tree
+     * keeps no positions, so for its limits this is {@code -1}.
+     *
+     * @return the index of the violation, or {@code -1} if it is not located
+     *         in the text
+     */
+    public final int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the value which went over the limit.
+     *
+     * @return the value over the limit
+     */
+    public final long getValue() {
+        return value;
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("type", limitType)
+                .add("maximum", maximum).add("value", value)
+                .add("position", position).toString();
+    }
+
+}
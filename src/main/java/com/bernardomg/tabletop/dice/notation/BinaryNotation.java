@@ -0,0 +1,95 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation;
+
+/**
+ * Constants for the binary encoding of expressions.
+ * <p>
+ * An encoded expression begins with the format version, followed by the
+ * nodes of the tree in prefix order. Each node is an opcode byte, followed by
+ * its values:
+ * <ul>
+ * <li>Constants are followed by their value</li>
+ * <li>Dice are followed by their quantity and sides</li>
+ * <li>Binary operations are followed by their left and right operands</li>
+ * <li>Products are followed by the number of operands, and then the
+ * operands</li>
+ * <li>Sums are followed by the number of operands, a bit set marking the
+ * subtracted operands, and then the operands</li>
+ * </ul>
+ * Counts are written as unsigned varints, and values as zigzag varints, so
+ * small values, positive or negative, take a single byte. The bit set takes
+ * one byte for each eight operands, with the first operand on the lowest bit.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+final class BinaryNotation {
+
+    /**
+     * Addition opcode.
+     */
+    static final int ADDITION       = 3;
+
+    /**
+     * Constant opcode.
+     */
+    static final int CONSTANT       = 1;
+
+    /**
+     * Dice opcode.
+     */
+    static final int DICE           = 2;
+
+    /**
+     * Division opcode.
+     */
+    static final int DIVISION       = 6;
+
+    /**
+     * Multiplication opcode.
+     */
+    static final int MULTIPLICATION = 5;
+
+    /**
+     * Product opcode.
+     */
+    static final int PRODUCT        = 8;
+
+    /**
+     * Subtraction opcode.
+     */
+    static final int SUBTRACTION    = 4;
+
+    /**
+     * Sum opcode.
+     */
+    static final int SUM            = 7;
+
+    /**
+     * Current format version.
+     */
+    static final int VERSION        = 1;
+
+    /**
+     * Private constructor to avoid initialization.
+     */
+    private BinaryNotation() {
+        super();
+    }
+
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
+
+/**
+ * Writes the text of expressions, as returned by
+ * {@link DiceNotationExpression#getExpression()}.
+ * <p>
+ * The tree is walked iteratively, writing each node directly into the output,
+ * so the cost is linear on the size of the tree, and deep trees can be
+ * rendered safely. Binary operations are written with the symbol of their
+ * {@code Operator}. Any other node not included in the library is written
+ * through its own {@code getExpression()} method.
+ * <p>
+ * The renderer keeps no state, and so it is thread safe.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class ExpressionRenderer {
+
+    /**
+     * Default constructor.
+     */
+    public ExpressionRenderer() {
+        super();
+    }
+
+    /**
+     * Returns the text of the expression.
+     *
+     * @param expression
+     *            expression to render
+     * @return the text of the expression
+     */
+    public final String render(final DiceNotationExpression expression) {
+        final StringBuilder text;
+
+        text = new StringBuilder();
+        render(expression, text);
+
+        return text.toString();
+    }
+
+    /**
+     * Writes the text of the expression into the received output.
+     *
+     * @param expression
+     *            expression to render
+     * @param output
+     *            output for the text
+     * @throws IOException
+     *             if the output can't be written
+     */
+    public final void render(final DiceNotationExpression expression,
+            final Appendable output) throws IOException {
+        final Deque<Object> pending;
+        Object current;
+        BinaryOperation operation;
+        SumOperation sum;
+        ProductOperation product;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+        checkNotNull(output, "Received a null pointer as output");
+
+        pending = new ArrayDeque<>();
+        pending.push(expression);
+        while (!pending.isEmpty()) {
+            current = pending.pop();
+            if (current instanceof String) {
+                // Operator
+                output.append((String) current);
+            } else if (current instanceof Character) {
+                // Operator symbol
+                output.append((Character) current);
+            } else if ((current instanceof BinaryOperation)
+                    && (((BinaryOperation) current).getOperator() != null)) {
+                operation = (BinaryOperation) current;
+                // Pushed in reverse order
+                pending.push(operation.getRight());
+                pending.push(operation.getOperator().getSymbol());
+                pending.push(operation.getLeft());
+            } else if (current instanceof SumOperation) {
+                sum = (SumOperation) current;
+                // Pushed in reverse order
+                for (int i = sum.getOperandCount() - 1; i > 0; i--) {
+                    pending.push(sum.getOperand(i));
+                    if (sum.isSubtracted(i)) {
+                        pending.push("-");
+                    } else {
+                        pending.push("+");
+                    }
+                }
+                pending.push(sum.getOperand(0));
+            } else if (current instanceof ProductOperation) {
+                product = (ProductOperation) current;
+                // Pushed in reverse order
+                for (int i = product.getOperandCount() - 1; i > 0; i--) {
+                    pending.push(product.getOperand(i));
+                    pending.push("*");
+                }
+                pending.push(product.getOperand(0));
+            } else if (current instanceof DefaultDiceOperand) {
+                output.append(String.valueOf(((DefaultDiceOperand) current)
+                        .getDice().getQuantityAsInt()));
+                output.append('d');
+                output.append(String.valueOf(((DefaultDiceOperand) current)
+                        .getDice().getSidesAsInt()));
+            } else if (current instanceof IntegerOperand) {
+                output.append(String
+                        .valueOf(((IntegerOperand) current).getValueAsInt()));
+            } else {
+                output.append(((DiceNotationExpression) current).getExpression());
+            }
+        }
+    }
+
+    /**
+     * Writes the text of the expression into the received builder.
+     *
+     * @param expression
+     *            expression to render
+     * @param output
+     *            builder for the text
+     */
+    public final void render(final DiceNotationExpression expression,
+            final StringBuilder output) {
+        try {
+            render(expression, (Appendable) output);
+        } catch (final IOException e) {
+            // Builders never throw this
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.MultiplicationOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Fluent builder for expressions, which creates the notation model directly,
+ * without going through any text.
+ * <p>
+ * Each operation is applied over the whole expression built so far, and
+ * returns a new builder. So {@code Notation.dice(2, 6).plus(3).times(2)} is
+ * the same tree a parser would return for "(2d6+3)*2". To follow the usual
+ * operator precedence, the operand is built separately, as in
+ * {@code Notation.dice(2, 6).plus(Notation.constant(3).times(2))}, which is
+ * the same tree as for "2d6+3*2".
+ * <p>
+ * Leaves are taken from the shared instances, so common dice and small
+ * constants are never created again. Builders are immutable, and so they are
+ * thread safe and can be reused as the base for several expressions.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class Notation {
+
+    /**
+     * Expression built so far.
+     */
+    private final DiceNotationExpression expression;
+
+    /**
+     * Constructs a builder over the received expression.
+     *
+     * @param expr
+     *            expression built so far
+     */
+    private Notation(final DiceNotationExpression expr) {
+        super();
+
+        expression = checkNotNull(expr,
+                "Received a null pointer as expression");
+    }
+
+    /**
+     * Returns a builder starting with a constant.
+     *
+     * @param value
+     *            value of the constant
+     * @return a builder for the constant
+     */
+    public static final Notation constant(final int value) {
+        return new Notation(IntegerOperand.valueOf(value));
+    }
+
+    /**
+     * Returns a builder starting with the received dice.
+     * <p>
+     * Negative quantities are used for subtracted dice, the same as the
+     * parser does for "-1d6".
+     *
+     * @param quantity
+     *            the number of dice
+     * @param sides
+     *            the number sides each die has
+     * @return a builder for the dice
+     */
+    public static final Notation dice(final int quantity, final int sides) {
+        return new Notation(DefaultDiceOperand.valueOf(quantity, sides));
+    }
+
+    /**
+     * Returns a builder starting with the received expression.
+     *
+     * @param expression
+     *            initial expression
+     * @return a builder for the expression
+     */
+    public static final Notation of(final DiceNotationExpression expression) {
+        return new Notation(expression);
+    }
+
+    /**
+     * Returns the expression built.
+     *
+     * @return the expression built
+     */
+    public final DiceNotationExpression build() {
+        return expression;
+    }
+
+    /**
+     * Divides the expression by a constant.
+     *
+     * @param value
+     *            divisor
+     * @return a builder for the division
+     */
+    public final Notation dividedBy(final int value) {
+        return new Notation(new DivisionOperation(expression,
+                IntegerOperand.valueOf(value)));
+    }
+
+    /**
+     * Divides the expression by another one.
+     *
+     * @param divisor
+     *            divisor
+     * @return a builder for the division
+     */
+    public final Notation dividedBy(final Notation divisor) {
+        checkNotNull(divisor, "Received a null pointer as divisor");
+
+        return new Notation(
+                new DivisionOperation(expression, divisor.expression));
+    }
+
+    /**
+     * Subtracts a constant from the expression.
+     *
+     * @param value
+     *            value to subtract
+     * @return a builder for the subtraction
+     */
+    public final Notation minus(final int value) {
+        return new Notation(new SubtractionOperation(expression,
+                IntegerOperand.valueOf(value)));
+    }
+
+    /**
+     * Subtracts another expression from this one.
+     *
+     * @param subtrahend
+     *            expression to subtract
+     * @return a builder for the subtraction
+     */
+    public final Notation minus(final Notation subtrahend) {
+        checkNotNull(subtrahend, "Received a null pointer as subtrahend");
+
+        return new Notation(
+                new SubtractionOperation(expression, subtrahend.expression));
+    }
+
+    /**
+     * Adds a constant to the expression.
+     *
+     * @param value
+     *            value to add
+     * @return a builder for the addition
+     */
+    public final Notation plus(final int value) {
+        return new Notation(new AdditionOperation(expression,
+                IntegerOperand.valueOf(value)));
+    }
+
+    /**
+     * Adds another expression to this one.
+     *
+     * @param addend
+     *            expression to add
+     * @return a builder for the addition
+     */
+    public final Notation plus(final Notation addend) {
+        checkNotNull(addend, "Received a null pointer as addend");
+
+        return new Notation(
+                new AdditionOperation(expression, addend.expression));
+    }
+
+    /**
+     * Multiplies the expression by a constant.
+     *
+     * @param value
+     *            factor
+     * @return a builder for the multiplication
+     */
+    public final Notation times(final int value) {
+        return new Notation(new MultiplicationOperation(expression,
+                IntegerOperand.valueOf(value)));
+    }
+
+    /**
+     * Multiplies the expression by another one.
+     *
+     * @param factor
+     *            factor
+     * @return a builder for the multiplication
+     */
+    public final Notation times(final Notation factor) {
+        checkNotNull(factor, "Received a null pointer as factor");
+
+        return new Notation(
+                new MultiplicationOperation(expression, factor.expression));
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("expression", expression)
+                .toString();
+    }
+
+}
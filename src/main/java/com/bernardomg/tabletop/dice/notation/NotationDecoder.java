@@ -0,0 +1,387 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.MultiplicationOperation;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
+
+/**
+ * Reads expressions written by a {@link NotationEncoder}.
+ * <p>
+ * Decoding is a single pass over the bytes, without any text or token, and so
+ * it is much cheaper than parsing the expression again. Common dice and small
+ * constants are taken from the shared instances.
+ * <p>
+ * Malformed data, such as an unknown version or opcode, is rejected with an
+ * {@code IllegalArgumentException}. Running out of data is reported by the
+ * source, as a {@code BufferUnderflowException} or an {@code EOFException}.
+ * <p>
+ * The tree is rebuilt iteratively, so deep trees can be decoded safely. The
+ * decoder keeps no state, and so it is thread safe.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class NotationDecoder {
+
+    /**
+     * Source for the encoded bytes.
+     */
+    @FunctionalInterface
+    private interface ByteSource {
+
+        /**
+         * Reads the next byte, as an unsigned value.
+         *
+         * @return the next byte
+         * @throws IOException
+         *             if the byte can't be read
+         */
+        public int read() throws IOException;
+
+    }
+
+    /**
+     * Operation waiting for its operands.
+     */
+    private static final class PendingOperation {
+
+        /**
+         * Number of operands already read.
+         */
+        private int                            filled;
+
+        /**
+         * Opcode of the operation.
+         */
+        private final int                      opcode;
+
+        /**
+         * Operands of the operation.
+         */
+        private final DiceNotationExpression[] operands;
+
+        /**
+         * Flags marking the subtracted operands, only for sums.
+         */
+        private final boolean[]                subtracted;
+
+        /**
+         * Constructs a pending operation.
+         *
+         * @param code
+         *            opcode of the operation
+         * @param count
+         *            number of operands
+         * @param subtractions
+         *            flags marking the subtracted operands, only for sums
+         */
+        private PendingOperation(final int code, final int count,
+                final boolean[] subtractions) {
+            super();
+
+            opcode = code;
+            operands = new DiceNotationExpression[count];
+            subtracted = subtractions;
+        }
+
+    }
+
+    /**
+     * Default constructor.
+     */
+    public NotationDecoder() {
+        super();
+    }
+
+    /**
+     * Returns the expression encoded in the received bytes.
+     *
+     * @param bytes
+     *            encoded expression
+     * @return the decoded expression
+     */
+    public final DiceNotationExpression decode(final byte[] bytes) {
+        checkNotNull(bytes, "Received a null pointer as bytes");
+
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Returns the expression encoded in the buffer, starting at its current
+     * position. The position is moved after the expression.
+     *
+     * @param buffer
+     *            buffer with the encoded expression
+     * @return the decoded expression
+     * @throws java.nio.BufferUnderflowException
+     *             if the buffer ends before the expression
+     */
+    public final DiceNotationExpression decode(final ByteBuffer buffer) {
+        final DiceNotationExpression expression;
+
+        checkNotNull(buffer, "Received a null pointer as buffer");
+
+        try {
+            expression = read(() -> buffer.get() & 0xFF);
+        } catch (final IOException e) {
+            // Reading from a buffer never throws checked exceptions
+            throw new UncheckedIOException(e);
+        }
+
+        return expression;
+    }
+
+    /**
+     * Returns the expression read from the input.
+     *
+     * @param input
+     *            input with the encoded expression
+     * @return the decoded expression
+     * @throws IOException
+     *             if the input can't be read, or ends before the expression
+     */
+    public final DiceNotationExpression decode(final DataInput input)
+            throws IOException {
+        checkNotNull(input, "Received a null pointer as input");
+
+        return read(input::readUnsignedByte);
+    }
+
+    /**
+     * Returns the operation for the operands already read.
+     *
+     * @param pending
+     *            operation with all its operands
+     * @return the operation
+     */
+    private final DiceNotationExpression
+            build(final PendingOperation pending) {
+        final DiceNotationExpression operation;
+        final DiceNotationExpression[] operands;
+
+        operands = pending.operands;
+        switch (pending.opcode) {
+            case BinaryNotation.ADDITION:
+                operation = new AdditionOperation(operands[0], operands[1]);
+                break;
+            case BinaryNotation.SUBTRACTION:
+                operation = new SubtractionOperation(operands[0], operands[1]);
+                break;
+            case BinaryNotation.MULTIPLICATION:
+                operation = new MultiplicationOperation(operands[0],
+                        operands[1]);
+                break;
+            case BinaryNotation.DIVISION:
+                operation = new DivisionOperation(operands[0], operands[1]);
+                break;
+            case BinaryNotation.SUM:
+                operation = new SumOperation(operands, pending.subtracted);
+                break;
+            default:
+                operation = new ProductOperation(operands);
+        }
+
+        return operation;
+    }
+
+    /**
+     * Reads the nodes in prefix order, building each operation once all its
+     * operands are read.
+     *
+     * @param source
+     *            source for the bytes
+     * @return the decoded expression
+     * @throws IOException
+     *             if the bytes can't be read
+     */
+    private final DiceNotationExpression read(final ByteSource source)
+            throws IOException {
+        final Deque<PendingOperation> pending;
+        final int version;
+        DiceNotationExpression node;
+        DiceNotationExpression result;
+        PendingOperation operation;
+        int opcode;
+        int count;
+
+        version = readUnsigned(source);
+        checkArgument(version == BinaryNotation.VERSION,
+                "Unsupported encoding version %s", version);
+
+        pending = new ArrayDeque<>();
+        result = null;
+        while (result == null) {
+            opcode = source.read();
+            switch (opcode) {
+                case BinaryNotation.CONSTANT:
+                    node = IntegerOperand.valueOf(readSigned(source));
+                    break;
+                case BinaryNotation.DICE:
+                    // Arguments are evaluated in order
+                    node = DefaultDiceOperand.valueOf(readSigned(source),
+                            readSigned(source));
+                    break;
+                case BinaryNotation.ADDITION:
+                case BinaryNotation.SUBTRACTION:
+                case BinaryNotation.MULTIPLICATION:
+                case BinaryNotation.DIVISION:
+                    pending.push(new PendingOperation(opcode, 2, null));
+                    node = null;
+                    break;
+                case BinaryNotation.SUM:
+                    count = readCount(source);
+                    pending.push(new PendingOperation(opcode, count,
+                            readSigns(source, count)));
+                    node = null;
+                    break;
+                case BinaryNotation.PRODUCT:
+                    count = readCount(source);
+                    pending.push(new PendingOperation(opcode, count, null));
+                    node = null;
+                    break;
+                default:
+                    throw new IllegalArgumentException(
+                            String.format("Unknown opcode %s", opcode));
+            }
+
+            // Completes the operations waiting for this node
+            while ((node != null) && (!pending.isEmpty())) {
+                operation = pending.peek();
+                operation.operands[operation.filled] = node;
+                operation.filled++;
+                if (operation.filled == operation.operands.length) {
+                    pending.pop();
+                    node = build(operation);
+                } else {
+                    node = null;
+                }
+            }
+
+            result = node;
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads the number of operands of an n-ary operation.
+     *
+     * @param source
+     *            source for the bytes
+     * @return the number of operands
+     * @throws IOException
+     *             if the bytes can't be read
+     */
+    private final int readCount(final ByteSource source) throws IOException {
+        final int count;
+
+        count = readUnsigned(source);
+        checkArgument(count >= 2, "Invalid operand count %s", count);
+
+        return count;
+    }
+
+    /**
+     * Reads the value of a zigzag varint.
+     *
+     * @param source
+     *            source for the bytes
+     * @return the signed value
+     * @throws IOException
+     *             if the bytes can't be read
+     */
+    private final int readSigned(final ByteSource source) throws IOException {
+        final int value;
+
+        value = readUnsigned(source);
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads the bit set marking the subtracted operands of a sum.
+     *
+     * @param source
+     *            source for the bytes
+     * @param count
+     *            number of operands
+     * @return flags marking the subtracted operands
+     * @throws IOException
+     *             if the bytes can't be read
+     */
+    private final boolean[] readSigns(final ByteSource source,
+            final int count) throws IOException {
+        final boolean[] subtracted;
+        int bits;
+
+        subtracted = new boolean[count];
+        bits = 0;
+        for (int i = 0; i < count; i++) {
+            if ((i % 8) == 0) {
+                bits = source.read();
+            }
+            subtracted[i] = ((bits >>> (i % 8)) & 1) != 0;
+        }
+
+        return subtracted;
+    }
+
+    /**
+     * Reads the value of an unsigned varint.
+     *
+     * @param source
+     *            source for the bytes
+     * @return the value
+     * @throws IOException
+     *             if the bytes can't be read
+     */
+    private final int readUnsigned(final ByteSource source)
+            throws IOException {
+        int value;
+        int shift;
+        int current;
+
+        value = 0;
+        shift = 0;
+        do {
+            checkArgument(shift < 32, "Varint longer than five bytes");
+            current = source.read();
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+
+        return value;
+    }
+
+}
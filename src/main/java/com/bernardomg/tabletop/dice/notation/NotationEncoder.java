@@ -0,0 +1,301 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.bernardomg.tabletop.dice.Dice;
+import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
+import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.MultiplicationOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Writes expressions into a compact, versioned, binary encoding, which can be
+ * read back with a {@link NotationDecoder}.
+ * <p>
+ * This allows storing and sending parsed expressions without parsing their
+ * text again. The encoding begins with the format version, followed by the
+ * nodes in prefix order, each of them as an opcode and its values, written as
+ * varints.
+ * <p>
+ * Only the nodes included in the library are supported. Any constant or dice
+ * operand is written by its values, and will be read back as an
+ * {@code IntegerOperand} or a {@code DefaultDiceOperand}. Any other node will
+ * be rejected.
+ * <p>
+ * The tree is walked iteratively, so deep trees can be encoded safely. The
+ * encoder keeps no state, and so it is thread safe.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class NotationEncoder {
+
+    /**
+     * Destination for the encoded bytes.
+     */
+    @FunctionalInterface
+    private interface ByteSink {
+
+        /**
+         * Writes the lowest eight bits of the received value.
+         *
+         * @param value
+         *            byte to write
+         * @throws IOException
+         *             if the byte can't be written
+         */
+        public void write(final int value) throws IOException;
+
+    }
+
+    /**
+     * Default constructor.
+     */
+    public NotationEncoder() {
+        super();
+    }
+
+    /**
+     * Returns the encoded expression.
+     *
+     * @param expression
+     *            expression to encode
+     * @return the encoded bytes
+     */
+    public final byte[] encode(final DiceNotationExpression expression) {
+        final ByteArrayDataOutput output;
+
+        output = ByteStreams.newDataOutput();
+        try {
+            write(expression, output::write);
+        } catch (final IOException e) {
+            // Writing into memory never fails
+            throw new UncheckedIOException(e);
+        }
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Writes the encoded expression into the buffer, starting at its current
+     * position.
+     *
+     * @param expression
+     *            expression to encode
+     * @param buffer
+     *            buffer where the expression is written
+     * @throws java.nio.BufferOverflowException
+     *             if the buffer has not enough space for the expression
+     */
+    public final void encode(final DiceNotationExpression expression,
+            final ByteBuffer buffer) {
+        checkNotNull(buffer, "Received a null pointer as buffer");
+
+        try {
+            write(expression, value -> buffer.put((byte) value));
+        } catch (final IOException e) {
+            // Writing into a buffer never throws checked exceptions
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the encoded expression into the output.
+     *
+     * @param expression
+     *            expression to encode
+     * @param output
+     *            output where the expression is written
+     * @throws IOException
+     *             if the output can't be written
+     */
+    public final void encode(final DiceNotationExpression expression,
+            final DataOutput output) throws IOException {
+        checkNotNull(output, "Received a null pointer as output");
+
+        write(expression, output::write);
+    }
+
+    /**
+     * Returns the opcode for the binary operation.
+     *
+     * @param operation
+     *            operation to encode
+     * @return the opcode for the operation
+     */
+    private final int getOpcode(final BinaryOperation operation) {
+        final int opcode;
+
+        if (operation instanceof AdditionOperation) {
+            opcode = BinaryNotation.ADDITION;
+        } else if (operation instanceof SubtractionOperation) {
+            opcode = BinaryNotation.SUBTRACTION;
+        } else if (operation instanceof MultiplicationOperation) {
+            opcode = BinaryNotation.MULTIPLICATION;
+        } else if (operation instanceof DivisionOperation) {
+            opcode = BinaryNotation.DIVISION;
+        } else {
+            throw new IllegalArgumentException(
+                    String.format("Unsupported expression %s", operation));
+        }
+
+        return opcode;
+    }
+
+    /**
+     * Writes the expression nodes in prefix order.
+     *
+     * @param expression
+     *            expression to encode
+     * @param sink
+     *            destination for the bytes
+     * @throws IOException
+     *             if the bytes can't be written
+     */
+    private final void write(final DiceNotationExpression expression,
+            final ByteSink sink) throws IOException {
+        final Deque<DiceNotationExpression> nodes;
+        DiceNotationExpression current;
+        BinaryOperation binary;
+        NaryOperation nary;
+        Dice dice;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+
+        writeUnsigned(sink, BinaryNotation.VERSION);
+
+        nodes = new ArrayDeque<>();
+        nodes.push(expression);
+        while (!nodes.isEmpty()) {
+            current = nodes.pop();
+            if (current instanceof BinaryOperation) {
+                binary = (BinaryOperation) current;
+                sink.write(getOpcode(binary));
+                nodes.push(binary.getRight());
+                nodes.push(binary.getLeft());
+            } else if (current instanceof SumOperation) {
+                nary = (NaryOperation) current;
+                sink.write(BinaryNotation.SUM);
+                writeUnsigned(sink, nary.getOperandCount());
+                writeSigns(sink, (SumOperation) current);
+                for (int i = nary.getOperandCount() - 1; i >= 0; i--) {
+                    nodes.push(nary.getOperand(i));
+                }
+            } else if (current instanceof ProductOperation) {
+                nary = (NaryOperation) current;
+                sink.write(BinaryNotation.PRODUCT);
+                writeUnsigned(sink, nary.getOperandCount());
+                for (int i = nary.getOperandCount() - 1; i >= 0; i--) {
+                    nodes.push(nary.getOperand(i));
+                }
+            } else if (current instanceof ConstantOperand) {
+                sink.write(BinaryNotation.CONSTANT);
+                writeSigned(sink, ((ConstantOperand) current).getValueAsInt());
+            } else if (current instanceof DiceOperand) {
+                dice = ((DiceOperand) current).getDice();
+                sink.write(BinaryNotation.DICE);
+                writeSigned(sink, dice.getQuantityAsInt());
+                writeSigned(sink, dice.getSidesAsInt());
+            } else {
+                throw new IllegalArgumentException(
+                        String.format("Unsupported expression %s", current));
+            }
+        }
+    }
+
+    /**
+     * Writes the bit set marking the subtracted operands of the sum.
+     *
+     * @param sink
+     *            destination for the bytes
+     * @param sum
+     *            sum to encode
+     * @throws IOException
+     *             if the bytes can't be written
+     */
+    private final void writeSigns(final ByteSink sink, final SumOperation sum)
+            throws IOException {
+        int bits;
+
+        bits = 0;
+        for (int i = 0; i < sum.getOperandCount(); i++) {
+            if (sum.isSubtracted(i)) {
+                bits |= 1 << (i % 8);
+            }
+            if (((i % 8) == 7) || (i == (sum.getOperandCount() - 1))) {
+                sink.write(bits);
+                bits = 0;
+            }
+        }
+    }
+
+    /**
+     * Writes a signed value as a zigzag varint.
+     *
+     * @param sink
+     *            destination for the bytes
+     * @param value
+     *            value to write
+     * @throws IOException
+     *             if the bytes can't be written
+     */
+    private final void writeSigned(final ByteSink sink, final int value)
+            throws IOException {
+        writeUnsigned(sink, (value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes an unsigned value as a varint, seven bits for each byte, with the
+     * lowest bits first.
+     *
+     * @param sink
+     *            destination for the bytes
+     * @param value
+     *            value to write
+     * @throws IOException
+     *             if the bytes can't be written
+     */
+    private final void writeUnsigned(final ByteSink sink, final int value)
+            throws IOException {
+        int remaining;
+
+        remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            sink.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        sink.write(remaining);
+    }
+
+}
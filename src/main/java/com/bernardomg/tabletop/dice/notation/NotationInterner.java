@@ -0,0 +1,224 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Maps structurally equal expressions, and all their subtrees, to a single
+ * shared instance.
+ * <p>
+ * Trees are interned from the leaves up. Once the branches of an operation
+ * are interned, the operation is rebuilt over them, if needed, and then
+ * interned itself. So all the trees interned by the same interner share their
+ * repeated subtrees, and equal interned trees are the same instance.
+ * <p>
+ * Only the operations included in the library, and those with an operator,
+ * can be rebuilt. Any other operation is interned as it is, without sharing
+ * its branches.
+ * <p>
+ * Instances are held through weak references, so shapes no longer used are
+ * garbage collected. The interner is thread safe.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class NotationInterner {
+
+    /**
+     * Interner shared by default.
+     */
+    private static final NotationInterner         SHARED   = new NotationInterner();
+
+    /**
+     * Interned instances.
+     */
+    private final Interner<DiceNotationExpression> interner = Interners
+            .newWeakInterner();
+
+    /**
+     * Returns the interner shared by default.
+     *
+     * @return the shared interner
+     */
+    public static final NotationInterner getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Default constructor.
+     */
+    public NotationInterner() {
+        super();
+    }
+
+    /**
+     * Returns the shared instance equal to the received expression.
+     * <p>
+     * The tree is walked iteratively, so deep trees can be interned safely.
+     *
+     * @param expression
+     *            expression to intern
+     * @return the shared instance for the expression
+     */
+    public final DiceNotationExpression
+            intern(final DiceNotationExpression expression) {
+        final Deque<DiceNotationExpression> nodes;
+        final Deque<DiceNotationExpression> interned;
+        final Deque<Boolean> visited;
+        DiceNotationExpression current;
+        DiceNotationExpression left;
+        DiceNotationExpression right;
+        NaryOperation nary;
+        DiceNotationExpression[] operands;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+
+        nodes = new ArrayDeque<>();
+        visited = new ArrayDeque<>();
+        interned = new ArrayDeque<>();
+        nodes.push(expression);
+        visited.push(false);
+
+        // Postorder walk, the branches are interned before their operation
+        while (!nodes.isEmpty()) {
+            current = nodes.pop();
+            if ((current instanceof BinaryOperation) && !visited.pop()) {
+                nodes.push(current);
+                visited.push(true);
+                nodes.push(((BinaryOperation) current).getRight());
+                visited.push(false);
+                nodes.push(((BinaryOperation) current).getLeft());
+                visited.push(false);
+            } else if (current instanceof BinaryOperation) {
+                right = interned.pop();
+                left = interned.pop();
+                interned.push(interner.intern(
+                        rebuild((BinaryOperation) current, left, right)));
+            } else if ((current instanceof NaryOperation) && !visited.pop()) {
+                nary = (NaryOperation) current;
+                nodes.push(current);
+                visited.push(true);
+                for (int i = nary.getOperandCount() - 1; i >= 0; i--) {
+                    nodes.push(nary.getOperand(i));
+                    visited.push(false);
+                }
+            } else if (current instanceof NaryOperation) {
+                nary = (NaryOperation) current;
+                operands = new DiceNotationExpression[nary.getOperandCount()];
+                for (int i = operands.length - 1; i >= 0; i--) {
+                    operands[i] = interned.pop();
+                }
+                interned.push(interner.intern(rebuild(nary, operands)));
+            } else {
+                visited.pop();
+                interned.push(interner.intern(current));
+            }
+        }
+
+        return interned.pop();
+    }
+
+    /**
+     * Returns an operation equal to the received one, over the received
+     * branches.
+     * <p>
+     * If the branches are the ones of the operation, or it has no operator to
+     * build it again, the same operation is returned.
+     *
+     * @param operation
+     *            operation to rebuild
+     * @param left
+     *            interned left branch
+     * @param right
+     *            interned right branch
+     * @return an operation over the branches
+     */
+    private final DiceNotationExpression rebuild(
+            final BinaryOperation operation, final DiceNotationExpression left,
+            final DiceNotationExpression right) {
+        final DiceNotationExpression rebuilt;
+
+        if ((left == operation.getLeft()) && (right == operation.getRight())) {
+            // Already over the interned branches
+            rebuilt = operation;
+        } else if (operation.getOperator() != null) {
+            // The operator builds the same kind of operation
+            rebuilt = operation.getOperator().create(left, right);
+        } else {
+            // Unknown operation
+            rebuilt = operation;
+        }
+
+        return rebuilt;
+    }
+
+    /**
+     * Returns an operation equal to the received one, over the received
+     * operands.
+     * <p>
+     * If the operands are the ones of the operation, or it is not one of the
+     * operations included in the library, the same operation is returned.
+     *
+     * @param operation
+     *            operation to rebuild
+     * @param operands
+     *            interned operands
+     * @return an operation over the operands
+     */
+    private final DiceNotationExpression rebuild(
+            final NaryOperation operation,
+            final DiceNotationExpression[] operands) {
+        final DiceNotationExpression rebuilt;
+        final boolean[] subtracted;
+        boolean same;
+
+        same = true;
+        for (int i = 0; i < operands.length; i++) {
+            same = same && (operands[i] == operation.getOperand(i));
+        }
+
+        if (same) {
+            // Already over the interned operands
+            rebuilt = operation;
+        } else if (operation instanceof SumOperation) {
+            subtracted = new boolean[operands.length];
+            for (int i = 0; i < operands.length; i++) {
+                subtracted[i] = ((SumOperation) operation).isSubtracted(i);
+            }
+            rebuilt = new SumOperation(operands, subtracted);
+        } else if (operation instanceof ProductOperation) {
+            rebuilt = new ProductOperation(operands);
+        } else {
+            // Unknown operation
+            rebuilt = operation;
+        }
+
+        return rebuilt;
+    }
+
+}
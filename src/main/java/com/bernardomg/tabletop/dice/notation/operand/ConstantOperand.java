@@ -32,4 +32,16 @@ public interface ConstantOperand extends DiceNotationExpression {
      */
     public Integer getValue();
 
+    /**
+     * Returns the constant value of the operand, as a primitive.
+     * <p>
+     * By default this unboxes {@link #getValue()}. Implementations storing the
+     * value as a primitive should return it directly.
+     * 
+     * @return the constant value
+     */
+    public default int getValueAsInt() {
+        return getValue();
+    }
+
 }
@@ -18,21 +18,35 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.bernardomg.tabletop.dice.DefaultDice;
 import com.bernardomg.tabletop.dice.Dice;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
 
 /**
  * Default implementation of the dice operand.
+ * <p>
+ * Operands for common dice can be acquired through
+ * {@link #valueOf(int, int)}, which returns shared instances for the same
+ * dice shared by {@link DefaultDice#valueOf(int, int)}.
  * 
  * @author Bernardo Mart&iacute;nez Garrido
  */
 public final class DefaultDiceOperand implements DiceOperand {
 
+    /**
+     * Shared instances, created when first requested.
+     * <p>
+     * These are stored in the same positions as the dice shared by
+     * {@link DefaultDice#valueOf(int, int)}.
+     */
+    private static final DefaultDiceOperand[] VALUES = new DefaultDiceOperand[DefaultDice
+            .getSharedCount()];
+
     /**
      * Operand dice value.
      */
-    private final Dice dice;
+    private final Dice                        dice;
 
     /**
      * Constructs a dice operand with the specified dice.
@@ -46,6 +60,42 @@ public DefaultDiceOperand(final Dice diceSet) {
         dice = checkNotNull(diceSet, "Received a null pointer as dice");
     }
 
+    /**
+     * Returns an operand for the dice with the specified quantity and number
+     * of sides.
+     * <p>
+     * Operands for common dice are shared, and any other one is created on
+     * each call.
+     * 
+     * @param quantity
+     *            the number of dice
+     * @param sides
+     *            the number sides each die has
+     * @return an operand for the dice
+     */
+    public static final DefaultDiceOperand valueOf(final int quantity,
+            final int sides) {
+        final int index;
+        DefaultDiceOperand operand;
+
+        index = DefaultDice.getSharedIndex(quantity, sides);
+        if (index >= 0) {
+            operand = VALUES[index];
+            if (operand == null) {
+                // Concurrent requests may create equal instances, one of
+                // them is kept
+                operand = new DefaultDiceOperand(
+                        DefaultDice.valueOf(quantity, sides));
+                VALUES[index] = operand;
+            }
+        } else {
+            operand = new DefaultDiceOperand(
+                    DefaultDice.valueOf(quantity, sides));
+        }
+
+        return operand;
+    }
+
     @Override
     public final boolean equals(final Object obj) {
         if (this == obj) {
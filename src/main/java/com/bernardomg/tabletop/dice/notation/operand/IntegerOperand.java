@@ -23,15 +23,40 @@
 
 /**
  * Operand for an integer constant value.
+ * <p>
+ * Values from -128 to 127 are shared through {@link #valueOf(int)}, as with
+ * {@link Integer#valueOf(int)}.
  * 
  * @author Bernardo Mart&iacute;nez Garrido
  */
 public final class IntegerOperand implements ConstantOperand {
 
+    /**
+     * Highest shared value.
+     */
+    private static final int              HIGH   = 127;
+
+    /**
+     * Lowest shared value.
+     */
+    private static final int              LOW    = -128;
+
+    /**
+     * Shared instances.
+     */
+    private static final IntegerOperand[] VALUES = new IntegerOperand[HIGH
+            - LOW + 1];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            VALUES[i] = new IntegerOperand(LOW + i);
+        }
+    }
+
     /**
      * Operand value.
      */
-    private final Integer value;
+    private final int                     value;
 
     /**
      * Constructs an operand with the specified value.
@@ -45,6 +70,27 @@ public IntegerOperand(final Integer constant) {
         value = checkNotNull(constant, "Received a null pointer as value");
     }
 
+    /**
+     * Returns an operand with the specified value.
+     * <p>
+     * Small values are shared, and any other one is created on each call.
+     * 
+     * @param constant
+     *            the operand value
+     * @return an operand with the received value
+     */
+    public static final IntegerOperand valueOf(final int constant) {
+        final IntegerOperand operand;
+
+        if ((constant >= LOW) && (constant <= HIGH)) {
+            operand = VALUES[constant - LOW];
+        } else {
+            operand = new IntegerOperand(constant);
+        }
+
+        return operand;
+    }
+
     @Override
     public final boolean equals(final Object obj) {
         if (this == obj) {
@@ -63,12 +109,12 @@ public final boolean equals(final Object obj) {
 
         other = (IntegerOperand) obj;
 
-        return Objects.equal(value, other.value);
+        return value == other.value;
     }
 
     @Override
     public final String getExpression() {
-        return getValue().toString();
+        return String.valueOf(value);
     }
 
     @Override
@@ -76,6 +122,11 @@ public final Integer getValue() {
         return value;
     }
 
+    @Override
+    public final int getValueAsInt() {
+        return value;
+    }
+
     @Override
     public final int hashCode() {
         return Objects.hashCode(value);
@@ -18,9 +18,13 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
 
 import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.ExpressionRenderer;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
 
@@ -28,12 +32,42 @@
  * Abstract class for binary operations, containing all the common fields.
  * <p>
  * These fields are the operands and the operation, stored as a
- * {@link BiFunction}.
+ * {@link BiFunction}. The operation may also be received as an
+ * {@link IntBinaryOperator}, which is used to evaluate the expression without
+ * boxing the values.
+ * <p>
+ * The hash code is computed once, when the operation is created, from the
+ * already computed hash codes of its operands. Equality is checked by walking
+ * both trees iteratively, so neither of them recurse through deep trees.
+ * <p>
+ * Operations included in the library render their text through an
+ * {@link ExpressionRenderer}, and keep it after the first time it is
+ * requested.
  * 
  * @author Bernardo Mart&iacute;nez Garrido
  */
 public abstract class AbstractBinaryOperation implements BinaryOperation {
 
+    /**
+     * Renderer for the text expressions.
+     */
+    private static final ExpressionRenderer             RENDERER = new ExpressionRenderer();
+
+    /**
+     * Text expression, rendered when first requested.
+     */
+    private String                                      expression;
+
+    /**
+     * Structural hash code, computed on construction.
+     */
+    private final int                                   hash;
+
+    /**
+     * Operation to apply over primitives.
+     */
+    private final IntBinaryOperator                     intOperation;
+
     /**
      * Left sided operand.
      */
@@ -62,6 +96,29 @@ public abstract class AbstractBinaryOperation implements BinaryOperation {
     public AbstractBinaryOperation(final DiceNotationExpression leftOperand,
             final DiceNotationExpression rightOperand,
             final BiFunction<Integer, Integer, Integer> func) {
+        this(leftOperand, rightOperand, func, (a, b) -> func.apply(a, b));
+    }
+
+    /**
+     * Constructs a binary operation with the specified operands, and the
+     * operation both over boxed values and over primitives.
+     * <p>
+     * Both operations are expected to give the same results. Only the boxed
+     * one is taken into account for equality.
+     * 
+     * @param leftOperand
+     *            the left sided operand
+     * @param rightOperand
+     *            the right sided operand
+     * @param func
+     *            operation to apply
+     * @param intFunc
+     *            operation to apply over primitives
+     */
+    public AbstractBinaryOperation(final DiceNotationExpression leftOperand,
+            final DiceNotationExpression rightOperand,
+            final BiFunction<Integer, Integer, Integer> func,
+            final IntBinaryOperator intFunc) {
         super();
 
         left = checkNotNull(leftOperand,
@@ -69,6 +126,10 @@ public AbstractBinaryOperation(final DiceNotationExpression leftOperand,
         right = checkNotNull(rightOperand,
                 "Received a null pointer as right operand");
         operation = checkNotNull(func, "Received a null pointer as operation");
+        intOperation = checkNotNull(intFunc,
+                "Received a null pointer as primitive operation");
+
+        hash = Objects.hashCode(left, right, operation);
     }
 
     @Override
@@ -89,9 +150,12 @@ public final boolean equals(final Object obj) {
 
         other = (AbstractBinaryOperation) obj;
 
-        return Objects.equal(left, other.left)
-                && Objects.equal(right, other.right)
-                && Objects.equal(operation, other.operation);
+        return isEqualTree(this, other);
+    }
+
+    @Override
+    public final IntBinaryOperator getIntOperation() {
+        return intOperation;
     }
 
     @Override
@@ -104,6 +168,27 @@ public final BiFunction<Integer, Integer, Integer> getOperation() {
         return operation;
     }
 
+    /**
+     * Returns the text expression, rendering it the first time it is
+     * requested.
+     * <p>
+     * The tree is immutable, so concurrent calls may render it more than once,
+     * but all of them will return the same text.
+     * 
+     * @return the expression as a string
+     */
+    protected final String getRenderedExpression() {
+        String text;
+
+        text = expression;
+        if (text == null) {
+            text = RENDERER.render(this);
+            expression = text;
+        }
+
+        return text;
+    }
+
     @Override
     public final DiceNotationExpression getRight() {
         return right;
@@ -111,7 +196,7 @@ public final DiceNotationExpression getRight() {
 
     @Override
     public final int hashCode() {
-        return Objects.hashCode(left, right, operation);
+        return hash;
     }
 
     @Override
@@ -120,4 +205,60 @@ public final String toString() {
                 .add("right", right).add("operation", operation).toString();
     }
 
+    /**
+     * Indicates if both trees are equal.
+     * <p>
+     * Pairs of nodes are compared from the roots down. Operations are compared
+     * by their hash codes and operations before checking their operands, and
+     * so most unequal trees are discarded at the roots. Any other node is
+     * compared through its own equality.
+     * 
+     * @param first
+     *            first tree to compare
+     * @param second
+     *            second tree to compare
+     * @return {@code true} if both trees are equal, {@code false} otherwise
+     */
+    private static final boolean isEqualTree(
+            final AbstractBinaryOperation first,
+            final AbstractBinaryOperation second) {
+        final Deque<DiceNotationExpression> pending;
+        DiceNotationExpression firstNode;
+        DiceNotationExpression secondNode;
+        AbstractBinaryOperation firstOperation;
+        AbstractBinaryOperation secondOperation;
+        boolean equal;
+
+        pending = new ArrayDeque<>();
+        pending.push(first);
+        pending.push(second);
+
+        equal = true;
+        while (equal && !pending.isEmpty()) {
+            secondNode = pending.pop();
+            firstNode = pending.pop();
+            if (firstNode == secondNode) {
+                // Shared subtree
+                equal = true;
+            } else if ((firstNode instanceof AbstractBinaryOperation)
+                    && (firstNode.getClass() == secondNode.getClass())) {
+                firstOperation = (AbstractBinaryOperation) firstNode;
+                secondOperation = (AbstractBinaryOperation) secondNode;
+                equal = (firstOperation.hash == secondOperation.hash)
+                        && Objects.equal(firstOperation.operation,
+                                secondOperation.operation);
+                if (equal) {
+                    pending.push(firstOperation.left);
+                    pending.push(secondOperation.left);
+                    pending.push(firstOperation.right);
+                    pending.push(secondOperation.right);
+                }
+            } else {
+                equal = firstNode.equals(secondNode);
+            }
+        }
+
+        return equal;
+    }
+
 }
@@ -0,0 +1,144 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation.operation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.ExpressionRenderer;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Abstract class for n-ary operations, containing the operands.
+ * <p>
+ * The operands are kept in an array. As with binary operations, the hash code
+ * is computed when the operation is created, and the text is rendered the
+ * first time it is requested.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public abstract class AbstractNaryOperation implements NaryOperation {
+
+    /**
+     * Renderer for the text expressions.
+     */
+    private static final ExpressionRenderer RENDERER = new ExpressionRenderer();
+
+    /**
+     * Text expression, rendered when first requested.
+     */
+    private String                          expression;
+
+    /**
+     * Hash code, computed on construction.
+     */
+    private final int                       hash;
+
+    /**
+     * Operands.
+     */
+    private final DiceNotationExpression[]  operands;
+
+    /**
+     * Constructs an operation with the specified operands.
+     * 
+     * @param values
+     *            the operands, at least two
+     */
+    public AbstractNaryOperation(final DiceNotationExpression[] values) {
+        super();
+
+        checkNotNull(values, "Received a null pointer as operands");
+        checkArgument(values.length >= 2,
+                "Expected at least two operands, but received %s",
+                values.length);
+
+        operands = values.clone();
+        for (final DiceNotationExpression operand : operands) {
+            checkNotNull(operand, "Received a null pointer as operand");
+        }
+
+        hash = (31 * getClass().hashCode()) + Arrays.hashCode(operands);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final AbstractNaryOperation other;
+
+        other = (AbstractNaryOperation) obj;
+
+        return (hash == other.hash) && Arrays.equals(operands, other.operands);
+    }
+
+    @Override
+    public final String getExpression() {
+        String text;
+
+        text = expression;
+        if (text == null) {
+            text = RENDERER.render(this);
+            expression = text;
+        }
+
+        return text;
+    }
+
+    @Override
+    public final DiceNotationExpression getOperand(final int index) {
+        return operands[index];
+    }
+
+    @Override
+    public final int getOperandCount() {
+        return operands.length;
+    }
+
+    @Override
+    public final List<DiceNotationExpression> getOperands() {
+        return Collections.unmodifiableList(Arrays.asList(operands));
+    }
+
+    @Override
+    public final int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("operands", Arrays.toString(operands)).toString();
+    }
+
+}
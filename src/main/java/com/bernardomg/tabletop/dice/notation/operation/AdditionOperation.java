@@ -35,23 +35,18 @@ public final class AdditionOperation extends AbstractBinaryOperation {
      */
     public AdditionOperation(final DiceNotationExpression left,
             final DiceNotationExpression right) {
-        super(left, right, (a, b) -> a + b);
+        super(left, right, Operator.ADDITION.getFunction(),
+                Operator.ADDITION.getEvaluator());
     }
 
-    /**
-     * Returns the values from the left and right operands added together.
-     * 
-     * @return the left and right values added together
-     */
     @Override
     public final String getExpression() {
-        final String left;
-        final String right;
-
-        left = getLeft().getExpression();
-        right = getRight().getExpression();
+        return getRenderedExpression();
+    }
 
-        return String.format("%s+%s", left, right);
+    @Override
+    public final Operator getOperator() {
+        return Operator.ADDITION;
     }
 
 }
@@ -17,6 +17,7 @@
 package com.bernardomg.tabletop.dice.notation.operation;
 
 import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
 
 import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
 
@@ -27,6 +28,22 @@
  */
 public interface BinaryOperation extends DiceNotationExpression {
 
+    /**
+     * Returns the operation to apply, working over primitives.
+     * <p>
+     * By default this wraps {@link #getOperation()}, boxing the operands.
+     * Implementations should return an operator which avoids boxing.
+     * 
+     * @return the operation over primitives
+     */
+    public default IntBinaryOperator getIntOperation() {
+        final BiFunction<Integer, Integer, Integer> operation;
+
+        operation = getOperation();
+
+        return (a, b) -> operation.apply(a, b);
+    }
+
     /**
      * Returns the left sided operand.
      * 
@@ -41,6 +58,19 @@ public interface BinaryOperation extends DiceNotationExpression {
      */
     public BiFunction<Integer, Integer, Integer> getOperation();
 
+    /**
+     * Returns the operator applied by this operation.
+     * <p>
+     * By default there is none, and {@code null} is returned. Then the
+     * operation is handled through its other methods, such as
+     * {@link #getExpression()}.
+     * 
+     * @return the operator, or {@code null} if there is none
+     */
+    public default Operator getOperator() {
+        return null;
+    }
+
     /**
      * Returns the right sided operand.
      * 
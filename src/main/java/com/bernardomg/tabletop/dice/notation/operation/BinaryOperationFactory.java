@@ -0,0 +1,42 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation.operation;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+
+/**
+ * Creates the nodes for a binary operator.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+@FunctionalInterface
+public interface BinaryOperationFactory {
+
+    /**
+     * Creates an operation node over the received operands.
+     *
+     * @param left
+     *            the left sided operand
+     * @param right
+     *            the right sided operand
+     * @return an operation node
+     */
+    public BinaryOperation create(final DiceNotationExpression left,
+            final DiceNotationExpression right);
+
+}
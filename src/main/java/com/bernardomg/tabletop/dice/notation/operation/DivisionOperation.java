@@ -35,18 +35,18 @@ public final class DivisionOperation extends AbstractBinaryOperation {
      */
     public DivisionOperation(final DiceNotationExpression left,
             final DiceNotationExpression right) {
-        super(left, right, (a, b) -> a / b);
+        super(left, right, Operator.DIVISION.getFunction(),
+                Operator.DIVISION.getEvaluator());
     }
 
     @Override
     public final String getExpression() {
-        final String left;  // Left side operand as a string
-        final String right; // Right side operand as a string
-
-        left = getLeft().getExpression();
-        right = getRight().getExpression();
+        return getRenderedExpression();
+    }
 
-        return String.format("%s/%s", left, right);
+    @Override
+    public final Operator getOperator() {
+        return Operator.DIVISION;
     }
 
 }
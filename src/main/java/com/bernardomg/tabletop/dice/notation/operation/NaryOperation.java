@@ -0,0 +1,72 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation.operation;
+
+import java.util.List;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+
+/**
+ * Operation over any number of operands.
+ * <p>
+ * Long chains of the same operation, such as "1d6+2+1d4-3", are kept as a
+ * single node, instead of as a tree as deep as the chain. The values of the
+ * operands are combined in a single loop.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public interface NaryOperation extends DiceNotationExpression {
+
+    /**
+     * Applies the operation over the values of the operands.
+     * <p>
+     * The values are read from the received array, starting at the received
+     * offset, in the same order as the operands.
+     * 
+     * @param values
+     *            values of the operands
+     * @param offset
+     *            index of the value for the first operand
+     * @return the result of the operation
+     */
+    public int applyAsInt(final int[] values, final int offset);
+
+    /**
+     * Returns the operand at the received index.
+     * 
+     * @param index
+     *            index of the operand
+     * @return the operand at the index
+     */
+    public DiceNotationExpression getOperand(final int index);
+
+    /**
+     * Returns the number of operands.
+     * 
+     * @return the number of operands
+     */
+    public int getOperandCount();
+
+    /**
+     * Returns all the operands, in order.
+     * 
+     * @return the operands
+     */
+    public List<DiceNotationExpression> getOperands();
+
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation.operation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Description of a binary operator, with all the data needed to parse,
+ * render and evaluate it.
+ * <p>
+ * Each operator has a symbol, a precedence, a factory creating the operation
+ * nodes and an evaluator applying it over primitives. The operators included
+ * in the library are kept as constants, and returned by their operations
+ * through {@link BinaryOperation#getOperator()}, so the code handling
+ * operations reads this data instead of checking the class of each node.
+ * <p>
+ * New operators are created with their symbol, precedence and evaluator, and
+ * by default build {@link RegisteredOperation} nodes. They are made available
+ * to the parsers through an {@link OperatorRegistry}.
+ * <p>
+ * Operators are compared by identity.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class Operator {
+
+    /**
+     * Addition operator.
+     */
+    public static final Operator                        ADDITION       = new Operator(
+            '+', 1, (a, b) -> a + b, AdditionOperation::new);
+
+    /**
+     * Division operator.
+     */
+    public static final Operator                        DIVISION       = new Operator(
+            '/', 2, (a, b) -> a / b, DivisionOperation::new);
+
+    /**
+     * Multiplication operator.
+     */
+    public static final Operator                        MULTIPLICATION = new Operator(
+            '*', 2, (a, b) -> a * b, MultiplicationOperation::new);
+
+    /**
+     * Subtraction operator.
+     */
+    public static final Operator                        SUBTRACTION    = new Operator(
+            '-', 1, (a, b) -> a - b, SubtractionOperation::new);
+
+    /**
+     * Evaluator over primitives.
+     */
+    private final IntBinaryOperator                     evaluator;
+
+    /**
+     * Factory for the operation nodes.
+     */
+    private final BinaryOperationFactory                factory;
+
+    /**
+     * Evaluator over boxed values, shared by all the nodes.
+     */
+    private final BiFunction<Integer, Integer, Integer> function;
+
+    /**
+     * Precedence, higher values are applied first.
+     */
+    private final int                                   precedence;
+
+    /**
+     * Symbol of the operator.
+     */
+    private final char                                  symbol;
+
+    /**
+     * Constructs an operator which builds {@link RegisteredOperation} nodes.
+     *
+     * @param operatorSymbol
+     *            symbol of the operator
+     * @param operatorPrecedence
+     *            precedence, higher values are applied first
+     * @param operatorEvaluator
+     *            evaluator over primitives
+     */
+    public Operator(final char operatorSymbol, final int operatorPrecedence,
+            final IntBinaryOperator operatorEvaluator) {
+        super();
+
+        symbol = operatorSymbol;
+        precedence = operatorPrecedence;
+        evaluator = checkNotNull(operatorEvaluator,
+                "Received a null pointer as evaluator");
+        function = (a, b) -> evaluator.applyAsInt(a, b);
+        factory = (left, right) -> new RegisteredOperation(left, right, this);
+    }
+
+    /**
+     * Constructs an operator which builds its nodes through the received
+     * factory.
+     *
+     * @param operatorSymbol
+     *            symbol of the operator
+     * @param operatorPrecedence
+     *            precedence, higher values are applied first
+     * @param operatorEvaluator
+     *            evaluator over primitives
+     * @param operatorFactory
+     *            factory for the operation nodes
+     */
+    public Operator(final char operatorSymbol, final int operatorPrecedence,
+            final IntBinaryOperator operatorEvaluator,
+            final BinaryOperationFactory operatorFactory) {
+        super();
+
+        symbol = operatorSymbol;
+        precedence = operatorPrecedence;
+        evaluator = checkNotNull(operatorEvaluator,
+                "Received a null pointer as evaluator");
+        function = (a, b) -> evaluator.applyAsInt(a, b);
+        factory = checkNotNull(operatorFactory,
+                "Received a null pointer as factory");
+    }
+
+    /**
+     * Creates an operation node over the received operands.
+     *
+     * @param left
+     *            the left sided operand
+     * @param right
+     *            the right sided operand
+     * @return an operation node
+     */
+    public final BinaryOperation create(final DiceNotationExpression left,
+            final DiceNotationExpression right) {
+        return factory.create(left, right);
+    }
+
+    /**
+     * Returns the evaluator over primitives.
+     *
+     * @return the evaluator over primitives
+     */
+    public final IntBinaryOperator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Returns the evaluator over boxed values.
+     * <p>
+     * The same instance is always returned, so it can be shared by all the
+     * nodes, and used for their equality.
+     *
+     * @return the evaluator over boxed values
+     */
+    public final BiFunction<Integer, Integer, Integer> getFunction() {
+        return function;
+    }
+
+    /**
+     * Returns the precedence. Operators with higher values are applied first.
+     *
+     * @return the precedence
+     */
+    public final int getPrecedence() {
+        return precedence;
+    }
+
+    /**
+     * Returns the symbol of the operator.
+     *
+     * @return the symbol
+     */
+    public final char getSymbol() {
+        return symbol;
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("symbol", symbol)
+                .add("precedence", precedence).toString();
+    }
+
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation.operation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+
+/**
+ * Registry of the binary operators known by a parser, mapped by their
+ * symbols.
+ * <p>
+ * Operators are kept in a table indexed by their symbol, so finding the
+ * operator for a token is a single array access, instead of comparing the
+ * text with each operator. Only ASCII symbols are supported.
+ * <p>
+ * Registries are immutable. Adding an operator returns a new registry, which
+ * replaces any operator with the same symbol. So they are thread safe, and
+ * the default registry can be shared.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class OperatorRegistry {
+
+    /**
+     * Registry with the operators included in the library.
+     */
+    private static final OperatorRegistry DEFAULT    = new OperatorRegistry(
+            Operator.ADDITION, Operator.SUBTRACTION, Operator.MULTIPLICATION,
+            Operator.DIVISION);
+
+    /**
+     * Number of symbols which can be registered.
+     */
+    private static final int              TABLE_SIZE = 128;
+
+    /**
+     * Operators, indexed by their symbols.
+     */
+    private final Operator[]              operators;
+
+    /**
+     * Returns the registry with the operators included in the library.
+     *
+     * @return the default registry
+     */
+    public static final OperatorRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Constructs a registry with the received operators.
+     *
+     * @param ops
+     *            operators to register
+     */
+    public OperatorRegistry(final Operator... ops) {
+        this(new Operator[TABLE_SIZE], ops);
+    }
+
+    /**
+     * Constructs a registry adding the received operators to the received
+     * table.
+     *
+     * @param table
+     *            operators already registered
+     * @param ops
+     *            operators to register
+     */
+    private OperatorRegistry(final Operator[] table, final Operator... ops) {
+        super();
+
+        checkNotNull(ops, "Received a null pointer as operators");
+
+        operators = table;
+        for (final Operator operator : ops) {
+            checkNotNull(operator, "Received a null pointer as operator");
+            checkArgument(operator.getSymbol() < TABLE_SIZE,
+                    "The %s symbol is not supported", operator.getSymbol());
+            operators[operator.getSymbol()] = operator;
+        }
+    }
+
+    /**
+     * Returns the operator for the received symbol.
+     *
+     * @param symbol
+     *            symbol of the operator
+     * @return the operator for the symbol
+     * @throws IllegalArgumentException
+     *             if there is no operator for the symbol
+     */
+    public final Operator getOperator(final char symbol) {
+        checkArgument(isRegistered(symbol), "The %s operator is invalid",
+                symbol);
+
+        return operators[symbol];
+    }
+
+    /**
+     * Indicates if there is an operator for the received symbol.
+     *
+     * @param symbol
+     *            symbol to check
+     * @return {@code true} if there is an operator for the symbol,
+     *         {@code false} otherwise
+     */
+    public final boolean isRegistered(final char symbol) {
+        return (symbol < TABLE_SIZE) && (operators[symbol] != null);
+    }
+
+    /**
+     * Returns a registry with the operators of this one, and the received
+     * operator.
+     * <p>
+     * If there is already an operator with the same symbol, it is replaced.
+     *
+     * @param operator
+     *            operator to add
+     * @return a registry including the operator
+     */
+    public final OperatorRegistry withOperator(final Operator operator) {
+        return new OperatorRegistry(Arrays.copyOf(operators, TABLE_SIZE),
+                operator);
+    }
+
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation.operation;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+
+/**
+ * Product of any number of operands.
+ * <p>
+ * This is the n-ary form of a chain of multiplications, so "2*1d6*3" is a
+ * single product of three operands.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class ProductOperation extends AbstractNaryOperation {
+
+    /**
+     * Constructs a product of the specified operands.
+     * 
+     * @param operands
+     *            the operands, at least two
+     */
+    public ProductOperation(final DiceNotationExpression... operands) {
+        super(operands);
+    }
+
+    @Override
+    public final int applyAsInt(final int[] values, final int offset) {
+        int total;
+
+        total = 1;
+        for (int i = 0; i < getOperandCount(); i++) {
+            total *= values[offset + i];
+        }
+
+        return total;
+    }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation.operation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+
+/**
+ * Operation for any operator, defined by an {@link Operator}.
+ * <p>
+ * This allows adding new operators without creating a class for them. The
+ * operation is evaluated and rendered through its operator. Two operations
+ * are only equal if they apply the same operator.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class RegisteredOperation extends AbstractBinaryOperation {
+
+    /**
+     * Operator applied.
+     */
+    private final Operator operator;
+
+    /**
+     * Constructs an operation with the specified operands and operator.
+     * 
+     * @param left
+     *            the left sided operand
+     * @param right
+     *            the right sided operand
+     * @param op
+     *            operator to apply
+     */
+    public RegisteredOperation(final DiceNotationExpression left,
+            final DiceNotationExpression right, final Operator op) {
+        super(left, right,
+                checkNotNull(op, "Received a null pointer as operator")
+                        .getFunction(),
+                op.getEvaluator());
+
+        operator = op;
+    }
+
+    @Override
+    public final String getExpression() {
+        return getRenderedExpression();
+    }
+
+    @Override
+    public final Operator getOperator() {
+        return operator;
+    }
+
+}
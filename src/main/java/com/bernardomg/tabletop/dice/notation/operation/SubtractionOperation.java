@@ -35,18 +35,18 @@ public final class SubtractionOperation extends AbstractBinaryOperation {
      */
     public SubtractionOperation(final DiceNotationExpression left,
             final DiceNotationExpression right) {
-        super(left, right, (a, b) -> a - b);
+        super(left, right, Operator.SUBTRACTION.getFunction(),
+                Operator.SUBTRACTION.getEvaluator());
     }
 
     @Override
     public final String getExpression() {
-        final String left;
-        final String right;
-
-        left = getLeft().getExpression();
-        right = getRight().getExpression();
+        return getRenderedExpression();
+    }
 
-        return String.format("%s-%s", left, right);
+    @Override
+    public final Operator getOperator() {
+        return Operator.SUBTRACTION;
     }
 
 }
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.notation.operation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Sum of any number of operands, each of them either added or subtracted.
+ * <p>
+ * This is the n-ary form of a chain of additions and subtractions, so
+ * "1d6+2-1d4" is a single sum of three operands, with the last one
+ * subtracted. The first operand is always added.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class SumOperation extends AbstractNaryOperation {
+
+    /**
+     * Flags marking the subtracted operands.
+     */
+    private final boolean[] subtracted;
+
+    /**
+     * Constructs a sum adding all the specified operands.
+     * 
+     * @param operands
+     *            the operands, at least two
+     */
+    public SumOperation(final DiceNotationExpression... operands) {
+        this(operands, new boolean[operands.length]);
+    }
+
+    /**
+     * Constructs a sum with the specified operands and signs.
+     * 
+     * @param operands
+     *            the operands, at least two
+     * @param subtractions
+     *            flags marking the subtracted operands, one for each operand
+     */
+    public SumOperation(final DiceNotationExpression[] operands,
+            final boolean[] subtractions) {
+        super(operands);
+
+        checkNotNull(subtractions, "Received a null pointer as subtractions");
+        checkArgument(subtractions.length == operands.length,
+                "Expected %s subtraction flags, but received %s",
+                operands.length, subtractions.length);
+        checkArgument(!subtractions[0],
+                "The first operand can't be subtracted");
+
+        subtracted = subtractions.clone();
+    }
+
+    @Override
+    public final int applyAsInt(final int[] values, final int offset) {
+        int total;
+
+        total = 0;
+        for (int i = 0; i < subtracted.length; i++) {
+            if (subtracted[i]) {
+                total -= values[offset + i];
+            } else {
+                total += values[offset + i];
+            }
+        }
+
+        return total;
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        return super.equals(obj)
+                && Arrays.equals(subtracted, ((SumOperation) obj).subtracted);
+    }
+
+    /**
+     * Indicates if the operand at the received index is subtracted.
+     * 
+     * @param index
+     *            index of the operand
+     * @return {@code true} if the operand is subtracted, {@code false} if it
+     *         is added
+     */
+    public final boolean isSubtracted(final int index) {
+        return subtracted[index];
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("operands", getOperands())
+                .add("subtracted", Arrays.toString(subtracted)).toString();
+    }
+
+}
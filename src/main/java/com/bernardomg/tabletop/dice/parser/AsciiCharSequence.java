@@ -0,0 +1,116 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Character sequence view of a region of ASCII bytes.
+ * <p>
+ * Each byte is read as a single character, directly from the buffer, with
+ * absolute reads, so the buffer position is never changed. Bytes outside the
+ * ASCII range are read as their ISO-8859-1 characters.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+final class AsciiCharSequence implements CharSequence {
+
+    /**
+     * Buffer with the bytes.
+     */
+    private final ByteBuffer bytes;
+
+    /**
+     * Index after the last byte of the region.
+     */
+    private final int        end;
+
+    /**
+     * Index of the first byte of the region.
+     */
+    private final int        start;
+
+    /**
+     * Constructs a view of the received buffer, from its position to its
+     * limit.
+     *
+     * @param buffer
+     *            buffer with the bytes
+     */
+    AsciiCharSequence(final ByteBuffer buffer) {
+        this(buffer, buffer.position(), buffer.limit());
+    }
+
+    /**
+     * Constructs a view of the received region of the buffer.
+     *
+     * @param buffer
+     *            buffer with the bytes
+     * @param regionStart
+     *            index of the first byte
+     * @param regionEnd
+     *            index after the last byte
+     */
+    AsciiCharSequence(final ByteBuffer buffer, final int regionStart,
+            final int regionEnd) {
+        super();
+
+        bytes = buffer;
+        start = regionStart;
+        end = regionEnd;
+    }
+
+    @Override
+    public final char charAt(final int index) {
+        if ((index < 0) || (index >= length())) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds for length %d",
+                            index, length()));
+        }
+
+        return (char) (bytes.get(start + index) & 0xFF);
+    }
+
+    @Override
+    public final int length() {
+        return end - start;
+    }
+
+    @Override
+    public final CharSequence subSequence(final int from, final int to) {
+        if ((from < 0) || (to > length()) || (from > to)) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Range [%d, %d) out of bounds for length %d",
+                            from, to, length()));
+        }
+
+        return new AsciiCharSequence(bytes, start + from, start + to);
+    }
+
+    @Override
+    public final String toString() {
+        final char[] chars;
+
+        chars = new char[length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (bytes.get(start + i) & 0xFF);
+        }
+
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,235 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Parses collections of dice notation expressions, spreading the work between
+ * threads.
+ * <p>
+ * Repeated expressions are parsed only once. The unique expressions are split
+ * into chunks, and each chunk is parsed as a task on the executor. Each thread
+ * keeps its own parser, created from the received supplier, so the parsers
+ * don't need to be thread safe. Small batches, which fit into a single chunk,
+ * are parsed on the calling thread.
+ * <p>
+ * Expressions are parsed with {@link DiceParser#tryParse(String)}, so an
+ * invalid expression doesn't stop the batch. Its result will contain the
+ * problems found.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class BatchDiceParser {
+
+    /**
+     * Default number of expressions parsed by each task.
+     */
+    private static final int              DEFAULT_CHUNK_SIZE = 128;
+
+    /**
+     * Number of expressions parsed by each task.
+     */
+    private final int                     chunkSize;
+
+    /**
+     * Executor for the parsing tasks.
+     */
+    private final Executor                executor;
+
+    /**
+     * Parser for each thread.
+     */
+    private final ThreadLocal<DiceParser> parsers;
+
+    /**
+     * Default constructor.
+     * <p>
+     * It makes use of {@link LightweightDiceParser}, and runs on the common
+     * fork join pool.
+     */
+    public BatchDiceParser() {
+        this(LightweightDiceParser::new);
+    }
+
+    /**
+     * Constructs a batch parser with the specified parsers, running on the
+     * common fork join pool.
+     *
+     * @param parserSupplier
+     *            supplier for the parser of each thread
+     */
+    public BatchDiceParser(final Supplier<DiceParser> parserSupplier) {
+        this(parserSupplier, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a batch parser with the specified parsers and executor.
+     *
+     * @param parserSupplier
+     *            supplier for the parser of each thread
+     * @param exec
+     *            executor for the parsing tasks
+     */
+    public BatchDiceParser(final Supplier<DiceParser> parserSupplier,
+            final Executor exec) {
+        this(parserSupplier, exec, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a batch parser with the specified parsers, executor and
+     * chunk size.
+     *
+     * @param parserSupplier
+     *            supplier for the parser of each thread
+     * @param exec
+     *            executor for the parsing tasks
+     * @param size
+     *            number of expressions parsed by each task
+     */
+    public BatchDiceParser(final Supplier<DiceParser> parserSupplier,
+            final Executor exec, final int size) {
+        super();
+
+        checkNotNull(parserSupplier, "Received a null pointer as parsers");
+        checkArgument(size > 0, "The chunk size should be positive");
+
+        executor = checkNotNull(exec, "Received a null pointer as executor");
+        chunkSize = size;
+        parsers = ThreadLocal.withInitial(parserSupplier);
+    }
+
+    /**
+     * Parses all the received expressions.
+     * <p>
+     * The returned results are in the same order as the expressions. Equal
+     * expressions share the same result.
+     *
+     * @param expressions
+     *            the expressions to parse
+     * @return the result from parsing each expression
+     */
+    public final List<ParseResult>
+            parseAll(final Collection<String> expressions) {
+        final Map<String, Integer> indexes; // Index of each unique expression
+        final List<String> unique;          // Unique expressions
+        final int[] positions;              // Unique index for each input
+        final ParseResult[] parsed;         // Result for each unique input
+        final List<ParseResult> results;
+        int position;
+        Integer index;
+
+        checkNotNull(expressions, "Received a null pointer as expressions");
+
+        // Removes repeated expressions
+        indexes = new HashMap<>();
+        unique = new ArrayList<>();
+        positions = new int[expressions.size()];
+        position = 0;
+        for (final String expression : expressions) {
+            checkNotNull(expression, "Received a null pointer as expression");
+
+            index = indexes.get(expression);
+            if (index == null) {
+                index = unique.size();
+                indexes.put(expression, index);
+                unique.add(expression);
+            }
+            positions[position] = index;
+            position++;
+        }
+
+        parsed = new ParseResult[unique.size()];
+        if (unique.size() <= chunkSize) {
+            // Single chunk
+            // Not worth sending it to another thread
+            parseRange(unique, parsed, 0, unique.size());
+        } else {
+            parseChunks(unique, parsed);
+        }
+
+        // Maps back to the received expressions
+        results = new ArrayList<>(positions.length);
+        for (final int unq : positions) {
+            results.add(parsed[unq]);
+        }
+
+        return results;
+    }
+
+    /**
+     * Parses the expressions in chunks, each of them on a task, and waits for
+     * all of them.
+     *
+     * @param expressions
+     *            expressions to parse
+     * @param parsed
+     *            array where the results are stored
+     */
+    private final void parseChunks(final List<String> expressions,
+            final ParseResult[] parsed) {
+        final Collection<CompletableFuture<Void>> tasks;
+
+        tasks = new ArrayList<>();
+        for (int start = 0; start < expressions.size(); start += chunkSize) {
+            final int first = start;
+            final int last = Math.min(start + chunkSize, expressions.size());
+
+            tasks.add(CompletableFuture.runAsync(
+                    () -> parseRange(expressions, parsed, first, last),
+                    executor));
+        }
+
+        // Joining makes the results visible to this thread
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+                .join();
+    }
+
+    /**
+     * Parses a range of the expressions with the parser of the current thread.
+     *
+     * @param expressions
+     *            expressions to parse
+     * @param parsed
+     *            array where the results are stored
+     * @param start
+     *            index of the first expression to parse
+     * @param end
+     *            index after the last expression to parse
+     */
+    private final void parseRange(final List<String> expressions,
+            final ParseResult[] parsed, final int start, final int end) {
+        final DiceParser parser;
+
+        parser = parsers.get();
+        for (int i = start; i < end; i++) {
+            parsed[i] = parser.tryParse(expressions.get(i));
+        }
+    }
+
+}
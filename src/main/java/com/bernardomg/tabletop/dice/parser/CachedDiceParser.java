@@ -0,0 +1,236 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bernardomg.tabletop.dice.interpreter.DiceInterpreter;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Parser decorator which caches the parsed expressions.
+ * <p>
+ * The dice notation model is immutable, so the same tree can be returned for
+ * each call with the same expression. Only successful parses are cached, the
+ * errors from the wrapped parser are thrown each time. In the same way, when
+ * trying to parse, only valid results are cached.
+ * <p>
+ * The cache is bounded, evicting the least recently used expressions, and may
+ * expire entries after some time without being accessed. It supports
+ * concurrent access, and so this parser is thread safe as long as the wrapped
+ * parser is.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class CachedDiceParser implements DiceParser {
+
+    /**
+     * Default maximum number of cached expressions.
+     */
+    private static final long                            DEFAULT_MAXIMUM_SIZE = 10000;
+
+    /**
+     * Logger.
+     */
+    private static final Logger                          LOGGER               = LoggerFactory
+            .getLogger(CachedDiceParser.class);
+
+    /**
+     * Cached expressions, mapped by the parsed text.
+     */
+    private final Cache<String, DiceNotationExpression> cache;
+
+    /**
+     * Wrapped parser, used for the expressions not in the cache.
+     */
+    private final DiceParser                             wrapped;
+
+    /**
+     * Constructs a cached parser wrapping the received parser.
+     * <p>
+     * It will keep up to 10000 expressions.
+     *
+     * @param parser
+     *            parser to wrap
+     */
+    public CachedDiceParser(final DiceParser parser) {
+        this(parser, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Constructs a cached parser wrapping the received parser, and using the
+     * received cache configuration.
+     * <p>
+     * This allows any configuration supported by the builder, such as limiting
+     * the cache by weight instead of size.
+     * <p>
+     * Statistics are always recorded, so this constructor modifies the
+     * received builder, enabling statistics recording on it. This change is
+     * kept by the builder, and will affect any other cache built with it.
+     *
+     * @param parser
+     *            parser to wrap
+     * @param builder
+     *            builder for the cache
+     */
+    public CachedDiceParser(final DiceParser parser,
+            final CacheBuilder<? super String, ? super DiceNotationExpression> builder) {
+        super();
+
+        wrapped = checkNotNull(parser, "Received a null pointer as parser");
+        checkNotNull(builder, "Received a null pointer as cache builder");
+
+        cache = builder.recordStats().build();
+    }
+
+    /**
+     * Constructs a cached parser wrapping the received parser, and keeping up
+     * to the received number of expressions.
+     *
+     * @param parser
+     *            parser to wrap
+     * @param maximumSize
+     *            maximum number of cached expressions
+     */
+    public CachedDiceParser(final DiceParser parser, final long maximumSize) {
+        this(parser, CacheBuilder.newBuilder().maximumSize(maximumSize));
+    }
+
+    /**
+     * Constructs a cached parser wrapping the received parser, keeping up to
+     * the received number of expressions, and expiring those which are not
+     * accessed for the received time.
+     *
+     * @param parser
+     *            parser to wrap
+     * @param maximumSize
+     *            maximum number of cached expressions
+     * @param expiration
+     *            time after the last access when an expression is expired
+     */
+    public CachedDiceParser(final DiceParser parser, final long maximumSize,
+            final Duration expiration) {
+        this(parser, CacheBuilder.newBuilder().maximumSize(maximumSize)
+                .expireAfterAccess(checkNotNull(expiration,
+                        "Received a null pointer as expiration")));
+    }
+
+    /**
+     * Removes all the cached expressions.
+     */
+    public final void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the number of expressions removed from the cache to keep it
+     * under its limits, or because they expired.
+     *
+     * @return the number of evicted expressions
+     */
+    public final long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Returns the number of times an expression was found in the cache.
+     *
+     * @return the number of cache hits
+     */
+    public final long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * Returns the number of times an expression was not found in the cache,
+     * and so it was parsed.
+     *
+     * @return the number of cache misses
+     */
+    public final long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * Returns the approximate number of expressions in the cache.
+     *
+     * @return the number of cached expressions
+     */
+    public final long getSize() {
+        return cache.size();
+    }
+
+    @Override
+    public final DiceNotationExpression parse(final String expression) {
+        DiceNotationExpression parsed;
+
+        checkNotNull(expression, "Received a null pointer as string");
+
+        parsed = cache.getIfPresent(expression);
+        if (parsed == null) {
+            // Not cached
+            // Concurrent misses may parse the same expression, but all of
+            // them will return equal trees
+            LOGGER.trace("Expression {} not cached", expression);
+            parsed = checkNotNull(wrapped.parse(expression),
+                    "The wrapped parser returned a null pointer");
+            cache.put(expression, parsed);
+        }
+
+        return parsed;
+    }
+
+    @Override
+    public final <V> V parse(final String expression,
+            final DiceInterpreter<V> interpreter) {
+        final DiceNotationExpression parsed;
+
+        parsed = parse(expression);
+
+        return interpreter.transform(parsed);
+    }
+
+    @Override
+    public final ParseResult tryParse(final String expression) {
+        final DiceNotationExpression cached;
+        final ParseResult result;
+
+        checkNotNull(expression, "Received a null pointer as string");
+
+        cached = cache.getIfPresent(expression);
+        if (cached == null) {
+            // Not cached
+            result = checkNotNull(wrapped.tryParse(expression),
+                    "The wrapped parser returned a null pointer");
+            if (result.isValid()) {
+                cache.put(expression, result.getExpression());
+            }
+        } else {
+            result = new DefaultParseResult(cached);
+        }
+
+        return result;
+    }
+
+}
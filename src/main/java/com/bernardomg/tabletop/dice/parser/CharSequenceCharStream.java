@@ -0,0 +1,181 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * ANTLR4 char stream reading directly from a {@code CharSequence}.
+ * <p>
+ * {@link CharStreams#fromString(String)} copies the whole input into an
+ * array, and requires a string. This stream reads the characters from the
+ * received sequence, without copying them.
+ * <p>
+ * Each character is taken as a code point, which is only true outside
+ * surrogate pairs. So sequences containing surrogates should be read with
+ * {@link #of(CharSequence)}, which takes care of this.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+final class CharSequenceCharStream implements CharStream {
+
+    /**
+     * Characters to read.
+     */
+    private final CharSequence input;
+
+    /**
+     * Index of the next character to read.
+     */
+    private int                position;
+
+    /**
+     * Number of characters.
+     */
+    private final int          size;
+
+    /**
+     * Constructs a stream for the received characters.
+     *
+     * @param chars
+     *            characters to read
+     */
+    CharSequenceCharStream(final CharSequence chars) {
+        super();
+
+        input = chars;
+        size = chars.length();
+    }
+
+    @Override
+    public final void consume() {
+        if (position >= size) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+
+        position++;
+    }
+
+    @Override
+    public final String getSourceName() {
+        return IntStream.UNKNOWN_SOURCE_NAME;
+    }
+
+    @Override
+    public final String getText(final Interval interval) {
+        final int start;
+        final int end;
+
+        start = Math.min(interval.a, size);
+        end = Math.min(interval.b + 1, size);
+
+        return input.subSequence(start, Math.max(start, end)).toString();
+    }
+
+    @Override
+    public final int index() {
+        return position;
+    }
+
+    @Override
+    public final int LA(final int i) {
+        final int offset;
+        final int value;
+
+        if (i == 0) {
+            // Undefined
+            value = 0;
+        } else {
+            if (i < 0) {
+                offset = position + i;
+            } else {
+                offset = position + i - 1;
+            }
+
+            if ((offset < 0) || (offset >= size)) {
+                value = IntStream.EOF;
+            } else {
+                value = input.charAt(offset);
+            }
+        }
+
+        return value;
+    }
+
+    @Override
+    public final int mark() {
+        // The whole input is available, marks are not needed
+        return -1;
+    }
+
+    /**
+     * Returns a char stream for the received characters.
+     * <p>
+     * Only if they contain surrogate pairs these will be copied into a
+     * {@code CharStreams} stream, which handles supplementary code points.
+     * Notation expressions never contain them, so this will only happen with
+     * invalid input.
+     *
+     * @param chars
+     *            characters to read
+     * @return a char stream for the characters
+     */
+    static final CharStream of(final CharSequence chars) {
+        final CharStream stream;
+        boolean surrogates;
+        int index;
+
+        surrogates = false;
+        index = 0;
+        while ((!surrogates) && (index < chars.length())) {
+            surrogates = Character.isSurrogate(chars.charAt(index));
+            index++;
+        }
+
+        if (surrogates) {
+            stream = CharStreams.fromString(chars.toString());
+        } else {
+            stream = new CharSequenceCharStream(chars);
+        }
+
+        return stream;
+    }
+
+    @Override
+    public final void release(final int marker) {
+        // The whole input is available, marks are not needed
+    }
+
+    @Override
+    public final void seek(final int index) {
+        position = index;
+    }
+
+    @Override
+    public final int size() {
+        return size;
+    }
+
+    @Override
+    public final String toString() {
+        return input.toString();
+    }
+
+}
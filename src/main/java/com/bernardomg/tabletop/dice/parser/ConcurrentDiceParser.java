@@ -0,0 +1,165 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.function.Supplier;
+
+import org.antlr.v4.runtime.ANTLRErrorListener;
+
+import com.bernardomg.tabletop.dice.interpreter.DiceInterpreter;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.parser.listener.DefaultDiceExpressionBuilder;
+import com.bernardomg.tabletop.dice.parser.listener.DefaultErrorListener;
+import com.bernardomg.tabletop.dice.parser.listener.DiceExpressionBuilder;
+
+/**
+ * Dice notation parser which can be shared between threads. Can parse the full
+ * grammar.
+ * <p>
+ * It works like the {@link DefaultDiceParser}, but each thread keeps its own
+ * ANTLR4 lexer, token stream and parser. These are created the first time a
+ * thread parses an expression, and then reset for each new expression, instead
+ * of creating them again.
+ * <p>
+ * Parsing is also tuned for throughput. Expressions are first parsed with a
+ * tuned grammar, which accepts the same notation, using SLL prediction,
+ * stopping at the first error, and without keeping a parse tree. Only when
+ * this fails they are parsed again with the default grammar and full LL
+ * prediction, so syntax errors are reported as with the default parser.
+ * <p>
+ * As builders keep state, they are received through a supplier, which is used
+ * to create a builder for each thread. This is reset after each parse. The error
+ * listener is shared by all the threads, so it should be thread safe, as the
+ * {@link DefaultErrorListener} is.
+ * <p>
+ * The ANTLR prediction caches are taken from a {@link DfaCache}, by default the
+ * shared one.
+ * <p>
+ * The ANTLR objects are kept for as long as the thread lives, so this is
+ * better suited for long lived parsers used from thread pools.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class ConcurrentDiceParser implements DiceParser {
+
+    /**
+     * Parser for each thread.
+     */
+    private final ThreadLocal<ReusableNotationParser> parsers;
+
+    /**
+     * Default constructor.
+     * <p>
+     * It makes use of a {@link DefaultDiceExpressionBuilder}.
+     */
+    public ConcurrentDiceParser() {
+        this(DefaultDiceExpressionBuilder::new, new DefaultErrorListener());
+    }
+
+    /**
+     * Constructs a parser with the error listener.
+     *
+     * @param listener
+     *            error listener, shared by all the threads
+     */
+    public ConcurrentDiceParser(final ANTLRErrorListener listener) {
+        this(DefaultDiceExpressionBuilder::new, listener);
+    }
+
+    /**
+     * Constructs a parser with the specified builders.
+     *
+     * @param builders
+     *            supplier for the builders which generate the returned tree
+     */
+    public ConcurrentDiceParser(
+            final Supplier<DiceExpressionBuilder> builders) {
+        this(builders, new DefaultErrorListener());
+    }
+
+    /**
+     * Constructs a parser with the specified builders and error listener.
+     *
+     * @param builders
+     *            supplier for the builders which generate the returned tree
+     * @param listener
+     *            error listener, shared by all the threads
+     */
+    public ConcurrentDiceParser(final Supplier<DiceExpressionBuilder> builders,
+            final ANTLRErrorListener listener) {
+        this(builders, listener, DfaCache.getShared());
+    }
+
+    /**
+     * Constructs a parser with the specified builders, error listener and
+     * ANTLR caches.
+     *
+     * @param builders
+     *            supplier for the builders which generate the returned tree
+     * @param listener
+     *            error listener, shared by all the threads
+     * @param cache
+     *            caches for the ANTLR lexer and parser
+     */
+    public ConcurrentDiceParser(final Supplier<DiceExpressionBuilder> builders,
+            final ANTLRErrorListener listener, final DfaCache cache) {
+        super();
+
+        checkNotNull(builders, "Received a null pointer as builders");
+        checkNotNull(listener, "Received a null pointer as listener");
+        checkNotNull(cache, "Received a null pointer as cache");
+
+        parsers = ThreadLocal
+                .withInitial(() -> new ReusableNotationParser(builders,
+                        listener, cache));
+    }
+
+    @Override
+    public final DiceNotationExpression
+            parse(final CharSequence expression) {
+        checkNotNull(expression, "Received a null pointer as characters");
+
+        return parsers.get().parse(expression);
+    }
+
+    @Override
+    public final DiceNotationExpression parse(final String expression) {
+        checkNotNull(expression, "Received a null pointer as string");
+
+        return parsers.get().parse(expression);
+    }
+
+    @Override
+    public final <V> V parse(final String expression,
+            final DiceInterpreter<V> interpreter) {
+        final DiceNotationExpression parsed;
+
+        parsed = parse(expression);
+
+        return interpreter.transform(parsed);
+    }
+
+    @Override
+    public final ParseResult tryParse(final String expression) {
+        checkNotNull(expression, "Received a null pointer as string");
+
+        return parsers.get().tryParse(expression);
+    }
+
+}
@@ -0,0 +1,250 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import org.antlr.v4.runtime.atn.ATN;
+import org.antlr.v4.runtime.atn.LexerATNSimulator;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionContextCache;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.dfa.DFAState;
+
+import com.bernardomg.tabletop.dice.generated.DiceNotationLexer;
+import com.bernardomg.tabletop.dice.generated.DiceNotationParser;
+import com.bernardomg.tabletop.dice.generated.TunedDiceNotationParser;
+
+/**
+ * DFA and prediction context caches for the ANTLR4 lexer and parser.
+ * <p>
+ * These are the same caches the generated classes keep in static fields, but
+ * owned by an instance, so they can be dropped by replacing the instance.
+ * They are installed into a lexer and parser by replacing their ATN
+ * simulators.
+ * <p>
+ * The parsers for the tuned grammar have their own caches, as they predict
+ * over a different ATN.
+ * <p>
+ * The caches are filled by the simulators of all the parsers using them, which
+ * synchronize on the maps they modify. This class synchronizes on them too
+ * when reading them.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+final class DecisionCaches {
+
+    /**
+     * Estimated bytes for each ATN configuration in a DFA state.
+     */
+    private static final long            CONFIG_BYTES    = 40;
+
+    /**
+     * Estimated bytes for each cached prediction context.
+     */
+    private static final long            CONTEXT_BYTES   = 40;
+
+    /**
+     * Estimated bytes for each DFA state, excluding its configurations and
+     * edges.
+     */
+    private static final long            DFA_STATE_BYTES = 96;
+
+    /**
+     * Prediction contexts shared by the lexers.
+     */
+    private final PredictionContextCache lexerContexts;
+
+    /**
+     * DFA for each lexer decision.
+     */
+    private final DFA[]                  lexerDfa;
+
+    /**
+     * Prediction contexts shared by the parsers.
+     */
+    private final PredictionContextCache parserContexts;
+
+    /**
+     * DFA for each parser decision.
+     */
+    private final DFA[]                  parserDfa;
+
+    /**
+     * Prediction contexts shared by the tuned parsers.
+     */
+    private final PredictionContextCache tunedContexts;
+
+    /**
+     * DFA for each tuned parser decision.
+     */
+    private final DFA[]                  tunedDfa;
+
+    /**
+     * Constructs empty caches.
+     */
+    DecisionCaches() {
+        super();
+
+        lexerContexts = new PredictionContextCache();
+        lexerDfa = buildDfa(DiceNotationLexer._ATN);
+        parserContexts = new PredictionContextCache();
+        parserDfa = buildDfa(DiceNotationParser._ATN);
+        tunedContexts = new PredictionContextCache();
+        tunedDfa = buildDfa(TunedDiceNotationParser._ATN);
+    }
+
+    /**
+     * Returns the number of cached prediction contexts.
+     *
+     * @return the number of cached prediction contexts
+     */
+    final int getContextCount() {
+        return getSize(lexerContexts) + getSize(parserContexts)
+                + getSize(tunedContexts);
+    }
+
+    /**
+     * Returns a rough estimate of the memory used by the caches, in bytes.
+     *
+     * @return the estimated memory used by the caches
+     */
+    final long getEstimatedMemory() {
+        return getEstimatedMemory(lexerDfa) + getEstimatedMemory(parserDfa)
+                + getEstimatedMemory(tunedDfa)
+                + (getContextCount() * CONTEXT_BYTES);
+    }
+
+    /**
+     * Returns the number of DFA states.
+     *
+     * @return the number of DFA states
+     */
+    final int getStateCount() {
+        return getStateCount(lexerDfa) + getStateCount(parserDfa)
+                + getStateCount(tunedDfa);
+    }
+
+    /**
+     * Makes the received lexer and parser use these caches.
+     * <p>
+     * Their ATN simulators are replaced, so any configuration on them, such as
+     * the prediction mode, is lost.
+     *
+     * @param lexer
+     *            lexer to set up
+     * @param parser
+     *            parser to set up
+     */
+    final void install(final DiceNotationLexer lexer,
+            final DiceNotationParser parser) {
+        lexer.setInterpreter(new LexerATNSimulator(lexer, lexer.getATN(),
+                lexerDfa, lexerContexts));
+        parser.setInterpreter(new ParserATNSimulator(parser, parser.getATN(),
+                parserDfa, parserContexts));
+    }
+
+    /**
+     * Makes the received tuned parser use these caches.
+     * <p>
+     * Its ATN simulator is replaced, so any configuration on it, such as the
+     * prediction mode, is lost.
+     *
+     * @param parser
+     *            tuned parser to set up
+     */
+    final void install(final TunedDiceNotationParser parser) {
+        parser.setInterpreter(new ParserATNSimulator(parser, parser.getATN(),
+                tunedDfa, tunedContexts));
+    }
+
+    /**
+     * Creates an empty DFA for each decision of the received ATN.
+     *
+     * @param atn
+     *            ATN with the decisions
+     * @return an empty DFA for each decision
+     */
+    private final DFA[] buildDfa(final ATN atn) {
+        final DFA[] dfa;
+
+        dfa = new DFA[atn.getNumberOfDecisions()];
+        for (int i = 0; i < dfa.length; i++) {
+            dfa[i] = new DFA(atn.getDecisionState(i), i);
+        }
+
+        return dfa;
+    }
+
+    /**
+     * Returns a rough estimate of the memory used by the received DFA, in
+     * bytes.
+     *
+     * @param dfa
+     *            DFA to check
+     * @return the estimated memory used by the DFA
+     */
+    private final long getEstimatedMemory(final DFA[] dfa) {
+        long bytes;
+
+        bytes = 0;
+        for (final DFA decision : dfa) {
+            synchronized (decision.states) {
+                for (final DFAState state : decision.states.keySet()) {
+                    bytes += DFA_STATE_BYTES;
+                    bytes += state.configs.size() * CONFIG_BYTES;
+                    if (state.edges != null) {
+                        // Array header and references
+                        bytes += 16 + (4L * state.edges.length);
+                    }
+                }
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Returns the number of prediction contexts in the received cache.
+     *
+     * @param contexts
+     *            cache to check
+     * @return the number of cached contexts
+     */
+    private final int getSize(final PredictionContextCache contexts) {
+        synchronized (contexts) {
+            return contexts.size();
+        }
+    }
+
+    /**
+     * Returns the number of states in the received DFA.
+     *
+     * @param dfa
+     *            DFA to check
+     * @return the number of states
+     */
+    private final int getStateCount(final DFA[] dfa) {
+        int count;
+
+        count = 0;
+        for (final DFA decision : dfa) {
+            count += decision.states.size();
+        }
+
+        return count;
+    }
+
+}
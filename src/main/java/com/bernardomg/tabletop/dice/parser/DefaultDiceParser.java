@@ -20,7 +20,6 @@
 
 import org.antlr.v4.runtime.ANTLRErrorListener;
 import org.antlr.v4.runtime.CharStream;
-import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.TokenStream;
 
@@ -41,11 +40,22 @@
  * <p>
  * This {@code DiceExpressionBuilder} is a listener making use of the visitor
  * pattern to generate the returned tree of dice notation model objects.
+ * <p>
+ * The ANTLR prediction caches are taken from a {@link DfaCache}, by default the
+ * shared one.
+ * <p>
+ * The lexer reads the received characters directly, so character sequences,
+ * array slices and byte buffers are parsed without copying them.
  * 
  * @author Bernardo Mart&iacute;nez Garrido
  */
 public final class DefaultDiceParser implements DiceParser {
 
+    /**
+     * Caches for the ANTLR lexer and parser.
+     */
+    private final DfaCache              dfaCache;
+
     /**
      * Error listener for the parser and lexer.
      */
@@ -68,6 +78,7 @@ public final class DefaultDiceParser implements DiceParser {
     public DefaultDiceParser() {
         super();
 
+        dfaCache = DfaCache.getShared();
         errorListener = new DefaultErrorListener();
         expressionBuilder = new DefaultDiceExpressionBuilder();
     }
@@ -81,6 +92,7 @@ public DefaultDiceParser() {
     public DefaultDiceParser(final ANTLRErrorListener listener) {
         super();
 
+        dfaCache = DfaCache.getShared();
         errorListener = checkNotNull(listener,
                 "Received a null pointer as listener");
         expressionBuilder = new DefaultDiceExpressionBuilder();
@@ -95,6 +107,7 @@ public DefaultDiceParser(final ANTLRErrorListener listener) {
     public DefaultDiceParser(final DiceExpressionBuilder builder) {
         super();
 
+        dfaCache = DfaCache.getShared();
         errorListener = new DefaultErrorListener();
         expressionBuilder = checkNotNull(builder,
                 "Received a null pointer as expression builder");
@@ -112,6 +125,29 @@ public DefaultDiceParser(final DiceExpressionBuilder builder,
             final ANTLRErrorListener listener) {
         super();
 
+        dfaCache = DfaCache.getShared();
+        errorListener = checkNotNull(listener,
+                "Received a null pointer as listener");
+        expressionBuilder = checkNotNull(builder,
+                "Received a null pointer as expression builder");
+    }
+
+    /**
+     * Constructs a parser with the specified builder, error listener and ANTLR
+     * caches.
+     * 
+     * @param builder
+     *            builder to generate the returned tree
+     * @param listener
+     *            error listener
+     * @param cache
+     *            caches for the ANTLR lexer and parser
+     */
+    public DefaultDiceParser(final DiceExpressionBuilder builder,
+            final ANTLRErrorListener listener, final DfaCache cache) {
+        super();
+
+        dfaCache = checkNotNull(cache, "Received a null pointer as cache");
         errorListener = checkNotNull(listener,
                 "Received a null pointer as listener");
         expressionBuilder = checkNotNull(builder,
@@ -119,24 +155,37 @@ public DefaultDiceParser(final DiceExpressionBuilder builder,
     }
 
     @Override
-    public final DiceNotationExpression parse(final String expression) {
+    public final DiceNotationExpression
+            parse(final CharSequence expression) {
         final DiceNotationParser parser;   // ANTLR parser
         final DiceNotationExpression root; // Root expression
 
-        checkNotNull(expression, "Received a null pointer as string");
+        checkNotNull(expression, "Received a null pointer as characters");
 
         // Creates the ANTLR parser
-        parser = buildDiceNotationParser(expression);
+        parser = buildDiceNotationParser(expression, errorListener);
 
-        // Parses the root rule
-        parser.notation();
+        try {
+            // Parses the root rule
+            parser.notation();
 
-        root = expressionBuilder.getDiceExpressionRoot();
+            root = expressionBuilder.getDiceExpressionRoot();
+        } finally {
+            // The builder is cleaned, so it keeps no node from this parse
+            expressionBuilder.reset();
+        }
 
         // Returns the tree root node
         return root;
     }
 
+    @Override
+    public final DiceNotationExpression parse(final String expression) {
+        checkNotNull(expression, "Received a null pointer as string");
+
+        return parse((CharSequence) expression);
+    }
+
     @Override
     public final <V> V parse(final String expression,
             final DiceInterpreter<V> interpreter) {
@@ -147,6 +196,39 @@ public final <V> V parse(final String expression,
         return interpreter.transform(parsed);
     }
 
+    @Override
+    public final ParseResult tryParse(final String expression) {
+        final DiceNotationParser parser;         // ANTLR parser
+        final DiagnosticCollector diagnostics;   // Error listener
+        DiceNotationExpression root;             // Root expression
+        RuntimeException failure;                // Builder failure
+
+        checkNotNull(expression, "Received a null pointer as string");
+
+        // Creates the ANTLR parser
+        // Errors are kept as diagnostics
+        diagnostics = new DiagnosticCollector();
+        parser = buildDiceNotationParser(expression, diagnostics);
+
+        try {
+            // Parses the root rule
+            parser.notation();
+
+            root = expressionBuilder.getDiceExpressionRoot();
+            failure = null;
+        } catch (final RuntimeException e) {
+            // The builder failed
+            root = null;
+            failure = e;
+        } finally {
+            // The builder is cleaned, so it keeps no node from this parse
+            expressionBuilder.reset();
+        }
+
+        return diagnostics.getResult(root, failure,
+                parser.getTokenStream().LT(-1));
+    }
+
     /**
      * Creates the ANTLR4 parser to be used for processing the dice expression.
      * <p>
@@ -156,24 +238,34 @@ public final <V> V parse(final String expression,
      * 
      * @param expression
      *            expression used to generate the parser
+     * @param listener
+     *            error listener for the lexer and parser
      * @return an ANTLR4 parser tailored for the expression
      */
-    private final DiceNotationParser
-            buildDiceNotationParser(final String expression) {
+    private final DiceNotationParser buildDiceNotationParser(
+            final CharSequence expression,
+            final ANTLRErrorListener listener) {
         final CharStream stream;
         final DiceNotationLexer lexer;
         final TokenStream tokens;
         final DiceNotationParser parser;
 
-        stream = CharStreams.fromString(expression);
+        // The lexer reads the expression directly, without copying it
+        stream = CharSequenceCharStream.of(expression);
 
+        // The console listeners are removed, errors are reported through the
+        // received listener
         lexer = new DiceNotationLexer(stream);
-        lexer.addErrorListener(errorListener);
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(listener);
 
         tokens = new CommonTokenStream(lexer);
 
         parser = new DiceNotationParser(tokens);
-        parser.addErrorListener(errorListener);
+        // The prediction caches are taken from the DFA cache
+        dfaCache.getCaches().install(lexer, parser);
+        parser.removeErrorListeners();
+        parser.addErrorListener(listener);
         parser.addParseListener(expressionBuilder);
 
         return parser;
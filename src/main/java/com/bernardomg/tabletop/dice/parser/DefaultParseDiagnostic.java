@@ -0,0 +1,149 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+
+/**
+ * Immutable parse diagnostic.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class DefaultParseDiagnostic implements ParseDiagnostic {
+
+    /**
+     * Position of the offending token in its line.
+     */
+    private final int              charPositionInLine;
+
+    /**
+     * Tokens expected instead of the offending one.
+     */
+    private final Iterable<String> expectedTokens;
+
+    /**
+     * Line of the offending token.
+     */
+    private final int              line;
+
+    /**
+     * Problem description.
+     */
+    private final String           message;
+
+    /**
+     * Offending token text.
+     */
+    private final String           offendingToken;
+
+    /**
+     * Constructs a diagnostic with the specified data.
+     * 
+     * @param ln
+     *            line of the offending token
+     * @param position
+     *            position of the offending token in its line
+     * @param token
+     *            offending token text
+     * @param expected
+     *            tokens expected instead of the offending one
+     * @param msg
+     *            problem description
+     */
+    public DefaultParseDiagnostic(final int ln, final int position,
+            final String token, final Iterable<String> expected,
+            final String msg) {
+        super();
+
+        line = ln;
+        charPositionInLine = position;
+        offendingToken = checkNotNull(token,
+                "Received a null pointer as offending token");
+        expectedTokens = checkNotNull(expected,
+                "Received a null pointer as expected tokens");
+        message = checkNotNull(msg, "Received a null pointer as message");
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final DefaultParseDiagnostic other;
+
+        other = (DefaultParseDiagnostic) obj;
+
+        return Objects.equal(line, other.line)
+                && Objects.equal(charPositionInLine, other.charPositionInLine)
+                && Objects.equal(offendingToken, other.offendingToken)
+                && Objects.equal(expectedTokens, other.expectedTokens)
+                && Objects.equal(message, other.message);
+    }
+
+    @Override
+    public final int getCharPositionInLine() {
+        return charPositionInLine;
+    }
+
+    @Override
+    public final Iterable<String> getExpectedTokens() {
+        return expectedTokens;
+    }
+
+    @Override
+    public final int getLine() {
+        return line;
+    }
+
+    @Override
+    public final String getMessage() {
+        return message;
+    }
+
+    @Override
+    public final String getOffendingToken() {
+        return offendingToken;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hashCode(line, charPositionInLine, offendingToken,
+                expectedTokens, message);
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("line", line)
+                .add("charPositionInLine", charPositionInLine)
+                .add("offendingToken", offendingToken)
+                .add("expectedTokens", expectedTokens).add("message", message)
+                .toString();
+    }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collections;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Iterables;
+
+/**
+ * Immutable parse result.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class DefaultParseResult implements ParseResult {
+
+    /**
+     * Problems found while parsing.
+     */
+    private final Iterable<ParseDiagnostic> diagnostics;
+
+    /**
+     * Parsed expression.
+     */
+    private final DiceNotationExpression    expression;
+
+    /**
+     * Constructs a result for a valid expression.
+     * 
+     * @param parsed
+     *            parsed expression
+     */
+    public DefaultParseResult(final DiceNotationExpression parsed) {
+        super();
+
+        expression = checkNotNull(parsed,
+                "Received a null pointer as expression");
+        diagnostics = Collections.emptyList();
+    }
+
+    /**
+     * Constructs a result for an invalid expression.
+     * 
+     * @param problems
+     *            problems found while parsing
+     */
+    public DefaultParseResult(final Iterable<ParseDiagnostic> problems) {
+        super();
+
+        diagnostics = checkNotNull(problems,
+                "Received a null pointer as diagnostics");
+        checkArgument(!Iterables.isEmpty(problems),
+                "Invalid expressions require at least one diagnostic");
+        expression = null;
+    }
+
+    @Override
+    public final Iterable<ParseDiagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    @Override
+    public final DiceNotationExpression getExpression() {
+        return expression;
+    }
+
+    @Override
+    public final boolean isValid() {
+        return expression != null;
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("expression", expression)
+                .add("diagnostics", diagnostics).toString();
+    }
+
+}
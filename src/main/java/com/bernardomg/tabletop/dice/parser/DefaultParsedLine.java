@@ -0,0 +1,71 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Immutable parsed line.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class DefaultParsedLine implements ParsedLine {
+
+    /**
+     * Line number.
+     */
+    private final long        lineNumber;
+
+    /**
+     * Parse result.
+     */
+    private final ParseResult result;
+
+    /**
+     * Constructs a parsed line with the specified data.
+     * 
+     * @param number
+     *            line number
+     * @param parsed
+     *            result from parsing the line
+     */
+    public DefaultParsedLine(final long number, final ParseResult parsed) {
+        super();
+
+        lineNumber = number;
+        result = checkNotNull(parsed, "Received a null pointer as result");
+    }
+
+    @Override
+    public final long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public final ParseResult getResult() {
+        return result;
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("lineNumber", lineNumber)
+                .add("result", result).toString();
+    }
+
+}
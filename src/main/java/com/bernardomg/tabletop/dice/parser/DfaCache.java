@@ -0,0 +1,196 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.antlr.v4.runtime.BaseErrorListener;
+
+import com.bernardomg.tabletop.dice.parser.listener.DefaultDiceExpressionBuilder;
+
+/**
+ * Caches used by the ANTLR4 lexer and parser to predict the grammar
+ * alternatives.
+ * <p>
+ * ANTLR builds a DFA while parsing, which grows with each new shape of input,
+ * and is never trimmed. This class owns these caches, and allows checking
+ * their size, clearing them, and pre-warming them.
+ * <p>
+ * Clearing replaces the caches with new ones, so it is safe while parsing.
+ * Parses already running finish with the old caches, and the next ones use the
+ * new caches. They may also be cleared automatically, by setting a maximum
+ * number of states, which is checked before each parse.
+ * <p>
+ * Unless told otherwise, the {@link DefaultDiceParser} and
+ * {@link ConcurrentDiceParser} use the shared instance.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class DfaCache {
+
+    /**
+     * Expressions covering all the grammar rules, used for pre-warming.
+     */
+    private static final List<String> PREWARM_EXPRESSIONS = Arrays.asList(
+            "1", "-1", "1d6", "d6", "-1d6", "+d6", "2d6+3", "1d20-1",
+            "1d6*2", "4d8/2", "(1d6+1)*2", "((1+2)*(3-4))/5", "1d6+2d8-3d10",
+            "1+2-3*4/5", "1d6+(2d8-(3*(4+1)))");
+
+    /**
+     * Cache shared by all the parsers.
+     */
+    private static final DfaCache     SHARED              = new DfaCache();
+
+    /**
+     * Current caches.
+     */
+    private volatile DecisionCaches   caches;
+
+    /**
+     * Maximum number of DFA states before clearing the caches. Zero for no
+     * limit.
+     */
+    private volatile int              maximumStates;
+
+    /**
+     * Constructs empty caches, without a limit.
+     */
+    public DfaCache() {
+        super();
+
+        caches = new DecisionCaches();
+    }
+
+    /**
+     * Removes all the cached DFA states and prediction contexts.
+     */
+    public final void clear() {
+        caches = new DecisionCaches();
+    }
+
+    /**
+     * Returns the number of cached prediction contexts.
+     *
+     * @return the number of cached prediction contexts
+     */
+    public final int getContextCount() {
+        return caches.getContextCount();
+    }
+
+    /**
+     * Returns a rough estimate of the memory used by the caches, in bytes.
+     *
+     * @return the estimated memory used by the caches
+     */
+    public final long getEstimatedMemory() {
+        return caches.getEstimatedMemory();
+    }
+
+    /**
+     * Returns the maximum number of DFA states before clearing the caches.
+     * Zero means there is no limit.
+     *
+     * @return the maximum number of DFA states
+     */
+    public final int getMaximumStates() {
+        return maximumStates;
+    }
+
+    /**
+     * Returns the cache shared by all the parsers which don't receive one.
+     *
+     * @return the shared cache
+     */
+    public static final DfaCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the number of DFA states.
+     *
+     * @return the number of DFA states
+     */
+    public final int getStateCount() {
+        return caches.getStateCount();
+    }
+
+    /**
+     * Fills the caches by parsing expressions which cover the whole grammar.
+     */
+    public final void prewarm() {
+        prewarm(PREWARM_EXPRESSIONS);
+    }
+
+    /**
+     * Fills the caches by parsing the received expressions.
+     * <p>
+     * Invalid expressions are accepted, and warm up the error handling.
+     *
+     * @param expressions
+     *            expressions to parse
+     */
+    public final void prewarm(final Iterable<String> expressions) {
+        final ReusableNotationParser parser;
+
+        checkNotNull(expressions, "Received a null pointer as expressions");
+
+        parser = new ReusableNotationParser(DefaultDiceExpressionBuilder::new,
+                new BaseErrorListener(), this);
+        for (final String expression : expressions) {
+            parser.tryParse(expression);
+        }
+    }
+
+    /**
+     * Sets the maximum number of DFA states. When this is passed the caches
+     * are cleared before the next parse. Zero means there is no limit.
+     *
+     * @param states
+     *            maximum number of DFA states
+     */
+    public final void setMaximumStates(final int states) {
+        checkArgument(states >= 0,
+                "The maximum number of states can't be negative");
+
+        maximumStates = states;
+    }
+
+    /**
+     * Returns the caches to use for a new parse.
+     * <p>
+     * If they passed the maximum number of states they are cleared first.
+     *
+     * @return the caches to use
+     */
+    final DecisionCaches getCaches() {
+        DecisionCaches current;
+
+        current = caches;
+        if ((maximumStates > 0)
+                && (current.getStateCount() > maximumStates)) {
+            clear();
+            current = caches;
+        }
+
+        return current;
+    }
+
+}
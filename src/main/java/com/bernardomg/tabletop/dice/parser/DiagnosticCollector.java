@@ -0,0 +1,159 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.IntervalSet;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+
+/**
+ * Error listener which keeps the errors as parse diagnostics, instead of
+ * throwing exceptions or logging them.
+ * <p>
+ * After parsing, it creates the parse result, using the diagnostics it
+ * received, or any failure from the expression builder.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+final class DiagnosticCollector extends BaseErrorListener {
+
+    /**
+     * Diagnostics received since the last reset.
+     */
+    private final List<ParseDiagnostic> diagnostics = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     */
+    DiagnosticCollector() {
+        super();
+    }
+
+    /**
+     * Returns the description for a failure, to be used as the message of a
+     * diagnostic.
+     * <p>
+     * Not all the exceptions have a message, for example those thrown by an
+     * expression builder reading an empty stack. For these the exception class
+     * is used.
+     *
+     * @param failure
+     *            failure to describe
+     * @return the failure description
+     */
+    static final String getFailureMessage(final Exception failure) {
+        final String message;
+
+        if (failure.getMessage() == null) {
+            message = String.format("invalid expression due to %s",
+                    failure.getClass().getName());
+        } else {
+            message = failure.getMessage();
+        }
+
+        return message;
+    }
+
+    @Override
+    public final void syntaxError(final Recognizer<?, ?> recognizer,
+            final Object offendingSymbol, final int line,
+            final int charPositionInLine, final String msg,
+            final RecognitionException e) {
+        final String token;
+        final List<String> expected;
+        final IntervalSet expectedTypes;
+        final Lexer lexer;
+
+        if (offendingSymbol instanceof Token) {
+            token = ((Token) offendingSymbol).getText();
+        } else if (recognizer instanceof Lexer) {
+            // Lexer errors have no token, the unrecognized text is used
+            lexer = (Lexer) recognizer;
+            token = lexer._input.getText(Interval
+                    .of(lexer._tokenStartCharIndex, lexer._input.index()));
+        } else {
+            token = "";
+        }
+
+        if (recognizer instanceof Parser) {
+            expectedTypes = ((Parser) recognizer).getExpectedTokens();
+            expected = new ArrayList<>(expectedTypes.size());
+            for (final Integer type : expectedTypes.toList()) {
+                expected.add(recognizer.getVocabulary().getDisplayName(type));
+            }
+        } else {
+            expected = Collections.emptyList();
+        }
+
+        diagnostics.add(new DefaultParseDiagnostic(line, charPositionInLine,
+                token, expected, msg));
+    }
+
+    /**
+     * Creates the result for the last parse.
+     * <p>
+     * If there are diagnostics, the expression is invalid. Otherwise, if the
+     * builder failed, the expression is invalid due to that failure, which is
+     * located at the last token read. If none of these happened the expression
+     * is valid.
+     *
+     * @param root
+     *            parsed expression, or {@code null} if the builder failed
+     * @param failure
+     *            builder failure, or {@code null} if it didn't fail
+     * @param last
+     *            last token read by the parser
+     * @return the parse result
+     */
+    final ParseResult getResult(final DiceNotationExpression root,
+            final RuntimeException failure, final Token last) {
+        final ParseResult result;
+
+        if (!diagnostics.isEmpty()) {
+            result = new DefaultParseResult(new ArrayList<>(diagnostics));
+        } else if (failure != null) {
+            result = new DefaultParseResult(Collections
+                    .singletonList(new DefaultParseDiagnostic(last.getLine(),
+                            last.getCharPositionInLine(), last.getText(),
+                            Collections.emptyList(),
+                            getFailureMessage(failure))));
+        } else {
+            result = new DefaultParseResult(root);
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes all the diagnostics.
+     */
+    final void reset() {
+        diagnostics.clear();
+    }
+
+}
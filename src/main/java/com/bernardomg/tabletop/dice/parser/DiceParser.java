@@ -16,6 +16,12 @@
 
 package com.bernardomg.tabletop.dice.parser;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Collections;
+
 import com.bernardomg.tabletop.dice.interpreter.DiceInterpreter;
 import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
 
@@ -25,6 +31,10 @@
  * <p>
  * The returned object is expected to be the root node of a tree made up by dice
  * notation model objects.
+ * <p>
+ * Besides strings, expressions can be received as any character sequence,
+ * array slice or buffer of ASCII bytes. By default these are turned into a
+ * string, but parsers may read them directly, without copying them.
  * 
  * @author Bernardo Mart&iacute;nez Garrido
  */
@@ -39,6 +49,59 @@ public interface DiceParser {
      */
     public DiceNotationExpression parse(final String expression);
 
+    /**
+     * Transforms a dice notation expression, stored in an ASCII byte buffer,
+     * into the dice notation model.
+     * <p>
+     * The expression is read from the buffer position to its limit. The
+     * buffer position is not changed.
+     * 
+     * @param expression
+     *            buffer with the expression to parse
+     * @return a dice notation expression object
+     */
+    public default DiceNotationExpression parse(final ByteBuffer expression) {
+        checkNotNull(expression, "Received a null pointer as buffer");
+
+        return parse(new AsciiCharSequence(expression));
+    }
+
+    /**
+     * Transforms a dice notation expression, stored in a slice of a char
+     * array, into the dice notation model.
+     * 
+     * @param expression
+     *            array with the expression to parse
+     * @param offset
+     *            index of the first character of the expression
+     * @param length
+     *            number of characters in the expression
+     * @return a dice notation expression object
+     */
+    public default DiceNotationExpression parse(final char[] expression,
+            final int offset, final int length) {
+        checkNotNull(expression, "Received a null pointer as array");
+
+        return parse(CharBuffer.wrap(expression, offset, length));
+    }
+
+    /**
+     * Transforms a dice notation expression into the dice notation model.
+     * <p>
+     * By default the characters are copied into a string. Parsers which can
+     * read them directly should override this.
+     * 
+     * @param expression
+     *            the expression to parse
+     * @return a dice notation expression object
+     */
+    public default DiceNotationExpression
+            parse(final CharSequence expression) {
+        checkNotNull(expression, "Received a null pointer as characters");
+
+        return parse(expression.toString());
+    }
+
     /**
      * Transforms a dice notation expression into the dice notation model and
      * applies the received interpreter.
@@ -54,4 +117,39 @@ public interface DiceParser {
     public <V> V parse(final String expression,
             final DiceInterpreter<V> interpreter);
 
+    /**
+     * Tries to transform a dice notation expression into the dice notation
+     * model.
+     * <p>
+     * Invalid expressions are not reported through exceptions or logs.
+     * Instead the returned result contains the problems which stopped the
+     * expression from being parsed. This makes rejecting invalid input about
+     * as cheap as parsing valid input.
+     * <p>
+     * By default the expression is parsed with {@link #parse(String)}, and any
+     * exception is turned into a diagnostic, located at the beginning of the
+     * expression. Parsers which can reject invalid input without exceptions
+     * should override this.
+     * 
+     * @param expression
+     *            the expression to parse
+     * @return the result from parsing the expression
+     */
+    public default ParseResult tryParse(final String expression) {
+        ParseResult result;
+
+        checkNotNull(expression, "Received a null pointer as string");
+
+        try {
+            result = new DefaultParseResult(parse(expression));
+        } catch (final RuntimeException e) {
+            result = new DefaultParseResult(Collections
+                    .singletonList(new DefaultParseDiagnostic(1, 0, "",
+                            Collections.emptyList(),
+                            DiagnosticCollector.getFailureMessage(e))));
+        }
+
+        return result;
+    }
+
 }
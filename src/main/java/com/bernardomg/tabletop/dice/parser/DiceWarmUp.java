@@ -0,0 +1,200 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.bernardomg.tabletop.dice.interpreter.DiceInterpreter;
+import com.bernardomg.tabletop.dice.interpreter.DiceRoller;
+
+/**
+ * Warms up the parsers and interpreters ahead of time.
+ * <p>
+ * The first parse on a new JVM pays for loading the classes, deserializing the
+ * ANTLR ATN and building its DFA, and everything runs interpreted until the
+ * JIT compiles it. Warming up parses, and optionally interprets, a corpus of
+ * expressions several times, so this happens before the first actual request.
+ * <p>
+ * The corpus may be received, from a collection or a file with one expression
+ * on each line, or the built-in one may be used. This covers the whole
+ * grammar, including some invalid expressions for the error handling. Invalid
+ * expressions are parsed with {@link DiceParser#tryParse(String)}, so they
+ * never stop the warm up.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class DiceWarmUp {
+
+    /**
+     * Built-in corpus.
+     */
+    private static final List<String> DEFAULT_CORPUS = Collections
+            .unmodifiableList(Arrays.asList("1", "-1", "1d6", "d6", "-1d6",
+                    "+d6", "2d6+3", "1d20-1", "3d6*2", "4d8/2", "(1d6+1)*2",
+                    "((1+2)*(3-4))/5", "1d6+2d8-3d10", "1+2-3*4/5",
+                    "1d6+(2d8-(3*(4+1)))", "10d10+5d4-2", "1d", "1d6+",
+                    "(1d6", "1dd6", "1d6+x"));
+
+    /**
+     * Default number of times the corpus is processed.
+     */
+    private static final int          DEFAULT_ROUNDS = 200;
+
+    /**
+     * Expressions to process.
+     */
+    private final List<String>        corpus;
+
+    /**
+     * Number of times the corpus is processed.
+     */
+    private final int                 rounds;
+
+    /**
+     * Default constructor.
+     * <p>
+     * It makes use of the built-in corpus.
+     */
+    public DiceWarmUp() {
+        this(DEFAULT_CORPUS);
+    }
+
+    /**
+     * Constructs a warm up with the received corpus.
+     *
+     * @param notations
+     *            expressions to process
+     */
+    public DiceWarmUp(final Collection<String> notations) {
+        this(notations, DEFAULT_ROUNDS);
+    }
+
+    /**
+     * Constructs a warm up with the received corpus, processing it the
+     * received number of times.
+     *
+     * @param notations
+     *            expressions to process
+     * @param times
+     *            number of times the corpus is processed
+     */
+    public DiceWarmUp(final Collection<String> notations, final int times) {
+        super();
+
+        checkNotNull(notations, "Received a null pointer as notations");
+        checkArgument(times > 0, "The number of rounds should be positive");
+
+        corpus = Collections.unmodifiableList(new ArrayList<>(notations));
+        rounds = times;
+    }
+
+    /**
+     * Constructs a warm up with the corpus in the received file. It should
+     * contain one expression on each line, encoded as UTF-8. Empty lines are
+     * ignored.
+     *
+     * @param file
+     *            file with the expressions
+     * @throws IOException
+     *             if the file can't be read
+     */
+    public DiceWarmUp(final Path file) throws IOException {
+        this(Files.readAllLines(
+                checkNotNull(file, "Received a null pointer as file"),
+                StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isEmpty()).collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns the expressions processed on each round.
+     *
+     * @return the corpus
+     */
+    public final List<String> getCorpus() {
+        return corpus;
+    }
+
+    /**
+     * Warms up all the parsers and the dice roller.
+     * <p>
+     * The ANTLR parsers fill the shared {@link DfaCache}.
+     */
+    public final void warmUp() {
+        final DiceRoller roller;
+
+        roller = new DiceRoller();
+
+        warmUp(new DefaultDiceParser(), roller);
+        warmUp(new ConcurrentDiceParser(), roller);
+        warmUp(new LightweightDiceParser(), roller);
+    }
+
+    /**
+     * Warms up the received parser.
+     *
+     * @param parser
+     *            parser to warm up
+     */
+    public final void warmUp(final DiceParser parser) {
+        checkNotNull(parser, "Received a null pointer as parser");
+
+        for (int i = 0; i < rounds; i++) {
+            for (final String expression : corpus) {
+                parser.tryParse(expression);
+            }
+        }
+    }
+
+    /**
+     * Warms up the received parser, and the received interpreter, which is
+     * applied to each valid expression.
+     *
+     * @param parser
+     *            parser to warm up
+     * @param interpreter
+     *            interpreter to warm up
+     */
+    public final void warmUp(final DiceParser parser,
+            final DiceInterpreter<?> interpreter) {
+        ParseResult result;
+
+        checkNotNull(parser, "Received a null pointer as parser");
+        checkNotNull(interpreter, "Received a null pointer as interpreter");
+
+        for (int i = 0; i < rounds; i++) {
+            for (final String expression : corpus) {
+                result = parser.tryParse(expression);
+                if (result.isValid()) {
+                    interpreter.transform(result.getExpression());
+                }
+            }
+        }
+    }
+
+}
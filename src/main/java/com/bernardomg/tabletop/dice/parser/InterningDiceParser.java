@@ -0,0 +1,117 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.bernardomg.tabletop.dice.interpreter.DiceInterpreter;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.NotationInterner;
+
+/**
+ * Parser decorator which interns the parsed expressions.
+ * <p>
+ * Each parsed tree is passed through a {@link NotationInterner}, so the
+ * repeated subtrees of all the parsed expressions are shared, and equal
+ * expressions are parsed into the same instance. This is meant for keeping
+ * big numbers of expressions in memory.
+ * <p>
+ * This is thread safe as long as the wrapped parser is.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class InterningDiceParser implements DiceParser {
+
+    /**
+     * Interner for the parsed expressions.
+     */
+    private final NotationInterner interner;
+
+    /**
+     * Wrapped parser.
+     */
+    private final DiceParser       wrapped;
+
+    /**
+     * Constructs a parser wrapping the received parser, and using the shared
+     * interner.
+     *
+     * @param parser
+     *            parser to wrap
+     */
+    public InterningDiceParser(final DiceParser parser) {
+        this(parser, NotationInterner.getShared());
+    }
+
+    /**
+     * Constructs a parser wrapping the received parser, and using the
+     * received interner.
+     *
+     * @param parser
+     *            parser to wrap
+     * @param notationInterner
+     *            interner for the parsed expressions
+     */
+    public InterningDiceParser(final DiceParser parser,
+            final NotationInterner notationInterner) {
+        super();
+
+        wrapped = checkNotNull(parser, "Received a null pointer as parser");
+        interner = checkNotNull(notationInterner,
+                "Received a null pointer as interner");
+    }
+
+    @Override
+    public final DiceNotationExpression
+            parse(final CharSequence expression) {
+        return interner.intern(wrapped.parse(expression));
+    }
+
+    @Override
+    public final DiceNotationExpression parse(final String expression) {
+        return interner.intern(wrapped.parse(expression));
+    }
+
+    @Override
+    public final <V> V parse(final String expression,
+            final DiceInterpreter<V> interpreter) {
+        final DiceNotationExpression parsed;
+
+        parsed = parse(expression);
+
+        return interpreter.transform(parsed);
+    }
+
+    @Override
+    public final ParseResult tryParse(final String expression) {
+        final ParseResult result;
+        final ParseResult interned;
+
+        result = checkNotNull(wrapped.tryParse(expression),
+                "The wrapped parser returned a null pointer");
+        if (result.isValid()) {
+            interned = new DefaultParseResult(
+                    interner.intern(result.getExpression()));
+        } else {
+            interned = result;
+        }
+
+        return interned;
+    }
+
+}
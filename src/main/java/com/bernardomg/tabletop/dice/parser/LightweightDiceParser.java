@@ -0,0 +1,394 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.bernardomg.tabletop.dice.interpreter.DiceInterpreter;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.Operator;
+import com.bernardomg.tabletop.dice.notation.operation.OperatorRegistry;
+
+/**
+ * Dice notation parser which does not depend on ANTLR. Can parse the full
+ * grammar.
+ * <p>
+ * It reads the expression in a single pass, with a scanner which recognizes the
+ * same tokens as the ANTLR lexer, and builds the tree with precedence climbing.
+ * No parse tree, token objects or listener stacks are created, only the
+ * returned dice notation model objects.
+ * <p>
+ * The result is the same tree the {@link DefaultDiceParser} would return, and
+ * syntax errors are reported the same way, with an
+ * {@code IllegalStateException} using the same message format as the default
+ * error listener. Only the first error is reported.
+ * <p>
+ * Errors are not handled with exceptions internally, so
+ * {@link #tryParse(String)} rejects invalid expressions without creating
+ * any exception.
+ * <p>
+ * Character sequences, array slices and byte buffers are scanned directly,
+ * without copying them into a string.
+ * <p>
+ * The parser keeps no state between calls, so a single instance can be shared.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class LightweightDiceParser implements DiceParser {
+
+    /**
+     * Precedence for additions and subtractions, the lowest one.
+     */
+    private static final int              ADDITION_PRECEDENCE = Operator.ADDITION
+            .getPrecedence();
+
+    /**
+     * Tokens expected to close a parenthesis.
+     */
+    private static final List<String>     CLOSING_EXPECTED    = Collections
+            .singletonList("')'");
+
+    /**
+     * Tokens expected for the sides of a dice.
+     */
+    private static final List<String>     DICE_SIDES_EXPECTED = Collections
+            .singletonList("DIGIT");
+
+    /**
+     * Tokens expected at the beginning of an operand.
+     */
+    private static final List<String>     OPERAND_EXPECTED    = Collections
+            .unmodifiableList(Arrays.asList("DSEPARATOR", "DIGIT",
+                    "ADDOPERATOR", "'('"));
+
+    /**
+     * Operators for the binary operations, found by their symbols.
+     */
+    private static final OperatorRegistry REGISTRY            = OperatorRegistry
+            .getDefault();
+
+    /**
+     * Default constructor.
+     */
+    public LightweightDiceParser() {
+        super();
+    }
+
+    @Override
+    public final DiceNotationExpression
+            parse(final CharSequence expression) {
+        final NotationScanner scanner;
+        final DiceNotationExpression parsed;
+        final ParseDiagnostic failure;
+
+        checkNotNull(expression, "Received a null pointer as characters");
+
+        scanner = new NotationScanner(expression, 0, expression.length());
+
+        parsed = parse(scanner);
+
+        failure = scanner.getFailure();
+        if (scanner.isNumberFailure()) {
+            throw new NumberFormatException(failure.getMessage());
+        } else if (failure != null) {
+            // Same message format as the default error listener
+            throw new IllegalStateException(String.format(
+                    "Failed to parse at line %1$d on char %2$d due to %3$s",
+                    failure.getLine(), failure.getCharPositionInLine() + 1,
+                    failure.getMessage()));
+        }
+
+        return parsed;
+    }
+
+    @Override
+    public final DiceNotationExpression parse(final String expression) {
+        checkNotNull(expression, "Received a null pointer as string");
+
+        return parse((CharSequence) expression);
+    }
+
+    @Override
+    public final <V> V parse(final String expression,
+            final DiceInterpreter<V> interpreter) {
+        final DiceNotationExpression parsed;
+
+        parsed = parse(expression);
+
+        return interpreter.transform(parsed);
+    }
+
+    @Override
+    public final ParseResult tryParse(final String expression) {
+        final NotationScanner scanner;
+        final DiceNotationExpression parsed;
+        final ParseResult result;
+
+        checkNotNull(expression, "Received a null pointer as string");
+
+        scanner = new NotationScanner(expression, 0, expression.length());
+
+        parsed = parse(scanner);
+
+        if (scanner.isFailed()) {
+            result = new DefaultParseResult(
+                    Collections.singletonList(scanner.getFailure()));
+        } else {
+            result = new DefaultParseResult(parsed);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates the binary operation for the received operator.
+     *
+     * @param operator
+     *            operator character
+     * @param left
+     *            left sided operand
+     * @param right
+     *            right sided operand
+     * @return the binary operation
+     */
+    private final DiceNotationExpression getBinaryOperation(
+            final char operator, final DiceNotationExpression left,
+            final DiceNotationExpression right) {
+        return REGISTRY.getOperator(operator).create(left, right);
+    }
+
+    /**
+     * Returns the precedence of the current token, if it is a binary operator.
+     * Otherwise zero is returned, which will end any operation.
+     *
+     * @param scanner
+     *            scanner with the current token
+     * @return the precedence of the current token
+     */
+    private final int getPrecedence(final NotationScanner scanner) {
+        final int precedence;
+
+        if ((scanner.getTokenKind() == NotationScanner.ADDOPERATOR)
+                || (scanner.getTokenKind() == NotationScanner.MULTOPERATOR)) {
+            precedence = REGISTRY
+                    .getOperator(scanner.charAt(scanner.getTokenStart()))
+                    .getPrecedence();
+        } else {
+            precedence = 0;
+        }
+
+        return precedence;
+    }
+
+    /**
+     * Parses the full input of the scanner.
+     * <p>
+     * If there is any error it is kept in the scanner, and the returned
+     * expression should be ignored.
+     *
+     * @param scanner
+     *            scanner for the input
+     * @return the parsed expression
+     */
+    private final DiceNotationExpression
+            parse(final NotationScanner scanner) {
+        // Reads the first token
+        scanner.next();
+
+        return parseExpression(scanner, ADDITION_PRECEDENCE);
+    }
+
+    /**
+     * Parses an expression, consuming all the operators with at least the
+     * received precedence.
+     * <p>
+     * Operations of the same precedence are grouped from the left, so
+     * {@code 1+2+3} becomes {@code ((1+2)+3)}, as the ANTLR grammar does.
+     *
+     * @param scanner
+     *            scanner positioned at the beginning of the expression
+     * @param minPrecedence
+     *            minimum precedence for the operators to consume
+     * @return the parsed expression, or {@code null} if there was an error
+     */
+    private final DiceNotationExpression parseExpression(
+            final NotationScanner scanner, final int minPrecedence) {
+        DiceNotationExpression left;
+        DiceNotationExpression right;
+        int precedence;
+        char operator;
+
+        left = parseOperand(scanner);
+
+        precedence = getPrecedence(scanner);
+        while ((left != null) && (precedence >= minPrecedence)) {
+            operator = scanner.charAt(scanner.getTokenStart());
+            scanner.next();
+
+            right = parseExpression(scanner, precedence + 1);
+            if (right == null) {
+                left = null;
+            } else {
+                left = getBinaryOperation(operator, left, right);
+                precedence = getPrecedence(scanner);
+            }
+        }
+
+        return left;
+    }
+
+    /**
+     * Parses an operand. This is a dice, a number or an expression between
+     * parenthesis.
+     * <p>
+     * Dice and numbers may be preceded by a sign. A negative sign is applied to
+     * numbers, and to the quantity of dice when it is defined. Dice without
+     * quantity always have a single die.
+     *
+     * @param scanner
+     *            scanner positioned at the beginning of the operand
+     * @return the parsed operand, or {@code null} if there was an error
+     */
+    private final DiceNotationExpression
+            parseOperand(final NotationScanner scanner) {
+        DiceNotationExpression operand;
+        final int signStart;
+        final boolean negative;
+        final int quantity;
+        final int sides;
+        int digitsStart;
+        int digitsEnd;
+        int digitsLine;
+        int digitsColumn;
+
+        if (scanner.getTokenKind() == NotationScanner.LPAREN) {
+            // Expression between parenthesis
+            scanner.next();
+            operand = parseExpression(scanner, ADDITION_PRECEDENCE);
+            if (operand != null) {
+                if (scanner.getTokenKind() == NotationScanner.RPAREN) {
+                    scanner.next();
+                } else {
+                    scanner.fail(String.format("missing ')' at '%s'",
+                            scanner.getTokenText()), CLOSING_EXPECTED);
+                    operand = null;
+                }
+            }
+        } else {
+            // Dice or number
+            if (scanner.getTokenKind() == NotationScanner.ADDOPERATOR) {
+                signStart = scanner.getTokenStart();
+                negative = scanner.charAt(signStart) == '-';
+                scanner.next();
+            } else {
+                signStart = -1;
+                negative = false;
+            }
+
+            if (scanner.getTokenKind() == NotationScanner.DIGIT) {
+                digitsStart = scanner.getTokenStart();
+                digitsEnd = scanner.getTokenEnd();
+                digitsLine = scanner.getTokenLine();
+                digitsColumn = scanner.getTokenColumn();
+                scanner.next();
+            } else {
+                digitsStart = -1;
+                digitsEnd = -1;
+                digitsLine = -1;
+                digitsColumn = -1;
+            }
+
+            if (scanner.getTokenKind() == NotationScanner.DSEPARATOR) {
+                // Dice
+                scanner.next();
+                if ((scanner.getTokenKind() == NotationScanner.LPAREN)
+                        || (scanner
+                                .getTokenKind() == NotationScanner.DSEPARATOR)) {
+                    // Can't follow a dice
+                    scanner.fail(
+                            String.format("mismatched input '%s' expecting DIGIT",
+                                    scanner.getTokenText()),
+                            DICE_SIDES_EXPECTED);
+                    operand = null;
+                } else if (scanner.getTokenKind() != NotationScanner.DIGIT) {
+                    // May follow a dice, so it is taken as a missing DIGIT
+                    scanner.fail(String.format("missing DIGIT at '%s'",
+                            scanner.getTokenText()), DICE_SIDES_EXPECTED);
+                    operand = null;
+                } else {
+                    if (digitsStart < 0) {
+                        // No dice quantity defined
+                        // Defaults to 1
+                        quantity = 1;
+                    } else if (negative) {
+                        quantity = 0 - scanner.parseInt(digitsStart, digitsEnd,
+                                false, digitsLine, digitsColumn);
+                    } else {
+                        quantity = scanner.parseInt(digitsStart, digitsEnd,
+                                false, digitsLine, digitsColumn);
+                    }
+                    sides = scanner.parseInt(scanner.getTokenStart(),
+                            scanner.getTokenEnd(), false,
+                            scanner.getTokenLine(), scanner.getTokenColumn());
+
+                    if (scanner.isFailed()) {
+                        operand = null;
+                    } else {
+                        operand = DefaultDiceOperand.valueOf(quantity,
+                                sides);
+                    }
+
+                    scanner.next();
+                }
+            } else if (digitsStart >= 0) {
+                // Number
+                operand = IntegerOperand.valueOf(scanner.parseInt(digitsStart,
+                        digitsEnd, negative, digitsLine, digitsColumn));
+                if (scanner.isNumberFailure()) {
+                    operand = null;
+                }
+            } else if (signStart >= 0) {
+                // The sign is part of the rejected input
+                scanner.fail(
+                        String.format("no viable alternative at input '%s'",
+                                scanner.getTextFrom(signStart)),
+                        OPERAND_EXPECTED);
+                operand = null;
+            } else if (scanner.getTokenKind() == NotationScanner.EOF) {
+                scanner.fail(String.format(
+                        "mismatched input '%s' expecting {DSEPARATOR, DIGIT, ADDOPERATOR, '('}",
+                        scanner.getTokenText()), OPERAND_EXPECTED);
+                operand = null;
+            } else {
+                scanner.fail(
+                        String.format("no viable alternative at input '%s'",
+                                scanner.getTokenText()),
+                        OPERAND_EXPECTED);
+                operand = null;
+            }
+        }
+
+        return operand;
+    }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collections;
+
+import com.bernardomg.tabletop.dice.limit.LimitType;
+import com.bernardomg.tabletop.dice.limit.LimitViolation;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Immutable parse diagnostic for an expression which exceeds a resource limit.
+ * <p>
+ * Besides the usual diagnostic data, it tells which limit was exceeded. Limits
+ * checked over the text are located at the character where they were
+ * exceeded. Limits checked over the parsed tree are located at the beginning
+ * of the expression, as the tree keeps no positions.
+ * <p>
+ * No tokens are expected, as this is not a syntax error.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class LimitParseDiagnostic implements ParseDiagnostic {
+
+    /**
+     * Position of the offending character in its line.
+     */
+    private final int            charPositionInLine;
+
+    /**
+     * Line of the offending character.
+     */
+    private final int            line;
+
+    /**
+     * Offending character, or empty if the violation is not located in the
+     * text.
+     */
+    private final String         offendingToken;
+
+    /**
+     * Exceeded limit.
+     */
+    private final LimitViolation violation;
+
+    /**
+     * Constructs a diagnostic for the received violation, found in the
+     * received expression.
+     *
+     * @param expression
+     *            expression which exceeds the limit
+     * @param limitViolation
+     *            exceeded limit
+     */
+    public LimitParseDiagnostic(final CharSequence expression,
+            final LimitViolation limitViolation) {
+        super();
+
+        int ln;
+        int column;
+
+        checkNotNull(expression, "Received a null pointer as expression");
+        violation = checkNotNull(limitViolation,
+                "Received a null pointer as violation");
+
+        // Lines and columns are counted up to the violation
+        ln = 1;
+        column = 0;
+        for (int i = 0; i < violation.getPosition(); i++) {
+            if (expression.charAt(i) == '\n') {
+                ln++;
+                column = 0;
+            } else {
+                column++;
+            }
+        }
+        line = ln;
+        charPositionInLine = column;
+
+        if ((violation.getPosition() >= 0)
+                && (violation.getPosition() < expression.length())) {
+            offendingToken = String
+                    .valueOf(expression.charAt(violation.getPosition()));
+        } else {
+            offendingToken = "";
+        }
+    }
+
+    @Override
+    public final int getCharPositionInLine() {
+        return charPositionInLine;
+    }
+
+    @Override
+    public final Iterable<String> getExpectedTokens() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public final int getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the limit which was exceeded.
+     *
+     * @return the exceeded limit
+     */
+    public final LimitType getLimitType() {
+        return violation.getLimitType();
+    }
+
+    @Override
+    public final String getMessage() {
+        return violation.getMessage();
+    }
+
+    @Override
+    public final String getOffendingToken() {
+        return offendingToken;
+    }
+
+    /**
+     * Returns the full description of the exceeded limit.
+     *
+     * @return the exceeded limit
+     */
+    public final LimitViolation getViolation() {
+        return violation;
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("line", line)
+                .add("charPositionInLine", charPositionInLine)
+                .add("offendingToken", offendingToken)
+                .add("violation", violation).toString();
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collections;
+
+import com.bernardomg.tabletop.dice.interpreter.DiceInterpreter;
+import com.bernardomg.tabletop.dice.limit.DiceLimits;
+import com.bernardomg.tabletop.dice.limit.LimitExceededException;
+import com.bernardomg.tabletop.dice.limit.LimitViolation;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+
+/**
+ * Parser decorator which rejects expressions exceeding some resource limits.
+ * <p>
+ * The text is checked before being parsed, so long expressions and deeply
+ * nested parenthesis are rejected without reaching the wrapped parser. Then
+ * the parsed tree is checked, so no interpreter receives an expression which
+ * would be too expensive to roll.
+ * <p>
+ * When parsing, the exceeded limit is thrown as a
+ * {@link LimitExceededException}. When trying to parse, the limits are checked
+ * without exceptions, and the exceeded one is returned as a
+ * {@link LimitParseDiagnostic}, which tells the limit type and where it was
+ * exceeded.
+ * <p>
+ * This is thread safe as long as the wrapped parser is.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class LimitedDiceParser implements DiceParser {
+
+    /**
+     * Limits to check.
+     */
+    private final DiceLimits limits;
+
+    /**
+     * Wrapped parser.
+     */
+    private final DiceParser wrapped;
+
+    /**
+     * Constructs a parser wrapping the received parser, and using the default
+     * limits for untrusted input.
+     *
+     * @param parser
+     *            parser to wrap
+     */
+    public LimitedDiceParser(final DiceParser parser) {
+        this(parser, new DiceLimits());
+    }
+
+    /**
+     * Constructs a parser wrapping the received parser, and using the received
+     * limits.
+     *
+     * @param parser
+     *            parser to wrap
+     * @param diceLimits
+     *            limits to check
+     */
+    public LimitedDiceParser(final DiceParser parser,
+            final DiceLimits diceLimits) {
+        super();
+
+        wrapped = checkNotNull(parser, "Received a null pointer as parser");
+        limits = checkNotNull(diceLimits, "Received a null pointer as limits");
+    }
+
+    /**
+     * Returns the limits checked by this parser.
+     *
+     * @return the checked limits
+     */
+    public final DiceLimits getLimits() {
+        return limits;
+    }
+
+    @Override
+    public final DiceNotationExpression
+            parse(final CharSequence expression) {
+        final DiceNotationExpression parsed;
+
+        // The length is checked before copying the characters
+        limits.checkText(expression);
+
+        parsed = wrapped.parse(expression);
+        limits.checkExpression(parsed);
+
+        return parsed;
+    }
+
+    @Override
+    public final DiceNotationExpression parse(final String expression) {
+        return parse((CharSequence) expression);
+    }
+
+    @Override
+    public final <V> V parse(final String expression,
+            final DiceInterpreter<V> interpreter) {
+        final DiceNotationExpression parsed;
+
+        parsed = parse(expression);
+
+        return interpreter.transform(parsed);
+    }
+
+    @Override
+    public final ParseResult tryParse(final String expression) {
+        ParseResult result;
+        LimitViolation violation;
+
+        violation = limits.getTextViolation(expression);
+        if (violation == null) {
+            result = wrapped.tryParse(expression);
+            if (result.isValid()) {
+                violation = limits
+                        .getExpressionViolation(result.getExpression());
+            }
+        } else {
+            result = null;
+        }
+
+        if (violation != null) {
+            result = new DefaultParseResult(Collections.singletonList(
+                    new LimitParseDiagnostic(expression, violation)));
+        }
+
+        return result;
+    }
+
+}
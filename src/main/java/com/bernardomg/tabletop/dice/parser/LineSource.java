@@ -0,0 +1,41 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import java.io.IOException;
+
+/**
+ * Source of text lines, read one at a time.
+ * <p>
+ * It works like {@link java.io.BufferedReader#readLine()}, which can be used
+ * as a line source.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+@FunctionalInterface
+interface LineSource {
+
+    /**
+     * Reads the next line, without the line terminator.
+     *
+     * @return the next line, or {@code null} if there are no more lines
+     * @throws IOException
+     *             if the line can't be read
+     */
+    public String nextLine() throws IOException;
+
+}
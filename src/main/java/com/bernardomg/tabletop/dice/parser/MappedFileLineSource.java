@@ -0,0 +1,196 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Line source which reads a memory-mapped file.
+ * <p>
+ * The file is mapped in windows of a fixed size, so files of any length can be
+ * read. When a line crosses the end of a window, the next window starts at the
+ * beginning of that line. Lines are decoded as UTF-8, through a single buffer
+ * which grows to the longest line, and both {@code \n} and {@code \r\n} are
+ * accepted as line terminators.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+final class MappedFileLineSource implements LineSource, Closeable {
+
+    /**
+     * Carriage return byte.
+     */
+    private static final byte CARRIAGE_RETURN   = '\r';
+
+    /**
+     * Initial size for the line buffer.
+     */
+    private static final int  INITIAL_LINE_SIZE = 128;
+
+    /**
+     * Line feed byte.
+     */
+    private static final byte LINE_FEED         = '\n';
+
+    /**
+     * Mapped window of the file.
+     */
+    private MappedByteBuffer  buffer;
+
+    /**
+     * Channel for the file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Buffer for decoding the lines.
+     */
+    private byte[]            lineBytes;
+
+    /**
+     * File position where the current window begins.
+     */
+    private long              position;
+
+    /**
+     * Size of the file.
+     */
+    private final long        size;
+
+    /**
+     * Maximum size for each mapped window.
+     */
+    private final int         windowSize;
+
+    /**
+     * Opens the received file for reading.
+     *
+     * @param path
+     *            path to the file
+     * @param window
+     *            maximum size for each mapped window
+     * @throws IOException
+     *             if the file can't be opened
+     */
+    MappedFileLineSource(final Path path, final int window)
+            throws IOException {
+        super();
+
+        windowSize = window;
+        lineBytes = new byte[INITIAL_LINE_SIZE];
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            size = channel.size();
+            map(0);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public final void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public final String nextLine() throws IOException {
+        final String line;
+        int end;
+        int length;
+
+        if (position + buffer.position() >= size) {
+            // End of file
+            line = null;
+        } else {
+            end = findLineFeed();
+            while ((end < 0) && (position + buffer.limit() < size)) {
+                // The line crosses the window
+                if (buffer.position() == 0) {
+                    throw new IOException(String.format(
+                            "Line at position %d is longer than %d bytes",
+                            position, windowSize));
+                }
+                map(position + buffer.position());
+                end = findLineFeed();
+            }
+
+            if (end < 0) {
+                // Last line, without terminator
+                end = buffer.limit();
+            }
+
+            length = end - buffer.position();
+            if ((length > 0) && (buffer.get(end - 1) == CARRIAGE_RETURN)) {
+                length--;
+            }
+
+            if (lineBytes.length < length) {
+                lineBytes = new byte[Math.max(length, lineBytes.length * 2)];
+            }
+            buffer.get(lineBytes, 0, length);
+            line = new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+
+            // Skips the terminator
+            buffer.position(Math.min(end + 1, buffer.limit()));
+        }
+
+        return line;
+    }
+
+    /**
+     * Returns the index of the next line feed in the current window.
+     *
+     * @return the index of the next line feed, or {@code -1} if there is none
+     */
+    private final int findLineFeed() {
+        int index;
+
+        index = buffer.position();
+        while ((index < buffer.limit()) && (buffer.get(index) != LINE_FEED)) {
+            index++;
+        }
+
+        if (index == buffer.limit()) {
+            index = -1;
+        }
+
+        return index;
+    }
+
+    /**
+     * Maps the window starting at the received file position.
+     *
+     * @param start
+     *            file position for the window
+     * @throws IOException
+     *             if the file can't be mapped
+     */
+    private final void map(final long start) throws IOException {
+        position = start;
+        buffer = channel.map(MapMode.READ_ONLY, start,
+                Math.min(windowSize, size - start));
+    }
+
+}
@@ -0,0 +1,436 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single pass scanner for dice notation expressions.
+ * <p>
+ * It recognizes the same tokens as the {@code DiceNotationLexer} grammar, but
+ * works directly over the received characters, without creating token objects.
+ * Only the current token is kept, described by its kind and its bounds in the
+ * input.
+ * <p>
+ * As with the ANTLR lexer, tokens are read lazily. The scanner never goes
+ * further than the token following the last one consumed by the parser.
+ * <p>
+ * Errors are not thrown. Instead the first one is kept as a diagnostic, and
+ * any character not belonging to the notation is read as an invalid token.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+final class NotationScanner {
+
+    /**
+     * Addition or subtraction operator token.
+     */
+    static final int           ADDOPERATOR  = 3;
+
+    /**
+     * Digits token.
+     */
+    static final int           DIGIT        = 2;
+
+    /**
+     * Dice separator token.
+     */
+    static final int           DSEPARATOR   = 1;
+
+    /**
+     * End of input.
+     */
+    static final int           EOF          = 0;
+
+    /**
+     * Invalid character.
+     */
+    static final int           INVALID      = 7;
+
+    /**
+     * Opening parenthesis token.
+     */
+    static final int           LPAREN       = 5;
+
+    /**
+     * Multiplication or division operator token.
+     */
+    static final int           MULTOPERATOR = 4;
+
+    /**
+     * Closing parenthesis token.
+     */
+    static final int           RPAREN       = 6;
+
+    /**
+     * First error found.
+     */
+    private ParseDiagnostic    failure;
+
+    /**
+     * Characters to scan.
+     */
+    private final CharSequence input;
+
+    /**
+     * Index after the last character to scan.
+     */
+    private final int          inputEnd;
+
+    /**
+     * Current line, starting at 1.
+     */
+    private int                line         = 1;
+
+    /**
+     * Index where the current line begins.
+     */
+    private int                lineStart;
+
+    /**
+     * Flag marking the error was caused by a number out of range.
+     */
+    private boolean            numberFailure;
+
+    /**
+     * Index of the next character to scan.
+     */
+    private int                position;
+
+    /**
+     * Column where the current token begins, starting at 0.
+     */
+    private int                tokenColumn;
+
+    /**
+     * Index after the last character of the current token.
+     */
+    private int                tokenEnd;
+
+    /**
+     * Kind of the current token.
+     */
+    private int                tokenKind;
+
+    /**
+     * Line where the current token begins.
+     */
+    private int                tokenLine;
+
+    /**
+     * Index of the first character of the current token.
+     */
+    private int                tokenStart;
+
+    /**
+     * Constructs a scanner for the received characters.
+     *
+     * @param chars
+     *            characters to scan
+     * @param start
+     *            index of the first character to scan
+     * @param end
+     *            index after the last character to scan
+     */
+    NotationScanner(final CharSequence chars, final int start, final int end) {
+        super();
+
+        input = chars;
+        position = start;
+        lineStart = start;
+        inputEnd = end;
+    }
+
+    /**
+     * Returns the character at the received index of the input.
+     *
+     * @param index
+     *            index of the character
+     * @return the character at the index
+     */
+    final char charAt(final int index) {
+        return input.charAt(index);
+    }
+
+    /**
+     * Registers a syntax error at the current token.
+     * <p>
+     * Only the first error is kept, any other one is ignored.
+     *
+     * @param reason
+     *            reason for the error
+     * @param expected
+     *            tokens expected instead of the current one
+     */
+    final void fail(final String reason, final List<String> expected) {
+        if (failure == null) {
+            failure = new DefaultParseDiagnostic(tokenLine, tokenColumn,
+                    getTokenText(), expected, reason);
+        }
+    }
+
+    /**
+     * Returns the first error found, or {@code null} if there is none.
+     *
+     * @return the first error found
+     */
+    final ParseDiagnostic getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns the text from the received index to the end of the current
+     * token. The end of input has no text.
+     *
+     * @param start
+     *            index of the first character
+     * @return the text up to the current token
+     */
+    final String getTextFrom(final int start) {
+        final int end;
+
+        if (tokenKind == EOF) {
+            end = tokenStart;
+        } else {
+            end = tokenEnd;
+        }
+
+        return input.subSequence(start, end).toString();
+    }
+
+    /**
+     * Returns the column where the current token begins, starting at 0.
+     *
+     * @return the column of the current token
+     */
+    final int getTokenColumn() {
+        return tokenColumn;
+    }
+
+    /**
+     * Returns the index after the last character of the current token.
+     *
+     * @return the end of the current token
+     */
+    final int getTokenEnd() {
+        return tokenEnd;
+    }
+
+    /**
+     * Returns the kind of the current token.
+     *
+     * @return the kind of the current token
+     */
+    final int getTokenKind() {
+        return tokenKind;
+    }
+
+    /**
+     * Returns the line where the current token begins, starting at 1.
+     *
+     * @return the line of the current token
+     */
+    final int getTokenLine() {
+        return tokenLine;
+    }
+
+    /**
+     * Returns the index of the first character of the current token.
+     *
+     * @return the beginning of the current token
+     */
+    final int getTokenStart() {
+        return tokenStart;
+    }
+
+    /**
+     * Returns the text of the current token, as shown on error messages.
+     *
+     * @return the current token text
+     */
+    final String getTokenText() {
+        final String text;
+
+        if (tokenKind == EOF) {
+            text = "<EOF>";
+        } else {
+            text = input.subSequence(tokenStart, tokenEnd).toString();
+        }
+
+        return text;
+    }
+
+    /**
+     * Indicates if an error was found.
+     *
+     * @return {@code true} if there is an error, {@code false} otherwise
+     */
+    final boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Indicates if the error was caused by a number out of range.
+     *
+     * @return {@code true} if a number was out of range, {@code false}
+     *         otherwise
+     */
+    final boolean isNumberFailure() {
+        return numberFailure;
+    }
+
+    /**
+     * Moves to the next token.
+     * <p>
+     * Tabs and line breaks are skipped, any other character not belonging to
+     * the notation is an invalid token, and causes a token recognition error.
+     */
+    final void next() {
+        char current;
+
+        // Skips whitespaces
+        while ((position < inputEnd) && isSkippable(input.charAt(position))) {
+            if (input.charAt(position) == '\n') {
+                line++;
+                lineStart = position + 1;
+            }
+            position++;
+        }
+
+        tokenStart = position;
+        tokenLine = line;
+        tokenColumn = position - lineStart;
+
+        if (position >= inputEnd) {
+            tokenKind = EOF;
+        } else {
+            current = input.charAt(position);
+            position++;
+            if ((current >= '0') && (current <= '9')) {
+                tokenKind = DIGIT;
+                while ((position < inputEnd) && (input.charAt(position) >= '0')
+                        && (input.charAt(position) <= '9')) {
+                    position++;
+                }
+            } else if ((current == 'd') || (current == 'D')) {
+                tokenKind = DSEPARATOR;
+            } else if ((current == '+') || (current == '-')) {
+                tokenKind = ADDOPERATOR;
+            } else if ((current == '*') || (current == '/')) {
+                tokenKind = MULTOPERATOR;
+            } else if (current == '(') {
+                tokenKind = LPAREN;
+            } else if (current == ')') {
+                tokenKind = RPAREN;
+            } else {
+                tokenKind = INVALID;
+            }
+        }
+
+        tokenEnd = position;
+
+        if (tokenKind == INVALID) {
+            fail(String.format("token recognition error at: '%s'",
+                    getTokenText()), Collections.emptyList());
+        }
+    }
+
+    /**
+     * Parses the digits in the received interval into an integer.
+     * <p>
+     * This behaves like {@link Integer#parseInt(String)}, but without creating
+     * intermediate strings. If the value is out of range, the error is kept
+     * with the same message the {@code NumberFormatException} would have, and
+     * zero is returned.
+     *
+     * @param start
+     *            index of the first digit
+     * @param end
+     *            index after the last digit
+     * @param negative
+     *            flag marking the value is negative
+     * @param line
+     *            line where the digits begin
+     * @param column
+     *            column where the digits begin
+     * @return the parsed value
+     */
+    final int parseInt(final int start, final int end, final boolean negative,
+            final int line, final int column) {
+        final int limit;
+        final int multmin;
+        boolean outOfRange;
+        int result;
+        int digit;
+        int index;
+
+        // Accumulates negatively, as the negative range is the bigger one
+        if (negative) {
+            limit = Integer.MIN_VALUE;
+        } else {
+            limit = -Integer.MAX_VALUE;
+        }
+        multmin = limit / 10;
+
+        result = 0;
+        outOfRange = false;
+        index = start;
+        while ((!outOfRange) && (index < end)) {
+            digit = input.charAt(index) - '0';
+            if ((result < multmin) || ((result * 10) < (limit + digit))) {
+                outOfRange = true;
+            } else {
+                result = (result * 10) - digit;
+            }
+            index++;
+        }
+
+        if (outOfRange) {
+            result = 0;
+            if (failure == null) {
+                failure = new DefaultParseDiagnostic(line, column,
+                        input.subSequence(start, end).toString(),
+                        Collections.emptyList(),
+                        String.format("For input string: \"%s%s\"",
+                                negative ? "-" : "",
+                                input.subSequence(start, end)));
+                numberFailure = true;
+            }
+        }
+
+        if (!negative) {
+            result = -result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Indicates if the character is skipped by the scanner.
+     *
+     * @param character
+     *            character to check
+     * @return {@code true} if the character is skipped, {@code false}
+     *         otherwise
+     */
+    private final boolean isSkippable(final char character) {
+        return (character == '\t') || (character == '\r')
+                || (character == '\n');
+    }
+
+}
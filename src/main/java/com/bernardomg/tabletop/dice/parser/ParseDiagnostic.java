@@ -0,0 +1,68 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+/**
+ * Problem found while parsing a dice notation expression.
+ * <p>
+ * It describes where the problem was found, the token which caused it, and the
+ * tokens which were expected instead.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public interface ParseDiagnostic {
+
+    /**
+     * Position of the offending token in its line, starting at 0.
+     * 
+     * @return the position in the line
+     */
+    public int getCharPositionInLine();
+
+    /**
+     * Names of the tokens which were expected instead of the offending one.
+     * <p>
+     * This is empty when the problem is not a syntax error, such as an
+     * unrecognized character or a number out of range.
+     * 
+     * @return the expected tokens
+     */
+    public Iterable<String> getExpectedTokens();
+
+    /**
+     * Line of the offending token, starting at 1.
+     * 
+     * @return the line of the problem
+     */
+    public int getLine();
+
+    /**
+     * Description of the problem.
+     * 
+     * @return the problem description
+     */
+    public String getMessage();
+
+    /**
+     * Text of the token which caused the problem. The end of the input is
+     * represented as {@code <EOF>}.
+     * 
+     * @return the offending token
+     */
+    public String getOffendingToken();
+
+}
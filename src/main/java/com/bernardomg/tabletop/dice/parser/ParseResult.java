@@ -0,0 +1,55 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+
+/**
+ * Result from trying to parse a dice notation expression.
+ * <p>
+ * It contains either the parsed expression, or the problems which stopped it
+ * from being parsed.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public interface ParseResult {
+
+    /**
+     * Problems found while parsing. This is empty when the expression is
+     * valid.
+     * 
+     * @return the parsing problems
+     */
+    public Iterable<ParseDiagnostic> getDiagnostics();
+
+    /**
+     * The parsed expression. This is {@code null} when the expression is not
+     * valid.
+     * 
+     * @return the parsed expression
+     */
+    public DiceNotationExpression getExpression();
+
+    /**
+     * Indicates if the expression was parsed.
+     * 
+     * @return {@code true} if the expression is valid, {@code false}
+     *         otherwise
+     */
+    public boolean isValid();
+
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+/**
+ * Result from parsing a line of a notation source, such as a file.
+ * 
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public interface ParsedLine {
+
+    /**
+     * Number of the parsed line, starting at 1.
+     * 
+     * @return the line number
+     */
+    public long getLineNumber();
+
+    /**
+     * Result from parsing the line.
+     * 
+     * @return the parse result
+     */
+    public ParseResult getResult();
+
+}
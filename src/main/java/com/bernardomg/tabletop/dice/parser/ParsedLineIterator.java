@@ -0,0 +1,125 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator which parses each line from a line source.
+ * <p>
+ * Lines are read only when needed, and empty lines are skipped, but still
+ * counted for the line numbers. Errors when reading are thrown as
+ * {@link UncheckedIOException}.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+final class ParsedLineIterator implements Iterator<ParsedLine> {
+
+    /**
+     * Number of the last line read.
+     */
+    private long             lineNumber;
+
+    /**
+     * Next line to return, or {@code null} if it wasn't read yet.
+     */
+    private ParsedLine       next;
+
+    /**
+     * Parser for the lines.
+     */
+    private final DiceParser parser;
+
+    /**
+     * Source of the lines.
+     */
+    private final LineSource source;
+
+    /**
+     * Constructs an iterator for the received lines, using the received
+     * parser.
+     *
+     * @param lines
+     *            source of the lines
+     * @param lineParser
+     *            parser for the lines
+     */
+    ParsedLineIterator(final LineSource lines, final DiceParser lineParser) {
+        super();
+
+        source = lines;
+        parser = lineParser;
+    }
+
+    @Override
+    public final boolean hasNext() {
+        String line;
+
+        if (next == null) {
+            line = readLine();
+            while ((line != null) && line.isEmpty()) {
+                line = readLine();
+            }
+
+            if (line != null) {
+                next = new DefaultParsedLine(lineNumber,
+                        parser.tryParse(line));
+            }
+        }
+
+        return next != null;
+    }
+
+    @Override
+    public final ParsedLine next() {
+        final ParsedLine current;
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        current = next;
+        next = null;
+
+        return current;
+    }
+
+    /**
+     * Reads the next line, and increases the line number.
+     *
+     * @return the next line, or {@code null} if there are no more lines
+     */
+    private final String readLine() {
+        final String line;
+
+        try {
+            line = source.nextLine();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (line != null) {
+            lineNumber++;
+        }
+
+        return line;
+    }
+
+}
@@ -0,0 +1,313 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import java.util.function.Supplier;
+
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.ATNState;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import com.bernardomg.tabletop.dice.generated.DiceNotationLexer;
+import com.bernardomg.tabletop.dice.generated.DiceNotationParser;
+import com.bernardomg.tabletop.dice.generated.TunedDiceNotationParser;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.parser.listener.DiceExpressionBuilder;
+
+/**
+ * ANTLR4 lexer and parsers which are created once, and then reset for each
+ * expression.
+ * <p>
+ * Parsing is tuned for throughput. Each expression is first parsed with the
+ * tuned grammar, which accepts the same notation, but whose root rule doesn't
+ * need full context prediction. This uses SLL prediction and an error
+ * strategy which stops on the first syntax error, and keeps no parse tree, as
+ * the builder works as a parse listener.
+ * <p>
+ * Only if this fails the expression is parsed again, from the start, with the
+ * dice notation grammar, full LL prediction and the usual error handling. This
+ * is the same parser the {@link DefaultDiceParser} uses, so errors are
+ * reported the same way.
+ * <p>
+ * The DFA and prediction context caches are taken from a {@link DfaCache}, and
+ * replaced when it is cleared.
+ * <p>
+ * This is not thread safe. It is meant to be kept by a single thread, and so
+ * avoid recreating the ANTLR objects on each parse.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+final class ReusableNotationParser {
+
+    /**
+     * Lexer error listener which stops the SLL stage.
+     * <p>
+     * Lexer errors are not reported on this stage, they will be reported by
+     * the LL stage.
+     */
+    private static final ANTLRErrorListener BAIL_LISTENER = new BaseErrorListener() {
+
+        @Override
+        public final void syntaxError(final Recognizer<?, ?> recognizer,
+                final Object offendingSymbol, final int line,
+                final int charPositionInLine, final String msg,
+                final RecognitionException e) {
+            throw new ParseCancellationException(msg, e);
+        }
+
+    };
+
+    /**
+     * Builder which generates the returned trees.
+     */
+    private final DiceExpressionBuilder     builder;
+
+    /**
+     * Caches for the ANTLR simulators.
+     */
+    private final DfaCache                  dfaCache;
+
+    /**
+     * Error listener for the LL stage when trying to parse.
+     */
+    private final DiagnosticCollector       diagnostics;
+
+    /**
+     * Error listener for the LL stage.
+     */
+    private final ANTLRErrorListener        errorListener;
+
+    /**
+     * Caches installed into the lexer and parsers.
+     */
+    private DecisionCaches                  installed;
+
+    /**
+     * Reused lexer.
+     */
+    private final DiceNotationLexer         lexer;
+
+    /**
+     * Reused parser for the LL stage.
+     */
+    private final DiceNotationParser        parser;
+
+    /**
+     * Reused token stream.
+     */
+    private final CommonTokenStream         tokens;
+
+    /**
+     * Reused parser for the SLL stage.
+     */
+    private final TunedDiceNotationParser   tunedParser;
+
+    /**
+     * Constructs a reusable parser with the specified builders and error
+     * listener.
+     *
+     * @param builders
+     *            supplier for the builder which generates the returned trees
+     * @param listener
+     *            error listener
+     * @param cache
+     *            caches for the ANTLR simulators
+     */
+    ReusableNotationParser(final Supplier<DiceExpressionBuilder> builders,
+            final ANTLRErrorListener listener, final DfaCache cache) {
+        super();
+
+        builder = builders.get();
+        errorListener = listener;
+        dfaCache = cache;
+        diagnostics = new DiagnosticCollector();
+
+        lexer = new DiceNotationLexer(null);
+        tokens = new CommonTokenStream(lexer);
+
+        // The LL stage works as the default parser
+        parser = new DiceNotationParser(tokens);
+        parser.addParseListener(builder);
+
+        // The SLL stage stops on the first error, and keeps no tree
+        tunedParser = new TunedDiceNotationParser(tokens);
+        tunedParser.addParseListener(new TunedNotationAdapter(builder));
+        tunedParser.setErrorHandler(new BailErrorStrategy());
+        tunedParser.removeErrorListeners();
+        tunedParser.setBuildParseTree(false);
+        setErrorListener(BAIL_LISTENER);
+
+        updateCaches();
+    }
+
+    /**
+     * Transforms a dice notation expression into the dice notation model.
+     *
+     * @param expression
+     *            the expression to parse
+     * @return a dice notation expression object
+     */
+    final DiceNotationExpression parse(final CharSequence expression) {
+        final CharStream stream;
+        DiceNotationExpression root;
+
+        stream = CharSequenceCharStream.of(expression);
+
+        updateCaches();
+        try {
+            setInput(stream, tunedParser);
+            tunedParser.notation();
+            root = builder.getDiceExpressionRoot();
+        } catch (final RuntimeException e) {
+            // SLL failed
+            // Could be a syntax error, or an expression which requires full LL
+            // The builder may also fail, as the rules are exited while
+            // bailing out
+            builder.reset();
+            stream.seek(0);
+
+            setErrorListener(errorListener);
+            try {
+                setInput(stream, parser);
+                parser.notation();
+                root = builder.getDiceExpressionRoot();
+            } finally {
+                setErrorListener(BAIL_LISTENER);
+            }
+        } finally {
+            // The builder is cleaned, so it keeps no node from this parse
+            builder.reset();
+        }
+
+        return root;
+    }
+
+    /**
+     * Tries to transform a dice notation expression into the dice notation
+     * model.
+     * <p>
+     * No exception is thrown, and the error listener is not used. The errors
+     * from the LL stage are kept as diagnostics in the returned result.
+     *
+     * @param expression
+     *            the expression to parse
+     * @return the result from parsing the expression
+     */
+    final ParseResult tryParse(final CharSequence expression) {
+        final CharStream stream;
+        ParseResult result;
+        DiceNotationExpression root;
+        RuntimeException failure;
+
+        stream = CharSequenceCharStream.of(expression);
+
+        updateCaches();
+        try {
+            setInput(stream, tunedParser);
+            tunedParser.notation();
+            result = new DefaultParseResult(builder.getDiceExpressionRoot());
+        } catch (final RuntimeException e) {
+            // SLL failed
+            builder.reset();
+            stream.seek(0);
+
+            setErrorListener(diagnostics);
+            try {
+                setInput(stream, parser);
+                parser.notation();
+                root = builder.getDiceExpressionRoot();
+                failure = null;
+            } catch (final RuntimeException ex) {
+                // The builder failed
+                root = null;
+                failure = ex;
+            } finally {
+                setErrorListener(BAIL_LISTENER);
+            }
+
+            result = diagnostics.getResult(root, failure, tokens.LT(-1));
+        } finally {
+            builder.reset();
+            diagnostics.reset();
+        }
+
+        return result;
+    }
+
+    /**
+     * Sets the error listener for the lexer and the LL stage parser.
+     *
+     * @param listener
+     *            error listener to set
+     */
+    private final void setErrorListener(final ANTLRErrorListener listener) {
+        // The console listeners are removed, errors are reported through the
+        // received listener
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(listener);
+
+        parser.removeErrorListeners();
+        parser.addErrorListener(listener);
+    }
+
+    /**
+     * Sets the received stream as the input for the received parser.
+     *
+     * @param stream
+     *            stream to parse
+     * @param target
+     *            parser which will read the stream
+     */
+    private final void setInput(final CharStream stream, final Parser target) {
+        // Sets the new input. This resets the lexer, token stream and parser
+        lexer.setInputStream(stream);
+        tokens.setTokenSource(lexer);
+        target.setTokenStream(tokens);
+        // The state is not reset, and it may be left over from a failed parse
+        // This would be taken as the state which invoked the root rule
+        target.setState(ATNState.INVALID_STATE_NUMBER);
+    }
+
+    /**
+     * Installs the current caches into the lexer and parsers, if they changed
+     * since the last parse.
+     * <p>
+     * This replaces the ATN simulators, so the SLL prediction mode is set
+     * again.
+     */
+    private final void updateCaches() {
+        final DecisionCaches current;
+
+        current = dfaCache.getCaches();
+        if (current != installed) {
+            current.install(lexer, parser);
+            current.install(tunedParser);
+            tunedParser.getInterpreter()
+                    .setPredictionMode(PredictionMode.SLL);
+            installed = current;
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.parser;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parses sources with one dice notation expression on each line, such as
+ * files.
+ * <p>
+ * Lines are read and parsed lazily, as the returned stream is consumed, so the
+ * whole source is never kept in memory. Each line is parsed with
+ * {@link DiceParser#tryParse(String)}, and the result is returned along the
+ * line number, so invalid lines don't stop the stream. Empty lines are
+ * skipped, but counted for the line numbers.
+ * <p>
+ * Files are memory-mapped, and read in windows, so they can be of any size.
+ * <p>
+ * The returned streams own their source. Closing them will close it, so they
+ * should be used in a try-with-resources statement. Errors when reading are
+ * thrown as {@link UncheckedIOException}.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+public final class StreamingDiceParser {
+
+    /**
+     * Default size for the mapped file windows.
+     */
+    private static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Parser for the lines.
+     */
+    private final DiceParser parser;
+
+    /**
+     * Maximum size for each mapped file window. No line can be longer.
+     */
+    private final int        windowSize;
+
+    /**
+     * Default constructor.
+     * <p>
+     * It makes use of {@link LightweightDiceParser}.
+     */
+    public StreamingDiceParser() {
+        this(new LightweightDiceParser());
+    }
+
+    /**
+     * Constructs a streaming parser with the specified parser.
+     *
+     * @param lineParser
+     *            parser for the lines
+     */
+    public StreamingDiceParser(final DiceParser lineParser) {
+        this(lineParser, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructs a streaming parser with the specified parser and mapped file
+     * window size.
+     *
+     * @param lineParser
+     *            parser for the lines
+     * @param window
+     *            maximum size in bytes for each mapped file window
+     */
+    public StreamingDiceParser(final DiceParser lineParser, final int window) {
+        super();
+
+        parser = checkNotNull(lineParser, "Received a null pointer as parser");
+        checkArgument(window > 0, "The window size should be positive");
+
+        windowSize = window;
+    }
+
+    /**
+     * Parses the lines from the received input stream, decoded as UTF-8.
+     *
+     * @param input
+     *            input stream to parse
+     * @return a lazy stream with the result from each line
+     */
+    public final Stream<ParsedLine> parse(final InputStream input) {
+        return parse(input, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the lines from the received input stream, decoded with the
+     * received charset.
+     *
+     * @param input
+     *            input stream to parse
+     * @param charset
+     *            charset of the input stream
+     * @return a lazy stream with the result from each line
+     */
+    public final Stream<ParsedLine> parse(final InputStream input,
+            final Charset charset) {
+        checkNotNull(input, "Received a null pointer as input stream");
+        checkNotNull(charset, "Received a null pointer as charset");
+
+        return parse(new InputStreamReader(input, charset));
+    }
+
+    /**
+     * Parses the lines from the received file, which is memory-mapped, and
+     * decoded as UTF-8.
+     *
+     * @param path
+     *            file to parse
+     * @return a lazy stream with the result from each line
+     * @throws IOException
+     *             if the file can't be opened
+     */
+    public final Stream<ParsedLine> parse(final Path path) throws IOException {
+        final MappedFileLineSource source;
+
+        checkNotNull(path, "Received a null pointer as path");
+
+        source = new MappedFileLineSource(path, windowSize);
+
+        return toStream(source, source);
+    }
+
+    /**
+     * Parses the lines from the received reader.
+     *
+     * @param reader
+     *            reader to parse
+     * @return a lazy stream with the result from each line
+     */
+    public final Stream<ParsedLine> parse(final Reader reader) {
+        final BufferedReader buffered;
+
+        checkNotNull(reader, "Received a null pointer as reader");
+
+        if (reader instanceof BufferedReader) {
+            buffered = (BufferedReader) reader;
+        } else {
+            buffered = new BufferedReader(reader);
+        }
+
+        return toStream(buffered::readLine, buffered);
+    }
+
+    /**
+     * Creates a lazy stream parsing the received lines.
+     *
+     * @param source
+     *            source of the lines
+     * @param closeable
+     *            resource closed along the stream
+     * @return a lazy stream with the result from each line
+     */
+    private final Stream<ParsedLine> toStream(final LineSource source,
+            final Closeable closeable) {
+        final Spliterator<ParsedLine> spliterator;
+
+        spliterator = Spliterators.spliteratorUnknownSize(
+                new ParsedLineIterator(source, parser),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                closeable.close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+}
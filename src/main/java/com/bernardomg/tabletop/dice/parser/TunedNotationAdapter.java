@@ -0,0 +1,187 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.parser;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import com.bernardomg.tabletop.dice.generated.DiceNotationParser;
+import com.bernardomg.tabletop.dice.generated.TunedDiceNotationListener;
+import com.bernardomg.tabletop.dice.generated.TunedDiceNotationParser;
+import com.bernardomg.tabletop.dice.parser.listener.DiceExpressionBuilder;
+
+/**
+ * Listener for the tuned grammar which passes the parsed rules to a builder
+ * for the dice notation grammar.
+ * <p>
+ * Both grammars share their rules, except for the root one, but ANTLR
+ * generates different context classes for each. So each context is copied
+ * into a context of the dice notation grammar, with the same tokens and
+ * children, before sending it to the builder.
+ * <p>
+ * Terminals, error nodes and the events for every rule are sent as they are.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ */
+final class TunedNotationAdapter implements TunedDiceNotationListener {
+
+    /**
+     * Builder receiving the rules.
+     */
+    private final DiceExpressionBuilder builder;
+
+    /**
+     * Constructs an adapter for the received builder.
+     *
+     * @param expressionBuilder
+     *            builder receiving the rules
+     */
+    TunedNotationAdapter(final DiceExpressionBuilder expressionBuilder) {
+        super();
+
+        builder = expressionBuilder;
+    }
+
+    @Override
+    public final void
+            enterAddOp(final TunedDiceNotationParser.AddOpContext ctx) {
+        builder.enterAddOp(copy(ctx,
+                new DiceNotationParser.AddOpContext(null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void
+            enterDice(final TunedDiceNotationParser.DiceContext ctx) {
+        builder.enterDice(copy(ctx,
+                new DiceNotationParser.DiceContext(null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void enterEveryRule(final ParserRuleContext ctx) {
+        builder.enterEveryRule(ctx);
+    }
+
+    @Override
+    public final void
+            enterMultOp(final TunedDiceNotationParser.MultOpContext ctx) {
+        builder.enterMultOp(copy(ctx,
+                new DiceNotationParser.MultOpContext(null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void
+            enterNotation(final TunedDiceNotationParser.NotationContext ctx) {
+        builder.enterNotation(copy(ctx, new DiceNotationParser.NotationContext(
+                null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void
+            enterNumber(final TunedDiceNotationParser.NumberContext ctx) {
+        builder.enterNumber(copy(ctx,
+                new DiceNotationParser.NumberContext(null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void
+            enterOperand(final TunedDiceNotationParser.OperandContext ctx) {
+        builder.enterOperand(copy(ctx, new DiceNotationParser.OperandContext(
+                null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void
+            exitAddOp(final TunedDiceNotationParser.AddOpContext ctx) {
+        builder.exitAddOp(copy(ctx,
+                new DiceNotationParser.AddOpContext(null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void exitDice(final TunedDiceNotationParser.DiceContext ctx) {
+        builder.exitDice(copy(ctx,
+                new DiceNotationParser.DiceContext(null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void exitEveryRule(final ParserRuleContext ctx) {
+        builder.exitEveryRule(ctx);
+    }
+
+    @Override
+    public final void
+            exitMultOp(final TunedDiceNotationParser.MultOpContext ctx) {
+        builder.exitMultOp(copy(ctx,
+                new DiceNotationParser.MultOpContext(null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void
+            exitNotation(final TunedDiceNotationParser.NotationContext ctx) {
+        builder.exitNotation(copy(ctx, new DiceNotationParser.NotationContext(
+                null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void
+            exitNumber(final TunedDiceNotationParser.NumberContext ctx) {
+        builder.exitNumber(copy(ctx,
+                new DiceNotationParser.NumberContext(null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void
+            exitOperand(final TunedDiceNotationParser.OperandContext ctx) {
+        builder.exitOperand(copy(ctx, new DiceNotationParser.OperandContext(
+                null, ctx.invokingState)));
+    }
+
+    @Override
+    public final void visitErrorNode(final ErrorNode node) {
+        builder.visitErrorNode(node);
+    }
+
+    @Override
+    public final void visitTerminal(final TerminalNode node) {
+        builder.visitTerminal(node);
+    }
+
+    /**
+     * Copies the parsed data from a context into another.
+     * <p>
+     * The children are shared, so the copy reads the same tokens.
+     *
+     * @param <C>
+     *            type of the target context
+     * @param source
+     *            context to copy
+     * @param target
+     *            context receiving the data
+     * @return the target context
+     */
+    private final <C extends ParserRuleContext> C
+            copy(final ParserRuleContext source, final C target) {
+        target.children = source.children;
+        target.start = source.start;
+        target.stop = source.stop;
+        target.exception = source.exception;
+
+        return target;
+    }
+
+}
@@ -18,17 +18,16 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Stack;
-import java.util.stream.Collectors;
 
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.bernardomg.tabletop.dice.DefaultDice;
-import com.bernardomg.tabletop.dice.Dice;
 import com.bernardomg.tabletop.dice.generated.DiceNotationBaseListener;
 import com.bernardomg.tabletop.dice.generated.DiceNotationParser.AddOpContext;
 import com.bernardomg.tabletop.dice.generated.DiceNotationParser.DiceContext;
@@ -38,11 +37,11 @@
 import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
 import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
 import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
-import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
 import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
-import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
-import com.bernardomg.tabletop.dice.notation.operation.MultiplicationOperation;
-import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.Operator;
+import com.bernardomg.tabletop.dice.notation.operation.OperatorRegistry;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
 import com.google.common.collect.Iterables;
 
 /**
@@ -53,6 +52,20 @@
  * expression received by the parser.
  * <p>
  * The builder makes use of a stack for storing the objects as they are parsed.
+ * This stack is emptied when the builder is reset, so it should be reset after
+ * each parse to avoid keeping the parsed nodes.
+ * <p>
+ * Chains of operations, such as "1d6+2-1d4", are built by default as a tree of
+ * binary operations, as deep as the chain is long. Optionally they can be
+ * built as n-ary operations, a {@link SumOperation} for additions and
+ * subtractions, and a {@link ProductOperation} for multiplications. Divisions
+ * are still binary, as they are not associative.
+ * <p>
+ * Operations are created by the operators in an {@link OperatorRegistry},
+ * found by their symbols. N-ary operations are only built for the addition,
+ * subtraction and multiplication operators included in the library, any other
+ * operator, or any of these replaced in the registry, creates its binary
+ * operation.
  * 
  * @author Bernardo Mart&iacute;nez Garrido
  */
@@ -60,56 +73,77 @@ public final class DefaultDiceExpressionBuilder extends DiceNotationBaseListener
         implements DiceExpressionBuilder {
 
     /**
-     * Operator which indicates the operation is an addition.
+     * Logger.
      */
-    private static final String                 ADDITION_OPERATOR       = "+";
+    private static final Logger                 LOGGER   = LoggerFactory
+            .getLogger(DefaultDiceExpressionBuilder.class);
 
     /**
-     * Operator which indicates the operation is a division.
+     * Stack to store objects as they are parsed. The last object left inside it
+     * will be the root of the parsed tree.
      */
-    private static final String                 DIVISION_OPERATOR       = "/";
+    private final Stack<DiceNotationExpression> nodes    = new Stack<>();
 
     /**
-     * Logger.
+     * Flag marking chains of operations are built as n-ary operations.
      */
-    private static final Logger                 LOGGER                  = LoggerFactory
-            .getLogger(DefaultDiceExpressionBuilder.class);
+    private final boolean                       nary;
 
     /**
-     * Operator which indicates the operation is a multiplication.
+     * Operators for the binary operations.
      */
-    private static final String                 MULTIPLICATION_OPERATOR = "*";
+    private final OperatorRegistry              registry;
 
     /**
-     * Operator which indicates the operation is a subtraction.
+     * Default constructor.
+     * <p>
+     * Chains of operations are built as binary operations.
      */
-    private static final String                 SUBTRACTION_OPERATOR    = "-";
+    public DefaultDiceExpressionBuilder() {
+        this(false);
+    }
 
     /**
-     * Stack to store objects as they are parsed. The last object left inside it
-     * will be the root of the parsed tree.
+     * Constructs a builder which may build chains of operations as n-ary
+     * operations.
+     * 
+     * @param naryOperations
+     *            {@code true} to build chains as n-ary operations,
+     *            {@code false} to build them as binary operations
      */
-    private final Stack<DiceNotationExpression> nodes                   = new Stack<>();
+    public DefaultDiceExpressionBuilder(final boolean naryOperations) {
+        this(naryOperations, OperatorRegistry.getDefault());
+    }
 
     /**
-     * Default constructor.
+     * Constructs a builder which creates the binary operations through the
+     * operators in the received registry.
+     * 
+     * @param naryOperations
+     *            {@code true} to build chains as n-ary operations,
+     *            {@code false} to build them as binary operations
+     * @param operators
+     *            operators for the binary operations
      */
-    public DefaultDiceExpressionBuilder() {
+    public DefaultDiceExpressionBuilder(final boolean naryOperations,
+            final OperatorRegistry operators) {
         super();
+
+        nary = naryOperations;
+        registry = checkNotNull(operators,
+                "Received a null pointer as operators");
     }
 
     @Override
     public final void exitAddOp(final AddOpContext ctx) {
         final DiceNotationExpression expression;
-        final Collection<String> operators;
+        final Collection<Operator> operators;
 
         checkNotNull(ctx, "Received a null pointer as context");
 
-        // Operators are mapped into strings
-        operators = ctx.ADDOPERATOR().stream().map(TerminalNode::getText)
-                .collect(Collectors.toList());
+        operators = getOperators(ctx.ADDOPERATOR());
 
-        expression = getBinaryOperation(operators);
+        expression = getOperation(operators);
 
         LOGGER.debug("Parsed addition operation: {}", expression);
 
@@ -132,15 +166,13 @@ public final void exitDice(final DiceContext ctx) {
     @Override
     public final void exitMultOp(final MultOpContext ctx) {
         final DiceNotationExpression expression;
-        final Collection<String> operators;
+        final Collection<Operator> operators;
 
         checkNotNull(ctx, "Received a null pointer as context");
 
-        // Operators are mapped into strings
-        operators = ctx.MULTOPERATOR().stream().map(TerminalNode::getText)
-                .collect(Collectors.toList());
+        operators = getOperators(ctx.MULTOPERATOR());
 
-        expression = getBinaryOperation(operators);
+        expression = getOperation(operators);
 
         LOGGER.debug("Parsed multiplication operation: {}", expression);
 
@@ -176,6 +208,11 @@ public final DiceNotationExpression getDiceExpressionRoot() {
         return root;
     }
 
+    @Override
+    public final void reset() {
+        nodes.clear();
+    }
+
     /**
      * Creates a binary operation from the operators received.
      * <p>
@@ -190,7 +227,7 @@ public final DiceNotationExpression getDiceExpressionRoot() {
      * @return a binary operation
      */
     private final DiceNotationExpression
-            getBinaryOperation(final Collection<String> operators) {
+            getBinaryOperation(final Collection<Operator> operators) {
         final Stack<DiceNotationExpression> operands;
         BinaryOperation operation;
         DiceNotationExpression left;
@@ -203,28 +240,11 @@ public final DiceNotationExpression getDiceExpressionRoot() {
         }
 
         // The operands and operators are combined into the model expressions
-        for (final String operator : operators) {
+        for (final Operator operator : operators) {
             left = operands.pop();
             right = operands.pop();
 
-            // Checks which kind of operation this is and builds it
-            if (ADDITION_OPERATOR.equals(operator)) {
-                LOGGER.trace("Addition operation");
-                operation = new AdditionOperation(left, right);
-            } else if (SUBTRACTION_OPERATOR.equals(operator)) {
-                LOGGER.trace("Subtraction operation");
-                operation = new SubtractionOperation(left, right);
-            } else if (MULTIPLICATION_OPERATOR.equals(operator)) {
-                LOGGER.trace("Multiplication operation");
-                operation = new MultiplicationOperation(left, right);
-            } else if (DIVISION_OPERATOR.equals(operator)) {
-                LOGGER.trace("Division operation");
-                operation = new DivisionOperation(left, right);
-            } else {
-                LOGGER.error("Unknown operator {}", operator);
-                throw new IllegalArgumentException(
-                        String.format("The %s operator is invalid", operator));
-            }
+            operation = operator.create(left, right);
 
             LOGGER.debug("Parsed operation {}", operation);
 
@@ -246,9 +266,8 @@ public final DiceNotationExpression getDiceExpressionRoot() {
      * @return a dice operand
      */
     private final DiceOperand getDiceOperand(final DiceContext ctx) {
-        final Dice dice;                     // Parsed dice
-        final Integer quantity;              // Number of dice
-        final Integer sides;                 // Number of sides
+        final int quantity;                  // Number of dice
+        final int sides;                     // Number of sides
         final Iterator<TerminalNode> digits; // Parsed digits
         final Integer size;                  // Size of the digit list
 
@@ -258,8 +277,8 @@ private final DiceOperand getDiceOperand(final DiceContext ctx) {
 
         if (size > 1) {
             // Contains the quantity of dice
-            if ((ctx.ADDOPERATOR() != null) && (SUBTRACTION_OPERATOR
-                    .equals(ctx.ADDOPERATOR().getText()))) {
+            if ((ctx.ADDOPERATOR() != null) && (getSymbol(
+                    ctx.ADDOPERATOR()) == Operator.SUBTRACTION.getSymbol())) {
                 // Subtraction
                 LOGGER.debug("This is part of a subtraction. Reversing sign.");
                 quantity = 0 - Integer.parseInt(digits.next().getText());
@@ -277,9 +296,7 @@ private final DiceOperand getDiceOperand(final DiceContext ctx) {
         sides = Integer.parseInt(digits.next().getText());
 
         // Creates the dice
-        dice = new DefaultDice(quantity, sides);
-
-        return new DefaultDiceOperand(dice);
+        return DefaultDiceOperand.valueOf(quantity, sides);
     }
 
     /**
@@ -290,12 +307,157 @@ private final DiceOperand getDiceOperand(final DiceContext ctx) {
      * @return an integer operand
      */
     private final IntegerOperand getIntegerOperand(final String expression) {
-        final Integer value;
+        final int value;
 
         // Parses the value
         value = Integer.parseInt(expression);
 
-        return new IntegerOperand(value);
+        return IntegerOperand.valueOf(value);
+    }
+
+    /**
+     * Creates an n-ary operation from the operators received.
+     * <p>
+     * Additions and subtractions are combined into a single sum. Consecutive
+     * multiplications are combined into a single product, and any other
+     * operation, such as a division, takes all the operations before it as its
+     * left operand. These are created by the registered operators.
+     * 
+     * @param operators
+     *            parsed operators
+     * @return an n-ary operation
+     */
+    private final DiceNotationExpression
+            getNaryOperation(final Collection<Operator> operators) {
+        final DiceNotationExpression[] operands;
+        final boolean[] subtracted;
+        final List<DiceNotationExpression> factors;
+        final DiceNotationExpression operation;
+        DiceNotationExpression left;
+        int index;
+
+        // There are as many operands as operators plus one
+        // They are popped in reverse order
+        operands = new DiceNotationExpression[operators.size() + 1];
+        for (int i = operands.length - 1; i >= 0; i--) {
+            operands[i] = nodes.pop();
+        }
+
+        if (operators.stream().allMatch(o -> (o == Operator.ADDITION)
+                || (o == Operator.SUBTRACTION))) {
+            LOGGER.trace("Sum operation");
+            subtracted = new boolean[operands.length];
+            index = 1;
+            for (final Operator operator : operators) {
+                subtracted[index] = (operator == Operator.SUBTRACTION);
+                index++;
+            }
+            operation = new SumOperation(operands, subtracted);
+        } else {
+            LOGGER.trace("Product operation");
+            factors = new ArrayList<>();
+            factors.add(operands[0]);
+            index = 1;
+            for (final Operator operator : operators) {
+                if (operator == Operator.MULTIPLICATION) {
+                    factors.add(operands[index]);
+                } else {
+                    // Any other operation closes the current product
+                    left = toProduct(factors);
+                    factors.clear();
+                    factors.add(operator.create(left, operands[index]));
+                }
+                index++;
+            }
+            operation = toProduct(factors);
+        }
+
+        LOGGER.debug("Parsed operation {}", operation);
+
+        return operation;
+    }
+
+    /**
+     * Creates an operation from the operators received, either as binary
+     * operations or as an n-ary one.
+     * 
+     * @param operators
+     *            parsed operators
+     * @return the parsed operation
+     */
+    private final DiceNotationExpression
+            getOperation(final Collection<Operator> operators) {
+        final DiceNotationExpression operation;
+
+        if (nary && !operators.isEmpty()) {
+            operation = getNaryOperation(operators);
+        } else {
+            operation = getBinaryOperation(operators);
+        }
+
+        return operation;
+    }
+
+    /**
+     * Returns the operators registered for the symbols of the received tokens.
+     * 
+     * @param tokens
+     *            parsed operator tokens
+     * @return the operators for the tokens
+     */
+    private final List<Operator>
+            getOperators(final List<TerminalNode> tokens) {
+        final List<Operator> operators;
+        char symbol;
+
+        operators = new ArrayList<>(tokens.size());
+        for (final TerminalNode token : tokens) {
+            symbol = getSymbol(token);
+            if (!registry.isRegistered(symbol)) {
+                LOGGER.error("Unknown operator {}", symbol);
+                throw new IllegalArgumentException(
+                        String.format("The %s operator is invalid", symbol));
+            }
+            operators.add(registry.getOperator(symbol));
+        }
+
+        return operators;
+    }
+
+    /**
+     * Returns the symbol of an operator token.
+     * <p>
+     * Operator tokens are a single character, which is read straight from the
+     * token.
+     * 
+     * @param token
+     *            parsed operator token
+     * @return the symbol of the operator
+     */
+    private final char getSymbol(final TerminalNode token) {
+        return token.getSymbol().getText().charAt(0);
+    }
+
+    /**
+     * Returns the product of the received factors, or the factor itself if
+     * there is only one.
+     * 
+     * @param factors
+     *            factors to multiply
+     * @return the product of the factors
+     */
+    private final DiceNotationExpression
+            toProduct(final List<DiceNotationExpression> factors) {
+        final DiceNotationExpression product;
+
+        if (factors.size() == 1) {
+            product = factors.get(0);
+        } else {
+            product = new ProductOperation(
+                    factors.toArray(new DiceNotationExpression[0]));
+        }
+
+        return product;
     }
 
 }
@@ -37,4 +37,18 @@ public interface DiceExpressionBuilder extends DiceNotationListener {
      */
     public DiceNotationExpression getDiceExpressionRoot();
 
+    /**
+     * Resets the builder, so it can be reused.
+     * <p>
+     * After this no node from previous parses should be kept by the builder.
+     * Parsers are expected to call it once the root has been acquired, or after
+     * a failed parse.
+     * <p>
+     * By default this does nothing, which is enough for builders which are
+     * not reused.
+     */
+    public default void reset() {
+        // Nothing to reset
+    }
+
 }
@@ -20,7 +20,6 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +31,11 @@
  * <p>
  * Contains all the logic to generate random values from a dice, but is missing
  * the logic for actually generating a random value.
+ * <p>
+ * Each value is generated through {@link #generateInt(int)}. When only the
+ * total is needed, {@link #generateTotal(Dice)} reads the dice through their
+ * primitive accessors and adds the values without boxing any of them. The
+ * same is done by {@link #generateLongTotal(Dice)}, over a long.
  * 
  * @author Bernardo Mart&iacute;nez Garrido
  *
@@ -54,8 +58,9 @@ public AbstractNumberGenerator() {
     @Override
     public final Iterable<Integer> generate(final Dice dice) {
         final Collection<Integer> rolls; // Roll results
-        final Integer quantity;
-        final Supplier<Integer> rollSupplier;
+        final int quantity;
+        final int sides;
+        final int sign;
 
         checkNotNull(dice, "Received a null pointer as dice");
 
@@ -63,20 +68,70 @@ public final Iterable<Integer> generate(final Dice dice) {
             // Negative dice set (-1d6)
             LOGGER.trace("Negative dice set");
             quantity = 0 - dice.getQuantity();
-            rollSupplier = () -> (0 - generate(dice.getSides()));
+            sign = -1;
         } else {
             // Positive dice set (1d6)
             LOGGER.trace("Positive dice set");
             quantity = dice.getQuantity();
-            rollSupplier = () -> (generate(dice.getSides()));
+            sign = 1;
         }
+        sides = dice.getSides();
 
         rolls = new ArrayList<>();
-        for (Integer i = 0; i < quantity; i++) {
-            rolls.add(rollSupplier.get());
+        for (int i = 0; i < quantity; i++) {
+            rolls.add(sign * generateInt(sides));
         }
 
         return rolls;
     }
 
+    @Override
+    public final long generateLongTotal(final Dice dice) {
+        final long quantity;
+        final int sides;
+        long total;
+
+        checkNotNull(dice, "Received a null pointer as dice");
+
+        // Negative dice sets (-1d6) generate negative values
+        // Widened first, so the lowest quantity can be negated
+        quantity = Math.abs((long) dice.getQuantityAsInt());
+        sides = dice.getSidesAsInt();
+
+        total = 0;
+        for (long i = 0; i < quantity; i++) {
+            total += generateInt(sides);
+        }
+
+        if (dice.getQuantityAsInt() < 0) {
+            total = 0 - total;
+        }
+
+        return total;
+    }
+
+    @Override
+    public final int generateTotal(final Dice dice) {
+        final int quantity;
+        final int sides;
+        int total;
+
+        checkNotNull(dice, "Received a null pointer as dice");
+
+        // Negative dice sets (-1d6) generate negative values
+        quantity = Math.abs(dice.getQuantityAsInt());
+        sides = dice.getSidesAsInt();
+
+        total = 0;
+        for (int i = 0; i < quantity; i++) {
+            total += generateInt(sides);
+        }
+
+        if (dice.getQuantityAsInt() < 0) {
+            total = 0 - total;
+        }
+
+        return total;
+    }
+
 }
@@ -51,4 +51,61 @@ public interface NumberGenerator {
      */
     public Integer generate(final Integer max);
 
+    /**
+     * Generates a random value, without boxing it.
+     * <p>
+     * By default this unboxes {@link #generate(Integer)}. Generators should
+     * override it when they can produce primitives directly.
+     * 
+     * @param max
+     *            the maximum value which can be generated
+     * @return a random value
+     */
+    public default int generateInt(final int max) {
+        return generate(max);
+    }
+
+    /**
+     * Generates the sum of the random values from the received {@code Dice}.
+     * <p>
+     * This is the same as adding all the values from {@link #generate(Dice)},
+     * but generators may compute it without storing each value.
+     * 
+     * @param dice
+     *            the dice to roll
+     * @return the sum of the random values generated from the dice
+     */
+    public default int generateTotal(final Dice dice) {
+        int total;
+
+        total = 0;
+        for (final Integer roll : generate(dice)) {
+            total += roll;
+        }
+
+        return total;
+    }
+
+    /**
+     * Generates the sum of the random values from the received {@code Dice},
+     * as a long.
+     * <p>
+     * This is the same as {@link #generateTotal(Dice)}, but the sum is kept
+     * in a long, so it never overflows, even for pools such as 100000d100000.
+     * 
+     * @param dice
+     *            the dice to roll
+     * @return the sum of the random values generated from the dice
+     */
+    public default long generateLongTotal(final Dice dice) {
+        long total;
+
+        total = 0;
+        for (final Integer roll : generate(dice)) {
+            total += roll;
+        }
+
+        return total;
+    }
+
 }
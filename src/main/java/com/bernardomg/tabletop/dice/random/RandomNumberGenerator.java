@@ -43,7 +43,7 @@ public final class RandomNumberGenerator extends AbstractNumberGenerator {
      * As dice should always have a positive number of sides, the lowest allowed
      * value will be one. Even if there are no dice with less that two sides.
      */
-    private static final Integer LOWER_LIMIT = 1;
+    private static final int     LOWER_LIMIT = 1;
 
     /**
      * Random number generator for generating roll values.
@@ -72,7 +72,21 @@ public RandomNumberGenerator() {
      */
     @Override
     public final Integer generate(final Integer max) {
-        final Integer result;
+        return generateInt(max);
+    }
+
+    /**
+     * Generates a random value, without boxing it.
+     * <p>
+     * This value is in the interval [1,max].
+     * 
+     * @param max
+     *            the maximum value which can be generated
+     * @return a random value in the interval [1,max]
+     */
+    @Override
+    public final int generateInt(final int max) {
+        final int result;
 
         if (max < LOWER_LIMIT) {
             LOGGER.warn(
@@ -82,8 +96,11 @@ public final Integer generate(final Integer max) {
         } else {
             result = random.nextInt(Math.abs(LOWER_LIMIT - max) + 1)
                     + LOWER_LIMIT;
-            LOGGER.debug("Using interval [{},{}] generated {}", LOWER_LIMIT,
-                    max, result);
+            if (LOGGER.isDebugEnabled()) {
+                // Checked first to avoid boxing the arguments
+                LOGGER.debug("Using interval [{},{}] generated {}",
+                        LOWER_LIMIT, max, result);
+            }
         }
 
         return result;
@@ -24,13 +24,18 @@
 import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
 import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
 import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
 import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
 
 /**
  * Stores all the dice set from the expressions received.
  * <p>
  * It handles negative dice sets. Any dice directly after a subtraction is a
- * negative dice set.
+ * negative dice set, as is any dice subtracted in a sum.
+ * <p>
+ * The nodes are expected inorder, so n-ary operations are received before
+ * each of their operands but the first.
  * 
  * @author Bernardo Mart&iacute;nez Garrido
  *
@@ -83,6 +88,15 @@ public final Iterable<Dice> getValue() {
         return dice;
     }
 
+    @Override
+    public final void naryOperation(final NaryOperation exp,
+            final int index) {
+        // The index is the operand which follows
+        negative = (exp instanceof SumOperation)
+                && (index < exp.getOperandCount())
+                && ((SumOperation) exp).isSubtracted(index);
+    }
+
     @Override
     public final void reset() {
         negative = false;
@@ -98,7 +112,7 @@ public final void reset() {
      * @return dice with the sign reversed
      */
     private final Dice reverse(final Dice d) {
-        return new DefaultDice(0 - d.getQuantity(), d.getSides());
+        return DefaultDice.valueOf(0 - d.getQuantity(), d.getSides());
     }
 
 }
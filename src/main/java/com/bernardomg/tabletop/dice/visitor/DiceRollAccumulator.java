@@ -18,8 +18,10 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.Stack;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import org.slf4j.Logger;
@@ -33,17 +35,20 @@
 import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
 import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
 import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
-import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
 import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
-import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
-import com.bernardomg.tabletop.dice.notation.operation.MultiplicationOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
 import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
 import com.google.common.collect.Iterables;
 
 /**
  * Stores all the rolls generated from the expressions.
  * <p>
  * Integer values are handled as a roll, just with a constant value.
+ * <p>
+ * The values of the expression are kept as primitives, and operations are
+ * applied through their {@link BinaryOperation#getIntOperation() primitive
+ * operators}, so evaluating the expression does not box them.
  * 
  * @author Bernardo Mart&iacute;nez Garrido
  *
@@ -54,9 +59,14 @@
     /**
      * Logger.
      */
-    private static final Logger              LOGGER  = LoggerFactory
+    private static final Logger              LOGGER        = LoggerFactory
             .getLogger(DiceRollAccumulator.class);
 
+    /**
+     * Initial capacity for the values stack.
+     */
+    private static final int                 VALUES_LENGTH = 16;
+
     /**
      * The last expression received.
      */
@@ -65,7 +75,7 @@
     /**
      * All the results generated so far.
      */
-    private final Stack<RollResult>          results = new Stack<>();
+    private final Stack<RollResult>          results       = new Stack<>();
 
     /**
      * Generator for the rolls.
@@ -78,15 +88,20 @@
      * It always contain the text representation of all the nodes parsed so far,
      * along temporal texts to keep building the final result.
      */
-    private final Stack<String>              texts   = new Stack<>();
+    private final Stack<String>              texts         = new Stack<>();
 
     /**
-     * The expression values generated so far.
+     * The expression values generated so far, used as a stack.
      * <p>
      * It always contain the sum of all the nodes parsed so far, along temporal
      * values to keep building the final result.
      */
-    private final Stack<Integer>             values  = new Stack<>();
+    private int[]                            values        = new int[VALUES_LENGTH];
+
+    /**
+     * Number of values in the stack.
+     */
+    private int                              valuesSize;
 
     /**
      * Constructs an accumulator with the specified arguments.
@@ -103,22 +118,20 @@ public DiceRollAccumulator(final Function<Dice, RollResult> generator) {
 
     @Override
     public final void binaryOperation(final BinaryOperation exp) {
-        final Integer operandA;
-        final Integer operandB;
-        final BiFunction<Integer, Integer, Integer> operation;
+        final int operandA;
+        final int operandB;
         final String textA;
         final String textB;
         final String op;
-        Integer value;
+        final int value;
         RollResult rollResult;
 
         // Operation
         // Takes back the two latest values and applies
-        operandB = values.pop();
-        operandA = values.pop();
-        operation = exp.getOperation();
-        value = operation.apply(operandA, operandB);
-        values.push(value);
+        operandB = popValue();
+        operandA = popValue();
+        value = exp.getIntOperation().applyAsInt(operandA, operandB);
+        pushValue(value);
 
         op = getOperationText(exp);
         textA = texts.pop();
@@ -131,8 +144,7 @@ public final void binaryOperation(final BinaryOperation exp) {
             // The previous value was a constant
             // The sign is changed
             rollResult = results.pop();
-            value = 0 - rollResult.getTotalRoll();
-            rollResult = new DefaultRollResult(value);
+            rollResult = new DefaultRollResult(0 - rollResult.getTotalRoll());
             results.push(rollResult);
         }
 
@@ -141,18 +153,18 @@ public final void binaryOperation(final BinaryOperation exp) {
 
     @Override
     public final void constantOperand(final ConstantOperand exp) {
-        final Integer value;
+        final int value;
         final RollResult rollResult;
 
         // Constant
         // Stores the value
-        value = exp.getValue();
+        value = exp.getValueAsInt();
         rollResult = new DefaultRollResult(value);
         results.add(rollResult);
 
-        values.push(rollResult.getTotalRoll());
+        pushValue(value);
 
-        texts.push(rollResult.getTotalRoll().toString());
+        texts.push(String.valueOf(value));
 
         previous = exp;
     }
@@ -169,7 +181,7 @@ public final void diceOperand(final DiceOperand exp) {
         rollResult = rollGenerator.apply(exp.getDice());
         results.add(rollResult);
 
-        values.push(rollResult.getTotalRoll());
+        pushValue(rollResult.getTotalRoll());
 
         if (Iterables.size(rollResult.getAllRolls()) > 1) {
             texts.push(rollResult.getAllRolls().toString());
@@ -183,14 +195,14 @@ public final void diceOperand(final DiceOperand exp) {
     @Override
     public final RollHistory getValue() {
         final String text;
-        final Integer result;
+        final int result;
 
-        if (values.isEmpty()) {
+        if (valuesSize == 0) {
             // By default the returned value is 0
             result = 0;
         } else {
             // The value which is left is returned
-            result = values.pop();
+            result = popValue();
         }
 
         if (texts.isEmpty()) {
@@ -202,12 +214,47 @@ public final RollHistory getValue() {
         return new DefaultRollHistory(results, text, result);
     }
 
+    @Override
+    public final void naryOperation(final NaryOperation exp,
+            final int index) {
+        final int count;
+        final int value;
+        final String[] operandTexts;
+        final StringBuilder text;
+
+        // Operation
+        // Takes back the latest values, one for each operand, and applies
+        count = exp.getOperandCount();
+        value = exp.applyAsInt(values, valuesSize - count);
+        valuesSize -= count;
+        pushValue(value);
+
+        operandTexts = new String[count];
+        for (int i = count - 1; i >= 0; i--) {
+            operandTexts[i] = texts.pop();
+        }
+        text = new StringBuilder(operandTexts[0]);
+        for (int i = 1; i < count; i++) {
+            text.append(getOperationText(exp, i));
+            text.append(operandTexts[i]);
+        }
+        texts.push(text.toString());
+
+        if (exp instanceof SumOperation) {
+            // As with subtractions, the sign of subtracted constants is
+            // changed
+            negateConstants((SumOperation) exp);
+        }
+
+        previous = exp;
+    }
+
     @Override
     public final void reset() {
         previous = null;
         results.clear();
         texts.clear();
-        values.clear();
+        valuesSize = 0;
     }
 
     /**
@@ -220,20 +267,136 @@ public final void reset() {
     private final String getOperationText(final BinaryOperation exp) {
         final String text;
 
-        if (exp instanceof AdditionOperation) {
-            text = " + ";
-        } else if (exp instanceof SubtractionOperation) {
-            text = " - ";
-        } else if (exp instanceof MultiplicationOperation) {
-            text = " * ";
-        } else if (exp instanceof DivisionOperation) {
-            text = " / ";
-        } else {
+        if (exp.getOperator() == null) {
             LOGGER.warn("Unsupported expression of type {}", exp.getClass());
             text = "";
+        } else {
+            text = " " + exp.getOperator().getSymbol() + " ";
         }
 
         return text;
     }
 
+    /**
+     * Returns the text value of the operation before the received operand.
+     * 
+     * @param exp
+     *            expression containing the operation
+     * @param index
+     *            index of the operand
+     * @return text value of the operation
+     */
+    private final String getOperationText(final NaryOperation exp,
+            final int index) {
+        final String text;
+
+        if (exp instanceof SumOperation) {
+            if (((SumOperation) exp).isSubtracted(index)) {
+                text = " - ";
+            } else {
+                text = " + ";
+            }
+        } else {
+            text = " * ";
+        }
+
+        return text;
+    }
+
+    /**
+     * Returns the number of results generated by the received node.
+     * <p>
+     * Each constant and dice generates a single result.
+     * 
+     * @param node
+     *            node to check
+     * @return the number of results generated by the node
+     */
+    private final int getResultsCount(final DiceNotationExpression node) {
+        final Deque<DiceNotationExpression> pending;
+        DiceNotationExpression current;
+        int count;
+
+        pending = new ArrayDeque<>();
+        pending.push(node);
+        count = 0;
+        while (!pending.isEmpty()) {
+            current = pending.pop();
+            if (current instanceof BinaryOperation) {
+                pending.push(((BinaryOperation) current).getLeft());
+                pending.push(((BinaryOperation) current).getRight());
+            } else if (current instanceof NaryOperation) {
+                pending.addAll(((NaryOperation) current).getOperands());
+            } else if ((current instanceof ConstantOperand)
+                    || (current instanceof DiceOperand)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Changes the sign of the results for the constants subtracted in the
+     * received sum.
+     * <p>
+     * The results of the operands are the latest ones, in the same order as
+     * the operands.
+     * 
+     * @param exp
+     *            sum with the operands
+     */
+    private final void negateConstants(final SumOperation exp) {
+        int first;
+        int index;
+        RollResult rollResult;
+
+        // Finds the first subtracted constant
+        first = exp.getOperandCount();
+        for (int i = exp.getOperandCount() - 1; i > 0; i--) {
+            if (exp.isSubtracted(i)
+                    && (exp.getOperand(i) instanceof ConstantOperand)) {
+                first = i;
+            }
+        }
+
+        // Moves back from the latest result
+        index = results.size();
+        for (int i = exp.getOperandCount() - 1; i >= first; i--) {
+            index -= getResultsCount(exp.getOperand(i));
+            if (exp.isSubtracted(i)
+                    && (exp.getOperand(i) instanceof ConstantOperand)) {
+                rollResult = results.get(index);
+                results.set(index,
+                        new DefaultRollResult(0 - rollResult.getTotalRoll()));
+            }
+        }
+    }
+
+    /**
+     * Removes the latest value from the stack, and returns it.
+     * 
+     * @return the latest value
+     */
+    private final int popValue() {
+        valuesSize--;
+
+        return values[valuesSize];
+    }
+
+    /**
+     * Stores a value on the stack, growing it if needed.
+     * 
+     * @param value
+     *            value to store
+     */
+    private final void pushValue(final int value) {
+        if (valuesSize == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+
+        values[valuesSize] = value;
+        valuesSize++;
+    }
+
 }
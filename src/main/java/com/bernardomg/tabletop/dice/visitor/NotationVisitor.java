@@ -19,6 +19,7 @@
 import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
 import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
 import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.NaryOperation;
 
 /**
  * Visitor for dice notation expressions.
@@ -51,4 +52,26 @@ public interface NotationVisitor {
      */
     public void diceOperand(final DiceOperand exp);
 
+    /**
+     * Visits an n-ary operation.
+     * <p>
+     * When the nodes are visited inorder, the operation is visited between
+     * each pair of operands. Otherwise it is visited once.
+     * <p>
+     * The index is the number of operands visited before the operation. This
+     * is zero on preorder, the index of the following operand on inorder, and
+     * the number of operands on postorder.
+     * <p>
+     * By default n-ary operations are ignored.
+     * 
+     * @param exp
+     *            expression to visit
+     * @param index
+     *            number of operands visited before the operation
+     */
+    public default void naryOperation(final NaryOperation exp,
+            final int index) {
+        // N-ary operations are ignored
+    }
+
 }
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.benchmark.interpreter;
+
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bernardomg.tabletop.dice.interpreter.DiceRoller;
+import com.bernardomg.tabletop.dice.interpreter.PostorderTraverser;
+import com.bernardomg.tabletop.dice.interpreter.TotalRoller;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
+import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.random.NumberGenerator;
+import com.bernardomg.tabletop.dice.random.RandomNumberGenerator;
+
+/**
+ * Evaluates a parsed expression, with values out of the Integer cache, through
+ * the boxed and the primitive APIs.
+ * <p>
+ * Run it through the main method, with the test classpath. The GC profiler
+ * shows the bytes allocated on each evaluation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    private static final String EXPRESSION = "2d6*150+1000-3d8/2+400*(1d4+250)";
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EvaluationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+
+    private DiceNotationExpression expression;
+
+    private NumberGenerator        generator;
+
+    private TotalRoller            totalRoller;
+
+    public EvaluationBenchmark() {
+        super();
+    }
+
+    @Benchmark
+    public final int evaluateBoxed() {
+        final Stack<Integer> values;
+        BinaryOperation operation;
+        Integer operandA;
+        Integer operandB;
+        Integer total;
+
+        // Evaluation through the boxed API
+        values = new Stack<>();
+        for (final DiceNotationExpression node : new PostorderTraverser()
+                .transform(expression)) {
+            if (node instanceof BinaryOperation) {
+                operation = (BinaryOperation) node;
+                operandB = values.pop();
+                operandA = values.pop();
+                values.push(operation.getOperation().apply(operandA,
+                        operandB));
+            } else if (node instanceof ConstantOperand) {
+                values.push(((ConstantOperand) node).getValue());
+            } else if (node instanceof DiceOperand) {
+                total = 0;
+                for (final Integer roll : generator
+                        .generate(((DiceOperand) node).getDice())) {
+                    total += roll;
+                }
+                values.push(total);
+            }
+        }
+
+        return values.pop();
+    }
+
+    @Benchmark
+    public final int evaluatePrimitive() {
+        return totalRoller.rollTotal(expression);
+    }
+
+    @Benchmark
+    public final int rollHistory() {
+        return new DiceRoller(generator).transform(expression).getTotalRoll();
+    }
+
+    @Setup
+    public final void setup() {
+        expression = new LightweightDiceParser().parse(EXPRESSION);
+        generator = new RandomNumberGenerator();
+        totalRoller = new TotalRoller(generator);
+    }
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.benchmark.parser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bernardomg.tabletop.dice.history.RollHistory;
+import com.bernardomg.tabletop.dice.interpreter.DiceRoller;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceWarmUp;
+
+/**
+ * Measures the first parse and roll on a new JVM, with and without warming up.
+ * <p>
+ * Each fork runs a single operation, so the time includes class loading and
+ * the ANTLR setup. Run it through the main method, with the test classpath.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ColdStartBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class WarmedUp {
+
+        public WarmedUp() {
+            super();
+        }
+
+        @Setup(Level.Trial)
+        public final void setup() {
+            new DiceWarmUp().warmUp();
+        }
+
+    }
+
+    private static final String EXPRESSION = "2d6+1d20-3";
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ColdStartBenchmark.class.getSimpleName()).build())
+                        .run();
+    }
+
+    public ColdStartBenchmark() {
+        super();
+    }
+
+    @Benchmark
+    public final DiceNotationExpression firstParse() {
+        return new DefaultDiceParser().parse(EXPRESSION);
+    }
+
+    @Benchmark
+    public final DiceNotationExpression
+            firstParseWarmedUp(final WarmedUp warmedUp) {
+        return new DefaultDiceParser().parse(EXPRESSION);
+    }
+
+    @Benchmark
+    public final RollHistory firstRoll() {
+        return new DefaultDiceParser().parse(EXPRESSION, new DiceRoller());
+    }
+
+    @Benchmark
+    public final RollHistory firstRollWarmedUp(final WarmedUp warmedUp) {
+        return new DefaultDiceParser().parse(EXPRESSION, new DiceRoller());
+    }
+
+}
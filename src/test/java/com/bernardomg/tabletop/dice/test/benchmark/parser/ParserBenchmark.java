@@ -0,0 +1,146 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.benchmark.parser;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bernardomg.tabletop.dice.notation.NotationDecoder;
+import com.bernardomg.tabletop.dice.notation.NotationEncoder;
+import com.bernardomg.tabletop.dice.parser.ConcurrentDiceParser;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+
+/**
+ * Parses all the valid grammar examples with each parser, and decodes them
+ * from their binary encoding, for comparison.
+ * <p>
+ * Run it through the main method, with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ParserBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private DiceParser      concurrentParser;
+
+    private List<String>    corpus;
+
+    private NotationDecoder decoder;
+
+    private DiceParser      defaultParser;
+
+    private List<byte[]>    encoded;
+
+    private DiceParser      lightweightParser;
+
+    public ParserBenchmark() {
+        super();
+    }
+
+    @Benchmark
+    public final void decode(final Blackhole blackhole) {
+        for (final byte[] expression : encoded) {
+            blackhole.consume(decoder.decode(expression));
+        }
+    }
+
+    @Benchmark
+    public final void parseConcurrent(final Blackhole blackhole) {
+        parseCorpus(concurrentParser, blackhole);
+    }
+
+    @Benchmark
+    public final void parseDefault(final Blackhole blackhole) {
+        parseCorpus(defaultParser, blackhole);
+    }
+
+    @Benchmark
+    public final void parseLightweight(final Blackhole blackhole) {
+        parseCorpus(lightweightParser, blackhole);
+    }
+
+    @Setup
+    public final void setup() throws IOException, URISyntaxException {
+        final Path folder; // Folder with the examples
+
+        folder = Paths.get(getClass().getResource("/examples").toURI());
+
+        // Only the valid examples, which have no errors file
+        corpus = Files.list(folder)
+                .filter(p -> p.getFileName().toString().endsWith(".txt"))
+                .filter(p -> !Files.exists(
+                        p.resolveSibling(p.getFileName() + ".errors")))
+                .sorted().map(this::read).collect(Collectors.toList());
+
+        concurrentParser = new ConcurrentDiceParser();
+        defaultParser = new DefaultDiceParser();
+        lightweightParser = new LightweightDiceParser();
+
+        decoder = new NotationDecoder();
+        encoded = corpus.stream().map(lightweightParser::parse)
+                .map(new NotationEncoder()::encode)
+                .collect(Collectors.toList());
+    }
+
+    private final void parseCorpus(final DiceParser parser,
+            final Blackhole blackhole) {
+        for (final String expression : corpus) {
+            blackhole.consume(parser.parse(expression));
+        }
+    }
+
+    private final String read(final Path path) {
+        try {
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
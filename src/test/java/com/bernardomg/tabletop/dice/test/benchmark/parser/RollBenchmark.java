@@ -0,0 +1,99 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.benchmark.parser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bernardomg.tabletop.dice.history.RollHistory;
+import com.bernardomg.tabletop.dice.interpreter.DiceRoller;
+import com.bernardomg.tabletop.dice.interpreter.FastDiceRoller;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+
+/**
+ * Rolls a common expression through the fast path, and through the parsers.
+ * <p>
+ * Run it through the main method, with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RollBenchmark {
+
+    private static final String EXPRESSION = "2d6+3";
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RollBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private DiceParser     defaultParser;
+
+    private FastDiceRoller fastRoller;
+
+    private DiceParser     lightweightParser;
+
+    public RollBenchmark() {
+        super();
+    }
+
+    @Benchmark
+    public final RollHistory rollDefault() {
+        return defaultParser.parse(EXPRESSION, new DiceRoller());
+    }
+
+    @Benchmark
+    public final RollHistory rollFast() {
+        return fastRoller.roll(EXPRESSION);
+    }
+
+    @Benchmark
+    public final int rollFastTotal() {
+        return fastRoller.rollTotal(EXPRESSION);
+    }
+
+    @Benchmark
+    public final RollHistory rollLightweight() {
+        return lightweightParser.parse(EXPRESSION, new DiceRoller());
+    }
+
+    @Setup
+    public final void setup() {
+        defaultParser = new DefaultDiceParser();
+        fastRoller = new FastDiceRoller();
+        lightweightParser = new LightweightDiceParser();
+    }
+
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.benchmark.parser;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bernardomg.tabletop.dice.parser.ConcurrentDiceParser;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+
+/**
+ * Rejects all the invalid grammar examples, by catching the parsing exceptions
+ * or by trying to parse them. The valid examples are also tried, to compare
+ * the cost of rejecting and accepting expressions.
+ * <p>
+ * Run it through the main method, with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ValidationBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private DiceParser   concurrentParser;
+
+    private DiceParser   defaultParser;
+
+    private List<String> invalid;
+
+    private DiceParser   lightweightParser;
+
+    private List<String> valid;
+
+    public ValidationBenchmark() {
+        super();
+    }
+
+    @Benchmark
+    public final void parseInvalidDefault(final Blackhole blackhole) {
+        for (final String expression : invalid) {
+            try {
+                blackhole.consume(defaultParser.parse(expression));
+            } catch (final RuntimeException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Setup
+    public final void setup() throws IOException, URISyntaxException {
+        final Path folder; // Folder with the examples
+
+        folder = Paths.get(getClass().getResource("/examples").toURI());
+
+        invalid = Files.list(folder)
+                .filter(p -> p.getFileName().toString().endsWith(".txt"))
+                .filter(p -> Files.exists(
+                        p.resolveSibling(p.getFileName() + ".errors")))
+                .sorted().map(this::read).collect(Collectors.toList());
+        valid = Files.list(folder)
+                .filter(p -> p.getFileName().toString().endsWith(".txt"))
+                .filter(p -> !Files.exists(
+                        p.resolveSibling(p.getFileName() + ".errors")))
+                .sorted().map(this::read).collect(Collectors.toList());
+
+        concurrentParser = new ConcurrentDiceParser();
+        defaultParser = new DefaultDiceParser();
+        lightweightParser = new LightweightDiceParser();
+    }
+
+    @Benchmark
+    public final void tryParseInvalidConcurrent(final Blackhole blackhole) {
+        tryParse(concurrentParser, invalid, blackhole);
+    }
+
+    @Benchmark
+    public final void tryParseInvalidDefault(final Blackhole blackhole) {
+        tryParse(defaultParser, invalid, blackhole);
+    }
+
+    @Benchmark
+    public final void tryParseInvalidLightweight(final Blackhole blackhole) {
+        tryParse(lightweightParser, invalid, blackhole);
+    }
+
+    @Benchmark
+    public final void tryParseValidLightweight(final Blackhole blackhole) {
+        tryParse(lightweightParser, valid, blackhole);
+    }
+
+    private final String read(final Path path) {
+        try {
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final void tryParse(final DiceParser parser,
+            final List<String> corpus, final Blackhole blackhole) {
+        for (final String expression : corpus) {
+            blackhole.consume(parser.tryParse(expression));
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.integration.interpreter.canonical;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.interpreter.DiceCanonicalizer;
+import com.bernardomg.tabletop.dice.interpreter.TotalRoller;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.random.AbstractNumberGenerator;
+import com.bernardomg.tabletop.dice.random.NumberGenerator;
+
+@DisplayName("DiceCanonicalizer gives the same form to equivalent expressions")
+public final class ITDiceCanonicalizer {
+
+    private final DiceCanonicalizer canonicalizer = new DiceCanonicalizer();
+
+    private final DiceParser        parser        = new LightweightDiceParser();
+
+    public ITDiceCanonicalizer() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Deep expressions are canonicalized")
+    public final void testTransform_Deep() {
+        final StringBuilder text;
+
+        text = new StringBuilder("1d6");
+        for (int i = 0; i < 50000; i++) {
+            text.append("+1");
+        }
+
+        Assertions.assertEquals("1d6+50000", getText(text.toString()));
+    }
+
+    @Test
+    @DisplayName("Divisions keep the order of their operands")
+    public final void testTransform_Division() {
+        Assertions.assertEquals("(1d6+2)/3", getText("(2+1d6)/3"));
+        Assertions.assertEquals("3/(1d6+2)", getText("3/(2+1d6)"));
+        Assertions.assertEquals("6/8", getText("3*2/(4*2)"));
+        Assertions.assertNotEquals(getText("6/3/2"), getText("6/(3/2)"));
+    }
+
+    @Test
+    @DisplayName("Equivalent sums have the same canonical form")
+    public final void testTransform_EquivalentSums() {
+        final DiceNotationExpression expected;
+
+        expected = canonicalizer.transform(parser.parse("1d6+2"));
+
+        for (final String text : Arrays.asList("2+1d6", "+1d6+2", "1D6+2",
+                "1d6+1+1", "(1d6+3)-1", "1d6--2", "4-(2-1d6)")) {
+            Assertions.assertEquals(expected,
+                    canonicalizer.transform(parser.parse(text)), text);
+            Assertions.assertEquals("1d6+2", getText(text), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Equivalent products have the same canonical form")
+    public final void testTransform_EquivalentProducts() {
+        Assertions.assertEquals("(1d6+2)*3", getText("3*(2+1d6)"));
+        Assertions.assertEquals("1d6*2d8*6", getText("2*2d8*3*1d6"));
+        Assertions.assertEquals("1d6*-3", getText("-1d6*3"));
+        Assertions.assertEquals("1d6", getText("1*1d6"));
+    }
+
+    @Test
+    @DisplayName("The canonical form of a canonical form is the same")
+    public final void testTransform_Idempotent() {
+        DiceNotationExpression canonical;
+
+        Assertions.assertEquals("1d6+2", getText("(1d6+1)*1+1"));
+        Assertions.assertEquals("2d4+32-2d3",
+                getText("(4--2d4--12+-2d3)*1+16"));
+        Assertions.assertEquals("1d6*6", getText("(1d6*2+0)*3"));
+
+        for (final String text : Arrays.asList("(1d6+1)*1+1",
+                "(4--2d4--12+-2d3)*1+16", "(1d6*2+0)*3", "0-1d6*2+3",
+                "1d6-(2d4-1d8)*2", "0-(1d6+2)*1-3", "10/(1d4+1)-1d6*-2")) {
+            canonical = canonicalizer.transform(parser.parse(text));
+            Assertions.assertEquals(canonical,
+                    canonicalizer.transform(canonical), text);
+        }
+    }
+
+    @Test
+    @DisplayName("The canonical form keeps the distribution")
+    public final void testTransform_KeepsDistribution() {
+        for (final String text : Arrays.asList("1d6+2", "2-1d6", "-1d6-2d4+5",
+                "(1d6+2)*3-4d4", "3*(2-1d6)/2", "10/(1d4+1)-1d6*-2",
+                "1d6-(2d4-1d8)*2", "0-1d6*2+3")) {
+            assertSameRolls(text, 1);
+            assertSameRolls(text, Integer.MAX_VALUE);
+        }
+    }
+
+    @Test
+    @DisplayName("Subtracted terms are kept after the added ones")
+    public final void testTransform_Subtracted() {
+        Assertions.assertEquals("5-1d6", getText("-1d6+5"));
+        Assertions.assertEquals("-1d6-2", getText("-2-1d6"));
+        Assertions.assertEquals("1d4-2d6", getText("-2d6+1d4"));
+        Assertions.assertEquals("0-1d6*2", getText("5-1d6*2-5"));
+        Assertions.assertEquals("1d6-1d6", getText("1d6-1d6+0-0"));
+        Assertions.assertEquals("0", getText("2-2+0"));
+    }
+
+    private final void assertSameRolls(final String text, final int roll) {
+        final NumberGenerator generator;
+        final TotalRoller roller;
+        final DiceNotationExpression expression;
+
+        // Each die rolls the same value, so the order of the dice doesn't
+        // matter
+        generator = new AbstractNumberGenerator() {
+
+            @Override
+            public final Integer generate(final Integer max) {
+                return Math.min(roll, max);
+            }
+
+        };
+        roller = new TotalRoller(generator);
+
+        expression = parser.parse(text);
+
+        Assertions.assertEquals(roller.rollTotal(expression),
+                roller.rollTotal(canonicalizer.transform(expression)), text);
+    }
+
+    private final String getText(final String text) {
+        return canonicalizer.getCanonicalText(parser.parse(text));
+    }
+
+}
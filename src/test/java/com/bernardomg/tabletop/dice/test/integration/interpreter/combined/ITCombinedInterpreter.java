@@ -0,0 +1,214 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.integration.interpreter.combined;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.Dice;
+import com.bernardomg.tabletop.dice.history.RollHistory;
+import com.bernardomg.tabletop.dice.interpreter.AccumulatedValues;
+import com.bernardomg.tabletop.dice.interpreter.CombinedInterpreter;
+import com.bernardomg.tabletop.dice.interpreter.DiceGatherer;
+import com.bernardomg.tabletop.dice.interpreter.DiceRoller;
+import com.bernardomg.tabletop.dice.interpreter.InorderTraverser;
+import com.bernardomg.tabletop.dice.interpreter.PostorderTraverser;
+import com.bernardomg.tabletop.dice.interpreter.PreorderTraverser;
+import com.bernardomg.tabletop.dice.interpreter.TraversalOrder;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
+import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.random.AbstractNumberGenerator;
+import com.bernardomg.tabletop.dice.random.DiceToRollResult;
+import com.bernardomg.tabletop.dice.random.NumberGenerator;
+import com.bernardomg.tabletop.dice.visitor.DiceAccumulator;
+import com.bernardomg.tabletop.dice.visitor.DiceRollAccumulator;
+import com.bernardomg.tabletop.dice.visitor.NotationAccumulator;
+import com.google.common.collect.Lists;
+
+@DisplayName("CombinedInterpreter feeds several accumulators in a single traversal")
+public final class ITCombinedInterpreter {
+
+    private static final List<String> EXPRESSIONS = Arrays.asList("1", "1d6",
+            "1d6-2d4", "2d6+3", "1d6-2d4+3-1d8", "(1d6-2d4)*3/(2-1d4)",
+            "-2d6", "1-(2-(3-1d6))", "3*(2d6+1)-1d4/2");
+
+    public ITCombinedInterpreter() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Accumulators receive the nodes in the same order as with the traversers")
+    public final void testTransform_Orders() {
+        final DiceParser parser;
+        final NodeRecorder pre;
+        final NodeRecorder in;
+        final NodeRecorder post;
+        final CombinedInterpreter interpreter;
+        DiceNotationExpression expression;
+        AccumulatedValues values;
+
+        parser = new LightweightDiceParser();
+        pre = new NodeRecorder();
+        in = new NodeRecorder();
+        post = new NodeRecorder();
+        interpreter = new CombinedInterpreter()
+                .withAccumulator(pre, TraversalOrder.PREORDER)
+                .withAccumulator(in, TraversalOrder.INORDER)
+                .withAccumulator(post, TraversalOrder.POSTORDER);
+
+        for (final String text : EXPRESSIONS) {
+            expression = parser.parse(text);
+            values = interpreter.transform(expression);
+
+            Assertions.assertEquals(
+                    Lists.newArrayList(
+                            new PreorderTraverser().transform(expression)),
+                    values.getValue(pre), text);
+            Assertions.assertEquals(
+                    Lists.newArrayList(
+                            new InorderTraverser().transform(expression)),
+                    values.getValue(in), text);
+            Assertions.assertEquals(
+                    Lists.newArrayList(
+                            new PostorderTraverser().transform(expression)),
+                    values.getValue(post), text);
+        }
+    }
+
+    @Test
+    @DisplayName("The values are the same as with the roller and the gatherer")
+    public final void testTransform_RollAndGather() {
+        final DiceParser parser;
+        DiceRollAccumulator rolls;
+        DiceAccumulator dice;
+        CombinedInterpreter interpreter;
+        RollHistory expectedRolls;
+        Iterable<Dice> expectedDice;
+        AccumulatedValues values;
+
+        parser = new LightweightDiceParser();
+
+        for (final String text : EXPRESSIONS) {
+            expectedRolls = parser.parse(text,
+                    new DiceRoller(getGenerator()));
+            expectedDice = Lists
+                    .newArrayList(parser.parse(text, new DiceGatherer()));
+
+            // Same generator sequence as the roller
+            rolls = new DiceRollAccumulator(
+                    new DiceToRollResult(getGenerator()));
+            dice = new DiceAccumulator();
+            interpreter = new CombinedInterpreter(rolls)
+                    .withAccumulator(dice, TraversalOrder.INORDER);
+
+            values = parser.parse(text, interpreter);
+
+            Assertions.assertEquals(expectedRolls.getTotalRoll(),
+                    values.getValue(rolls).getTotalRoll(), text);
+            Assertions.assertEquals(expectedRolls.toString(),
+                    values.getValue(rolls).toString(), text);
+            Assertions.assertEquals(expectedDice,
+                    Lists.newArrayList(values.getValue(dice)), text);
+        }
+    }
+
+    @Test
+    @DisplayName("The same accumulator can't be received twice")
+    public final void testTransform_Repeated() {
+        final DiceAccumulator dice;
+
+        dice = new DiceAccumulator();
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new CombinedInterpreter(dice)
+                        .withAccumulator(dice, TraversalOrder.INORDER));
+    }
+
+    @Test
+    @DisplayName("Asking for the value of another accumulator throws an exception")
+    public final void testTransform_Unknown() {
+        final AccumulatedValues values;
+
+        values = new CombinedInterpreter(new DiceAccumulator())
+                .transform(new LightweightDiceParser().parse("1d6"));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> values.getValue(new DiceAccumulator()));
+    }
+
+    private final NumberGenerator getGenerator() {
+        return new AbstractNumberGenerator() {
+
+            private int next;
+
+            @Override
+            public final Integer generate(final Integer max) {
+                // Deterministic sequence of values
+                next = (next % max) + 1;
+                return next;
+            }
+
+        };
+    }
+
+    private static final class NodeRecorder
+            implements NotationAccumulator<List<DiceNotationExpression>> {
+
+        private final List<DiceNotationExpression> nodes = new ArrayList<>();
+
+        public NodeRecorder() {
+            super();
+        }
+
+        @Override
+        public final void binaryOperation(final BinaryOperation exp) {
+            nodes.add(exp);
+        }
+
+        @Override
+        public final void constantOperand(final ConstantOperand exp) {
+            nodes.add(exp);
+        }
+
+        @Override
+        public final void diceOperand(final DiceOperand exp) {
+            nodes.add(exp);
+        }
+
+        @Override
+        public final List<DiceNotationExpression> getValue() {
+            return new ArrayList<>(nodes);
+        }
+
+        @Override
+        public final void reset() {
+            nodes.clear();
+        }
+
+    }
+
+}
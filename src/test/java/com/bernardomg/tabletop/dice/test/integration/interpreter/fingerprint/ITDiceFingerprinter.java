@@ -0,0 +1,88 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.integration.interpreter.fingerprint;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.interpreter.DiceFingerprinter;
+import com.bernardomg.tabletop.dice.interpreter.DiceInterpreter;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.google.common.hash.HashCode;
+
+@DisplayName("DiceFingerprinter identifies expressions by their structure")
+public final class ITDiceFingerprinter {
+
+    private final DiceInterpreter<HashCode> fingerprinter = new DiceFingerprinter();
+
+    private final DiceParser                parser        = new LightweightDiceParser();
+
+    public ITDiceFingerprinter() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Deep trees can be fingerprinted")
+    public final void testTransform_Deep() {
+        final StringBuilder text;
+
+        text = new StringBuilder("1");
+        for (int i = 0; i < 100000; i++) {
+            text.append("+1");
+        }
+
+        Assertions.assertEquals(
+                parser.parse(text.toString(), fingerprinter),
+                parser.parse(text.toString(), fingerprinter));
+    }
+
+    @Test
+    @DisplayName("Different expressions have different fingerprints")
+    public final void testTransform_Different() {
+        Assertions.assertNotEquals(parser.parse("1d6+2", fingerprinter),
+                parser.parse("2+1d6", fingerprinter));
+        Assertions.assertNotEquals(parser.parse("1d6+2", fingerprinter),
+                parser.parse("1d6-2", fingerprinter));
+        Assertions.assertNotEquals(parser.parse("(1+2)+3", fingerprinter),
+                parser.parse("1+(2+3)", fingerprinter));
+        Assertions.assertNotEquals(parser.parse("12d6", fingerprinter),
+                parser.parse("1d26", fingerprinter));
+    }
+
+    @Test
+    @DisplayName("Equal trees from different parsers have the same fingerprint")
+    public final void testTransform_Equal() {
+        Assertions.assertEquals(parser.parse("(1d8+3)*2d6", fingerprinter),
+                new DefaultDiceParser().parse("(1d8+3)*2d6", fingerprinter));
+    }
+
+    @Test
+    @DisplayName("The fingerprint is stable between runs")
+    public final void testTransform_Stable() {
+        final HashCode fingerprint;
+
+        fingerprint = parser.parse("1d6+2", fingerprinter);
+
+        Assertions.assertEquals(128, fingerprint.bits());
+        Assertions.assertEquals("1721f6295360ae827e5bf8b58af116b0", fingerprint.toString());
+    }
+
+}
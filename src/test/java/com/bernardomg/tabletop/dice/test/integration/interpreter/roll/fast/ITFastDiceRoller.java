@@ -0,0 +1,153 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.integration.interpreter.roll.fast;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.bernardomg.tabletop.dice.history.RollHistory;
+import com.bernardomg.tabletop.dice.history.RollResult;
+import com.bernardomg.tabletop.dice.interpreter.DiceRoller;
+import com.bernardomg.tabletop.dice.interpreter.FastDiceRoller;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.random.AbstractNumberGenerator;
+import com.bernardomg.tabletop.dice.random.NumberGenerator;
+
+@DisplayName("FastDiceRoller rolls as the DiceRoller")
+public final class ITFastDiceRoller {
+
+    private static final List<String> EXPRESSIONS = Arrays.asList("1d6",
+            "3d6", "d20", "D8", "-2d6", "-d6", "+3d4", "0d6", "2d6+3",
+            "2d6-3", "-2d6+3", "-2d6-3", "1d20+0", "2d6*3", "(2d6)+3",
+            "2d6+1d4", "2d6+-3", "1+2d6");
+
+    public ITFastDiceRoller() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Expressions out of the fast path are parsed")
+    public final void testRoll_GeneralPath_Parsed() {
+        final DiceParser parser;
+
+        parser = Mockito.mock(DiceParser.class);
+        Mockito.when(parser.parse(ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(DiceRoller.class)))
+                .thenAnswer(i -> new LightweightDiceParser().parse(
+                        (String) i.getArgument(0), i.getArgument(1)));
+
+        new FastDiceRoller(parser, getGenerator()).roll("2d6");
+        new FastDiceRoller(parser, getGenerator()).roll("2d6*3");
+
+        Mockito.verify(parser, Mockito.never()).parse(
+                ArgumentMatchers.eq("2d6"),
+                ArgumentMatchers.any(DiceRoller.class));
+        Mockito.verify(parser, Mockito.times(1)).parse(
+                ArgumentMatchers.eq("2d6*3"),
+                ArgumentMatchers.any(DiceRoller.class));
+    }
+
+    @Test
+    @DisplayName("Invalid expressions throw the parser exceptions")
+    public final void testRoll_Invalid() {
+        final FastDiceRoller roller;
+
+        roller = new FastDiceRoller();
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> roller.roll("2d6+"));
+        Assertions.assertThrows(NumberFormatException.class,
+                () -> roller.roll("2d6+2147483648"));
+    }
+
+    @Test
+    @DisplayName("The roll history is the same as the DiceRoller one")
+    public final void testRoll_SameHistory() {
+        RollHistory expected;
+        RollHistory received;
+        Iterator<RollResult> expectedResults;
+        Iterator<RollResult> receivedResults;
+        RollResult expectedResult;
+        RollResult receivedResult;
+
+        for (final String expression : EXPRESSIONS) {
+            expected = new LightweightDiceParser().parse(expression,
+                    new DiceRoller(getGenerator()));
+            received = new FastDiceRoller(getGenerator()).roll(expression);
+
+            Assertions.assertEquals(expected.toString(), received.toString(),
+                    expression);
+            Assertions.assertEquals(expected.getTotalRoll(),
+                    received.getTotalRoll(), expression);
+
+            expectedResults = expected.getRollResults().iterator();
+            receivedResults = received.getRollResults().iterator();
+            while (expectedResults.hasNext()) {
+                expectedResult = expectedResults.next();
+                receivedResult = receivedResults.next();
+                Assertions.assertEquals(expectedResult.getDice(),
+                        receivedResult.getDice(), expression);
+                Assertions.assertEquals(expectedResult.getAllRolls(),
+                        receivedResult.getAllRolls(), expression);
+                Assertions.assertEquals(expectedResult.getTotalRoll(),
+                        receivedResult.getTotalRoll(), expression);
+            }
+            Assertions.assertFalse(receivedResults.hasNext(), expression);
+        }
+    }
+
+    @Test
+    @DisplayName("The total is the same as the DiceRoller one")
+    public final void testRollTotal_SameTotal() {
+        Integer expected;
+        int received;
+
+        for (final String expression : EXPRESSIONS) {
+            expected = new LightweightDiceParser()
+                    .parse(expression, new DiceRoller(getGenerator()))
+                    .getTotalRoll();
+            received = new FastDiceRoller(getGenerator())
+                    .rollTotal(expression);
+
+            Assertions.assertEquals(expected, received, expression);
+        }
+    }
+
+    private final NumberGenerator getGenerator() {
+        return new AbstractNumberGenerator() {
+
+            private int next;
+
+            @Override
+            public final Integer generate(final Integer max) {
+                // Deterministic sequence of values
+                next = (next % max) + 1;
+                return next;
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.integration.interpreter.roll.total;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.interpreter.ExactTotalRoller;
+import com.bernardomg.tabletop.dice.interpreter.TotalRoller;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.Notation;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.parser.listener.DefaultDiceExpressionBuilder;
+import com.bernardomg.tabletop.dice.random.AbstractNumberGenerator;
+import com.bernardomg.tabletop.dice.random.NumberGenerator;
+import com.bernardomg.tabletop.dice.random.RandomNumberGenerator;
+
+@DisplayName("ExactTotalRoller rolls totals with 64-bit checked arithmetic")
+public final class ITExactTotalRoller {
+
+    private static final List<String> EXPRESSIONS = Arrays.asList("1", "1d6",
+            "-2d6", "0d6", "1d6-2d4", "2d6+300", "2d6*150+1000-3d8/2",
+            "(1d6-2d4)*3/(2-1d4)", "1-(2-(3-1d6))", "-5+2d6", "10/3",
+            "400*(1d4+250)");
+
+    private static final String       HUGE        = "2147483647*2147483647*2147483647";
+
+    public ITExactTotalRoller() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Promoted values are brought back when in range")
+    public final void testRollBigTotal_BackInRange() {
+        final DiceNotationExpression expression;
+
+        expression = new LightweightDiceParser()
+                .parse(HUGE + "/2147483647/2147483647+1");
+
+        Assertions.assertEquals(BigInteger.valueOf(2147483648L),
+                new ExactTotalRoller().rollBigTotal(expression));
+    }
+
+    @Test
+    @DisplayName("Divisions by zero are not promoted")
+    public final void testRollBigTotal_DivisionByZero() {
+        final DiceNotationExpression expression;
+
+        expression = new LightweightDiceParser().parse("1d6/0");
+
+        Assertions.assertThrows(ArithmeticException.class,
+                () -> new ExactTotalRoller().rollBigTotal(expression));
+    }
+
+    @Test
+    @DisplayName("N-ary operations are promoted")
+    public final void testRollBigTotal_Nary() {
+        final DiceParser parser;
+
+        parser = new DefaultDiceParser(new DefaultDiceExpressionBuilder(true));
+
+        Assertions.assertEquals(BigInteger.valueOf(Integer.MAX_VALUE).pow(3),
+                new ExactTotalRoller().rollBigTotal(parser.parse(HUGE)));
+        Assertions.assertEquals(
+                BigInteger.valueOf(Integer.MAX_VALUE).pow(3)
+                        .subtract(BigInteger.valueOf(5)),
+                new ExactTotalRoller()
+                        .rollBigTotal(parser.parse("(" + HUGE + ")+1-6")));
+    }
+
+    @Test
+    @DisplayName("Values out of the long range are promoted")
+    public final void testRollBigTotal_Promoted() {
+        final ExactTotalRoller roller;
+        final DiceNotationExpression expression;
+
+        roller = new ExactTotalRoller();
+        expression = new LightweightDiceParser().parse(HUGE + "-1");
+
+        Assertions.assertEquals(
+                BigInteger.valueOf(Integer.MAX_VALUE).pow(3)
+                        .subtract(BigInteger.ONE),
+                roller.rollBigTotal(expression));
+        // The roller can be reused
+        Assertions.assertEquals(BigInteger.valueOf(3),
+                roller.rollBigTotal(Notation.constant(1).plus(2).build()));
+    }
+
+    @Test
+    @DisplayName("Big pools are not wrapped")
+    public final void testRollTotal_BigPool() {
+        final DiceNotationExpression expression;
+
+        expression = Notation.dice(100000, 100000).build();
+
+        Assertions.assertEquals(10000000000L,
+                new ExactTotalRoller(getMaxGenerator()).rollTotal(expression));
+    }
+
+    @Test
+    @DisplayName("Deep trees are rolled without overflowing the stack")
+    public final void testRollTotal_Deep() {
+        DiceNotationExpression expression;
+
+        expression = new IntegerOperand(1);
+        for (int i = 0; i < 100000; i++) {
+            expression = new AdditionOperation(
+                    new IntegerOperand(Integer.MAX_VALUE), expression);
+        }
+
+        Assertions.assertEquals((100000L * Integer.MAX_VALUE) + 1,
+                new ExactTotalRoller().rollTotal(expression));
+    }
+
+    @Test
+    @DisplayName("Rolling a parsed expression allocates nothing")
+    public final void testRollTotal_NoAllocation() {
+        final com.sun.management.ThreadMXBean bean;
+        final DiceNotationExpression expression;
+        final ExactTotalRoller roller;
+        final long before;
+        final long after;
+        long sum;
+
+        bean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        expression = new LightweightDiceParser()
+                .parse("2d6*150+1000-3d8/2+400*(1d4+250)");
+        roller = new ExactTotalRoller(new RandomNumberGenerator());
+
+        sum = 0;
+        for (int i = 0; i < 10000; i++) {
+            sum += roller.rollTotal(expression);
+        }
+
+        before = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 100000; i++) {
+            sum += roller.rollTotal(expression);
+        }
+        after = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        Assertions.assertTrue(sum > 0);
+        // Leaves room for the measuring itself
+        Assertions.assertTrue((after - before) < 1024,
+                () -> String.format("Allocated %d bytes", after - before));
+    }
+
+    @Test
+    @DisplayName("Values out of the long range are rejected")
+    public final void testRollTotal_Overflow() {
+        final DiceNotationExpression expression;
+
+        expression = new LightweightDiceParser().parse(HUGE);
+
+        Assertions.assertThrows(ArithmeticException.class,
+                () -> new ExactTotalRoller().rollTotal(expression));
+    }
+
+    @Test
+    @DisplayName("The totals are the same as with the TotalRoller")
+    public final void testRollTotal_SameAsTotalRoller() {
+        final DiceParser parser;
+        DiceNotationExpression expression;
+
+        parser = new LightweightDiceParser();
+        for (final String text : EXPRESSIONS) {
+            expression = parser.parse(text);
+
+            Assertions.assertEquals(
+                    new TotalRoller(getGenerator()).rollTotal(expression),
+                    new ExactTotalRoller(getGenerator()).rollTotal(expression),
+                    text);
+            Assertions.assertEquals(
+                    BigInteger.valueOf(new TotalRoller(getGenerator())
+                            .rollTotal(expression)),
+                    new ExactTotalRoller(getGenerator())
+                            .rollBigTotal(expression),
+                    text);
+        }
+    }
+
+    private final NumberGenerator getGenerator() {
+        return new AbstractNumberGenerator() {
+
+            private int next;
+
+            @Override
+            public final Integer generate(final Integer max) {
+                // Deterministic sequence of values
+                next = (next % max) + 1;
+                return next;
+            }
+
+        };
+    }
+
+    private final NumberGenerator getMaxGenerator() {
+        return new AbstractNumberGenerator() {
+
+            @Override
+            public final Integer generate(final Integer max) {
+                return max;
+            }
+
+        };
+    }
+
+}
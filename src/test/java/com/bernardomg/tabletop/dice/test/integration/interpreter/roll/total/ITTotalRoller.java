@@ -0,0 +1,132 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.integration.interpreter.roll.total;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.interpreter.DiceRoller;
+import com.bernardomg.tabletop.dice.interpreter.TotalRoller;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.random.AbstractNumberGenerator;
+import com.bernardomg.tabletop.dice.random.NumberGenerator;
+import com.bernardomg.tabletop.dice.random.RandomNumberGenerator;
+
+@DisplayName("TotalRoller rolls the same totals as the DiceRoller")
+public final class ITTotalRoller {
+
+    private static final List<String> EXPRESSIONS = Arrays.asList("1", "1d6",
+            "-2d6", "0d6", "1d6-2d4", "2d6+300", "2d6*150+1000-3d8/2",
+            "(1d6-2d4)*3/(2-1d4)", "1-(2-(3-1d6))", "-5+2d6", "10/3",
+            "400*(1d4+250)");
+
+    public ITTotalRoller() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Deep trees are rolled without overflowing the stack")
+    public final void testRollTotal_Deep() {
+        DiceNotationExpression expression;
+
+        expression = new IntegerOperand(1);
+        for (int i = 0; i < 100000; i++) {
+            expression = new AdditionOperation(new IntegerOperand(1),
+                    expression);
+        }
+
+        Assertions.assertEquals(100001,
+                new TotalRoller().rollTotal(expression));
+    }
+
+    @Test
+    @DisplayName("Rolling a parsed expression allocates nothing")
+    public final void testRollTotal_NoAllocation() {
+        final com.sun.management.ThreadMXBean bean;
+        final DiceNotationExpression expression;
+        final TotalRoller roller;
+        final long before;
+        final long after;
+        long sum;
+
+        bean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        expression = new LightweightDiceParser()
+                .parse("2d6*150+1000-3d8/2+400*(1d4+250)");
+        roller = new TotalRoller(new RandomNumberGenerator());
+
+        sum = 0;
+        for (int i = 0; i < 10000; i++) {
+            sum += roller.rollTotal(expression);
+        }
+
+        before = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 100000; i++) {
+            sum += roller.rollTotal(expression);
+        }
+        after = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        Assertions.assertTrue(sum > 0);
+        // Leaves room for the measuring itself
+        Assertions.assertTrue((after - before) < 1024,
+                () -> String.format("Allocated %d bytes", after - before));
+    }
+
+    @Test
+    @DisplayName("The totals are the same as with the DiceRoller")
+    public final void testRollTotal_SameAsDiceRoller() {
+        final DiceParser parser;
+        DiceNotationExpression expression;
+
+        parser = new LightweightDiceParser();
+        for (final String text : EXPRESSIONS) {
+            expression = parser.parse(text);
+
+            Assertions.assertEquals(
+                    new DiceRoller(getGenerator()).transform(expression)
+                            .getTotalRoll(),
+                    new TotalRoller(getGenerator()).transform(expression),
+                    text);
+        }
+    }
+
+    private final NumberGenerator getGenerator() {
+        return new AbstractNumberGenerator() {
+
+            private int next;
+
+            @Override
+            public final Integer generate(final Integer max) {
+                // Deterministic sequence of values
+                next = (next % max) + 1;
+                return next;
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.integration.parser.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.bernardomg.tabletop.dice.parser.BatchDiceParser;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.parser.ParseResult;
+
+@DisplayName("BatchDiceParser parses collections of expressions")
+public final class ITBatchDiceParser {
+
+    public ITBatchDiceParser() {
+        super();
+    }
+
+    @Test
+    @DisplayName("An empty collection returns no results")
+    public final void testParseAll_Empty() {
+        final List<ParseResult> results;
+
+        results = new BatchDiceParser().parseAll(new ArrayList<>());
+
+        Assertions.assertTrue(results.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Invalid expressions are reported without stopping the batch")
+    public final void testParseAll_Invalid() {
+        final List<ParseResult> results;
+
+        results = new BatchDiceParser()
+                .parseAll(Arrays.asList("1d6", "1d6+", "abc", "2d8"));
+
+        Assertions.assertEquals(4, results.size());
+        Assertions.assertTrue(results.get(0).isValid());
+        Assertions.assertFalse(results.get(1).isValid());
+        Assertions.assertFalse(results.get(2).isValid());
+        Assertions.assertTrue(results.get(3).isValid());
+    }
+
+    @Test
+    @DisplayName("Parsing on multiple threads returns the results in the order of the expressions")
+    public final void testParseAll_MultipleThreads() {
+        final List<String> expressions;
+        final List<ParseResult> results;
+        final ExecutorService executor;
+        final DiceParser parser;
+
+        expressions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            expressions.add(String.format("%dd%d+%d", i % 7, i, i % 13));
+        }
+        expressions.add("1d6+");
+
+        executor = Executors.newFixedThreadPool(4);
+        try {
+            results = new BatchDiceParser(DefaultDiceParser::new, executor, 16)
+                    .parseAll(expressions);
+        } finally {
+            executor.shutdown();
+        }
+
+        parser = new LightweightDiceParser();
+        Assertions.assertEquals(expressions.size(), results.size());
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(parser.parse(expressions.get(i)),
+                    results.get(i).getExpression());
+        }
+        Assertions.assertFalse(results.get(1000).isValid());
+    }
+
+    @Test
+    @DisplayName("Each thread gets its own parser")
+    public final void testParseAll_ParserPerThread() {
+        final List<String> expressions;
+        final ExecutorService executor;
+        final List<Thread> threads;
+        final List<ParseResult> results;
+
+        expressions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expressions.add(String.valueOf(i));
+        }
+
+        threads = new ArrayList<>();
+        executor = Executors.newFixedThreadPool(2);
+        try {
+            results = new BatchDiceParser(() -> {
+                synchronized (threads) {
+                    // Each parser is created on the thread which uses it
+                    Assertions.assertFalse(
+                            threads.contains(Thread.currentThread()));
+                    threads.add(Thread.currentThread());
+                }
+                return new LightweightDiceParser();
+            }, executor, 10).parseAll(expressions);
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(100, results.size());
+        Assertions.assertTrue(threads.size() <= 2);
+    }
+
+    @Test
+    @DisplayName("Repeated expressions are parsed once, and share the result")
+    public final void testParseAll_Repeated() {
+        final DiceParser parser;
+        final List<ParseResult> results;
+
+        parser = Mockito.mock(DiceParser.class);
+        Mockito.when(parser.tryParse(ArgumentMatchers.anyString()))
+                .thenAnswer(i -> new LightweightDiceParser()
+                        .tryParse(i.getArgument(0)));
+
+        results = new BatchDiceParser(() -> parser)
+                .parseAll(Arrays.asList("1d6", "2d8", "1d6", "1d6"));
+
+        Mockito.verify(parser, Mockito.times(1)).tryParse("1d6");
+        Mockito.verify(parser, Mockito.times(1)).tryParse("2d8");
+        Assertions.assertSame(results.get(0), results.get(2));
+        Assertions.assertSame(results.get(0), results.get(3));
+    }
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.integration.parser.builder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.notation.Notation;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+
+@DisplayName("Building expressions returns the same trees as parsing them")
+public final class ITNotationBuilder {
+
+    private final DiceParser parser = new DefaultDiceParser();
+
+    public ITNotationBuilder() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Additions and subtractions are built as parsed")
+    public final void testAdditions() {
+        Assertions.assertEquals(parser.parse("2d6+3"),
+                Notation.dice(2, 6).plus(3).build());
+        Assertions.assertEquals(parser.parse("1d20+1d4-2"),
+                Notation.dice(1, 20).plus(Notation.dice(1, 4)).minus(2)
+                        .build());
+        Assertions.assertEquals(parser.parse("5-1d6"),
+                Notation.constant(5).minus(Notation.dice(1, 6)).build());
+    }
+
+    @Test
+    @DisplayName("Grouped expressions are built as parsed")
+    public final void testGroups() {
+        Assertions.assertEquals(parser.parse("(2d6+3)*2"),
+                Notation.dice(2, 6).plus(3).times(2).build());
+        Assertions.assertEquals(parser.parse("1d20-(2d4-(1d6+2))+5"),
+                Notation.dice(1, 20)
+                        .minus(Notation.dice(2, 4)
+                                .minus(Notation.dice(1, 6).plus(2)))
+                        .plus(5).build());
+    }
+
+    @Test
+    @DisplayName("Leaves are built as parsed")
+    public final void testLeaves() {
+        Assertions.assertEquals(parser.parse("1d6"),
+                Notation.dice(1, 6).build());
+        Assertions.assertEquals(parser.parse("-1d6"),
+                Notation.dice(-1, 6).build());
+        Assertions.assertEquals(parser.parse("12"),
+                Notation.constant(12).build());
+        Assertions.assertEquals(parser.parse("-12"),
+                Notation.constant(-12).build());
+        Assertions.assertEquals(parser.parse("1000d100000"),
+                Notation.dice(1000, 100000).build());
+    }
+
+    @Test
+    @DisplayName("Multiplications and divisions are built as parsed")
+    public final void testMultiplications() {
+        Assertions.assertEquals(parser.parse("2d6*3/2"),
+                Notation.dice(2, 6).times(3).dividedBy(2).build());
+        Assertions.assertEquals(parser.parse("2d6+3*2"),
+                Notation.dice(2, 6).plus(Notation.constant(3).times(2))
+                        .build());
+        Assertions.assertEquals(parser.parse("1d6*1d4"),
+                Notation.dice(1, 6).times(Notation.dice(1, 4)).build());
+        Assertions.assertEquals(parser.parse("10/1d4"),
+                Notation.constant(10).dividedBy(Notation.dice(1, 4))
+                        .build());
+    }
+
+    @Test
+    @DisplayName("Parsed expressions can be extended")
+    public final void testOf() {
+        Assertions.assertEquals(parser.parse("1d8+4+1d6"),
+                Notation.of(parser.parse("1d8+4")).plus(Notation.dice(1, 6))
+                        .build());
+    }
+
+}
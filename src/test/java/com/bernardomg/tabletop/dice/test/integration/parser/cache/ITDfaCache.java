@@ -0,0 +1,166 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.integration.parser.cache;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.parser.ConcurrentDiceParser;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DfaCache;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.listener.DefaultDiceExpressionBuilder;
+
+@DisplayName("DfaCache keeps the ANTLR prediction caches")
+public final class ITDfaCache {
+
+    private static final List<String> EXPRESSIONS = Arrays.asList("1d6",
+            "2d6+3", "(1d6+1)*2", "((1+2)*(3-4))/5", "1d6+(2d8-(3*(4+1)))",
+            "-1d20-1", "4d8/2");
+
+    public ITDfaCache() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Clearing removes all the states and contexts")
+    public final void testClear_Empty() {
+        final DfaCache cache;
+        final DiceParser parser;
+
+        cache = new DfaCache();
+        parser = new ConcurrentDiceParser(DefaultDiceExpressionBuilder::new,
+                new BaseErrorListener(), cache);
+
+        EXPRESSIONS.forEach(parser::parse);
+
+        Assertions.assertTrue(cache.getStateCount() > 0);
+        Assertions.assertTrue(cache.getContextCount() > 0);
+        Assertions.assertTrue(cache.getEstimatedMemory() > 0);
+
+        cache.clear();
+
+        Assertions.assertEquals(0, cache.getStateCount());
+        Assertions.assertEquals(0, cache.getContextCount());
+        Assertions.assertEquals(0, cache.getEstimatedMemory());
+    }
+
+    @Test
+    @DisplayName("After clearing, parsing refills the caches and the throughput recovers")
+    public final void testClear_ThroughputRecovers() {
+        final DfaCache cache;
+        final DiceParser parser;
+        final long before;
+        final long after;
+        final int states;
+
+        cache = new DfaCache();
+        parser = new ConcurrentDiceParser(DefaultDiceExpressionBuilder::new,
+                new BaseErrorListener(), cache);
+
+        before = getBestTime(parser);
+        states = cache.getStateCount();
+
+        cache.clear();
+        Assertions.assertEquals(0, cache.getStateCount());
+
+        after = getBestTime(parser);
+
+        Assertions.assertEquals(states, cache.getStateCount());
+        Assertions.assertTrue(after < (before * 3),
+                String.format("Took %d ns after clearing, and %d ns before",
+                        after, before));
+    }
+
+    @Test
+    @DisplayName("The default parser fills the received cache")
+    public final void testDefaultParser_UsesCache() {
+        final DfaCache cache;
+        final DiceParser parser;
+
+        cache = new DfaCache();
+        parser = new DefaultDiceParser(new DefaultDiceExpressionBuilder(),
+                new BaseErrorListener(), cache);
+
+        parser.parse("1d6+2");
+
+        Assertions.assertTrue(cache.getStateCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Passing the maximum number of states clears the caches before the next parse")
+    public final void testMaximumStates_Cleared() {
+        final DfaCache cache;
+        final DiceParser parser;
+        final int states;
+
+        cache = new DfaCache();
+        parser = new ConcurrentDiceParser(DefaultDiceExpressionBuilder::new,
+                new BaseErrorListener(), cache);
+
+        EXPRESSIONS.forEach(parser::parse);
+        states = cache.getStateCount();
+
+        cache.setMaximumStates(states - 1);
+        parser.parse("1");
+
+        Assertions.assertTrue(cache.getStateCount() < states);
+    }
+
+    @Test
+    @DisplayName("Pre-warmed caches don't grow when parsing the same shapes")
+    public final void testPrewarm_NoGrowth() {
+        final DfaCache cache;
+        final DiceParser parser;
+        final int states;
+
+        cache = new DfaCache();
+        cache.prewarm();
+
+        states = cache.getStateCount();
+        Assertions.assertTrue(states > 0);
+
+        parser = new ConcurrentDiceParser(DefaultDiceExpressionBuilder::new,
+                new BaseErrorListener(), cache);
+        parser.parse("2d6+3");
+        parser.parse("(1d6+1)*2");
+
+        Assertions.assertEquals(states, cache.getStateCount());
+    }
+
+    private final long getBestTime(final DiceParser parser) {
+        long best;
+        long start;
+
+        best = Long.MAX_VALUE;
+        for (int round = 0; round < 10; round++) {
+            start = System.nanoTime();
+            for (int i = 0; i < 200; i++) {
+                EXPRESSIONS.forEach(parser::parse);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        return best;
+    }
+
+}
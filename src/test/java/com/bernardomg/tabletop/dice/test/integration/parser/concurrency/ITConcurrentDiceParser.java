@@ -0,0 +1,133 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.integration.parser.concurrency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.parser.ConcurrentDiceParser;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.ParseResult;
+
+@DisplayName("ConcurrentDiceParser can be shared between threads")
+public final class ITConcurrentDiceParser {
+
+    public ITConcurrentDiceParser() {
+        super();
+    }
+
+    @Test
+    @DisplayName("After an invalid expression the next one is parsed correctly")
+    public final void testParse_AfterError() {
+        final DiceParser parser;
+
+        parser = new ConcurrentDiceParser();
+
+        Assertions.assertThrows(Exception.class, () -> parser.parse("1d6+"));
+
+        Assertions.assertEquals(new DefaultDiceParser().parse("2d6+3"),
+                parser.parse("2d6+3"));
+    }
+
+    @Test
+    @DisplayName("Parsing from multiple threads returns the expected structures")
+    public final void testParse_MultipleThreads()
+            throws InterruptedException, ExecutionException {
+        final DiceParser parser;
+        final List<String> notations;
+        final ExecutorService executor;
+        final Collection<Future<DiceNotationExpression>> results;
+        final Collection<DiceNotationExpression> expected;
+
+        notations = Arrays.asList("1d20+2d6-3d12", "(1+2)*3", "-1d6+1", "4/2",
+                "1d6*2d12", "30d100", "2-8*2");
+
+        parser = new ConcurrentDiceParser();
+        executor = Executors.newFixedThreadPool(4);
+        results = new ArrayList<>();
+        expected = new ArrayList<>();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                final String notation = notations.get(i % notations.size());
+                results.add(executor.submit(() -> parser.parse(notation)));
+                expected.add(new DefaultDiceParser().parse(notation));
+            }
+
+            Assertions.assertIterableEquals(expected, getAll(results));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Trying to parse an invalid expression returns the same diagnostics as the default parser, without using the listener")
+    public final void testTryParse_Invalid() {
+        final ANTLRErrorListener listener;
+        final ParseResult result;
+
+        listener = Mockito.mock(ANTLRErrorListener.class);
+
+        result = new ConcurrentDiceParser(listener).tryParse("1d6+y");
+
+        Assertions.assertFalse(result.isValid());
+        Assertions.assertIterableEquals(
+                new DefaultDiceParser().tryParse("1d6+y").getDiagnostics(),
+                result.getDiagnostics());
+        Mockito.verifyNoInteractions(listener);
+    }
+
+    @Test
+    @DisplayName("Trying to parse a valid expression returns the parsed tree")
+    public final void testTryParse_Valid() {
+        final ParseResult result;
+
+        result = new ConcurrentDiceParser().tryParse("1d20+2d6-3d12");
+
+        Assertions.assertTrue(result.isValid());
+        Assertions.assertEquals(
+                new DefaultDiceParser().parse("1d20+2d6-3d12"),
+                result.getExpression());
+    }
+
+    private final Collection<DiceNotationExpression> getAll(
+            final Collection<Future<DiceNotationExpression>> futures)
+            throws InterruptedException, ExecutionException {
+        final Collection<DiceNotationExpression> values;
+
+        values = new ArrayList<>();
+        for (final Future<DiceNotationExpression> future : futures) {
+            values.add(future.get());
+        }
+
+        return values;
+    }
+
+}
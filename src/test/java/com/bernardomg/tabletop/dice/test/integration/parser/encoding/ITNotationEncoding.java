@@ -0,0 +1,156 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.integration.parser.encoding;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.NotationDecoder;
+import com.bernardomg.tabletop.dice.notation.NotationEncoder;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.parser.listener.DefaultDiceExpressionBuilder;
+
+@DisplayName("Encoding parsed expressions into bytes")
+public final class ITNotationEncoding {
+
+    private static final List<String> EXPRESSIONS = Arrays.asList("1d6", "5",
+            "-3", "1d6+2", "2d8-1d4+3", "1d20*2/3", "(1d6+2)*(3-1d4)-4",
+            "1d20-(2d4-(1d6+2))+5", "12/2*1d6/3*2", "2147483647",
+            "-2147483648");
+
+    private final NotationDecoder     decoder     = new NotationDecoder();
+
+    private final NotationEncoder     encoder     = new NotationEncoder();
+
+    public ITNotationEncoding() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Several expressions can be written into the same buffer")
+    public final void testBuffer_Sequence() {
+        final DiceParser parser;
+        final ByteBuffer buffer;
+
+        parser = new LightweightDiceParser();
+
+        buffer = ByteBuffer.allocate(1024);
+        for (final String text : EXPRESSIONS) {
+            encoder.encode(parser.parse(text), buffer);
+        }
+        buffer.flip();
+
+        for (final String text : EXPRESSIONS) {
+            Assertions.assertEquals(parser.parse(text), decoder.decode(buffer),
+                    text);
+        }
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Deep trees are encoded and decoded")
+    public final void testDeep() {
+        final StringBuilder text;
+        final DiceNotationExpression expression;
+
+        text = new StringBuilder("1d6");
+        for (int i = 0; i < 20000; i++) {
+            text.append("+1d4");
+        }
+        expression = new LightweightDiceParser().parse(text.toString());
+
+        Assertions.assertEquals(expression,
+                decoder.decode(encoder.encode(expression)));
+    }
+
+    @Test
+    @DisplayName("Expressions parsed into n-ary operations are read back")
+    public final void testRoundTrip_Nary() {
+        final DiceParser parser;
+        DiceNotationExpression expression;
+
+        parser = new DefaultDiceParser(new DefaultDiceExpressionBuilder(true));
+
+        for (final String text : EXPRESSIONS) {
+            expression = parser.parse(text);
+
+            Assertions.assertEquals(expression,
+                    decoder.decode(encoder.encode(expression)), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Parsed expressions are read back")
+    public final void testRoundTrip_Parsed() {
+        final DiceParser parser;
+        DiceNotationExpression expression;
+        DiceNotationExpression decoded;
+
+        parser = new DefaultDiceParser();
+
+        for (final String text : EXPRESSIONS) {
+            expression = parser.parse(text);
+            decoded = decoder.decode(encoder.encode(expression));
+
+            Assertions.assertEquals(expression, decoded, text);
+            Assertions.assertEquals(expression.getExpression(),
+                    decoded.getExpression(), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Expressions can be written into streams")
+    public final void testStream() throws IOException {
+        final DiceParser parser;
+        final ByteArrayOutputStream bytes;
+        final DataInputStream input;
+
+        parser = new LightweightDiceParser();
+
+        bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            for (final String text : EXPRESSIONS) {
+                encoder.encode(parser.parse(text), output);
+            }
+        }
+
+        input = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        for (final String text : EXPRESSIONS) {
+            Assertions.assertEquals(parser.parse(text), decoder.decode(input),
+                    text);
+        }
+        Assertions.assertThrows(EOFException.class,
+                () -> decoder.decode(input));
+    }
+
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.integration.parser.examples;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.parser.ConcurrentDiceParser;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+
+@DisplayName("ConcurrentDiceParser handles the grammar examples like DefaultDiceParser")
+public final class ITConcurrentDiceParserExamples {
+
+    private final List<String> errors = new ArrayList<>();
+
+    private final DiceParser   parser;
+
+    public ITConcurrentDiceParserExamples() {
+        super();
+
+        // The same parser is used for all the examples, so each parse starts
+        // after the previous one, including those which failed
+        parser = new ConcurrentDiceParser(new BaseErrorListener() {
+
+            @Override
+            public final void syntaxError(final Recognizer<?, ?> recognizer,
+                    final Object offendingSymbol, final int line,
+                    final int charPositionInLine, final String msg,
+                    final RecognitionException e) {
+                errors.add(String.format("line %d:%d %s", line,
+                        charPositionInLine, msg));
+            }
+
+        });
+    }
+
+    @TestFactory
+    @DisplayName("Each example is parsed into the same tree, and errors are reported once")
+    public final Stream<DynamicTest> testParse_Examples()
+            throws IOException, URISyntaxException {
+        final Path folder; // Folder with the examples
+
+        folder = Paths.get(getClass().getResource("/examples").toURI());
+
+        return Files.list(folder)
+                .filter(p -> p.getFileName().toString().endsWith(".txt"))
+                .sorted().map(p -> DynamicTest
+                        .dynamicTest(p.getFileName().toString(), () -> {
+                            testExample(p);
+                        }));
+    }
+
+    private final void testExample(final Path example) throws IOException {
+        final String notation;               // Input to parse
+        final DiceNotationExpression parsed; // Parsed expression
+        final Path errorsFile;               // Expected errors
+        final List<String> expected;         // Expected error lines
+
+        notation = new String(Files.readAllBytes(example),
+                StandardCharsets.UTF_8);
+        errorsFile = example.resolveSibling(example.getFileName() + ".errors");
+
+        errors.clear();
+        if (Files.exists(errorsFile)) {
+            try {
+                parser.parse(notation);
+            } catch (final RuntimeException e) {
+                // The builder may fail after the errors
+            }
+
+            expected = Files.readAllLines(errorsFile, StandardCharsets.UTF_8)
+                    .stream().filter(l -> !l.isEmpty())
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(expected, errors);
+        } else {
+            parsed = parser.parse(notation);
+
+            Assertions.assertEquals(new DefaultDiceParser().parse(notation),
+                    parsed);
+            Assertions.assertTrue(errors.isEmpty());
+        }
+    }
+
+}
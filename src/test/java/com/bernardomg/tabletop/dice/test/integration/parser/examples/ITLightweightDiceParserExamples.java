@@ -0,0 +1,79 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.integration.parser.examples;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+
+@DisplayName("LightweightDiceParser handles the grammar examples like DefaultDiceParser")
+public final class ITLightweightDiceParserExamples {
+
+    public ITLightweightDiceParserExamples() {
+        super();
+    }
+
+    @TestFactory
+    @DisplayName("Each example is parsed into the same tree, or rejected if it is invalid")
+    public final Stream<DynamicTest> testParse_Examples()
+            throws IOException, URISyntaxException {
+        final Path folder; // Folder with the examples
+
+        folder = Paths.get(getClass().getResource("/examples").toURI());
+
+        return Files.list(folder)
+                .filter(p -> p.getFileName().toString().endsWith(".txt"))
+                .sorted().map(p -> DynamicTest
+                        .dynamicTest(p.getFileName().toString(), () -> {
+                            testExample(p);
+                        }));
+    }
+
+    private final void testExample(final Path example) throws IOException {
+        final String notation;               // Input to parse
+        final DiceNotationExpression parsed; // Parsed expression
+        final Path errors;                   // Expected errors
+
+        notation = new String(Files.readAllBytes(example),
+                StandardCharsets.UTF_8);
+        errors = example.resolveSibling(example.getFileName() + ".errors");
+
+        if (Files.exists(errors)) {
+            Assertions.assertThrows(IllegalStateException.class,
+                    () -> new LightweightDiceParser().parse(notation));
+        } else {
+            parsed = new LightweightDiceParser().parse(notation);
+
+            Assertions.assertEquals(new DefaultDiceParser().parse(notation),
+                    parsed);
+        }
+    }
+
+}
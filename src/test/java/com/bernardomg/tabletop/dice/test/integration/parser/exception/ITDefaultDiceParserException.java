@@ -50,6 +50,21 @@ public final void testParse_Invalid() {
         Assertions.assertThrows(Exception.class, closure);
     }
 
+    @Test
+    @DisplayName("An invalid character after a dice throws the syntax error")
+    public final void testParse_InvalidCharacterAfterDice() {
+        final Executable closure;
+        final Exception exception;
+
+        closure = () -> new DefaultDiceParser().parse("d745 7*0/");
+
+        exception = Assertions.assertThrows(IllegalStateException.class,
+                closure);
+        Assertions.assertEquals(
+                "Failed to parse at line 1 on char 5 due to token recognition error at: ' '",
+                exception.getMessage());
+    }
+
     @Test
     @DisplayName("A partially valid expression throws an exception")
     public final void testParse_PartiallyValid() {
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.integration.parser.input;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.parser.CachedDiceParser;
+import com.bernardomg.tabletop.dice.parser.ConcurrentDiceParser;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+
+@DisplayName("Parsers read expressions from character sequences, arrays and buffers")
+public final class ITDiceParserInputs {
+
+    private static final String EXPRESSION = "2d6+(1d20-3)*2";
+
+    public ITDiceParserInputs() {
+        super();
+    }
+
+    @Test
+    @DisplayName("A char array slice is parsed as the string")
+    public final void testParse_ArraySlice() {
+        final char[] chars;
+
+        chars = ("xx" + EXPRESSION + "yy").toCharArray();
+
+        for (final DiceParser parser : getParsers()) {
+            Assertions.assertEquals(parser.parse(EXPRESSION),
+                    parser.parse(chars, 2, EXPRESSION.length()));
+        }
+    }
+
+    @Test
+    @DisplayName("Errors in a char array slice are located inside the slice")
+    public final void testParse_ArraySlice_Error() {
+        final char[] chars;
+        String message;
+
+        chars = "xx1d6*(2yy".toCharArray();
+
+        for (final DiceParser parser : getParsers()) {
+            message = Assertions
+                    .assertThrows(IllegalStateException.class,
+                            () -> parser.parse(chars, 2, 6))
+                    .getMessage();
+            Assertions.assertEquals(
+                    "Failed to parse at line 1 on char 7 due to missing ')' at '<EOF>'",
+                    message);
+        }
+    }
+
+    @Test
+    @DisplayName("A direct ASCII byte buffer region is parsed as the string, keeping its position")
+    public final void testParse_ByteBuffer() {
+        final byte[] bytes;
+        final ByteBuffer buffer;
+
+        bytes = ("xx" + EXPRESSION + "yy").getBytes(StandardCharsets.US_ASCII);
+        buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.position(2);
+        buffer.limit(2 + EXPRESSION.length());
+
+        for (final DiceParser parser : getParsers()) {
+            Assertions.assertEquals(parser.parse(EXPRESSION),
+                    parser.parse(buffer));
+            Assertions.assertEquals(2, buffer.position());
+            Assertions.assertEquals(2 + EXPRESSION.length(), buffer.limit());
+        }
+    }
+
+    @Test
+    @DisplayName("A character sequence is parsed as the string")
+    public final void testParse_CharSequence() {
+        for (final DiceParser parser : getParsers()) {
+            Assertions.assertEquals(parser.parse(EXPRESSION),
+                    parser.parse(new StringBuilder(EXPRESSION)));
+        }
+    }
+
+    @Test
+    @DisplayName("Characters outside the notation are rejected in character sequences")
+    public final void testParse_CharSequence_Invalid() {
+        for (final DiceParser parser : getParsers()) {
+            Assertions.assertThrows(IllegalStateException.class,
+                    () -> parser.parse(new StringBuilder("1d6+\uD83C\uDFB2")));
+        }
+    }
+
+    private final List<DiceParser> getParsers() {
+        return Arrays.asList(new DefaultDiceParser(),
+                new ConcurrentDiceParser(), new LightweightDiceParser(),
+                new CachedDiceParser(new LightweightDiceParser()));
+    }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.integration.parser.interning;
+
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.NotationInterner;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.InterningDiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+
+@DisplayName("InterningDiceParser shares equal subtrees")
+public final class ITInterningDiceParser {
+
+    public ITInterningDiceParser() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Interning a deep tree doesn't overflow the stack")
+    public final void testIntern_Deep() {
+        final DiceParser parser;
+        final StringBuilder text;
+        final DiceNotationExpression parsed;
+
+        text = new StringBuilder("1");
+        for (int i = 0; i < 20000; i++) {
+            text.append("+1");
+        }
+
+        parser = new InterningDiceParser(new LightweightDiceParser(),
+                new NotationInterner());
+
+        parsed = parser.parse(text.toString());
+
+        Assertions.assertSame(parsed, parser.parse(text.toString()));
+    }
+
+    @Test
+    @DisplayName("Operations not included in the library are interned as they are")
+    public final void testIntern_UnknownOperation() {
+        final NotationInterner interner;
+        final DiceNotationExpression expression;
+        final DiceNotationExpression interned;
+
+        interner = new NotationInterner();
+        expression = new UnknownOperation(IntegerOperand.valueOf(1000),
+                IntegerOperand.valueOf(2000));
+
+        interned = interner.intern(expression);
+
+        Assertions.assertSame(expression, interned);
+        Assertions.assertSame(expression, interner.intern(new UnknownOperation(
+                IntegerOperand.valueOf(1000), IntegerOperand.valueOf(2000))));
+    }
+
+    @Test
+    @DisplayName("Equal expressions are parsed into the same instance")
+    public final void testParse_Equal_Same() {
+        final DiceParser parser;
+
+        parser = new InterningDiceParser(new DefaultDiceParser(),
+                new NotationInterner());
+
+        Assertions.assertSame(parser.parse("1d6+2000"),
+                parser.parse("1d6+2000"));
+        Assertions.assertSame(parser.parse("(1d8+3000)*2d6"),
+                parser.parse("(1d8+3000)*2d6"));
+    }
+
+    @Test
+    @DisplayName("Interning keeps the parsed structure")
+    public final void testParse_KeepsStructure() {
+        final DiceParser parser;
+        final DiceParser reference;
+
+        parser = new InterningDiceParser(new LightweightDiceParser(),
+                new NotationInterner());
+        reference = new LightweightDiceParser();
+
+        Assertions.assertEquals(reference.parse("1d6+2-3*4/5d10"),
+                parser.parse("1d6+2-3*4/5d10"));
+        Assertions.assertEquals(reference.parse("1d6+2-3*4/5d10").getExpression(),
+                parser.parse("1d6+2-3*4/5d10").getExpression());
+    }
+
+    @Test
+    @DisplayName("Repeated subtrees are shared between different expressions")
+    public final void testParse_Subtree_Shared() {
+        final DiceParser parser;
+        final BinaryOperation first;
+        final BinaryOperation second;
+
+        parser = new InterningDiceParser(new LightweightDiceParser(),
+                new NotationInterner());
+
+        first = (BinaryOperation) parser.parse("(200d800+3000)*2");
+        second = (BinaryOperation) parser.parse("(200d800+3000)-5");
+
+        Assertions.assertSame(first.getLeft(), second.getLeft());
+    }
+
+    @Test
+    @DisplayName("Valid results from trying to parse are interned")
+    public final void testTryParse_Valid_Interned() {
+        final DiceParser parser;
+
+        parser = new InterningDiceParser(new LightweightDiceParser(),
+                new NotationInterner());
+
+        Assertions.assertSame(parser.parse("3d12+4000"),
+                parser.tryParse("3d12+4000").getExpression());
+        Assertions.assertFalse(parser.tryParse("3d12+").isValid());
+    }
+
+    private static final class UnknownOperation implements BinaryOperation {
+
+        private final DiceNotationExpression left;
+
+        private final DiceNotationExpression right;
+
+        public UnknownOperation(final DiceNotationExpression l,
+                final DiceNotationExpression r) {
+            super();
+
+            left = l;
+            right = r;
+        }
+
+        @Override
+        public final boolean equals(final Object obj) {
+            return (obj instanceof UnknownOperation)
+                    && left.equals(((UnknownOperation) obj).left)
+                    && right.equals(((UnknownOperation) obj).right);
+        }
+
+        @Override
+        public final String getExpression() {
+            return left.getExpression() + "%" + right.getExpression();
+        }
+
+        @Override
+        public final DiceNotationExpression getLeft() {
+            return left;
+        }
+
+        @Override
+        public final BiFunction<Integer, Integer, Integer> getOperation() {
+            return (a, b) -> a % b;
+        }
+
+        @Override
+        public final DiceNotationExpression getRight() {
+            return right;
+        }
+
+        @Override
+        public final int hashCode() {
+            return left.hashCode() + right.hashCode();
+        }
+
+    }
+
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.integration.parser.limit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.bernardomg.tabletop.dice.interpreter.DiceRoller;
+import com.bernardomg.tabletop.dice.interpreter.FastDiceRoller;
+import com.bernardomg.tabletop.dice.limit.DiceLimits;
+import com.bernardomg.tabletop.dice.limit.LimitExceededException;
+import com.bernardomg.tabletop.dice.limit.LimitType;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.parser.LimitParseDiagnostic;
+import com.bernardomg.tabletop.dice.parser.LimitedDiceParser;
+import com.bernardomg.tabletop.dice.parser.ParseDiagnostic;
+import com.bernardomg.tabletop.dice.parser.ParseResult;
+import com.bernardomg.tabletop.dice.random.NumberGenerator;
+import com.bernardomg.tabletop.dice.random.RandomNumberGenerator;
+import com.google.common.base.Strings;
+import com.google.common.collect.Iterables;
+
+@DisplayName("LimitedDiceParser rejects expressions exceeding the limits")
+public final class ITLimitedDiceParser {
+
+    public ITLimitedDiceParser() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Expressions within the limits are parsed as with the wrapped parser")
+    public final void testParse_Valid() {
+        final DiceParser parser;
+
+        parser = new LimitedDiceParser(new DefaultDiceParser());
+
+        Assertions.assertEquals(new LightweightDiceParser().parse("2d6+(1d4*3)"),
+                parser.parse("2d6+(1d4*3)"));
+    }
+
+    @Test
+    @DisplayName("Deeply nested parenthesis are rejected before parsing")
+    public final void testParse_Depth_NotParsed() {
+        final DiceParser wrapped;
+        final DiceParser parser;
+        final String expression;
+        final LimitExceededException exception;
+
+        expression = Strings.repeat("(", 100000) + "1"
+                + Strings.repeat(")", 100000);
+
+        wrapped = Mockito.mock(DiceParser.class);
+        parser = new LimitedDiceParser(wrapped,
+                new DiceLimits().withMaximumLength(Integer.MAX_VALUE));
+
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> parser.parse(expression));
+
+        Assertions.assertEquals(LimitType.DEPTH, exception.getLimitType());
+        Mockito.verify(wrapped, Mockito.never())
+                .parse(ArgumentMatchers.any(CharSequence.class));
+        Mockito.verify(wrapped, Mockito.never())
+                .parse(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    @DisplayName("Huge dice groups are rejected before rolling")
+    public final void testParse_HugeDice_NotRolled() {
+        final NumberGenerator generator;
+        final DiceParser parser;
+        final LimitExceededException exception;
+
+        generator = Mockito.mock(NumberGenerator.class);
+        parser = new LimitedDiceParser(new DefaultDiceParser());
+
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> parser.parse("99999999d99999999",
+                        new DiceRoller(generator)));
+
+        Assertions.assertEquals(LimitType.DICE_QUANTITY,
+                exception.getLimitType());
+        Mockito.verifyNoInteractions(generator);
+    }
+
+    @Test
+    @DisplayName("Long expressions are rejected before parsing")
+    public final void testParse_Length() {
+        final DiceParser parser;
+        final LimitExceededException exception;
+
+        parser = new LimitedDiceParser(new LightweightDiceParser());
+
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> parser.parse(Strings.repeat("1+", 1000) + "1"));
+
+        Assertions.assertEquals(LimitType.LENGTH, exception.getLimitType());
+    }
+
+    @Test
+    @DisplayName("The roller rejects huge dice groups before rolling them")
+    public final void testRoll_DiceRoller_HugeDice() {
+        final NumberGenerator generator;
+        final LimitExceededException exception;
+
+        generator = Mockito.mock(NumberGenerator.class);
+
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> new LightweightDiceParser().parse("2d6+99999999d6",
+                        new DiceRoller(generator, new DiceLimits())));
+
+        Assertions.assertEquals(LimitType.DICE_QUANTITY,
+                exception.getLimitType());
+        Mockito.verifyNoInteractions(generator);
+    }
+
+    @Test
+    @DisplayName("The fast roller checks the limits on both paths")
+    public final void testRoll_FastDiceRoller() {
+        final FastDiceRoller roller;
+
+        roller = new FastDiceRoller(new LightweightDiceParser(),
+                new RandomNumberGenerator(), new DiceLimits());
+
+        Assertions.assertThrows(LimitExceededException.class,
+                () -> roller.roll("99999999d6"));
+        Assertions.assertThrows(LimitExceededException.class,
+                () -> roller.rollTotal("1d99999999"));
+        Assertions.assertThrows(LimitExceededException.class,
+                () -> roller.roll("2*99999999d6"));
+        Assertions.assertThrows(LimitExceededException.class,
+                () -> roller.roll(Strings.repeat("(", 100) + "1"
+                        + Strings.repeat(")", 100)));
+        Assertions.assertTrue(roller.rollTotal("1000d6+2") >= 1002);
+    }
+
+    @Test
+    @DisplayName("The fast roller checks the length on the fast path")
+    public final void testRoll_FastDiceRoller_Length() {
+        final FastDiceRoller roller;
+        final LimitExceededException exception;
+
+        roller = new FastDiceRoller(new LightweightDiceParser(),
+                new RandomNumberGenerator(),
+                new DiceLimits().withMaximumLength(4));
+
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> roller.rollTotal("1d6+1"));
+        Assertions.assertEquals(LimitType.LENGTH, exception.getLimitType());
+    }
+
+    @Test
+    @DisplayName("The fast roller rejects the same expressions as the general path, for the same limit")
+    public final void testRoll_FastDiceRoller_SameLimit() {
+        assertSameLimit(new DiceLimits().withMaximumNodes(2), "1d6+1",
+                LimitType.NODES);
+        assertSameLimit(new DiceLimits().withMaximumNodes(1), "1d6-1",
+                LimitType.NODES);
+        assertSameLimit(new DiceLimits().withMaximumDepth(1), "1d6+1",
+                LimitType.DEPTH);
+        assertSameLimit(new DiceLimits().withMaximumQuantity(5), "-6d6",
+                LimitType.DICE_QUANTITY);
+        assertSameLimit(new DiceLimits().withMaximumTotalQuantity(5), "6d6+1",
+                LimitType.TOTAL_DICE_QUANTITY);
+        assertSameLimit(new DiceLimits().withMaximumSides(5), "d6",
+                LimitType.SIDES);
+    }
+
+    @Test
+    @DisplayName("When trying to parse, the exceeded limit is returned as a diagnostic")
+    public final void testTryParse_Diagnostic() {
+        final ParseResult result;
+        final ParseDiagnostic diagnostic;
+
+        result = new LimitedDiceParser(new DefaultDiceParser())
+                .tryParse("1d6+1001d6");
+
+        Assertions.assertFalse(result.isValid());
+
+        diagnostic = Iterables.getOnlyElement(result.getDiagnostics());
+        Assertions.assertEquals(
+                "The dice quantity of 1001 exceeds the limit of 1000",
+                diagnostic.getMessage());
+        Assertions.assertEquals(1, diagnostic.getLine());
+        Assertions.assertEquals(0, diagnostic.getCharPositionInLine());
+        Assertions.assertEquals(LimitType.DICE_QUANTITY,
+                ((LimitParseDiagnostic) diagnostic).getLimitType());
+    }
+
+    @Test
+    @DisplayName("When trying to parse, text limits are located where they are exceeded")
+    public final void testTryParse_Diagnostic_Located() {
+        final ParseResult result;
+        final ParseDiagnostic diagnostic;
+
+        result = new LimitedDiceParser(new DefaultDiceParser(),
+                new DiceLimits().withMaximumDepth(1)).tryParse("1d6+\n(1+(2))");
+
+        Assertions.assertFalse(result.isValid());
+
+        diagnostic = Iterables.getOnlyElement(result.getDiagnostics());
+        Assertions.assertEquals(LimitType.DEPTH,
+                ((LimitParseDiagnostic) diagnostic).getLimitType());
+        Assertions.assertEquals(2, diagnostic.getLine());
+        Assertions.assertEquals(3, diagnostic.getCharPositionInLine());
+        Assertions.assertEquals("(", diagnostic.getOffendingToken());
+    }
+
+    @Test
+    @DisplayName("When trying to parse, syntax errors are returned as with the wrapped parser")
+    public final void testTryParse_SyntaxError() {
+        Assertions.assertEquals(
+                new DefaultDiceParser().tryParse("1d6*(2").getDiagnostics(),
+                new LimitedDiceParser(new DefaultDiceParser())
+                        .tryParse("1d6*(2").getDiagnostics());
+    }
+
+    private final void assertSameLimit(final DiceLimits limits,
+            final String expression, final LimitType type) {
+        final FastDiceRoller roller;
+        final LimitExceededException fast;
+        final LimitExceededException general;
+
+        roller = new FastDiceRoller(new LightweightDiceParser(),
+                new RandomNumberGenerator(), limits);
+
+        fast = Assertions.assertThrows(LimitExceededException.class,
+                () -> roller.roll(expression));
+        general = Assertions.assertThrows(LimitExceededException.class,
+                () -> new LightweightDiceParser().parse(expression,
+                        new DiceRoller(new RandomNumberGenerator(), limits)));
+
+        Assertions.assertEquals(type, fast.getLimitType());
+        Assertions.assertEquals(general.getLimitType(), fast.getLimitType());
+        Assertions.assertEquals(general.getMessage(), fast.getMessage());
+    }
+
+}
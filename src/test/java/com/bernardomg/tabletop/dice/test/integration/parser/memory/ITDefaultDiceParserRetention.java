@@ -0,0 +1,54 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.integration.parser.memory;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+
+@DisplayName("DefaultDiceParser does not keep the parsed expressions")
+public final class ITDefaultDiceParserRetention {
+
+    public ITDefaultDiceParserRetention() {
+        super();
+    }
+
+    @Test
+    @DisplayName("The parsed root can be garbage collected after another parse")
+    public final void testParse_RootNotRetained() {
+        final DiceParser parser;
+        final WeakReference<DiceNotationExpression> reference;
+
+        parser = new DefaultDiceParser();
+
+        reference = new WeakReference<>(parser.parse("1d20+2d6-3d12"));
+        parser.parse("1d6");
+
+        for (int i = 0; (i < 10) && (reference.get() != null); i++) {
+            System.gc();
+        }
+
+        Assertions.assertNull(reference.get());
+    }
+
+}
@@ -0,0 +1,322 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.integration.parser.nary;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.Dice;
+import com.bernardomg.tabletop.dice.history.RollHistory;
+import com.bernardomg.tabletop.dice.history.RollResult;
+import com.bernardomg.tabletop.dice.interpreter.AccumulatedValues;
+import com.bernardomg.tabletop.dice.interpreter.CombinedInterpreter;
+import com.bernardomg.tabletop.dice.interpreter.ConfigurableInterpreter;
+import com.bernardomg.tabletop.dice.interpreter.DiceCanonicalizer;
+import com.bernardomg.tabletop.dice.interpreter.DiceGatherer;
+import com.bernardomg.tabletop.dice.interpreter.DiceRoller;
+import com.bernardomg.tabletop.dice.interpreter.InorderTraverser;
+import com.bernardomg.tabletop.dice.interpreter.TotalRoller;
+import com.bernardomg.tabletop.dice.interpreter.TraversalOrder;
+import com.bernardomg.tabletop.dice.limit.DiceLimits;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.NotationInterner;
+import com.bernardomg.tabletop.dice.notation.operand.ConstantOperand;
+import com.bernardomg.tabletop.dice.notation.operand.DiceOperand;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.listener.DefaultDiceExpressionBuilder;
+import com.bernardomg.tabletop.dice.random.AbstractNumberGenerator;
+import com.bernardomg.tabletop.dice.random.DiceToRollResult;
+import com.bernardomg.tabletop.dice.random.NumberGenerator;
+import com.bernardomg.tabletop.dice.visitor.DiceAccumulator;
+import com.bernardomg.tabletop.dice.visitor.DiceRollAccumulator;
+import com.bernardomg.tabletop.dice.visitor.NotationAccumulator;
+import com.google.common.collect.Lists;
+
+@DisplayName("Parsing chains of operations into n-ary operations")
+public final class ITNaryDiceParser {
+
+    private static final List<String> EXPRESSIONS = Arrays.asList("1d6+2",
+            "1d6+2-1d4+3", "2-1d6-3-2d4+1", "-1d6-2d8+1d4", "2*1d6*3",
+            "12/2*1d6/3*2", "(1d6+2)*(3-1d4)-4", "1d20-(2d4-(1d6+2))+5",
+            "1d6-2*3+4/2", "5");
+
+    private final DiceParser          binary      = new DefaultDiceParser();
+
+    private final DiceParser          nary        = new DefaultDiceParser(
+            new DefaultDiceExpressionBuilder(true));
+
+    public ITNaryDiceParser() {
+        super();
+    }
+
+    @Test
+    @DisplayName("The canonical form is the same as with binary operations")
+    public final void testCanonical_SameAsBinary() {
+        final DiceCanonicalizer canonicalizer;
+
+        canonicalizer = new DiceCanonicalizer();
+        for (final String text : EXPRESSIONS) {
+            Assertions.assertEquals(
+                    binary.parse(text, canonicalizer::getCanonicalText),
+                    nary.parse(text, canonicalizer::getCanonicalText), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Combined accumulators return the same values as with binary operations")
+    public final void testCombined_SameAsBinary() {
+        DiceRollAccumulator rolls;
+        DiceAccumulator dice;
+        AccumulatedValues values;
+        RollHistory expectedRolls;
+        List<Dice> expectedDice;
+
+        for (final String text : EXPRESSIONS) {
+            expectedRolls = binary.parse(text, new DiceRoller(getGenerator()));
+            expectedDice = Lists
+                    .newArrayList(binary.parse(text, new DiceGatherer()));
+
+            rolls = new DiceRollAccumulator(
+                    new DiceToRollResult(getGenerator()));
+            dice = new DiceAccumulator();
+            values = nary.parse(text, new CombinedInterpreter(rolls)
+                    .withAccumulator(dice, TraversalOrder.INORDER));
+
+            Assertions.assertEquals(expectedRolls.getTotalRoll(),
+                    values.getValue(rolls).getTotalRoll(), text);
+            Assertions.assertEquals(expectedRolls.toString(),
+                    values.getValue(rolls).toString(), text);
+            Assertions.assertEquals(expectedDice,
+                    Lists.newArrayList(values.getValue(dice)), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Gathering the dice returns the same dice as with binary operations")
+    public final void testGather_SameAsBinary() {
+        final DiceGatherer gatherer;
+        List<Dice> expected;
+        List<Dice> dice;
+
+        gatherer = new DiceGatherer();
+        for (final String text : EXPRESSIONS) {
+            expected = Lists.newArrayList(binary.parse(text, gatherer));
+            dice = Lists.newArrayList(nary.parse(text, gatherer));
+
+            Assertions.assertEquals(expected, dice, text);
+        }
+    }
+
+    @Test
+    @DisplayName("Gathering the dice of a shared operation keeps the signs")
+    public final void testGather_SharedOperation() {
+        final ProductOperation product;
+        final List<Dice> expected;
+        final List<Dice> dice;
+
+        product = (ProductOperation) new NotationInterner()
+                .intern(nary.parse("(1d6-2d4)*(1d6-2d4)"));
+        expected = Lists.newArrayList(
+                binary.parse("(1d6-2d4)*(1d6-2d4)", new DiceGatherer()));
+        dice = Lists.newArrayList(new DiceGatherer().transform(product));
+
+        Assertions.assertSame(product.getOperand(0), product.getOperand(1));
+        Assertions.assertEquals(expected, dice);
+    }
+
+    @Test
+    @DisplayName("Interning keeps the n-ary operations")
+    public final void testIntern() {
+        final NotationInterner interner;
+        final DiceNotationExpression first;
+        final DiceNotationExpression second;
+
+        interner = new NotationInterner();
+        first = interner.intern(nary.parse("(1d6+2+3)*2*4"));
+        second = interner.intern(nary.parse("(1d6+2+3)*2*4"));
+
+        Assertions.assertSame(first, second);
+        Assertions.assertSame(((ProductOperation) first).getOperand(0),
+                interner.intern(nary.parse("1d6+2+3")));
+    }
+
+    @Test
+    @DisplayName("Long chains are kept under the depth limits")
+    public final void testLimits_LongChain() {
+        final StringBuilder text;
+
+        text = new StringBuilder("1d6");
+        for (int i = 0; i < 200; i++) {
+            text.append("+2");
+        }
+
+        new DiceLimits().withMaximumDepth(2)
+                .checkExpression(nary.parse(text.toString()));
+    }
+
+    @Test
+    @DisplayName("Multiplications are parsed into products, closed by each division")
+    public final void testParse_Product() {
+        final ProductOperation product;
+        final DivisionOperation division;
+
+        product = (ProductOperation) nary.parse("2*3/4*5");
+        division = (DivisionOperation) product.getOperand(0);
+
+        Assertions.assertEquals(2, product.getOperandCount());
+        Assertions.assertEquals(2, ((ProductOperation) division.getLeft())
+                .getOperandCount());
+        Assertions.assertEquals("2*3/4*5", product.getExpression());
+    }
+
+    @Test
+    @DisplayName("The text is the same as with binary operations")
+    public final void testParse_SameText() {
+        for (final String text : EXPRESSIONS) {
+            Assertions.assertEquals(binary.parse(text).getExpression(),
+                    nary.parse(text).getExpression(), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Additions and subtractions are parsed into a single sum")
+    public final void testParse_Sum() {
+        final SumOperation sum;
+
+        sum = (SumOperation) nary.parse("1d6+2-1d4+3");
+
+        Assertions.assertEquals(4, sum.getOperandCount());
+        Assertions.assertFalse(sum.isSubtracted(1));
+        Assertions.assertTrue(sum.isSubtracted(2));
+        Assertions.assertFalse(sum.isSubtracted(3));
+        Assertions.assertEquals("1d6+2-1d4+3", sum.getExpression());
+    }
+
+    @Test
+    @DisplayName("The total is the same as with binary operations")
+    public final void testRollTotal_SameAsBinary() {
+        for (final String text : EXPRESSIONS) {
+            Assertions.assertEquals(
+                    new TotalRoller(getGenerator())
+                            .rollTotal(binary.parse(text)),
+                    new TotalRoller(getGenerator()).rollTotal(nary.parse(text)),
+                    text);
+        }
+    }
+
+    @Test
+    @DisplayName("The roll history is the same as with binary operations")
+    public final void testRoll_SameAsBinary() {
+        RollHistory expected;
+        RollHistory history;
+        List<Integer> expectedResults;
+        List<Integer> results;
+
+        for (final String text : EXPRESSIONS) {
+            expected = binary.parse(text, new DiceRoller(getGenerator()));
+            history = nary.parse(text, new DiceRoller(getGenerator()));
+
+            expectedResults = Lists.newArrayList();
+            for (final RollResult result : expected.getRollResults()) {
+                expectedResults.add(result.getTotalRoll());
+            }
+            results = Lists.newArrayList();
+            for (final RollResult result : history.getRollResults()) {
+                results.add(result.getTotalRoll());
+            }
+
+            Assertions.assertEquals(expected.getTotalRoll(),
+                    history.getTotalRoll(), text);
+            Assertions.assertEquals(expected.toString(), history.toString(),
+                    text);
+            Assertions.assertEquals(expectedResults, results, text);
+        }
+    }
+
+    @Test
+    @DisplayName("Accumulators which don't handle n-ary operations ignore them")
+    public final void testVisit_NaryIgnored() {
+        final Integer count;
+
+        count = nary.parse("1+2-3*4*5",
+                new ConfigurableInterpreter<>(new InorderTraverser(),
+                        new ConstantCounter()));
+
+        Assertions.assertEquals(5, count);
+    }
+
+    private final NumberGenerator getGenerator() {
+        return new AbstractNumberGenerator() {
+
+            private int count = 0;
+
+            @Override
+            public final Integer generate(final Integer max) {
+                count++;
+                return (count % max) + 1;
+            }
+
+        };
+    }
+
+    private static final class ConstantCounter
+            implements NotationAccumulator<Integer> {
+
+        private Integer count = 0;
+
+        public ConstantCounter() {
+            super();
+        }
+
+        @Override
+        public final void binaryOperation(final BinaryOperation exp) {
+            // Operations are not counted
+        }
+
+        @Override
+        public final void constantOperand(final ConstantOperand exp) {
+            count++;
+        }
+
+        @Override
+        public final void diceOperand(final DiceOperand exp) {
+            // Dice are not counted
+        }
+
+        @Override
+        public final Integer getValue() {
+            return count;
+        }
+
+        @Override
+        public final void reset() {
+            count = 0;
+        }
+
+    }
+
+}
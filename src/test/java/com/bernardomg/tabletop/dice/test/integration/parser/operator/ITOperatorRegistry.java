@@ -0,0 +1,129 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.integration.parser.operator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.history.RollHistory;
+import com.bernardomg.tabletop.dice.interpreter.DiceRoller;
+import com.bernardomg.tabletop.dice.interpreter.TotalRoller;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.NotationInterner;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.Operator;
+import com.bernardomg.tabletop.dice.notation.operation.OperatorRegistry;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.RegisteredOperation;
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.parser.listener.DefaultDiceExpressionBuilder;
+
+@DisplayName("Parsing with a custom operator registry")
+public final class ITOperatorRegistry {
+
+    private final Operator   ceilingDivision = new Operator('/', 2,
+            (a, b) -> -Math.floorDiv(-a, b));
+
+    private final DiceParser parser          = new DefaultDiceParser(
+            new DefaultDiceExpressionBuilder(false, OperatorRegistry
+                    .getDefault().withOperator(ceilingDivision)));
+
+    public ITOperatorRegistry() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Registered operations are interned")
+    public final void testIntern() {
+        final NotationInterner interner;
+        final BinaryOperation first;
+        final BinaryOperation second;
+
+        interner = new NotationInterner();
+        first = (BinaryOperation) interner.intern(parser.parse("(1d6+2)/3"));
+        second = (BinaryOperation) interner.intern(parser.parse("(1d6+2)/3"));
+
+        Assertions.assertSame(first, second);
+        Assertions.assertSame(first.getLeft(),
+                interner.intern(parser.parse("1d6+2")));
+    }
+
+    @Test
+    @DisplayName("The default registry builds the same trees as the other parsers")
+    public final void testParse_Default() {
+        Assertions.assertEquals(
+                new LightweightDiceParser().parse("1d6+2*3-4/1d4"),
+                new DefaultDiceParser().parse("1d6+2*3-4/1d4"));
+    }
+
+    @Test
+    @DisplayName("The replaced operator is used when building n-ary operations")
+    public final void testParse_Nary_Replaced() {
+        final DiceParser naryParser;
+        final DiceNotationExpression expression;
+
+        naryParser = new DefaultDiceParser(new DefaultDiceExpressionBuilder(
+                true, OperatorRegistry.getDefault()
+                        .withOperator(ceilingDivision)));
+
+        expression = naryParser.parse("2*7/4*3");
+
+        Assertions.assertTrue(expression instanceof ProductOperation);
+        Assertions.assertTrue(((ProductOperation) expression)
+                .getOperand(0) instanceof RegisteredOperation);
+        Assertions.assertSame(ceilingDivision,
+                ((BinaryOperation) ((ProductOperation) expression)
+                        .getOperand(0)).getOperator());
+        Assertions.assertEquals(12, new TotalRoller().rollTotal(expression));
+        Assertions.assertEquals(5,
+                new TotalRoller().rollTotal(naryParser.parse("7/2+1")));
+    }
+
+    @Test
+    @DisplayName("The replaced operator is used for its symbol")
+    public final void testParse_Replaced() {
+        final BinaryOperation operation;
+
+        operation = (BinaryOperation) parser.parse("1d6+7/2");
+
+        Assertions.assertSame(Operator.ADDITION, operation.getOperator());
+        Assertions.assertTrue(
+                operation.getRight() instanceof RegisteredOperation);
+        Assertions.assertSame(ceilingDivision,
+                ((BinaryOperation) operation.getRight()).getOperator());
+    }
+
+    @Test
+    @DisplayName("Registered operations are rolled through their operator")
+    public final void testRoll() {
+        final DiceNotationExpression expression;
+        final RollHistory history;
+
+        expression = parser.parse("7/2+1");
+        history = new DiceRoller().transform(expression);
+
+        Assertions.assertEquals(5, new TotalRoller().rollTotal(expression));
+        Assertions.assertEquals(5, history.getTotalRoll());
+        Assertions.assertEquals("7 / 2 + 1", history.toString());
+        Assertions.assertEquals("7/2+1", expression.getExpression());
+    }
+
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.integration.parser.streaming;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+import com.bernardomg.tabletop.dice.parser.ParsedLine;
+import com.bernardomg.tabletop.dice.parser.StreamingDiceParser;
+
+@DisplayName("StreamingDiceParser parses sources line by line")
+public final class ITStreamingDiceParser {
+
+    @TempDir
+    public Path folder;
+
+    public ITStreamingDiceParser() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Input streams are parsed line by line")
+    public final void testParse_InputStream() {
+        final List<ParsedLine> results;
+
+        try (final Stream<ParsedLine> lines = new StreamingDiceParser()
+                .parse(new ByteArrayInputStream(
+                        "1d6\n2d8".getBytes(StandardCharsets.UTF_8)))) {
+            results = lines.collect(Collectors.toList());
+        }
+
+        Assertions.assertEquals(2, results.size());
+        Assertions.assertEquals(2, results.get(1).getLineNumber());
+    }
+
+    @Test
+    @DisplayName("Lines are parsed only when the stream is consumed")
+    public final void testParse_Lazy() {
+        final DiceParser parser;
+        final Iterator<ParsedLine> iterator;
+
+        parser = Mockito.mock(DiceParser.class);
+        Mockito.when(parser.tryParse(ArgumentMatchers.anyString()))
+                .thenAnswer(i -> new LightweightDiceParser()
+                        .tryParse(i.getArgument(0)));
+
+        try (final Stream<ParsedLine> lines = new StreamingDiceParser(parser)
+                .parse(new StringReader("1d6\n2d8\n3d10"))) {
+            iterator = lines.iterator();
+
+            Mockito.verify(parser, Mockito.never())
+                    .tryParse(ArgumentMatchers.anyString());
+
+            iterator.next();
+
+            Mockito.verify(parser, Mockito.times(1))
+                    .tryParse(ArgumentMatchers.anyString());
+        }
+    }
+
+    @Test
+    @DisplayName("Lines longer than the mapped window are rejected")
+    public final void testParse_Path_LineLongerThanWindow()
+            throws IOException {
+        final Path file;
+
+        file = folder.resolve("long.txt");
+        Files.write(file, "1d6\n12345678d6\n".getBytes(StandardCharsets.UTF_8));
+
+        try (final Stream<ParsedLine> lines = new StreamingDiceParser(
+                new LightweightDiceParser(), 8).parse(file)) {
+            Assertions.assertThrows(UncheckedIOException.class,
+                    () -> lines.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Files are parsed through windows smaller than the file")
+    public final void testParse_Path_MultipleWindows() throws IOException {
+        final Path file;
+        final List<String> expressions;
+        final List<ParsedLine> results;
+
+        expressions = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            expressions.add(String.format("%dd%d+%d", i % 7, i, i % 13));
+        }
+
+        file = folder.resolve("notation.txt");
+        Files.write(file, expressions, StandardCharsets.UTF_8);
+
+        try (final Stream<ParsedLine> lines = new StreamingDiceParser(
+                new LightweightDiceParser(), 64).parse(file)) {
+            results = lines.collect(Collectors.toList());
+        }
+
+        Assertions.assertEquals(expressions.size(), results.size());
+        for (int i = 0; i < expressions.size(); i++) {
+            Assertions.assertEquals(i + 1, results.get(i).getLineNumber());
+            Assertions.assertEquals(
+                    new LightweightDiceParser().parse(expressions.get(i)),
+                    results.get(i).getResult().getExpression());
+        }
+    }
+
+    @Test
+    @DisplayName("Files accept both line terminators, and a last line without terminator")
+    public final void testParse_Path_Terminators() throws IOException {
+        final Path file;
+        final List<ParsedLine> results;
+
+        file = folder.resolve("terminators.txt");
+        Files.write(file,
+                "1d6\r\n2d8\n\r\n3d10".getBytes(StandardCharsets.UTF_8));
+
+        try (final Stream<ParsedLine> lines = new StreamingDiceParser()
+                .parse(file)) {
+            results = lines.collect(Collectors.toList());
+        }
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(1, results.get(0).getLineNumber());
+        Assertions.assertEquals(2, results.get(1).getLineNumber());
+        Assertions.assertEquals(4, results.get(2).getLineNumber());
+        Assertions.assertTrue(results.get(0).getResult().isValid());
+        Assertions.assertTrue(results.get(1).getResult().isValid());
+        Assertions.assertTrue(results.get(2).getResult().isValid());
+    }
+
+    @Test
+    @DisplayName("Invalid lines are reported with their line number, and empty lines are skipped")
+    public final void testParse_Reader_InvalidAndEmpty() {
+        final List<ParsedLine> results;
+
+        try (final Stream<ParsedLine> lines = new StreamingDiceParser()
+                .parse(new StringReader("1d6\n\n1d6+\nabc\n2d8\n"))) {
+            results = lines.collect(Collectors.toList());
+        }
+
+        Assertions.assertEquals(4, results.size());
+        Assertions.assertEquals(1, results.get(0).getLineNumber());
+        Assertions.assertEquals(3, results.get(1).getLineNumber());
+        Assertions.assertEquals(4, results.get(2).getLineNumber());
+        Assertions.assertEquals(5, results.get(3).getLineNumber());
+        Assertions.assertTrue(results.get(0).getResult().isValid());
+        Assertions.assertFalse(results.get(1).getResult().isValid());
+        Assertions.assertFalse(results.get(2).getResult().isValid());
+        Assertions.assertTrue(results.get(3).getResult().isValid());
+    }
+
+}
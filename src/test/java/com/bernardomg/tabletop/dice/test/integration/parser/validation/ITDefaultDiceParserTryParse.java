@@ -0,0 +1,178 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.integration.parser.validation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EmptyStackException;
+
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.bernardomg.tabletop.dice.parser.DefaultDiceParser;
+import com.bernardomg.tabletop.dice.parser.ParseDiagnostic;
+import com.bernardomg.tabletop.dice.parser.ParseResult;
+import com.bernardomg.tabletop.dice.parser.listener.DiceExpressionBuilder;
+import com.google.common.collect.Iterables;
+
+@DisplayName("DefaultDiceParser validates expressions without exceptions")
+public final class ITDefaultDiceParserTryParse {
+
+    public ITDefaultDiceParserTryParse() {
+        super();
+    }
+
+    @Test
+    @DisplayName("A builder failure without message is described by its class")
+    public final void testTryParse_BuilderFailure_NoMessage() {
+        final DiceExpressionBuilder builder;
+        final ParseResult result;
+        final ParseDiagnostic diagnostic;
+
+        builder = Mockito.mock(DiceExpressionBuilder.class);
+        Mockito.when(builder.getDiceExpressionRoot())
+                .thenThrow(new EmptyStackException());
+
+        result = new DefaultDiceParser(builder).tryParse("1d6");
+
+        Assertions.assertFalse(result.isValid());
+
+        diagnostic = Iterables.getOnlyElement(result.getDiagnostics());
+        Assertions.assertEquals(
+                "invalid expression due to java.util.EmptyStackException",
+                diagnostic.getMessage());
+    }
+
+    @Test
+    @DisplayName("An empty expression is rejected, expecting an operand")
+    public final void testTryParse_Empty() {
+        final ParseResult result;
+        final ParseDiagnostic diagnostic;
+
+        result = new DefaultDiceParser().tryParse("");
+
+        Assertions.assertFalse(result.isValid());
+        Assertions.assertNull(result.getExpression());
+
+        diagnostic = Iterables.getOnlyElement(result.getDiagnostics());
+        Assertions.assertEquals(1, diagnostic.getLine());
+        Assertions.assertEquals(0, diagnostic.getCharPositionInLine());
+        Assertions.assertEquals("<EOF>", diagnostic.getOffendingToken());
+        Assertions.assertIterableEquals(
+                Arrays.asList("DSEPARATOR", "DIGIT", "ADDOPERATOR", "'('"),
+                diagnostic.getExpectedTokens());
+    }
+
+    @Test
+    @DisplayName("An invalid character is rejected, and located")
+    public final void testTryParse_InvalidCharacter() {
+        final ParseResult result;
+        final ParseDiagnostic diagnostic;
+
+        result = new DefaultDiceParser().tryParse("6d6y");
+
+        Assertions.assertFalse(result.isValid());
+
+        diagnostic = Iterables.getFirst(result.getDiagnostics(), null);
+        Assertions.assertEquals(1, diagnostic.getLine());
+        Assertions.assertEquals(3, diagnostic.getCharPositionInLine());
+        Assertions.assertEquals("y", diagnostic.getOffendingToken());
+        Assertions.assertIterableEquals(Collections.emptyList(),
+                diagnostic.getExpectedTokens());
+    }
+
+    @Test
+    @DisplayName("The error listener is not used when rejecting an expression")
+    public final void testTryParse_ListenerNotCalled() {
+        final ANTLRErrorListener listener;
+        final ParseResult result;
+
+        listener = Mockito.mock(ANTLRErrorListener.class);
+
+        result = new DefaultDiceParser(listener).tryParse("1d6+");
+
+        Assertions.assertFalse(result.isValid());
+        Mockito.verifyNoInteractions(listener);
+    }
+
+    @Test
+    @DisplayName("A missing operand is rejected, and located")
+    public final void testTryParse_MissingOperand() {
+        final ParseResult result;
+        final ParseDiagnostic diagnostic;
+
+        result = new DefaultDiceParser().tryParse("1d6+");
+
+        Assertions.assertFalse(result.isValid());
+
+        diagnostic = Iterables.getFirst(result.getDiagnostics(), null);
+        Assertions.assertEquals(1, diagnostic.getLine());
+        Assertions.assertEquals(4, diagnostic.getCharPositionInLine());
+        Assertions.assertEquals("<EOF>", diagnostic.getOffendingToken());
+        Assertions.assertIterableEquals(
+                Arrays.asList("DSEPARATOR", "DIGIT", "ADDOPERATOR", "'('"),
+                diagnostic.getExpectedTokens());
+    }
+
+    @Test
+    @DisplayName("A missing parenthesis is rejected, expecting the parenthesis")
+    public final void testTryParse_MissingParenthesis() {
+        final ParseResult result;
+        final ParseDiagnostic diagnostic;
+
+        result = new DefaultDiceParser().tryParse("(1+2");
+
+        Assertions.assertFalse(result.isValid());
+
+        diagnostic = Iterables.getFirst(result.getDiagnostics(), null);
+        Assertions.assertEquals(4, diagnostic.getCharPositionInLine());
+        Assertions.assertEquals("<EOF>", diagnostic.getOffendingToken());
+        Assertions.assertIterableEquals(Arrays.asList("')'"),
+                diagnostic.getExpectedTokens());
+    }
+
+    @Test
+    @DisplayName("A number out of range is rejected")
+    public final void testTryParse_OutOfRange() {
+        final ParseResult result;
+        final ParseDiagnostic diagnostic;
+
+        result = new DefaultDiceParser().tryParse("2147483648");
+
+        Assertions.assertFalse(result.isValid());
+
+        diagnostic = Iterables.getOnlyElement(result.getDiagnostics());
+        Assertions.assertEquals("2147483648", diagnostic.getOffendingToken());
+    }
+
+    @Test
+    @DisplayName("A valid expression returns the same tree as parsing")
+    public final void testTryParse_Valid() {
+        final ParseResult result;
+
+        result = new DefaultDiceParser().tryParse("1d6+(2-3)*4");
+
+        Assertions.assertTrue(result.isValid());
+        Assertions.assertTrue(Iterables.isEmpty(result.getDiagnostics()));
+        Assertions.assertEquals(new DefaultDiceParser().parse("1d6+(2-3)*4"),
+                result.getExpression());
+    }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.integration.parser.warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.bernardomg.tabletop.dice.history.RollHistory;
+import com.bernardomg.tabletop.dice.interpreter.DiceInterpreter;
+import com.bernardomg.tabletop.dice.parser.DfaCache;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.DiceWarmUp;
+import com.bernardomg.tabletop.dice.parser.LightweightDiceParser;
+
+@DisplayName("DiceWarmUp processes the corpus ahead of time")
+public final class ITDiceWarmUp {
+
+    @TempDir
+    public Path folder;
+
+    public ITDiceWarmUp() {
+        super();
+    }
+
+    @Test
+    @DisplayName("The corpus is read from a file, ignoring empty lines")
+    public final void testCorpus_File() throws IOException {
+        final Path file;
+
+        file = folder.resolve("corpus.txt");
+        Files.write(file, Arrays.asList("1d6", "", "2d8+1"),
+                StandardCharsets.UTF_8);
+
+        Assertions.assertEquals(Arrays.asList("1d6", "2d8+1"),
+                new DiceWarmUp(file).getCorpus());
+    }
+
+    @Test
+    @DisplayName("Warming up everything fills the shared DFA cache")
+    public final void testWarmUp_All() {
+        DfaCache.getShared().clear();
+
+        new DiceWarmUp().warmUp();
+
+        Assertions.assertTrue(DfaCache.getShared().getStateCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Each expression is parsed once on each round, and only the valid ones are interpreted")
+    @SuppressWarnings("unchecked")
+    public final void testWarmUp_Interpreter() {
+        final DiceParser parser;
+        final DiceInterpreter<RollHistory> interpreter;
+
+        parser = Mockito.mock(DiceParser.class);
+        Mockito.when(parser.tryParse(ArgumentMatchers.anyString()))
+                .thenAnswer(i -> new LightweightDiceParser()
+                        .tryParse(i.getArgument(0)));
+        interpreter = Mockito.mock(DiceInterpreter.class);
+
+        new DiceWarmUp(Arrays.asList("1d6", "1d6+"), 3).warmUp(parser,
+                interpreter);
+
+        Mockito.verify(parser, Mockito.times(3)).tryParse("1d6");
+        Mockito.verify(parser, Mockito.times(3)).tryParse("1d6+");
+        Mockito.verify(interpreter, Mockito.times(3))
+                .transform(ArgumentMatchers.any());
+    }
+
+}
@@ -0,0 +1,268 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.unit.limit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.DefaultDice;
+import com.bernardomg.tabletop.dice.limit.DiceLimits;
+import com.bernardomg.tabletop.dice.limit.LimitExceededException;
+import com.bernardomg.tabletop.dice.limit.LimitType;
+import com.bernardomg.tabletop.dice.limit.LimitViolation;
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+
+@DisplayName("Tests for DiceLimits")
+public final class TestDiceLimits {
+
+    public TestDiceLimits() {
+        super();
+    }
+
+    @Test
+    @DisplayName("A long chain of operations exceeds the depth")
+    public final void testCheckExpression_Chain_Depth() {
+        final LimitExceededException exception;
+        final DiceNotationExpression chain;
+        DiceNotationExpression expression;
+
+        expression = new IntegerOperand(1);
+        for (int i = 0; i < 100000; i++) {
+            expression = new AdditionOperation(expression,
+                    new IntegerOperand(1));
+        }
+        chain = expression;
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> new DiceLimits().withMaximumNodes(Integer.MAX_VALUE)
+                        .checkExpression(chain));
+
+        Assertions.assertEquals(LimitType.DEPTH, exception.getLimitType());
+        Assertions.assertEquals(64, exception.getMaximum());
+        Assertions.assertEquals(65, exception.getValue());
+    }
+
+    @Test
+    @DisplayName("A long chain of operations is accepted without limits")
+    public final void testCheckExpression_Chain_Unlimited() {
+        DiceNotationExpression expression;
+
+        expression = new IntegerOperand(1);
+        for (int i = 0; i < 100000; i++) {
+            expression = new AdditionOperation(expression,
+                    new IntegerOperand(1));
+        }
+
+        DiceLimits.unlimited().checkExpression(expression);
+    }
+
+    @Test
+    @DisplayName("Big trees exceed the node count")
+    public final void testCheckExpression_Nodes() {
+        final LimitExceededException exception;
+        final DiceNotationExpression expression;
+
+        expression = new AdditionOperation(
+                new AdditionOperation(new IntegerOperand(1),
+                        new IntegerOperand(2)),
+                new IntegerOperand(3));
+
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> new DiceLimits().withMaximumNodes(4)
+                        .checkExpression(expression));
+
+        Assertions.assertEquals(LimitType.NODES, exception.getLimitType());
+        Assertions.assertEquals(5, exception.getValue());
+    }
+
+    @Test
+    @DisplayName("Negative quantities are limited as the positive ones")
+    public final void testCheckExpression_Quantity_Negative() {
+        final LimitExceededException exception;
+
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> new DiceLimits().checkExpression(new DefaultDiceOperand(
+                        new DefaultDice(Integer.MIN_VALUE, 6))));
+
+        Assertions.assertEquals(LimitType.DICE_QUANTITY,
+                exception.getLimitType());
+        Assertions.assertEquals(2147483648L, exception.getValue());
+    }
+
+    @Test
+    @DisplayName("Too many sides exceed the limit")
+    public final void testCheckExpression_Sides() {
+        final LimitExceededException exception;
+
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> new DiceLimits().withMaximumSides(100).checkExpression(
+                        new DefaultDiceOperand(new DefaultDice(1, 101))));
+
+        Assertions.assertEquals(LimitType.SIDES, exception.getLimitType());
+    }
+
+    @Test
+    @DisplayName("The dice in all the groups are added for the total quantity")
+    public final void testCheckExpression_TotalQuantity() {
+        final LimitExceededException exception;
+        final DiceNotationExpression expression;
+
+        expression = new AdditionOperation(
+                new DefaultDiceOperand(new DefaultDice(600, 6)),
+                new DefaultDiceOperand(new DefaultDice(600, 6)));
+
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> new DiceLimits().withMaximumTotalQuantity(1000)
+                        .checkExpression(expression));
+
+        Assertions.assertEquals(LimitType.TOTAL_DICE_QUANTITY,
+                exception.getLimitType());
+        Assertions.assertEquals(1200, exception.getValue());
+    }
+
+    @Test
+    @DisplayName("Expressions within the limits are accepted")
+    public final void testCheckExpression_Valid() {
+        new DiceLimits().checkExpression(new AdditionOperation(
+                new DefaultDiceOperand(new DefaultDice(1000, 1000000)),
+                new IntegerOperand(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    @DisplayName("Deeply nested parenthesis exceed the depth")
+    public final void testCheckText_Depth() {
+        final LimitExceededException exception;
+        final StringBuilder text;
+
+        text = new StringBuilder();
+        for (int i = 0; i < 11; i++) {
+            text.append('(');
+        }
+        text.append('1');
+        for (int i = 0; i < 11; i++) {
+            text.append(')');
+        }
+
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> new DiceLimits().withMaximumDepth(10).checkText(text));
+
+        Assertions.assertEquals(LimitType.DEPTH, exception.getLimitType());
+        Assertions.assertEquals(11, exception.getValue());
+    }
+
+    @Test
+    @DisplayName("Sibling parenthesis do not add up their depth")
+    public final void testCheckText_Depth_Siblings() {
+        new DiceLimits().withMaximumDepth(1).checkText("(1)+(2)+(3)");
+    }
+
+    @Test
+    @DisplayName("Long texts exceed the length")
+    public final void testCheckText_Length() {
+        final LimitExceededException exception;
+
+        exception = Assertions.assertThrows(LimitExceededException.class,
+                () -> new DiceLimits().withMaximumLength(3).checkText("1d6+"));
+
+        Assertions.assertEquals(LimitType.LENGTH, exception.getLimitType());
+        Assertions.assertEquals(3, exception.getMaximum());
+        Assertions.assertEquals(4, exception.getValue());
+        Assertions.assertEquals(
+                "The expression length of 4 exceeds the limit of 3",
+                exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("The violation of a tree limit is returned without position")
+    public final void testGetExpressionViolation_Sides() {
+        final LimitViolation violation;
+
+        violation = new DiceLimits().withMaximumSides(6)
+                .getExpressionViolation(new AdditionOperation(
+                        new DefaultDiceOperand(new DefaultDice(1, 6)),
+                        new DefaultDiceOperand(new DefaultDice(1, 8))));
+
+        Assertions.assertEquals(LimitType.SIDES, violation.getLimitType());
+        Assertions.assertEquals(6, violation.getMaximum());
+        Assertions.assertEquals(8, violation.getValue());
+        Assertions.assertEquals(-1, violation.getPosition());
+        Assertions.assertEquals("The dice sides of 8 exceeds the limit of 6",
+                violation.getMessage());
+    }
+
+    @Test
+    @DisplayName("No violation is returned for expressions within the limits")
+    public final void testGetExpressionViolation_Valid() {
+        Assertions.assertNull(
+                new DiceLimits().getExpressionViolation(new AdditionOperation(
+                        new DefaultDiceOperand(new DefaultDice(1000, 6)),
+                        new IntegerOperand(1))));
+    }
+
+    @Test
+    @DisplayName("The depth violation is located at the parenthesis exceeding it")
+    public final void testGetTextViolation_Depth() {
+        final LimitViolation violation;
+
+        violation = new DiceLimits().withMaximumDepth(2)
+                .getTextViolation("1+((2)+((3)))");
+
+        Assertions.assertEquals(LimitType.DEPTH, violation.getLimitType());
+        Assertions.assertEquals(3, violation.getValue());
+        Assertions.assertEquals(8, violation.getPosition());
+    }
+
+    @Test
+    @DisplayName("The length violation is located at the first character over the limit")
+    public final void testGetTextViolation_Length() {
+        final LimitViolation violation;
+
+        violation = new DiceLimits().withMaximumLength(3)
+                .getTextViolation("1d6+");
+
+        Assertions.assertEquals(LimitType.LENGTH, violation.getLimitType());
+        Assertions.assertEquals(4, violation.getValue());
+        Assertions.assertEquals(3, violation.getPosition());
+    }
+
+    @Test
+    @DisplayName("No violation is returned for texts within the limits")
+    public final void testGetTextViolation_Valid() {
+        Assertions.assertNull(new DiceLimits().getTextViolation("(1d6+2)*3"));
+    }
+
+    @Test
+    @DisplayName("Only the unlimited policy is marked as unlimited")
+    public final void testIsUnlimited() {
+        Assertions.assertTrue(DiceLimits.unlimited().isUnlimited());
+        Assertions.assertFalse(new DiceLimits().isUnlimited());
+        Assertions.assertFalse(
+                DiceLimits.unlimited().withMaximumSides(6).isUnlimited());
+    }
+
+    @Test
+    @DisplayName("Non positive lengths are rejected")
+    public final void testWithMaximumLength_Zero() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new DiceLimits().withMaximumLength(0));
+    }
+
+}
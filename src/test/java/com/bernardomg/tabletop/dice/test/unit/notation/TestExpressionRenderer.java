@@ -0,0 +1,106 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.unit.notation;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.ExpressionRenderer;
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.MultiplicationOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+
+@DisplayName("Tests for ExpressionRenderer")
+public final class TestExpressionRenderer {
+
+    public TestExpressionRenderer() {
+        super();
+    }
+
+    @Test
+    @DisplayName("The text is written into any appendable")
+    public final void testRender_Appendable() throws IOException {
+        final StringWriter writer;
+
+        writer = new StringWriter();
+        writer.append("roll: ");
+
+        new ExpressionRenderer().render(new AdditionOperation(
+                DefaultDiceOperand.valueOf(1, 6), new IntegerOperand(2)),
+                writer);
+
+        Assertions.assertEquals("roll: 1d6+2", writer.toString());
+    }
+
+    @Test
+    @DisplayName("The text of the operations is kept after the first request")
+    public final void testRender_Cached() {
+        final DiceNotationExpression expression;
+
+        expression = new AdditionOperation(DefaultDiceOperand.valueOf(1, 6),
+                new IntegerOperand(2));
+
+        Assertions.assertSame(expression.getExpression(),
+                expression.getExpression());
+    }
+
+    @Test
+    @DisplayName("Deep trees are rendered")
+    public final void testRender_Deep() {
+        final StringBuilder expected;
+        DiceNotationExpression expression;
+
+        expected = new StringBuilder("1");
+        expression = new IntegerOperand(1);
+        for (int i = 0; i < 100000; i++) {
+            expression = new AdditionOperation(expression,
+                    new IntegerOperand(1));
+            expected.append("+1");
+        }
+
+        Assertions.assertEquals(expected.toString(),
+                expression.getExpression());
+    }
+
+    @Test
+    @DisplayName("All the operations are rendered with their symbols")
+    public final void testRender_Operations() {
+        final DiceNotationExpression expression;
+
+        expression = new DivisionOperation(
+                new MultiplicationOperation(
+                        new SubtractionOperation(
+                                DefaultDiceOperand.valueOf(-2, 8),
+                                new IntegerOperand(-3)),
+                        new IntegerOperand(4)),
+                new AdditionOperation(new IntegerOperand(5),
+                        DefaultDiceOperand.valueOf(1, 20)));
+
+        Assertions.assertEquals("-2d8--3*4/5+1d20",
+                new ExpressionRenderer().render(expression));
+    }
+
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.unit.notation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.Notation;
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.MultiplicationOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+
+@DisplayName("Tests for Notation")
+public final class TestNotation {
+
+    public TestNotation() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Each operation is applied over the expression built so far")
+    public final void testBuild_Chain() {
+        final DiceNotationExpression expression;
+
+        expression = Notation.dice(2, 6).plus(3).times(2).build();
+
+        Assertions.assertEquals(
+                new MultiplicationOperation(
+                        new AdditionOperation(DefaultDiceOperand.valueOf(2, 6),
+                                new IntegerOperand(3)),
+                        new IntegerOperand(2)),
+                expression);
+    }
+
+    @Test
+    @DisplayName("The operations create the expected nodes")
+    public final void testBuild_Operations() {
+        final Notation base;
+
+        base = Notation.dice(1, 6);
+
+        Assertions
+                .assertTrue(base.plus(1).build() instanceof AdditionOperation);
+        Assertions.assertTrue(
+                base.minus(1).build() instanceof SubtractionOperation);
+        Assertions.assertTrue(
+                base.times(1).build() instanceof MultiplicationOperation);
+        Assertions.assertTrue(
+                base.dividedBy(1).build() instanceof DivisionOperation);
+        Assertions.assertTrue(base.plus(Notation.constant(1))
+                .build() instanceof AdditionOperation);
+        Assertions.assertTrue(base.minus(Notation.constant(1))
+                .build() instanceof SubtractionOperation);
+        Assertions.assertTrue(base.times(Notation.constant(1))
+                .build() instanceof MultiplicationOperation);
+        Assertions.assertTrue(base.dividedBy(Notation.constant(1))
+                .build() instanceof DivisionOperation);
+    }
+
+    @Test
+    @DisplayName("Builders are not modified by the operations")
+    public final void testBuild_Reused() {
+        final Notation base;
+
+        base = Notation.dice(1, 20);
+        base.plus(5);
+
+        Assertions.assertEquals(DefaultDiceOperand.valueOf(1, 20),
+                base.build());
+        Assertions.assertEquals("1d20+5", base.plus(5).build().getExpression());
+        Assertions.assertEquals("1d20-2",
+                base.minus(2).build().getExpression());
+    }
+
+    @Test
+    @DisplayName("Common leaves are shared")
+    public final void testBuild_SharedLeaves() {
+        final BinaryOperation first;
+        final BinaryOperation second;
+
+        first = (BinaryOperation) Notation.dice(1, 6).plus(2).build();
+        second = (BinaryOperation) Notation.dice(1, 6).plus(2).build();
+
+        Assertions.assertSame(first.getLeft(), second.getLeft());
+        Assertions.assertSame(first.getRight(), second.getRight());
+    }
+
+    @Test
+    @DisplayName("Null operands are rejected")
+    public final void testPlus_Null() {
+        Assertions.assertThrows(NullPointerException.class,
+                () -> Notation.constant(1).plus((Notation) null));
+    }
+
+}
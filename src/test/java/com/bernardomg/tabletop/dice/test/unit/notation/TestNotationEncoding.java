@@ -0,0 +1,194 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.unit.notation;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.NotationDecoder;
+import com.bernardomg.tabletop.dice.notation.NotationEncoder;
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.DivisionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.MultiplicationOperation;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
+
+@DisplayName("Tests for NotationEncoder and NotationDecoder")
+public final class TestNotationEncoding {
+
+    private final NotationDecoder decoder = new NotationDecoder();
+
+    private final NotationEncoder encoder = new NotationEncoder();
+
+    public TestNotationEncoding() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Truncated data is rejected")
+    public final void testDecode_Truncated() {
+        Assertions.assertThrows(BufferUnderflowException.class,
+                () -> decoder.decode(new byte[] { 1, 3, 2, 2, 12 }));
+    }
+
+    @Test
+    @DisplayName("Unknown opcodes are rejected")
+    public final void testDecode_UnknownOpcode() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> decoder.decode(new byte[] { 1, 99 }));
+    }
+
+    @Test
+    @DisplayName("Unknown versions are rejected")
+    public final void testDecode_UnknownVersion() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> decoder.decode(new byte[] { 2, 1, 4 }));
+    }
+
+    @Test
+    @DisplayName("The encoding is stable")
+    public final void testEncode_Bytes() {
+        final byte[] bytes;
+
+        bytes = encoder.encode(new AdditionOperation(
+                DefaultDiceOperand.valueOf(1, 6), new IntegerOperand(2)));
+
+        Assertions.assertArrayEquals(new byte[] { 1, 3, 2, 2, 12, 1, 4 },
+                bytes);
+    }
+
+    @Test
+    @DisplayName("Small values take a single byte, and big values up to five")
+    public final void testEncode_Size() {
+        Assertions.assertEquals(3,
+                encoder.encode(new IntegerOperand(-64)).length);
+        Assertions.assertEquals(7,
+                encoder.encode(new IntegerOperand(Integer.MIN_VALUE)).length);
+    }
+
+    @Test
+    @DisplayName("Unsupported nodes are rejected")
+    public final void testEncode_Unsupported() {
+        final DiceNotationExpression unknown;
+
+        unknown = Mockito.mock(DiceNotationExpression.class);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> encoder.encode(
+                        new AdditionOperation(unknown, new IntegerOperand(1))));
+    }
+
+    @Test
+    @DisplayName("Additions are read back")
+    public final void testRoundTrip_Addition() {
+        assertRoundTrip(new AdditionOperation(new IntegerOperand(1),
+                DefaultDiceOperand.valueOf(2, 8)));
+    }
+
+    @Test
+    @DisplayName("Constants are read back")
+    public final void testRoundTrip_Constant() {
+        assertRoundTrip(new IntegerOperand(0));
+        assertRoundTrip(new IntegerOperand(-5));
+        assertRoundTrip(new IntegerOperand(Integer.MAX_VALUE));
+        assertRoundTrip(new IntegerOperand(Integer.MIN_VALUE));
+    }
+
+    @Test
+    @DisplayName("Dice are read back")
+    public final void testRoundTrip_Dice() {
+        assertRoundTrip(DefaultDiceOperand.valueOf(1, 6));
+        assertRoundTrip(DefaultDiceOperand.valueOf(0, -1));
+        assertRoundTrip(DefaultDiceOperand.valueOf(1000, 100000));
+    }
+
+    @Test
+    @DisplayName("Divisions are read back")
+    public final void testRoundTrip_Division() {
+        assertRoundTrip(new DivisionOperation(new IntegerOperand(10),
+                new IntegerOperand(3)));
+    }
+
+    @Test
+    @DisplayName("Multiplications are read back")
+    public final void testRoundTrip_Multiplication() {
+        assertRoundTrip(new MultiplicationOperation(new IntegerOperand(2),
+                DefaultDiceOperand.valueOf(1, 20)));
+    }
+
+    @Test
+    @DisplayName("Products are read back")
+    public final void testRoundTrip_Product() {
+        assertRoundTrip(new ProductOperation(new IntegerOperand(2),
+                DefaultDiceOperand.valueOf(1, 6), new IntegerOperand(3)));
+    }
+
+    @Test
+    @DisplayName("Subtractions are read back")
+    public final void testRoundTrip_Subtraction() {
+        assertRoundTrip(new SubtractionOperation(
+                DefaultDiceOperand.valueOf(1, 6), new IntegerOperand(1)));
+    }
+
+    @Test
+    @DisplayName("Sums are read back with their signs")
+    public final void testRoundTrip_Sum() {
+        final DiceNotationExpression[] operands;
+        final boolean[] subtracted;
+
+        operands = new DiceNotationExpression[11];
+        subtracted = new boolean[operands.length];
+        for (int i = 0; i < operands.length; i++) {
+            operands[i] = new IntegerOperand(i);
+            subtracted[i] = (i % 3) == 2;
+        }
+        // Past the first byte of signs
+        subtracted[9] = true;
+
+        assertRoundTrip(new SumOperation(operands, subtracted));
+    }
+
+    private final void assertRoundTrip(
+            final DiceNotationExpression expression) {
+        final DiceNotationExpression decoded;
+        final ByteBuffer buffer;
+
+        decoded = decoder.decode(encoder.encode(expression));
+
+        Assertions.assertEquals(expression, decoded);
+        Assertions.assertEquals(expression.getExpression(),
+                decoded.getExpression());
+
+        buffer = ByteBuffer.allocate(64);
+        encoder.encode(expression, buffer);
+        buffer.flip();
+
+        Assertions.assertEquals(expression, decoder.decode(buffer));
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+}
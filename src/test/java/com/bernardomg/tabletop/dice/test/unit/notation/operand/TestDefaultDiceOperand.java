@@ -21,6 +21,7 @@
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import com.bernardomg.tabletop.dice.DefaultDice;
 import com.bernardomg.tabletop.dice.Dice;
 import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
 import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
@@ -47,4 +48,45 @@ public final void testTextExpression() {
         Assertions.assertEquals("2d6", diceOperand.getExpression());
     }
 
+    @Test
+    @DisplayName("Operands for common dice are shared, along their dice")
+    public final void testValueOf_Common_Shared() {
+        final DefaultDiceOperand operand;
+
+        operand = DefaultDiceOperand.valueOf(2, 6);
+
+        Assertions.assertSame(operand, DefaultDiceOperand.valueOf(2, 6));
+        Assertions.assertSame(DefaultDice.valueOf(2, 6), operand.getDice());
+        Assertions.assertEquals(new DefaultDiceOperand(new DefaultDice(2, 6)),
+                operand);
+    }
+
+    @Test
+    @DisplayName("Operands are shared for the same dice as the shared dice")
+    public final void testValueOf_SameAsDice() {
+        final int[][] values;
+
+        values = new int[][] { { -10, -10 }, { 20, 100 }, { -11, 6 },
+                { 21, 6 }, { 2, -11 }, { 2, 101 } };
+        for (final int[] value : values) {
+            Assertions.assertEquals(
+                    DefaultDice.valueOf(value[0], value[1]) == DefaultDice
+                            .valueOf(value[0], value[1]),
+                    DefaultDiceOperand.valueOf(value[0],
+                            value[1]) == DefaultDiceOperand.valueOf(value[0],
+                                    value[1]));
+        }
+    }
+
+    @Test
+    @DisplayName("Operands for uncommon dice are not shared")
+    public final void testValueOf_Uncommon_NotShared() {
+        Assertions.assertNotSame(DefaultDiceOperand.valueOf(1000, 6),
+                DefaultDiceOperand.valueOf(1000, 6));
+        Assertions.assertNotSame(DefaultDiceOperand.valueOf(1, 1000),
+                DefaultDiceOperand.valueOf(1, 1000));
+        Assertions.assertEquals(DefaultDiceOperand.valueOf(1, 1000),
+                DefaultDiceOperand.valueOf(1, 1000));
+    }
+
 }
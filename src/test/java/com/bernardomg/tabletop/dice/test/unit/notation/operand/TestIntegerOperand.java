@@ -50,4 +50,26 @@ public final void testTextExpression_negative() {
         Assertions.assertEquals("-1", operand.getExpression());
     }
 
+    @Test
+    @DisplayName("Big values are not shared")
+    public final void testValueOf_Big_NotShared() {
+        Assertions.assertNotSame(IntegerOperand.valueOf(128),
+                IntegerOperand.valueOf(128));
+        Assertions.assertEquals(IntegerOperand.valueOf(128),
+                IntegerOperand.valueOf(128));
+    }
+
+    @Test
+    @DisplayName("Small values are shared")
+    public final void testValueOf_Small_Shared() {
+        Assertions.assertSame(IntegerOperand.valueOf(-128),
+                IntegerOperand.valueOf(-128));
+        Assertions.assertSame(IntegerOperand.valueOf(3),
+                IntegerOperand.valueOf(3));
+        Assertions.assertSame(IntegerOperand.valueOf(127),
+                IntegerOperand.valueOf(127));
+        Assertions.assertEquals(new IntegerOperand(3),
+                IntegerOperand.valueOf(3));
+    }
+
 }
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.unit.notation.operation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SubtractionOperation;
+
+@DisplayName("Tests for the equality of binary operations")
+public final class TestBinaryOperationEquality {
+
+    public TestBinaryOperationEquality() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Deep equal trees are equal, and have the same hash code")
+    public final void testEquals_Deep_Equal() {
+        final DiceNotationExpression first;
+        final DiceNotationExpression second;
+
+        first = buildSum(100000, 1);
+        second = buildSum(100000, 1);
+
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    @DisplayName("Deep trees differing only at the deepest leaf are not equal")
+    public final void testEquals_Deep_NotEqual() {
+        final DiceNotationExpression first;
+        final DiceNotationExpression second;
+
+        first = buildSum(100000, 1);
+        second = buildSum(100000, 2);
+
+        Assertions.assertNotEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("Operations with the same operands but different operators are not equal")
+    public final void testEquals_DifferentOperator() {
+        final DiceNotationExpression first;
+        final DiceNotationExpression second;
+
+        first = new AdditionOperation(new IntegerOperand(1),
+                new IntegerOperand(2));
+        second = new SubtractionOperation(new IntegerOperand(1),
+                new IntegerOperand(2));
+
+        Assertions.assertNotEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("Operations with swapped operands are not equal")
+    public final void testEquals_Swapped() {
+        final DiceNotationExpression first;
+        final DiceNotationExpression second;
+
+        first = new AdditionOperation(new IntegerOperand(1),
+                new IntegerOperand(2));
+        second = new AdditionOperation(new IntegerOperand(2),
+                new IntegerOperand(1));
+
+        Assertions.assertNotEquals(first, second);
+    }
+
+    private final DiceNotationExpression buildSum(final int length,
+            final int first) {
+        DiceNotationExpression expression;
+
+        expression = new IntegerOperand(first);
+        for (int i = 0; i < length; i++) {
+            expression = new AdditionOperation(expression,
+                    new IntegerOperand(1));
+        }
+
+        return expression;
+    }
+
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.unit.notation.operation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.notation.operation.Operator;
+import com.bernardomg.tabletop.dice.notation.operation.OperatorRegistry;
+
+@DisplayName("Tests for OperatorRegistry")
+public final class TestOperatorRegistry {
+
+    public TestOperatorRegistry() {
+        super();
+    }
+
+    @Test
+    @DisplayName("The default registry contains the library operators")
+    public final void testGetOperator_Default() {
+        final OperatorRegistry registry;
+
+        registry = OperatorRegistry.getDefault();
+
+        Assertions.assertSame(Operator.ADDITION, registry.getOperator('+'));
+        Assertions.assertSame(Operator.SUBTRACTION, registry.getOperator('-'));
+        Assertions.assertSame(Operator.MULTIPLICATION,
+                registry.getOperator('*'));
+        Assertions.assertSame(Operator.DIVISION, registry.getOperator('/'));
+    }
+
+    @Test
+    @DisplayName("Unknown symbols are rejected")
+    public final void testGetOperator_Unknown() {
+        final OperatorRegistry registry;
+
+        registry = OperatorRegistry.getDefault();
+
+        Assertions.assertFalse(registry.isRegistered('%'));
+        Assertions.assertFalse(registry.isRegistered('÷'));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> registry.getOperator('%'));
+    }
+
+    @Test
+    @DisplayName("Adding an operator returns a new registry")
+    public final void testWithOperator_Added() {
+        final Operator modulo;
+        final OperatorRegistry registry;
+
+        modulo = new Operator('%', 2, (a, b) -> a % b);
+        registry = OperatorRegistry.getDefault().withOperator(modulo);
+
+        Assertions.assertSame(modulo, registry.getOperator('%'));
+        Assertions.assertSame(Operator.ADDITION, registry.getOperator('+'));
+        Assertions.assertFalse(OperatorRegistry.getDefault().isRegistered('%'));
+    }
+
+    @Test
+    @DisplayName("Symbols out of the ASCII range are rejected")
+    public final void testWithOperator_NotAscii() {
+        final Operator operator;
+
+        operator = new Operator('÷', 2, (a, b) -> a / b);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> OperatorRegistry.getDefault().withOperator(operator));
+    }
+
+    @Test
+    @DisplayName("Adding an operator replaces the one with the same symbol")
+    public final void testWithOperator_Replaced() {
+        final Operator division;
+        final OperatorRegistry registry;
+
+        division = new Operator('/', 2, Math::floorDiv);
+        registry = OperatorRegistry.getDefault().withOperator(division);
+
+        Assertions.assertSame(division, registry.getOperator('/'));
+        Assertions.assertSame(Operator.DIVISION,
+                OperatorRegistry.getDefault().getOperator('/'));
+    }
+
+}
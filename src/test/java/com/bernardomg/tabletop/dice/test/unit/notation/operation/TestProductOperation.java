@@ -0,0 +1,58 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.unit.notation.operation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+
+@DisplayName("Tests for ProductOperation")
+public final class TestProductOperation {
+
+    public TestProductOperation() {
+        super();
+    }
+
+    @Test
+    @DisplayName("All the operands are multiplied")
+    public final void testApply() {
+        final ProductOperation operation;
+
+        operation = new ProductOperation(new IntegerOperand(1),
+                new IntegerOperand(2), new IntegerOperand(3));
+
+        Assertions.assertEquals(-24,
+                operation.applyAsInt(new int[] { 5, 2, -3, 4 }, 1));
+    }
+
+    @Test
+    @DisplayName("The text expression is generated correctly")
+    public final void testTextExpression() {
+        final ProductOperation operation;
+
+        operation = new ProductOperation(new IntegerOperand(2),
+                DefaultDiceOperand.valueOf(1, 6), new IntegerOperand(-3));
+
+        Assertions.assertEquals("2*1d6*-3", operation.getExpression());
+    }
+
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.unit.notation.operation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.AdditionOperation;
+import com.bernardomg.tabletop.dice.notation.operation.BinaryOperation;
+import com.bernardomg.tabletop.dice.notation.operation.Operator;
+import com.bernardomg.tabletop.dice.notation.operation.RegisteredOperation;
+
+@DisplayName("Tests for RegisteredOperation")
+public final class TestRegisteredOperation {
+
+    private final Operator maximum = new Operator('>', 3, Math::max);
+
+    public TestRegisteredOperation() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Operations with the same operator are equal")
+    public final void testEquals() {
+        final Operator other;
+
+        other = new Operator('>', 3, Math::max);
+
+        Assertions.assertEquals(
+                maximum.create(new IntegerOperand(1), new IntegerOperand(2)),
+                maximum.create(new IntegerOperand(1), new IntegerOperand(2)));
+        Assertions.assertNotEquals(
+                maximum.create(new IntegerOperand(1), new IntegerOperand(2)),
+                other.create(new IntegerOperand(1), new IntegerOperand(2)));
+    }
+
+    @Test
+    @DisplayName("The operation is evaluated through its operator")
+    public final void testEvaluate() {
+        final BinaryOperation operation;
+
+        operation = new RegisteredOperation(new IntegerOperand(1),
+                new IntegerOperand(2), maximum);
+
+        Assertions.assertEquals(5,
+                operation.getIntOperation().applyAsInt(5, 3));
+        Assertions.assertEquals(7, operation.getOperation().apply(2, 7));
+    }
+
+    @Test
+    @DisplayName("The library operations return their operators")
+    public final void testGetOperator_Library() {
+        final BinaryOperation operation;
+
+        operation = Operator.SUBTRACTION.create(new IntegerOperand(1),
+                new IntegerOperand(2));
+
+        Assertions.assertSame(Operator.SUBTRACTION, operation.getOperator());
+        Assertions.assertSame(Operator.ADDITION,
+                new AdditionOperation(new IntegerOperand(1),
+                        new IntegerOperand(2)).getOperator());
+    }
+
+    @Test
+    @DisplayName("The text expression uses the operator symbol")
+    public final void testTextExpression() {
+        final BinaryOperation operation;
+
+        operation = maximum.create(DefaultDiceOperand.valueOf(1, 6),
+                new IntegerOperand(3));
+
+        Assertions.assertEquals("1d6>3", operation.getExpression());
+    }
+
+}
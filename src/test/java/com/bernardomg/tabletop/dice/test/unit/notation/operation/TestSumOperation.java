@@ -0,0 +1,98 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.unit.notation.operation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.DefaultDiceOperand;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.notation.operation.ProductOperation;
+import com.bernardomg.tabletop.dice.notation.operation.SumOperation;
+
+@DisplayName("Tests for SumOperation")
+public final class TestSumOperation {
+
+    public TestSumOperation() {
+        super();
+    }
+
+    @Test
+    @DisplayName("The operands are added or subtracted according to their signs")
+    public final void testApply() {
+        final SumOperation operation;
+
+        operation = new SumOperation(
+                new DiceNotationExpression[] { new IntegerOperand(1),
+                        new IntegerOperand(2), new IntegerOperand(3) },
+                new boolean[] { false, true, false });
+
+        Assertions.assertEquals(1 - 20 + 300,
+                operation.applyAsInt(new int[] { 0, 1, 20, 300 }, 1));
+    }
+
+    @Test
+    @DisplayName("Sums with different signs are not equal")
+    public final void testEquals_DifferentSigns() {
+        final DiceNotationExpression[] operands;
+
+        operands = new DiceNotationExpression[] { new IntegerOperand(1),
+                new IntegerOperand(2) };
+
+        Assertions.assertEquals(new SumOperation(operands),
+                new SumOperation(operands, new boolean[2]));
+        Assertions.assertNotEquals(new SumOperation(operands),
+                new SumOperation(operands, new boolean[] { false, true }));
+        Assertions.assertNotEquals(new SumOperation(operands),
+                new ProductOperation(operands));
+    }
+
+    @Test
+    @DisplayName("A single operand is rejected")
+    public final void testSingleOperand() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SumOperation(new IntegerOperand(1)));
+    }
+
+    @Test
+    @DisplayName("The first operand can't be subtracted")
+    public final void testSubtracted_First() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SumOperation(
+                        new DiceNotationExpression[] { new IntegerOperand(1),
+                                new IntegerOperand(2) },
+                        new boolean[] { true, false }));
+    }
+
+    @Test
+    @DisplayName("The text expression is generated correctly")
+    public final void testTextExpression() {
+        final SumOperation operation;
+
+        operation = new SumOperation(
+                new DiceNotationExpression[] { DefaultDiceOperand.valueOf(1, 6),
+                        new IntegerOperand(2), DefaultDiceOperand.valueOf(1, 4),
+                        new IntegerOperand(-3) },
+                new boolean[] { false, false, true, false });
+
+        Assertions.assertEquals("1d6+2-1d4+-3", operation.getExpression());
+    }
+
+}
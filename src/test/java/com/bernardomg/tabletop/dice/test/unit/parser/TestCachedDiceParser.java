@@ -0,0 +1,175 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.bernardomg.tabletop.dice.test.unit.parser;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.parser.CachedDiceParser;
+import com.bernardomg.tabletop.dice.parser.DefaultParseDiagnostic;
+import com.bernardomg.tabletop.dice.parser.DefaultParseResult;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.ParseDiagnostic;
+import com.bernardomg.tabletop.dice.parser.ParseResult;
+
+@DisplayName("Tests for CachedDiceParser")
+public final class TestCachedDiceParser {
+
+    public TestCachedDiceParser() {
+        super();
+    }
+
+    @Test
+    @DisplayName("After clearing the cache the expressions are parsed again")
+    public final void testParse_Cleared_ParsedAgain() {
+        final DiceParser wrapped;
+        final CachedDiceParser parser;
+
+        wrapped = Mockito.mock(DiceParser.class);
+        Mockito.when(wrapped.parse("1")).thenReturn(new IntegerOperand(1));
+
+        parser = new CachedDiceParser(wrapped);
+
+        parser.parse("1");
+        parser.clear();
+        parser.parse("1");
+
+        Mockito.verify(wrapped, Mockito.times(2)).parse("1");
+    }
+
+    @Test
+    @DisplayName("Errors are not cached")
+    public final void testParse_Error_NotCached() {
+        final DiceParser wrapped;
+        final CachedDiceParser parser;
+
+        wrapped = Mockito.mock(DiceParser.class);
+        Mockito.when(wrapped.parse(ArgumentMatchers.anyString()))
+                .thenThrow(IllegalStateException.class);
+
+        parser = new CachedDiceParser(wrapped);
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> parser.parse("abc"));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> parser.parse("abc"));
+
+        Mockito.verify(wrapped, Mockito.times(2)).parse("abc");
+        Assertions.assertEquals(0, parser.getSize());
+    }
+
+    @Test
+    @DisplayName("When the cache is full the old expressions are evicted")
+    public final void testParse_Full_Evicts() {
+        final DiceParser wrapped;
+        final CachedDiceParser parser;
+
+        wrapped = Mockito.mock(DiceParser.class);
+        Mockito.when(wrapped.parse(ArgumentMatchers.anyString()))
+                .thenReturn(new IntegerOperand(1));
+
+        parser = new CachedDiceParser(wrapped, 1);
+
+        parser.parse("1");
+        parser.parse("2");
+        parser.parse("1");
+
+        Mockito.verify(wrapped, Mockito.times(2)).parse("1");
+        Assertions.assertEquals(2, parser.getEvictionCount());
+        Assertions.assertEquals(1, parser.getSize());
+    }
+
+    @Test
+    @DisplayName("Repeated expressions are parsed only once")
+    public final void testParse_Repeated_ParsedOnce() {
+        final DiceParser wrapped;
+        final CachedDiceParser parser;
+        final DiceNotationExpression expression;
+
+        expression = new IntegerOperand(1);
+
+        wrapped = Mockito.mock(DiceParser.class);
+        Mockito.when(wrapped.parse("1")).thenReturn(expression);
+
+        parser = new CachedDiceParser(wrapped);
+
+        Assertions.assertSame(expression, parser.parse("1"));
+        Assertions.assertSame(expression, parser.parse("1"));
+        Assertions.assertSame(expression, parser.parse("1"));
+
+        Mockito.verify(wrapped, Mockito.times(1)).parse("1");
+        Assertions.assertEquals(1, parser.getMissCount());
+        Assertions.assertEquals(2, parser.getHitCount());
+    }
+
+    @Test
+    @DisplayName("Invalid results are not cached")
+    public final void testTryParse_Invalid_NotCached() {
+        final DiceParser wrapped;
+        final CachedDiceParser parser;
+        final ParseDiagnostic diagnostic;
+
+        diagnostic = new DefaultParseDiagnostic(1, 0, "a",
+                Collections.emptyList(), "token recognition error at: 'a'");
+
+        wrapped = Mockito.mock(DiceParser.class);
+        Mockito.when(wrapped.tryParse("abc")).thenReturn(
+                new DefaultParseResult(Collections.singletonList(diagnostic)));
+
+        parser = new CachedDiceParser(wrapped);
+
+        Assertions.assertFalse(parser.tryParse("abc").isValid());
+        Assertions.assertFalse(parser.tryParse("abc").isValid());
+
+        Mockito.verify(wrapped, Mockito.times(2)).tryParse("abc");
+        Assertions.assertEquals(0, parser.getSize());
+    }
+
+    @Test
+    @DisplayName("Valid results are cached, and shared with parsing")
+    public final void testTryParse_Valid_Cached() {
+        final DiceParser wrapped;
+        final CachedDiceParser parser;
+        final DiceNotationExpression expression;
+        final ParseResult result;
+
+        expression = new IntegerOperand(1);
+
+        wrapped = Mockito.mock(DiceParser.class);
+        Mockito.when(wrapped.tryParse("1"))
+                .thenReturn(new DefaultParseResult(expression));
+
+        parser = new CachedDiceParser(wrapped);
+
+        parser.tryParse("1");
+        result = parser.tryParse("1");
+
+        Assertions.assertSame(expression, result.getExpression());
+        Assertions.assertSame(expression, parser.parse("1"));
+
+        Mockito.verify(wrapped, Mockito.times(1)).tryParse("1");
+        Mockito.verify(wrapped, Mockito.never()).parse("1");
+    }
+
+}
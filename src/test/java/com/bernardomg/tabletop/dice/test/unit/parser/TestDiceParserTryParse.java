@@ -0,0 +1,99 @@
+/**
+ * Copyright 2014-2020 the original author or authors
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.bernardomg.tabletop.dice.test.unit.parser;
+
+import java.util.EmptyStackException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.bernardomg.tabletop.dice.notation.DiceNotationExpression;
+import com.bernardomg.tabletop.dice.notation.operand.IntegerOperand;
+import com.bernardomg.tabletop.dice.parser.DiceParser;
+import com.bernardomg.tabletop.dice.parser.ParseDiagnostic;
+import com.bernardomg.tabletop.dice.parser.ParseResult;
+import com.google.common.collect.Iterables;
+
+@DisplayName("Tests for the default tryParse of DiceParser")
+public final class TestDiceParserTryParse {
+
+    public TestDiceParserTryParse() {
+        super();
+    }
+
+    @Test
+    @DisplayName("An exception is turned into a diagnostic")
+    public final void testTryParse_Exception() {
+        final DiceParser parser;
+        final ParseResult result;
+        final ParseDiagnostic diagnostic;
+
+        parser = Mockito.mock(DiceParser.class, Mockito.CALLS_REAL_METHODS);
+        Mockito.doThrow(new IllegalStateException("Failed to parse"))
+                .when(parser).parse("abc");
+
+        result = parser.tryParse("abc");
+
+        Assertions.assertFalse(result.isValid());
+        Assertions.assertNull(result.getExpression());
+
+        diagnostic = Iterables.getOnlyElement(result.getDiagnostics());
+        Assertions.assertEquals(1, diagnostic.getLine());
+        Assertions.assertEquals(0, diagnostic.getCharPositionInLine());
+        Assertions.assertEquals("Failed to parse", diagnostic.getMessage());
+    }
+
+    @Test
+    @DisplayName("An exception without message is described by its class")
+    public final void testTryParse_Exception_NoMessage() {
+        final DiceParser parser;
+        final ParseResult result;
+
+        parser = Mockito.mock(DiceParser.class, Mockito.CALLS_REAL_METHODS);
+        Mockito.doThrow(new EmptyStackException()).when(parser).parse("abc");
+
+        result = parser.tryParse("abc");
+
+        Assertions.assertEquals(
+                "invalid expression due to java.util.EmptyStackException",
+                Iterables.getOnlyElement(result.getDiagnostics())
+                        .getMessage());
+    }
+
+    @Test
+    @DisplayName("A valid expression returns the parsed expression")
+    public final void testTryParse_Valid() {
+        final DiceParser parser;
+        final DiceNotationExpression expression;
+        final ParseResult result;
+
+        expression = new IntegerOperand(1);
+
+        parser = Mockito.mock(DiceParser.class, Mockito.CALLS_REAL_METHODS);
+        Mockito.doReturn(expression).when(parser).parse("1");
+
+        result = parser.tryParse("1");
+
+        Assertions.assertTrue(result.isValid());
+        Assertions.assertSame(expression, result.getExpression());
+        Assertions.assertTrue(Iterables.isEmpty(result.getDiagnostics()));
+    }
+
+}
@@ -23,6 +23,7 @@
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.bernardomg.tabletop.dice.DefaultDice;
 import com.bernardomg.tabletop.dice.random.NumberGenerator;
 import com.bernardomg.tabletop.dice.random.RandomNumberGenerator;
 
@@ -87,4 +88,33 @@ public final void testGenerate_ZeroMax_Zero() {
         Assertions.assertEquals((Integer) (0), generated);
     }
 
+    @Test
+    @DisplayName("Long totals for big pools are not wrapped")
+    public final void testGenerateLongTotal_BigPool() {
+        final NumberGenerator generator;
+        final long total;
+
+        generator = new RandomNumberGenerator();
+
+        total = generator
+                .generateLongTotal(DefaultDice.valueOf(100000, 100000));
+
+        Assertions.assertTrue(total > Integer.MAX_VALUE);
+        Assertions.assertTrue(total <= 10000000000L);
+    }
+
+    @Test
+    @DisplayName("Long totals for negative pools are negative")
+    public final void testGenerateLongTotal_Negative() {
+        final NumberGenerator generator;
+        final long total;
+
+        generator = new RandomNumberGenerator();
+
+        total = generator.generateLongTotal(DefaultDice.valueOf(-3, 6));
+
+        Assertions.assertTrue(total <= -3);
+        Assertions.assertTrue(total >= -18);
+    }
+
 }